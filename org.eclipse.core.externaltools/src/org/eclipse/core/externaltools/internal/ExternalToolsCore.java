@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.externaltools.internal;
 
+import org.eclipse.core.externaltools.internal.launchConfigurations.CommandLineCache;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Plugin;
@@ -50,6 +51,7 @@ public class ExternalToolsCore extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		CommandLineCache.shutdown();
 		plugin = null;
 		super.stop(context);
 	}
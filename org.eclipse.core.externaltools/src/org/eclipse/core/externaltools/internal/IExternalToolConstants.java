@@ -221,4 +221,13 @@ public interface IExternalToolConstants {
 	 * <code>true</code>.
 	 */
 	String ATTR_INCLUDE_REFERENCED_PROJECTS = UI_PLUGIN_ID + ".ATTR_INCLUDE_REFERENCED_PROJECTS"; //$NON-NLS-1$
+
+	/**
+	 * Boolean attribute identifying whether an external tool builder writes
+	 * the files changed since the last build to a manifest file before it
+	 * runs the tool. The location of the manifest is available to the tool
+	 * through the <code>build_manifest</code> variable. Default value is
+	 * <code>false</code>.
+	 */
+	String ATTR_BUILD_MANIFEST = UI_PLUGIN_ID + ".ATTR_BUILD_MANIFEST"; //$NON-NLS-1$
 }
@@ -26,6 +26,7 @@ import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.RefreshUtil;
 import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.internal.core.RefreshTracker;
 
 /**
  * Refreshes resources as specified by a launch configuration, when
@@ -35,12 +36,27 @@ public class BackgroundResourceRefresher implements IDebugEventSetListener  {
 
 	private ILaunchConfiguration fConfiguration;
 	private IProcess fProcess;
+	private RefreshTracker fTracker;
 
 
 
 	public BackgroundResourceRefresher(ILaunchConfiguration configuration, IProcess process) {
+		this(configuration, process, null);
+	}
+
+	/**
+	 * Creates a refresher which only refreshes the resources changed while the
+	 * process runs if the given tracker is not <code>null</code>.
+	 *
+	 * @param configuration launch configuration
+	 * @param process process to wait for
+	 * @param tracker changes recorded since the process started, or
+	 *            <code>null</code> to refresh the whole scope
+	 */
+	public BackgroundResourceRefresher(ILaunchConfiguration configuration, IProcess process, RefreshTracker tracker) {
 		fConfiguration = configuration;
 		fProcess = process;
+		fTracker = tracker;
 	}
 
 	/**
@@ -77,7 +93,11 @@ public class BackgroundResourceRefresher implements IDebugEventSetListener  {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
-					RefreshUtil.refreshResources(fConfiguration, monitor);
+					if (fTracker != null) {
+						fTracker.refresh(monitor);
+					} else {
+						RefreshUtil.refreshResources(fConfiguration, monitor);
+					}
 				} catch (CoreException e) {
 					ExternalToolsCore.log(e);
 					return e.getStatus();
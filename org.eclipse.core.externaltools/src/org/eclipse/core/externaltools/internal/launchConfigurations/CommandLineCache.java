@@ -0,0 +1,302 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.externaltools.internal.launchConfigurations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.externaltools.internal.IExternalToolConstants;
+import org.eclipse.core.externaltools.internal.model.ExternalToolBuilder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.IValueVariableListener;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchManager;
+
+/**
+ * Caches the resolved command lines of external tool configurations, so
+ * builders that run the same tool for every build do not substitute the
+ * variables of the configuration again.
+ * <p>
+ * A command line is cached by the name and attributes of the configuration,
+ * and for builders the project and type of the build. Only command lines
+ * referencing nothing but dynamic variables whose values do not depend on the
+ * context, and value variables whose values reference such variables only,
+ * are cached. The cache is cleared when value
+ * variables change.
+ * </p>
+ */
+public final class CommandLineCache implements IValueVariableListener {
+
+	/**
+	 * Maximum number of cached command lines.
+	 */
+	private static final int CAPACITY = 32;
+
+	/**
+	 * Dynamic variables whose values only depend on the arguments of the
+	 * reference, or on the build project and type.
+	 */
+	private static final Set<String> CONTEXT_FREE_VARIABLES = new HashSet<>(Arrays.asList(
+			"env_var", //$NON-NLS-1$
+			"eclipse_home", //$NON-NLS-1$
+			"build_type", //$NON-NLS-1$
+			"build_project", //$NON-NLS-1$
+			"build_manifest")); //$NON-NLS-1$
+
+	/**
+	 * Dynamic variables whose values do not depend on the context if they are
+	 * referenced without argument.
+	 */
+	private static final Set<String> CONTEXT_FREE_WITHOUT_ARGUMENT = Collections.singleton("workspace_loc"); //$NON-NLS-1$
+
+	private static CommandLineCache fgDefault;
+
+	/**
+	 * Command line of a configuration with all variables resolved.
+	 */
+	public static final class ResolvedCommand {
+		final IPath location;
+		final IPath workingDirectory;
+		final String[] commandLine;
+		final String[] environment;
+
+		/**
+		 * Creates a resolved command line.
+		 *
+		 * @param location resolved location of the program
+		 * @param workingDirectory resolved working directory or
+		 *            <code>null</code>
+		 * @param commandLine resolved command line
+		 * @param environment resolved environment or <code>null</code>
+		 */
+		public ResolvedCommand(IPath location, IPath workingDirectory, String[] commandLine, String[] environment) {
+			this.location = location;
+			this.workingDirectory = workingDirectory;
+			this.commandLine = commandLine;
+			this.environment = environment;
+		}
+
+		/**
+		 * Returns whether the resolved location and working directory still
+		 * exist, as verified by {@link ExternalToolsCoreUtil}.
+		 */
+		boolean isValid() {
+			return location.toFile().isFile() && (workingDirectory == null || workingDirectory.toFile().isDirectory());
+		}
+	}
+
+	private static final class Key {
+		private final String fName;
+		private final Map<String, Object> fAttributes;
+		private final IProject fBuildProject;
+		private final String fBuildType;
+		private final int fHashCode;
+
+		Key(String name, Map<String, Object> attributes, IProject buildProject, String buildType) {
+			fName = name;
+			fAttributes = attributes;
+			fBuildProject = buildProject;
+			fBuildType = buildType;
+			fHashCode = Objects.hash(name, attributes, buildProject, buildType);
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return fHashCode == other.fHashCode && fName.equals(other.fName) && Objects.equals(fBuildProject, other.fBuildProject) && Objects.equals(fBuildType, other.fBuildType) && fAttributes.equals(other.fAttributes);
+		}
+	}
+
+	private final Map<Key, ResolvedCommand> fCommands = new LinkedHashMap<Key, ResolvedCommand>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ResolvedCommand> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private CommandLineCache() {
+	}
+
+	/**
+	 * Returns the shared cache, creating it if necessary.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized CommandLineCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new CommandLineCache();
+			getStringVariableManager().addValueVariableListener(fgDefault);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Disposes the shared cache, if created.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			getStringVariableManager().removeValueVariableListener(fgDefault);
+			fgDefault = null;
+		}
+	}
+
+	private static IStringVariableManager getStringVariableManager() {
+		return VariablesPlugin.getDefault().getStringVariableManager();
+	}
+
+	private static Key getKey(ILaunchConfiguration configuration) throws CoreException {
+		return new Key(configuration.getName(), configuration.getAttributes(), ExternalToolBuilder.getBuildProject(), ExternalToolBuilder.getBuildType());
+	}
+
+	/**
+	 * Returns the cached command line of the given configuration.
+	 *
+	 * @param configuration launch configuration
+	 * @return the resolved command line or <code>null</code> if not cached
+	 * @throws CoreException if unable to access the attributes of the
+	 *             configuration
+	 */
+	public ResolvedCommand get(ILaunchConfiguration configuration) throws CoreException {
+		Key key = getKey(configuration);
+		synchronized (fCommands) {
+			ResolvedCommand command = fCommands.get(key);
+			if (command != null && !command.isValid()) {
+				// resolve again to report the missing file
+				fCommands.remove(key);
+				return null;
+			}
+			return command;
+		}
+	}
+
+	/**
+	 * Caches the resolved command line of the given configuration if it does
+	 * not depend on the context it is launched in.
+	 *
+	 * @param configuration launch configuration
+	 * @param command the resolved command line
+	 * @throws CoreException if unable to access the attributes of the
+	 *             configuration
+	 */
+	public void put(ILaunchConfiguration configuration, ResolvedCommand command) throws CoreException {
+		Key key = getKey(configuration);
+		if (!isContextFree(key.fAttributes)) {
+			return;
+		}
+		synchronized (fCommands) {
+			fCommands.put(key, command);
+		}
+	}
+
+	/**
+	 * Returns whether the attributes resolved for a command line only
+	 * reference variables whose values do not depend on the context.
+	 */
+	private static boolean isContextFree(Map<String, Object> attributes) {
+		Object environment = attributes.get(ILaunchManager.ATTR_ENVIRONMENT_VARIABLES);
+		if (environment instanceof Map) {
+			for (Object value : ((Map<?, ?>) environment).values()) {
+				if (value instanceof String && !isContextFree((String) value, new HashSet<>())) {
+					return false;
+				}
+			}
+		}
+		return isContextFree((String) attributes.get(IExternalToolConstants.ATTR_LOCATION), new HashSet<>())
+				&& isContextFree((String) attributes.get(IExternalToolConstants.ATTR_WORKING_DIRECTORY), new HashSet<>())
+				&& isContextFree((String) attributes.get(IExternalToolConstants.ATTR_TOOL_ARGUMENTS), new HashSet<>());
+	}
+
+	/**
+	 * Returns whether the given expression only references variables whose
+	 * values do not depend on the context. The values of value variables are
+	 * checked as well, since they are resolved recursively.
+	 *
+	 * @param expression expression to check or <code>null</code>
+	 * @param valueVariables names of the value variables being checked, to
+	 *            detect cycles
+	 */
+	private static boolean isContextFree(String expression, Set<String> valueVariables) {
+		if (expression == null) {
+			return true;
+		}
+		IStringVariableManager manager = getStringVariableManager();
+		int start = expression.indexOf("${"); //$NON-NLS-1$
+		while (start >= 0) {
+			int end = start + 2;
+			while (end < expression.length() && ":}$".indexOf(expression.charAt(end)) < 0) { //$NON-NLS-1$
+				end++;
+			}
+			String name = expression.substring(start + 2, end);
+			boolean argument = end < expression.length() && expression.charAt(end) == ':';
+			IValueVariable value = manager.getValueVariable(name);
+			if (value != null) {
+				if (!valueVariables.add(name)) {
+					// cyclic reference, not resolvable anyway
+					return false;
+				}
+				boolean contextFree = isContextFree(value.getValue(), valueVariables);
+				valueVariables.remove(name);
+				if (!contextFree) {
+					return false;
+				}
+			} else if (!CONTEXT_FREE_VARIABLES.contains(name) && (argument || !CONTEXT_FREE_WITHOUT_ARGUMENT.contains(name))) {
+				return false;
+			}
+			// nested references are checked as well
+			start = expression.indexOf("${", start + 2); //$NON-NLS-1$
+		}
+		return true;
+	}
+
+	private void clear() {
+		synchronized (fCommands) {
+			fCommands.clear();
+		}
+	}
+
+	@Override
+	public void variablesAdded(IValueVariable[] variables) {
+		clear();
+	}
+
+	@Override
+	public void variablesRemoved(IValueVariable[] variables) {
+		clear();
+	}
+
+	@Override
+	public void variablesChanged(IValueVariable[] variables) {
+		clear();
+	}
+}
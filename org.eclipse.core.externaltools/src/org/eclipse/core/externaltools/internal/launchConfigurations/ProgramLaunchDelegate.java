@@ -18,20 +18,27 @@ package org.eclipse.core.externaltools.internal.launchConfigurations;
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.externaltools.internal.IExternalToolConstants;
+import org.eclipse.core.externaltools.internal.launchConfigurations.CommandLineCache.ResolvedCommand;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.RefreshUtil;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
+import org.eclipse.debug.internal.core.RefreshTracker;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -49,6 +56,12 @@ public class ProgramLaunchDelegate extends LaunchConfigurationDelegate {
 	 */
 	private static final String ATTR_LAUNCH_IN_BACKGROUND = "org.eclipse.debug.ui.ATTR_LAUNCH_IN_BACKGROUND"; //$NON-NLS-1$
 
+	/**
+	 * Interval in milliseconds in which cancellation is checked while waiting
+	 * for a process launched in the foreground.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 100;
+
 	/**
 	 * @see org.eclipse.debug.core.model.ILaunchConfigurationDelegate#launch(org.eclipse.debug.core.ILaunchConfiguration,
 	 *      java.lang.String, org.eclipse.debug.core.ILaunch,
@@ -62,11 +75,101 @@ public class ProgramLaunchDelegate extends LaunchConfigurationDelegate {
 			return;
 		}
 
+		// builders run the same command line for every build
+		CommandLineCache cache = CommandLineCache.getDefault();
+		ResolvedCommand command = cache.get(configuration);
+		if (command == null) {
+			command = resolveCommand(configuration, monitor);
+			if (command == null) {
+				return;
+			}
+			cache.put(configuration, command);
+		}
+		IPath location = command.location;
+		String[] cmdLine = command.commandLine;
+		String[] envp = command.environment;
+		File workingDir = null;
+		if (command.workingDirectory != null) {
+			workingDir = command.workingDirectory.toFile();
+		}
+
+		boolean mergeOutput = configuration.getAttribute(DebugPlugin.ATTR_MERGE_OUTPUT, false);
+		// record changes in the refresh scope while the process runs
+		RefreshTracker tracker = RefreshTracker.start(configuration);
+		try {
+			Process p = DebugPlugin.exec(cmdLine, workingDir, envp, mergeOutput);
+			IProcess process = null;
+
+			// add process type to process attributes
+			Map<String, String> processAttributes = new HashMap<>();
+			String programName = location.lastSegment();
+			String extension = location.getFileExtension();
+			if (extension != null) {
+				programName = programName.substring(0, programName.length()
+						- (extension.length() + 1));
+			}
+			programName = programName.toLowerCase();
+			processAttributes.put(IProcess.ATTR_PROCESS_TYPE, programName);
+
+			if (p != null) {
+				monitor.beginTask(NLS.bind(
+						ExternalToolsProgramMessages.ProgramLaunchDelegate_3,
+						new String[] { configuration.getName() }),
+						IProgressMonitor.UNKNOWN);
+				process = DebugPlugin.newProcess(launch, p, location.toOSString(), processAttributes);
+			}
+			if (p == null || process == null) {
+				if (p != null) {
+					p.destroy();
+				}
+				throw new CoreException(new Status(IStatus.ERROR,
+						IExternalToolConstants.PLUGIN_ID,
+						IExternalToolConstants.ERR_INTERNAL_ERROR,
+						ExternalToolsProgramMessages.ProgramLaunchDelegate_4, null));
+			}
+			process.setAttribute(IProcess.ATTR_CMDLINE, generateCommandLine(cmdLine));
+			process.setAttribute(DebugPlugin.ATTR_LAUNCH_TIMESTAMP, Long.toString(System.currentTimeMillis()));
+
+			if (configuration.getAttribute(ATTR_LAUNCH_IN_BACKGROUND, true)) {
+				// refresh resources after process finishes
+				String scope = configuration.getAttribute(RefreshUtil.ATTR_REFRESH_SCOPE, (String)null);
+				if (scope != null) {
+					BackgroundResourceRefresher refresher = new BackgroundResourceRefresher(configuration, process, tracker);
+					// the refresher owns the tracker now
+					tracker = null;
+					refresher.startBackgroundRefresh();
+				}
+			} else {
+				// wait for process to exit
+				waitForExit(process, monitor);
+
+				// refresh resources
+				if (tracker != null) {
+					RefreshTracker changes = tracker;
+					tracker = null;
+					changes.refresh(monitor);
+				} else {
+					RefreshUtil.refreshResources(configuration, monitor);
+				}
+			}
+		} finally {
+			if (tracker != null) {
+				tracker.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Resolves the variables of the command line of the given configuration.
+	 *
+	 * @return the resolved command line or <code>null</code> if canceled
+	 */
+	private ResolvedCommand resolveCommand(ILaunchConfiguration configuration, IProgressMonitor monitor) throws CoreException {
 		// resolve location
 		IPath location = ExternalToolsCoreUtil.getLocation(configuration);
 
 		if (monitor.isCanceled()) {
-			return;
+			return null;
 		}
 
 		// resolve working directory
@@ -74,87 +177,57 @@ public class ProgramLaunchDelegate extends LaunchConfigurationDelegate {
 				.getWorkingDirectory(configuration);
 
 		if (monitor.isCanceled()) {
-			return;
+			return null;
 		}
 
 		String[] cmdLine = buildCommandLine(configuration, location);
 
 		if (monitor.isCanceled()) {
-			return;
-		}
-
-		File workingDir = null;
-		if (workingDirectory != null) {
-			workingDir = workingDirectory.toFile();
-		}
-
-		if (monitor.isCanceled()) {
-			return;
+			return null;
 		}
 
 		String[] envp = DebugPlugin.getDefault().getLaunchManager()
 				.getEnvironment(configuration);
 
 		if (monitor.isCanceled()) {
-			return;
+			return null;
 		}
+		return new ResolvedCommand(location, workingDirectory, cmdLine, envp);
+	}
 
-		boolean mergeOutput = configuration.getAttribute(DebugPlugin.ATTR_MERGE_OUTPUT, false);
-		Process p = DebugPlugin.exec(cmdLine, workingDir, envp, mergeOutput);
-		IProcess process = null;
-
-		// add process type to process attributes
-		Map<String, String> processAttributes = new HashMap<>();
-		String programName = location.lastSegment();
-		String extension = location.getFileExtension();
-		if (extension != null) {
-			programName = programName.substring(0, programName.length()
-					- (extension.length() + 1));
-		}
-		programName = programName.toLowerCase();
-		processAttributes.put(IProcess.ATTR_PROCESS_TYPE, programName);
-
-		if (p != null) {
-			monitor.beginTask(NLS.bind(
-					ExternalToolsProgramMessages.ProgramLaunchDelegate_3,
-					new String[] { configuration.getName() }),
-					IProgressMonitor.UNKNOWN);
-			process = DebugPlugin.newProcess(launch, p, location.toOSString(), processAttributes);
-		}
-		if (p == null || process == null) {
-			if (p != null) {
-				p.destroy();
-			}
-			throw new CoreException(new Status(IStatus.ERROR,
-					IExternalToolConstants.PLUGIN_ID,
-					IExternalToolConstants.ERR_INTERNAL_ERROR,
-					ExternalToolsProgramMessages.ProgramLaunchDelegate_4, null));
-		}
-		process.setAttribute(IProcess.ATTR_CMDLINE, generateCommandLine(cmdLine));
-		process.setAttribute(DebugPlugin.ATTR_LAUNCH_TIMESTAMP, Long.toString(System.currentTimeMillis()));
-
-		if (configuration.getAttribute(ATTR_LAUNCH_IN_BACKGROUND, true)) {
-			// refresh resources after process finishes
-			String scope = configuration.getAttribute(RefreshUtil.ATTR_REFRESH_SCOPE, (String)null);
-			if (scope != null) {
-				BackgroundResourceRefresher refresher = new BackgroundResourceRefresher(configuration, process);
-				refresher.startBackgroundRefresh();
+	/**
+	 * Waits until the given process terminated or the monitor is canceled,
+	 * in which case the process is terminated. Returns as soon as the
+	 * termination of the process is reported.
+	 *
+	 * @param process process to wait for
+	 * @param monitor progress monitor checked for cancellation
+	 * @throws DebugException if the process cannot be terminated
+	 */
+	public static void waitForExit(IProcess process, IProgressMonitor monitor) throws DebugException {
+		CountDownLatch terminated = new CountDownLatch(1);
+		IDebugEventSetListener listener = events -> {
+			for (DebugEvent event : events) {
+				if (event.getSource() == process && event.getKind() == DebugEvent.TERMINATE) {
+					terminated.countDown();
+				}
 			}
-		} else {
-			// wait for process to exit
+		};
+		DebugPlugin.getDefault().addDebugEventListener(listener);
+		try {
 			while (!process.isTerminated()) {
+				if (monitor.isCanceled()) {
+					process.terminate();
+					break;
+				}
 				try {
-					if (monitor.isCanceled()) {
-						process.terminate();
-						break;
-					}
-					Thread.sleep(50);
+					// woken up as soon as the process terminates
+					terminated.await(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
 				} catch (InterruptedException e) {
 				}
 			}
-
-			// refresh resources
-			RefreshUtil.refreshResources(configuration, monitor);
+		} finally {
+			DebugPlugin.getDefault().removeDebugEventListener(listener);
 		}
 	}
 
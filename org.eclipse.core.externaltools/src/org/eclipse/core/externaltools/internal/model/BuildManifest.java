@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.externaltools.internal.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.eclipse.core.externaltools.internal.ExternalToolsCore;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Writes the files changed since the last build of a project to a manifest
+ * file for an external tool builder, see
+ * {@link org.eclipse.core.externaltools.internal.IExternalToolConstants#ATTR_BUILD_MANIFEST}.
+ * <p>
+ * The manifest is a UTF-8 encoded text file with one line per changed file,
+ * the kind of change (<code>A</code> added, <code>C</code> changed or
+ * <code>R</code> removed), a tab and the absolute file system path of the
+ * file. When the changes are not known, as for full and clean builds or the
+ * first build of a project, the manifest holds the single line
+ * <code>*</code>, a tab and the absolute file system path of the project,
+ * meaning all files of the project are to be processed. An empty manifest
+ * means no files changed. Each builder of a project has its own manifest,
+ * which is overwritten by every build.
+ * </p>
+ */
+public final class BuildManifest {
+
+	/**
+	 * Folder in the state location of the plug-in holding the manifests.
+	 */
+	private static final String MANIFEST_FOLDER = "buildManifests"; //$NON-NLS-1$
+
+	/**
+	 * Changes of file contents that count as changed input.
+	 */
+	private static final int CONTENT_CHANGES = IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING;
+
+	/**
+	 * Kind of the line written when the changes are not known.
+	 */
+	public static final char ALL_FILES = '*';
+
+	private BuildManifest() {
+	}
+
+	/**
+	 * Returns the manifest file of the given builder configuration of the
+	 * given project.
+	 *
+	 * @param project the project being built
+	 * @param config the builder configuration
+	 * @return the manifest file, which may not exist
+	 */
+	public static File getManifestFile(IProject project, ILaunchConfiguration config) {
+		IPath folder = ExternalToolsCore.getDefault().getStateLocation().append(MANIFEST_FOLDER);
+		return folder.append(project.getName() + '.' + config.getName() + ".txt").toFile(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes the files changed according to the given delta to the manifest
+	 * of the given builder configuration.
+	 *
+	 * @param project the project being built
+	 * @param config the builder configuration
+	 * @param delta the changes since the last build, or <code>null</code> for
+	 *            full and clean builds
+	 * @return the manifest file
+	 * @throws CoreException if the manifest cannot be written
+	 */
+	public static File write(IProject project, ILaunchConfiguration config, IResourceDelta delta) throws CoreException {
+		File file = getManifestFile(project, config);
+		try {
+			file.getParentFile().mkdirs();
+			// tools still reading the previous manifest see a complete file
+			File temp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+			try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+				if (delta == null) {
+					IPath location = project.getLocation();
+					if (location != null) {
+						writeLine(writer, ALL_FILES, location);
+					}
+				} else {
+					delta.accept(visited -> {
+						IResource resource = visited.getResource();
+						if (resource.getType() != IResource.FILE) {
+							return true;
+						}
+						char kind;
+						switch (visited.getKind()) {
+							case IResourceDelta.ADDED:
+								kind = 'A';
+								break;
+							case IResourceDelta.REMOVED:
+								kind = 'R';
+								break;
+							default:
+								if ((visited.getFlags() & CONTENT_CHANGES) == 0) {
+									// only markers or properties changed
+									return false;
+								}
+								kind = 'C';
+								break;
+						}
+						IPath location = resource.getLocation();
+						if (location != null) {
+							try {
+								writeLine(writer, kind, location);
+							} catch (IOException e) {
+								throw new CoreException(ExternalToolsCore.newErrorStatus(e.getMessage(), e));
+							}
+						}
+						return false;
+					});
+				}
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new CoreException(ExternalToolsCore.newErrorStatus(e.getMessage(), e));
+		}
+		return file;
+	}
+
+	private static void writeLine(BufferedWriter writer, char kind, IPath location) throws IOException {
+		writer.write(kind);
+		writer.write('\t');
+		writer.write(location.toOSString());
+		writer.newLine();
+	}
+}
@@ -15,6 +15,7 @@
 package org.eclipse.core.externaltools.internal.model;
 
 
+import java.io.File;
 import java.util.Map;
 
 import org.eclipse.core.externaltools.internal.ExternalToolsCore;
@@ -66,6 +67,7 @@ public final class ExternalToolBuilder extends IncrementalProjectBuilder {
 
 	private static IProject buildProject= null;
 	private static IResourceDelta buildDelta= null;
+	private static File buildManifest= null;
 
 	@Override
 	protected IProject[] build(int kind, Map<String, String> args, IProgressMonitor monitor) throws CoreException {
@@ -175,13 +177,19 @@ public final class ExternalToolBuilder extends IncrementalProjectBuilder {
 	private void launchBuild(int kind, ILaunchConfiguration config, Map<String, String> args, IProgressMonitor monitor) throws CoreException {
 		monitor.subTask(NLS.bind(ExternalToolsModelMessages.ExternalToolBuilder_Running__0_____1, new String[] { config.getName()}));
 		buildStarted(kind, args);
+		if (config.getAttribute(IExternalToolConstants.ATTR_BUILD_MANIFEST, false)) {
+			buildManifest= BuildManifest.write(getProject(), config, buildDelta);
+		}
 		// The default value for "launch in background" is true in debug core. If
 		// the user doesn't go through the UI, the new attribute won't be set. This means
 		// that existing Ant builders will try to run in the background (and likely conflict with
 		// each other) without migration.
 		ILaunchConfiguration newconfig= ExternalToolMigration.migrateRunInBackground(config);
-		newconfig.launch(ILaunchManager.RUN_MODE, monitor);
-		buildEnded();
+		try {
+			newconfig.launch(ILaunchManager.RUN_MODE, monitor);
+		} finally {
+			buildEnded();
+		}
 	}
 
 	/**
@@ -214,6 +222,19 @@ public final class ExternalToolBuilder extends IncrementalProjectBuilder {
 		return buildDelta;
 	}
 
+	/**
+	 * Returns the manifest of the files changed since the last build, written
+	 * for the current external tool builder if it is configured with
+	 * {@link IExternalToolConstants#ATTR_BUILD_MANIFEST}. <code>null</code> is
+	 * returned if no build is currently occurring or the builder does not
+	 * write a manifest.
+	 *
+	 * @return manifest file for the build or <code>null</code>
+	 */
+	public static File getBuildManifest() {
+		return buildManifest;
+	}
+
 	/**
 	 * Stores the currently active build kind and build project when a build begins
 	 * @param buildKind
@@ -255,6 +276,7 @@ public final class ExternalToolBuilder extends IncrementalProjectBuilder {
 		buildType= IExternalToolConstants.BUILD_TYPE_NONE;
 		buildProject= null;
 		buildDelta= null;
+		buildManifest= null;
 	}
 
 	private boolean buildScopeIndicatesBuild(IResource[] resources) {
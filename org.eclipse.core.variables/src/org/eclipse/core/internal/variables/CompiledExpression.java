@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.variables;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * An expression parsed into literal text and variable references, so it is
+ * scanned only once however often it is substituted.
+ * <p>
+ * Expressions are parsed the way {@link StringSubstitutionEngine} always
+ * scanned them: references may be nested in the name or argument of other
+ * references, and references that are not terminated are kept as literal
+ * text. Compiled expressions are immutable and shared by all threads.
+ * </p>
+ */
+final class CompiledExpression {
+
+	private static final String VARIABLE_START = "${"; //$NON-NLS-1$
+	private static final char VARIABLE_END = '}';
+	private static final char VARIABLE_ARG = ':';
+
+	/**
+	 * Maximum number of cached expressions, the cache is cleared when
+	 * exceeded.
+	 */
+	private static final int CACHE_SIZE = 1000;
+
+	/**
+	 * Compiled expressions by expression text.
+	 */
+	private static final Map<String, CompiledExpression> fgCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Part of an expression.
+	 */
+	abstract static class Segment {
+
+		/**
+		 * Appends the value of this segment.
+		 *
+		 * @param result buffer to append to
+		 * @param engine engine resolving variable references
+		 * @throws CoreException if unable to resolve a referenced variable
+		 */
+		abstract void appendTo(StringBuilder result, StringSubstitutionEngine engine) throws CoreException;
+	}
+
+	/**
+	 * Literal text.
+	 */
+	static final class Text extends Segment {
+		private final String fText;
+
+		Text(String text) {
+			fText = text;
+		}
+
+		@Override
+		void appendTo(StringBuilder result, StringSubstitutionEngine engine) {
+			result.append(fText);
+		}
+	}
+
+	/**
+	 * Reference to a variable, <code>${name}</code> or
+	 * <code>${name:argument}</code>.
+	 */
+	static final class Reference extends Segment {
+
+		/**
+		 * Text and nested references between the delimiters.
+		 */
+		private final Segment[] fSegments;
+
+		/**
+		 * Literal text after the last nested reference.
+		 */
+		private final String fTail;
+
+		/**
+		 * Text between the delimiters, name and argument if the reference
+		 * does not contain nested references, otherwise <code>null</code>.
+		 */
+		private final String fText;
+		private final String fName;
+		private final String fArgument;
+
+		Reference(Segment[] segments, String tail) {
+			fSegments = segments;
+			fTail = tail;
+			if (segments.length == 1 && segments[0] instanceof Text) {
+				fText = ((Text) segments[0]).fText;
+			} else if (segments.length == 0) {
+				fText = ""; //$NON-NLS-1$
+			} else {
+				fText = null;
+			}
+			if (fText != null) {
+				String[] nameAndArgument = split(fText);
+				fName = nameAndArgument[0];
+				fArgument = nameAndArgument[1];
+			} else {
+				fName = null;
+				fArgument = null;
+			}
+		}
+
+		@Override
+		void appendTo(StringBuilder result, StringSubstitutionEngine engine) throws CoreException {
+			String value;
+			if (fText != null) {
+				value = engine.resolve(fText, fName, fArgument, fTail);
+			} else {
+				StringBuilder text = new StringBuilder();
+				for (Segment segment : fSegments) {
+					segment.appendTo(text, engine);
+				}
+				String[] nameAndArgument = split(text.toString());
+				value = engine.resolve(text.toString(), nameAndArgument[0], nameAndArgument[1], fTail);
+			}
+			if (value != null) {
+				result.append(value);
+			}
+		}
+
+		/**
+		 * Splits the text of a reference into the variable name and the
+		 * argument, which is <code>null</code> if none.
+		 */
+		private static String[] split(String text) {
+			int pos = text.indexOf(VARIABLE_ARG);
+			if (pos > 0) {
+				return new String[] { text.substring(0, pos), pos + 1 < text.length() ? text.substring(pos + 1) : null };
+			}
+			return new String[] { text, null };
+		}
+	}
+
+	/**
+	 * Reference missing its closing delimiter, kept as literal text with its
+	 * nested references substituted.
+	 */
+	static final class Unterminated extends Segment {
+		private final Segment[] fSegments;
+
+		Unterminated(Segment[] segments) {
+			fSegments = segments;
+		}
+
+		@Override
+		void appendTo(StringBuilder result, StringSubstitutionEngine engine) throws CoreException {
+			result.append(VARIABLE_START);
+			for (Segment segment : fSegments) {
+				segment.appendTo(result, engine);
+			}
+		}
+	}
+
+	/**
+	 * The expression text.
+	 */
+	private final String fExpression;
+
+	/**
+	 * Segments of the expression, or <code>null</code> if the expression
+	 * does not contain references.
+	 */
+	private final Segment[] fSegments;
+
+	private CompiledExpression(String expression, Segment[] segments) {
+		fExpression = expression;
+		fSegments = segments;
+	}
+
+	/**
+	 * Returns the compiled form of the given expression, parsing it only if
+	 * it was not compiled before.
+	 *
+	 * @param expression expression to compile
+	 * @return the compiled expression
+	 */
+	static CompiledExpression compile(String expression) {
+		CompiledExpression compiled = fgCache.get(expression);
+		if (compiled == null) {
+			compiled = parse(expression);
+			if (fgCache.size() >= CACHE_SIZE) {
+				fgCache.clear();
+			}
+			fgCache.put(expression, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Parses the given expression without caching it.
+	 *
+	 * @param expression expression to parse
+	 * @return the compiled expression
+	 */
+	static CompiledExpression parse(String expression) {
+		if (expression.indexOf(VARIABLE_START) < 0) {
+			return new CompiledExpression(expression, null);
+		}
+		List<Segment> segments = new ArrayList<>();
+		// references being parsed, innermost first
+		Deque<List<Segment>> stack = new ArrayDeque<>();
+		int pos = 0;
+		while (pos < expression.length()) {
+			if (stack.isEmpty()) {
+				int start = expression.indexOf(VARIABLE_START, pos);
+				if (start >= 0) {
+					if (start > pos) {
+						segments.add(new Text(expression.substring(pos, start)));
+					}
+					pos = start + 2;
+					stack.push(new ArrayList<>());
+				} else {
+					// done - no more variables
+					segments.add(new Text(expression.substring(pos)));
+					pos = expression.length();
+				}
+			} else {
+				// be careful of nested variables
+				int start = expression.indexOf(VARIABLE_START, pos);
+				int end = expression.indexOf(VARIABLE_END, pos);
+				if (end < 0) {
+					// variables are not completed
+					stack.peek().add(new Text(expression.substring(pos)));
+					pos = expression.length();
+				} else if (start >= 0 && start < end) {
+					// start of a nested variable
+					if (start > pos) {
+						stack.peek().add(new Text(expression.substring(pos, start)));
+					}
+					pos = start + 2;
+					stack.push(new ArrayList<>());
+				} else {
+					// end of variable reference
+					List<Segment> reference = stack.pop();
+					String tail = expression.substring(pos, end);
+					if (!tail.isEmpty()) {
+						reference.add(new Text(tail));
+					}
+					pos = end + 1;
+					Segment segment = new Reference(toArray(reference), tail);
+					(stack.isEmpty() ? segments : stack.peek()).add(segment);
+				}
+			}
+		}
+		// process incomplete variable references
+		while (!stack.isEmpty()) {
+			Segment segment = new Unterminated(toArray(stack.pop()));
+			(stack.isEmpty() ? segments : stack.peek()).add(segment);
+		}
+		return new CompiledExpression(expression, toArray(segments));
+	}
+
+	private static Segment[] toArray(List<Segment> segments) {
+		return segments.toArray(new Segment[segments.size()]);
+	}
+
+	/**
+	 * Substitutes the variable references of this expression.
+	 *
+	 * @param engine engine resolving the references
+	 * @return the expression with its references substituted
+	 * @throws CoreException if unable to resolve a referenced variable
+	 */
+	String substitute(StringSubstitutionEngine engine) throws CoreException {
+		if (fSegments == null) {
+			return fExpression;
+		}
+		StringBuilder result = new StringBuilder(fExpression.length());
+		for (Segment segment : fSegments) {
+			segment.appendTo(result, engine);
+		}
+		return result.toString();
+	}
+}
@@ -32,6 +32,12 @@ public class DynamicVariable extends StringVariable implements IDynamicVariable
 	 */
 	private IDynamicVariableResolver fResolver;
 
+	/**
+	 * Whether values may be cached within a cache scope, or <code>null</code>
+	 * until read
+	 */
+	private Boolean fCacheable;
+
 	@Override
 	public String getValue(String argument) throws CoreException {
 		if (!supportsArgument()) {
@@ -52,6 +58,20 @@ public class DynamicVariable extends StringVariable implements IDynamicVariable
 				throw new CoreException(new Status(IStatus.ERROR, VariablesPlugin.getUniqueIdentifier(), VariablesPlugin.INTERNAL_ERROR, NLS.bind("Contributed context variable resolver for {0} must be an instance of IContextVariableResolver.",new String[]{getName()}), null)); //$NON-NLS-1$
 			}
 		}
+		StringVariableManager.CacheScope scope = isCacheable() ? StringVariableManager.getDefault().getCacheScope() : null;
+		if (scope == null) {
+			return resolveValue(argument);
+		}
+		String key = argument == null ? getName() : getName() + ':' + argument;
+		if (scope.fValues.containsKey(key)) {
+			return scope.fValues.get(key);
+		}
+		String value = resolveValue(argument);
+		scope.fValues.put(key, value);
+		return value;
+	}
+
+	private String resolveValue(String argument) throws CoreException {
 		try {
 			return fResolver.resolveValue(this, argument);
 		} catch (RuntimeException e) {
@@ -76,4 +96,17 @@ public class DynamicVariable extends StringVariable implements IDynamicVariable
 		return arg == null || Boolean.valueOf(arg).booleanValue();
 	}
 
+	/**
+	 * Returns whether the values of this variable may be cached within a
+	 * cache scope of the string variable manager.
+	 *
+	 * @return whether values of this variable may be cached
+	 */
+	public boolean isCacheable() {
+		if (fCacheable == null) {
+			fCacheable = Boolean.valueOf(getConfigurationElement().getAttribute("cacheable")); //$NON-NLS-1$
+		}
+		return fCacheable.booleanValue();
+	}
+
 }
@@ -13,9 +13,7 @@
  *******************************************************************************/
 package org.eclipse.core.internal.variables;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 
@@ -30,21 +28,17 @@ import org.eclipse.osgi.util.NLS;
 
 /**
  * Performs string substitution for context and value variables.
+ * <p>
+ * Expressions are compiled once into literal text and variable references,
+ * see {@link CompiledExpression}. Variables are looked up through the
+ * {@link VariableCache} of the {@link StringVariableManager}.
+ * </p>
  */
 public class StringSubstitutionEngine {
 
 	// delimiters
 	private static final String VARIABLE_START = "${"; //$NON-NLS-1$
 	private static final char VARIABLE_END = '}';
-	private static final char VARIABLE_ARG = ':';
-	// parsing states
-	private static final int SCAN_FOR_START = 0;
-	private static final int SCAN_FOR_END = 1;
-
-	/**
-	 * Resulting string
-	 */
-	private StringBuilder fResult;
 
 	/**
 	 * Whether substitutions were performed
@@ -52,28 +46,16 @@ public class StringSubstitutionEngine {
 	private boolean fSubs;
 
 	/**
-	 * Stack of variables to resolve
+	 * Variables resolved in the current pass, or <code>null</code> if not
+	 * collected
 	 */
-	private Deque<VariableReference> fStack;
-
-	class VariableReference {
-
-		// the text inside the variable reference
-		private StringBuilder fText;
-
-		public VariableReference() {
-			fText = new StringBuilder();
-		}
+	private HashSet<String> fResolved;
 
-		public void append(String text) {
-			fText.append(text);
-		}
-
-		public String getText() {
-			return fText.toString();
-		}
-
-	}
+	// options of the current pass
+	private boolean fReportUndefinedVariables;
+	private boolean fResolveVariables;
+	private IStringVariableManager fManager;
+	private VariableCache fCache;
 
 	/**
 	 * Performs recursive string substitution and returns the resulting string.
@@ -88,10 +70,19 @@ public class StringSubstitutionEngine {
 	 *  in referenced variables
 	 */
 	public String performStringSubstitution(String expression, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
-		substitute(expression, reportUndefinedVariables, resolveVariables, manager);
+		fReportUndefinedVariables = reportUndefinedVariables;
+		fManager = manager;
+		fCache = manager instanceof StringVariableManager ? ((StringVariableManager) manager).getVariableCache() : null;
+		String result = substitute(CompiledExpression.compile(expression), resolveVariables, false);
 		List<HashSet<String>> resolvedVariableSets = new ArrayList<>();
 		while (fSubs) {
-			HashSet<String> resolved = substitute(fResult.toString(), reportUndefinedVariables, true, manager);
+			if (result.indexOf(VARIABLE_START) < 0) {
+				// values do not contain references
+				break;
+			}
+			// values are different every time, do not cache them
+			result = substitute(CompiledExpression.parse(result), true, true);
+			HashSet<String> resolved = fResolved;
 			for(int i=resolvedVariableSets.size()-1; i>=0; i--) {
 				HashSet<String> prevSet = resolvedVariableSets.get(i);
 				if (prevSet.equals(resolved)) {
@@ -111,7 +102,7 @@ public class StringSubstitutionEngine {
 
 			resolvedVariableSets.add(resolved);
 		}
-		return fResult.toString();
+		return result;
 	}
 
 	/**
@@ -127,171 +118,80 @@ public class StringSubstitutionEngine {
 	}
 
 	/**
-	 * Makes a substitution pass of the given expression returns a Set of the variables that were resolved in this
-	 *  pass
+	 * Makes a substitution pass of the given expression.
 	 *
-	 * @param expression source expression
-	 * @param reportUndefinedVariables whether to report undefined variables as an error
+	 * @param expression compiled source expression
 	 * @param resolveVariables whether to resolve the value of any variables
-	 * @param manager the {@link IStringVariableManager} to use for the substitution
-	 * @return the set of {@link String}s resolved from the given expression
+	 * @param collectResolved whether to collect the variables resolved in
+	 *            this pass in {@link #fResolved}
+	 * @return the resulting string
 	 * @exception CoreException if unable to resolve a variable
 	 */
-	private HashSet<String> substitute(String expression, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
-		fResult = new StringBuilder(expression.length());
-		fStack = new ArrayDeque<>();
+	private String substitute(CompiledExpression expression, boolean resolveVariables, boolean collectResolved) throws CoreException {
+		fResolveVariables = resolveVariables;
+		fResolved = collectResolved ? new HashSet<>() : null;
 		fSubs = false;
-
-		HashSet<String> resolvedVariables = new HashSet<>();
-
-		int pos = 0;
-		int state = SCAN_FOR_START;
-		while (pos < expression.length()) {
-			switch (state) {
-				case SCAN_FOR_START:
-					int start = expression.indexOf(VARIABLE_START, pos);
-					if (start >= 0) {
-						int length = start - pos;
-						// copy non-variable text to the result
-						if (length > 0) {
-							fResult.append(expression.substring(pos, start));
-						}
-						pos = start + 2;
-						state = SCAN_FOR_END;
-
-						fStack.push(new VariableReference());
-					} else {
-						// done - no more variables
-						fResult.append(expression.substring(pos));
-						pos = expression.length();
-					}
-					break;
-				case SCAN_FOR_END:
-					// be careful of nested variables
-					start = expression.indexOf(VARIABLE_START, pos);
-					int end = expression.indexOf(VARIABLE_END, pos);
-					if (end < 0) {
-						// variables are not completed
-						VariableReference tos = fStack.peek();
-						tos.append(expression.substring(pos));
-						pos = expression.length();
-					} else {
-						if (start >= 0 && start < end) {
-							// start of a nested variable
-							int length = start - pos;
-							if (length > 0) {
-								VariableReference tos = fStack.peek();
-								tos.append(expression.substring(pos, start));
-							}
-							pos = start + 2;
-							fStack.push(new VariableReference());
-						} else {
-							// end of variable reference
-							VariableReference tos = fStack.pop();
-							String substring = expression.substring(pos, end);
-							tos.append(substring);
-							resolvedVariables.add(substring);
-
-							pos = end + 1;
-							String value= resolve(tos, reportUndefinedVariables, resolveVariables, manager);
-							if (value == null) {
-								value = ""; //$NON-NLS-1$
-							}
-							if (fStack.isEmpty()) {
-								// append to result
-								fResult.append(value);
-								state = SCAN_FOR_START;
-							} else {
-								// append to previous variable
-								tos = fStack.peek();
-								tos.append(value);
-							}
-						}
-					}
-					break;
-				default:
-					break;
-			}
-		}
-		// process incomplete variable references
-		while (!fStack.isEmpty()) {
-			VariableReference tos = fStack.pop();
-			if (fStack.isEmpty()) {
-				fResult.append(VARIABLE_START);
-				fResult.append(tos.getText());
-			} else {
-				VariableReference var = fStack.peek();
-				var.append(VARIABLE_START);
-				var.append(tos.getText());
-			}
-		}
-
-
-		return resolvedVariables;
+		return expression.substitute(this);
 	}
 
 	/**
 	 * Resolve and return the value of the given variable reference,
 	 * possibly <code>null</code>.
 	 *
-	 * @param var the {@link VariableReference} to try and resolve
-	 * @param reportUndefinedVariables whether to report undefined variables as
-	 *  an error
-	 * @param resolveVariables whether to resolve the variables value or just to validate that this variable is valid
-	 * @param manager variable registry
+	 * @param text the text of the variable reference, between the delimiters
+	 * @param name the variable name
+	 * @param arg the argument of the reference or <code>null</code>
+	 * @param tail the text of the reference after nested references,
+	 *            collected as resolved variable
 	 * @return variable value, possibly <code>null</code>
 	 * @exception CoreException if unable to resolve a value
 	 */
-	private String resolve(VariableReference var, boolean reportUndefinedVariables, boolean resolveVariables, IStringVariableManager manager) throws CoreException {
-		String text = var.getText();
-		int pos = text.indexOf(VARIABLE_ARG);
-		String name = null;
-		String arg = null;
-		if (pos > 0) {
-			name = text.substring(0, pos);
-			pos++;
-			if (pos < text.length()) {
-				arg = text.substring(pos);
-			}
+	String resolve(String text, String name, String arg, String tail) throws CoreException {
+		if (fResolved != null) {
+			fResolved.add(tail);
+		}
+		IValueVariable valueVariable;
+		IDynamicVariable dynamicVariable;
+		VariableCache.Entry entry = null;
+		if (fCache != null) {
+			entry = fCache.getEntry(name);
+			valueVariable = entry.fValueVariable;
+			dynamicVariable = entry.fDynamicVariable;
 		} else {
-			name = text;
+			valueVariable = fManager.getValueVariable(name);
+			dynamicVariable = valueVariable == null ? fManager.getDynamicVariable(name) : null;
 		}
-		IValueVariable valueVariable = manager.getValueVariable(name);
 		if (valueVariable == null) {
-			IDynamicVariable dynamicVariable = manager.getDynamicVariable(name);
 			if (dynamicVariable == null) {
 				// no variables with the given name
-				if (reportUndefinedVariables) {
+				if (fReportUndefinedVariables) {
 					throw new CoreException(new Status(IStatus.ERROR, VariablesPlugin.getUniqueIdentifier(), VariablesPlugin.INTERNAL_ERROR, NLS.bind(VariablesMessages.StringSubstitutionEngine_3, new String[]{name}), null));
 				}
 				// leave as is
-				return getOriginalVarText(var);
+				return getOriginalVarText(text);
 			}
 
-			if (resolveVariables) {
+			if (fResolveVariables) {
 				fSubs = true;
 				return dynamicVariable.getValue(arg);
 			}
 			//leave as is
-			return getOriginalVarText(var);
+			return getOriginalVarText(text);
 		}
 
 		if (arg == null) {
-			if (resolveVariables) {
+			if (fResolveVariables) {
 				fSubs = true;
-				return valueVariable.getValue();
+				return entry != null ? entry.getValue() : valueVariable.getValue();
 			}
 			//leave as is
-			return getOriginalVarText(var);
+			return getOriginalVarText(text);
 		}
 		// error - an argument specified for a value variable
 		throw new CoreException(new Status(IStatus.ERROR, VariablesPlugin.getUniqueIdentifier(), VariablesPlugin.INTERNAL_ERROR, NLS.bind(VariablesMessages.StringSubstitutionEngine_4, new String[]{valueVariable.getName()}), null));
 	}
 
-	private String getOriginalVarText(VariableReference var) {
-		StringBuilder res = new StringBuilder(var.getText());
-		res.insert(0, VARIABLE_START);
-		res.append(VARIABLE_END);
-		return res.toString();
+	private String getOriginalVarText(String text) {
+		return VARIABLE_START + text + VARIABLE_END;
 	}
 }
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,20 +69,43 @@ import org.xml.sax.helpers.DefaultHandler;
 public class StringVariableManager implements IStringVariableManager, IPreferenceChangeListener {
 
 	/**
-	 * Dynamic variables - maps variable names to variables.
+	 * Dynamic variables - maps variable names to variables. The map is never
+	 * modified once published, or <code>null</code> until initialized.
 	 */
-	private Map<String, IDynamicVariable> fDynamicVariables;
+	private volatile Map<String, IDynamicVariable> fDynamicVariables;
 
 	/**
-	 * Value variables - maps variable names to variables.
+	 * Value variables - maps variable names to variables. The map is never
+	 * modified once published but replaced by a modified copy, so lookups do
+	 * not need to lock. Changes are serialized on the manager. The map is
+	 * <code>null</code> until initialized.
 	 */
-	private Map<String, IStringVariable> fValueVariables;
+	private volatile Map<String, IStringVariable> fValueVariables;
 
 	/**
 	 * Variable listeners
 	 */
 	private ListenerList<IValueVariableListener> fListeners;
 
+	/**
+	 * Variables and values memoized for string substitution
+	 */
+	private final VariableCache fCache;
+
+	/**
+	 * Values of cacheable dynamic variables resolved in the cache scope of
+	 * the current thread, and the nesting depth of the scope
+	 */
+	private final ThreadLocal<CacheScope> fCacheScope = new ThreadLocal<>();
+
+	/**
+	 * Values of cacheable dynamic variables resolved within a cache scope.
+	 */
+	static final class CacheScope {
+		final Map<String, String> fValues = new HashMap<>();
+		int fDepth;
+	}
+
 	// notifications
 	private static final int ADDED = 0;
 	private static final int CHANGED = 1;
@@ -94,7 +118,7 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 
 	// true during internal updates indicates that change notification
 	// should be suppressed/ignored.
-	private boolean fInternalChange = false;
+	private volatile boolean fInternalChange = false;
 
 	// Variable extension point constants
 	private static final String ATTR_NAME= "name"; //$NON-NLS-1$
@@ -198,28 +222,39 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 	 */
 	private StringVariableManager() {
 		fListeners = new ListenerList<>();
+		fCache = new VariableCache(this);
+		fListeners.add(fCache);
 	}
 
 	/**
 	 * Load contributed variables and persisted variables
 	 */
-	private synchronized void initialize() {
-		if (fDynamicVariables == null) {
-			fInternalChange = true;
-			fDynamicVariables = new HashMap<>(5);
-			fValueVariables = new HashMap<>(5);
-			loadContributedValueVariables();
-			loadPersistedValueVariables();
-			loadDynamicVariables();
-			InstanceScope.INSTANCE.getNode(VariablesPlugin.PI_CORE_VARIABLES).addPreferenceChangeListener(this);
-			fInternalChange = false;
+	private void initialize() {
+		if (fValueVariables == null) {
+			synchronized (this) {
+				if (fValueVariables == null) {
+					fInternalChange = true;
+					Map<String, IDynamicVariable> dynamicVariables = new HashMap<>(5);
+					Map<String, IStringVariable> valueVariables = new HashMap<>(5);
+					loadContributedValueVariables(valueVariables);
+					loadPersistedValueVariables(valueVariables);
+					loadDynamicVariables(dynamicVariables);
+					fDynamicVariables = Collections.unmodifiableMap(dynamicVariables);
+					// published last, lookups check it
+					fValueVariables = Collections.unmodifiableMap(valueVariables);
+					InstanceScope.INSTANCE.getNode(VariablesPlugin.PI_CORE_VARIABLES).addPreferenceChangeListener(this);
+					fInternalChange = false;
+				}
+			}
 		}
 	}
 
 	/**
 	 * Loads contributed dynamic variables
+	 *
+	 * @param dynamicVariables map to load the variables into
 	 */
-	private void loadDynamicVariables() {
+	private void loadDynamicVariables(Map<String, IDynamicVariable> dynamicVariables) {
 		IExtensionPoint point = Platform.getExtensionRegistry().getExtensionPoint(VariablesPlugin.PI_CORE_VARIABLES, EXTENSION_POINT_DYNAMIC_VARIABLES);
 		IConfigurationElement elements[]= point.getConfigurationElements();
 		for (IConfigurationElement element : elements) {
@@ -230,7 +265,7 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 			}
 			String description= element.getAttribute(ATTR_DESCRIPTION);
 			DynamicVariable variable= new DynamicVariable(name, description, element);
-			Object old = fDynamicVariables.put(variable.getName(), variable);
+			Object old = dynamicVariables.put(variable.getName(), variable);
 			if (old != null) {
 				DynamicVariable oldVariable = (DynamicVariable)old;
 				VariablesPlugin.logMessage(NLS.bind("Dynamic variable extension from bundle ''{0}'' overrides existing extension variable ''{1}'' from bundle ''{2}''", //$NON-NLS-1$
@@ -242,8 +277,10 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 
 	/**
 	 * Loads contributed value variables. This is done before loading persisted values.
+	 *
+	 * @param valueVariables map to load the variables into
 	 */
-	private void loadContributedValueVariables() {
+	private void loadContributedValueVariables(Map<String, IStringVariable> valueVariables) {
 		IExtensionPoint point = Platform.getExtensionRegistry().getExtensionPoint(VariablesPlugin.PI_CORE_VARIABLES, EXTENSION_POINT_VALUE_VARIABLES);
 		IConfigurationElement elements[]= point.getConfigurationElements();
 		for (IConfigurationElement element : elements) {
@@ -256,7 +293,7 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 			boolean isReadOnly = TRUE_VALUE.equals(element.getAttribute(ATTR_READ_ONLY));
 
 			IValueVariable variable = new ContributedValueVariable(name, description, isReadOnly, element);
-			Object old = fValueVariables.put(name, variable);
+			Object old = valueVariables.put(name, variable);
 			if (old != null) {
 				StringVariable oldVariable = (StringVariable)old;
 				VariablesPlugin.logMessage(NLS.bind("Contributed variable extension from bundle ''{0}'' overrides existing extension variable ''{1}'' from  bundle ''{2}''", //$NON-NLS-1$
@@ -272,8 +309,10 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 	 * same name as a extension contributed variable the variable's value will be set to
 	 * the persisted value unless either a) The persisted value is <code>null</code>, or
 	 * b) the variable is read-only.
+	 *
+	 * @param valueVariables map to load the variables into
 	 */
-	private void loadPersistedValueVariables() {
+	private void loadPersistedValueVariables(Map<String, IStringVariable> valueVariables) {
 		String variablesString = Platform.getPreferencesService().getString(VariablesPlugin.PI_CORE_VARIABLES, PREF_VALUE_VARIABLES, "", null); //$NON-NLS-1$
 		if (variablesString.length() == 0) {
 			return;
@@ -307,10 +346,10 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 					String description= element.getAttribute(DESCRIPTION_TAG);
 					boolean readOnly= TRUE_VALUE.equals(element.getAttribute(READ_ONLY_TAG));
 
-					IValueVariable existing = getValueVariable(name);
+					IValueVariable existing = (IValueVariable) valueVariables.get(name);
 					if (existing == null){
 						ValueVariable variable = new ValueVariable(name, description, readOnly, value);
-						fValueVariables.put(name, variable);
+						valueVariables.put(name, variable);
 					} else if (!existing.isReadOnly() && value != null){
 						existing.setValue(value);
 					}
@@ -322,24 +361,28 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 	}
 
 	@Override
-	public synchronized IStringVariable[] getVariables() {
+	public IStringVariable[] getVariables() {
 		initialize();
-		List<IStringVariable> list = new ArrayList<>(fDynamicVariables.size() + fValueVariables.size());
-		list.addAll(fDynamicVariables.values());
-		list.addAll(fValueVariables.values());
+		Map<String, IDynamicVariable> dynamicVariables = fDynamicVariables;
+		Map<String, IStringVariable> valueVariables = fValueVariables;
+		List<IStringVariable> list = new ArrayList<>(dynamicVariables.size() + valueVariables.size());
+		list.addAll(dynamicVariables.values());
+		list.addAll(valueVariables.values());
 		return list.toArray(new IStringVariable[list.size()]);
 	}
 
 	@Override
-	public synchronized IValueVariable[] getValueVariables() {
+	public IValueVariable[] getValueVariables() {
 		initialize();
-		return fValueVariables.values().toArray(new IValueVariable[fValueVariables.size()]);
+		Map<String, IStringVariable> valueVariables = fValueVariables;
+		return valueVariables.values().toArray(new IValueVariable[valueVariables.size()]);
 	}
 
 	@Override
-	public synchronized IDynamicVariable[] getDynamicVariables() {
+	public IDynamicVariable[] getDynamicVariables() {
 		initialize();
-		return fDynamicVariables.values().toArray(new IDynamicVariable[fDynamicVariables.size()]);
+		Map<String, IDynamicVariable> dynamicVariables = fDynamicVariables;
+		return dynamicVariables.values().toArray(new IDynamicVariable[dynamicVariables.size()]);
 	}
 
 	@Override
@@ -367,9 +410,11 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 			}
 		}
 		if (status.isOK()) {
+			Map<String, IStringVariable> valueVariables = new HashMap<>(fValueVariables);
 			for (IValueVariable variable : variables) {
-				fValueVariables.put(variable.getName(), variable);
+				valueVariables.put(variable.getName(), variable);
 			}
+			fValueVariables = Collections.unmodifiableMap(valueVariables);
 			IValueVariable[] copy = new IValueVariable[variables.length];
 			System.arraycopy(variables, 0, copy, 0, variables.length);
 			getNotifier().notify(copy, ADDED);
@@ -382,24 +427,26 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 	public synchronized void removeVariables(IValueVariable[] variables) {
 		initialize();
 		List<IValueVariable> removed = new ArrayList<>(variables.length);
+		Map<String, IStringVariable> valueVariables = new HashMap<>(fValueVariables);
 		for (IValueVariable variable : variables) {
-			if (fValueVariables.remove(variable.getName()) != null) {
+			if (valueVariables.remove(variable.getName()) != null) {
 				removed.add(variable);
 			}
 		}
 		if (removed.size() > 0) {
+			fValueVariables = Collections.unmodifiableMap(valueVariables);
 			getNotifier().notify(removed.toArray(new IValueVariable[removed.size()]), REMOVED);
 		}
 	}
 
 	@Override
-	public synchronized IDynamicVariable getDynamicVariable(String name) {
+	public IDynamicVariable getDynamicVariable(String name) {
 		initialize();
 		return fDynamicVariables.get(name);
 	}
 
 	@Override
-	public synchronized IValueVariable getValueVariable(String name) {
+	public IValueVariable getValueVariable(String name) {
 		initialize();
 		return (IValueVariable) fValueVariables.get(name);
 	}
@@ -542,6 +589,42 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 		return buffer.toString();
 	}
 
+	/**
+	 * Returns the variables and values memoized for string substitution.
+	 *
+	 * @return variable cache
+	 */
+	VariableCache getVariableCache() {
+		return fCache;
+	}
+
+	/**
+	 * Returns the cache scope of the current thread.
+	 *
+	 * @return cache scope or <code>null</code> if none has begun
+	 */
+	CacheScope getCacheScope() {
+		return fCacheScope.get();
+	}
+
+	@Override
+	public void beginCacheScope() {
+		CacheScope scope = fCacheScope.get();
+		if (scope == null) {
+			scope = new CacheScope();
+			fCacheScope.set(scope);
+		}
+		scope.fDepth++;
+	}
+
+	@Override
+	public void endCacheScope() {
+		CacheScope scope = fCacheScope.get();
+		if (scope != null && --scope.fDepth == 0) {
+			fCacheScope.remove();
+		}
+	}
+
 	@Override
 	public String performStringSubstitution(String expression,	boolean reportUndefinedVariables) throws CoreException {
 		return new StringSubstitutionEngine().performStringSubstitution(expression, reportUndefinedVariables, true, this);
@@ -565,9 +648,11 @@ public class StringVariableManager implements IStringVariableManager, IPreferenc
 		if (PREF_VALUE_VARIABLES.equals(event.getKey())) {
 			synchronized (this) {
 				if (!fInternalChange) {
-					fValueVariables.clear();
-					loadPersistedValueVariables();
-					loadContributedValueVariables();
+					Map<String, IStringVariable> valueVariables = new HashMap<>(5);
+					loadPersistedValueVariables(valueVariables);
+					loadContributedValueVariables(valueVariables);
+					fValueVariables = Collections.unmodifiableMap(valueVariables);
+					fCache.invalidate();
 				}
 			}
 		}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.variables;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.variables.IDynamicVariable;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.IValueVariableListener;
+
+/**
+ * Memoizes the variables referenced by name and the values of value
+ * variables for string substitution. Everything is forgotten when value
+ * variables are added, removed or changed.
+ */
+final class VariableCache implements IValueVariableListener {
+
+	/**
+	 * Variables of a name, and the value if a value variable.
+	 */
+	static final class Entry {
+		final IValueVariable fValueVariable;
+		final IDynamicVariable fDynamicVariable;
+		private volatile boolean fResolved;
+		private volatile String fValue;
+
+		Entry(IValueVariable valueVariable, IDynamicVariable dynamicVariable) {
+			fValueVariable = valueVariable;
+			fDynamicVariable = dynamicVariable;
+		}
+
+		/**
+		 * Returns the value of the value variable.
+		 *
+		 * @return the value, possibly <code>null</code>
+		 */
+		String getValue() {
+			if (!fResolved) {
+				fValue = fValueVariable.getValue();
+				fResolved = true;
+			}
+			return fValue;
+		}
+	}
+
+	private final IStringVariableManager fManager;
+
+	/**
+	 * Entries by variable name, replaced when invalidated so values read
+	 * before a change are never added to the new map.
+	 */
+	private volatile Map<String, Entry> fEntries = new ConcurrentHashMap<>();
+
+	VariableCache(IStringVariableManager manager) {
+		fManager = manager;
+	}
+
+	/**
+	 * Returns the variables of the given name.
+	 *
+	 * @param name variable name
+	 * @return the variables of the name, neither if undefined
+	 */
+	Entry getEntry(String name) {
+		Map<String, Entry> entries = fEntries;
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			IValueVariable valueVariable = fManager.getValueVariable(name);
+			entry = new Entry(valueVariable, valueVariable == null ? fManager.getDynamicVariable(name) : null);
+			entries.put(name, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Forgets all variables and values.
+	 */
+	void invalidate() {
+		fEntries = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void variablesAdded(IValueVariable[] variables) {
+		invalidate();
+	}
+
+	@Override
+	public void variablesRemoved(IValueVariable[] variables) {
+		invalidate();
+	}
+
+	@Override
+	public void variablesChanged(IValueVariable[] variables) {
+		invalidate();
+	}
+}
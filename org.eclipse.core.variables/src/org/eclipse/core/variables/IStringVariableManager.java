@@ -191,4 +191,24 @@ public interface IStringVariableManager {
 	 */
 	String generateVariableExpression(String varName, String arg);
 
+	/**
+	 * Begins a cache scope for the current thread. Until the scope ends, the
+	 * values of dynamic variables contributed as <code>cacheable</code> are
+	 * resolved only once per argument by string substitutions in this
+	 * thread. Scopes may be nested, values are forgotten when the outermost
+	 * scope ends. Every call must be balanced by a call to
+	 * {@link #endCacheScope()}, typically in a <code>finally</code> block.
+	 *
+	 * @since 3.5
+	 */
+	void beginCacheScope();
+
+	/**
+	 * Ends the cache scope most recently begun by the current thread. Has no
+	 * effect if no scope has begun.
+	 *
+	 * @since 3.5
+	 */
+	void endCacheScope();
+
 }
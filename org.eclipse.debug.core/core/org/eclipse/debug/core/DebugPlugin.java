@@ -22,9 +22,14 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -50,6 +55,8 @@ import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IDisconnect;
 import org.eclipse.debug.core.model.IDropToFrame;
@@ -64,6 +71,7 @@ import org.eclipse.debug.core.model.RuntimeProcess;
 import org.eclipse.debug.internal.core.BreakpointManager;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.EventDispatchStatistics;
 import org.eclipse.debug.internal.core.ExpressionManager;
 import org.eclipse.debug.internal.core.IConfigurationElementConstants;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
@@ -71,9 +79,11 @@ import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.internal.core.LogicalStructureManager;
 import org.eclipse.debug.internal.core.MemoryBlockManager;
 import org.eclipse.debug.internal.core.Preferences;
+import org.eclipse.debug.internal.core.ProcessIOEngine;
 import org.eclipse.debug.internal.core.StepFilterManager;
 import org.eclipse.debug.internal.core.commands.CommandAdapterFactory;
 import org.eclipse.debug.internal.core.groups.GroupMemberChangeListener;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 import org.eclipse.osgi.service.environment.Constants;
 import org.osgi.framework.BundleContext;
@@ -431,13 +441,31 @@ public class DebugPlugin extends Plugin {
 	private static final int NOTIFY_FILTERS = 0;
 	private static final int NOTIFY_EVENTS = 1;
 
+	/**
+	 * Maximum number of events merged into one event set if events are
+	 * dispatched in batches.
+	 */
+	private static final int MAX_BATCH_SIZE = 1000;
+
 	/**
 	 * Queue of debug events to fire to listeners and asynchronous runnables to execute
 	 * in the order received.
 	 *
 	 * @since 3.1
 	 */
-	private List<Object> fEventQueue = new ArrayList<>();
+	private final Queue<QueuedItem> fEventQueue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * An event set or runnable in the event queue.
+	 */
+	private static final class QueuedItem {
+		final Object fItem;
+		final long fQueueTime = System.nanoTime();
+
+		QueuedItem(Object item) {
+			fItem = item;
+		}
+	}
 
 	/**
 	 * Job to fire events to listeners.
@@ -445,6 +473,16 @@ public class DebugPlugin extends Plugin {
 	 */
 	private EventDispatchJob fEventDispatchJob = new EventDispatchJob();
 
+	/**
+	 * Updates the event dispatch job when its preferences change.
+	 */
+	private final IPreferenceChangeListener fEventDispatchPreferenceListener = event -> {
+		String key = event.getKey();
+		if (IInternalDebugCoreConstants.PREF_BATCH_DEBUG_EVENTS.equals(key) || IInternalDebugCoreConstants.PREF_COALESCE_DEBUG_EVENTS.equals(key)) {
+			fEventDispatchJob.updatePreferences();
+		}
+	};
+
 	/**
 	 * Event dispatch job. Processes event queue of debug events and runnables.
 	 *
@@ -455,6 +493,18 @@ public class DebugPlugin extends Plugin {
 		EventNotifier fNotifier = new EventNotifier();
 		AsynchRunner fRunner = new AsynchRunner();
 
+		/**
+		 * Whether event sets queued in a row are merged, see
+		 * {@link IInternalDebugCoreConstants#PREF_BATCH_DEBUG_EVENTS}.
+		 */
+		private volatile boolean fBatch;
+
+		/**
+		 * Whether redundant change events are dropped from merged event sets,
+		 * see {@link IInternalDebugCoreConstants#PREF_COALESCE_DEBUG_EVENTS}.
+		 */
+		private volatile boolean fCoalesce;
+
 		/**
 		 * Creates a new event dispatch job.
 		 */
@@ -464,20 +514,44 @@ public class DebugPlugin extends Plugin {
 			setSystem(true);
 		}
 
+		/**
+		 * Reads the event dispatch preferences.
+		 */
+		void updatePreferences() {
+			IPreferencesService service = Platform.getPreferencesService();
+			fBatch = service.getBoolean(getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_BATCH_DEBUG_EVENTS, false, null);
+			fCoalesce = service.getBoolean(getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_COALESCE_DEBUG_EVENTS, false, null);
+		}
+
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
-
-			while (!fEventQueue.isEmpty()) {
-				Object next = null;
-				synchronized (fEventQueue) {
-					if (!fEventQueue.isEmpty()) {
-						next = fEventQueue.remove(0);
+			boolean batch = fBatch;
+			boolean coalesce = batch && fCoalesce;
+			EventDispatchStatistics statistics = EventDispatchStatistics.getDefault();
+			QueuedItem next;
+			while ((next = fEventQueue.poll()) != null) {
+				statistics.dequeued(next.fQueueTime);
+				if (next.fItem instanceof Runnable) {
+					fRunner.async((Runnable) next.fItem);
+				} else if (!batch) {
+					fNotifier.dispatch((DebugEvent[]) next.fItem);
+				} else {
+					// merge event sets queued in a row, runnables must still
+					// run after the events queued before them are dispatched
+					List<DebugEvent[]> sets = new ArrayList<>();
+					DebugEvent[] events = (DebugEvent[]) next.fItem;
+					sets.add(events);
+					int size = events.length;
+					QueuedItem peek;
+					while (size < MAX_BATCH_SIZE && (peek = fEventQueue.peek()) != null && peek.fItem instanceof DebugEvent[]) {
+						// this job is the only consumer, peeked item is polled
+						fEventQueue.poll();
+						statistics.dequeued(peek.fQueueTime);
+						events = (DebugEvent[]) peek.fItem;
+						sets.add(events);
+						size += events.length;
 					}
-				}
-				if (next instanceof Runnable) {
-					fRunner.async((Runnable) next);
-				} else if (next != null) {
-					fNotifier.dispatch((DebugEvent[]) next);
+					fNotifier.dispatch(sets, coalesce);
 				}
 			}
 			return Status.OK_STATUS;
@@ -562,9 +636,9 @@ public class DebugPlugin extends Plugin {
 		if (isShuttingDown() || events == null || fEventListeners.isEmpty()) {
 			return;
 		}
-		synchronized (fEventQueue) {
-			fEventQueue.add(events);
-		}
+		// count before queuing, the job may take the item immediately
+		EventDispatchStatistics.getDefault().queued();
+		fEventQueue.add(new QueuedItem(events));
 		fEventDispatchJob.schedule();
 	}
 
@@ -578,9 +652,8 @@ public class DebugPlugin extends Plugin {
 	 * @since 2.1
 	 */
 	public void asyncExec(Runnable r) {
-		synchronized (fEventQueue) {
-			fEventQueue.add(r);
-		}
+		EventDispatchStatistics.getDefault().queued();
+		fEventQueue.add(new QueuedItem(r));
 		fEventDispatchJob.schedule();
 	}
 
@@ -702,8 +775,11 @@ public class DebugPlugin extends Plugin {
 
 			fEventListeners.clear();
 			fEventFilters.clear();
+			Preferences.removePreferenceListener(getUniqueIdentifier(), fEventDispatchPreferenceListener);
 
 			SourceLookupUtils.shutdown();
+			SourceLookupCache.shutdown();
+			ProcessIOEngine.shutdown();
 			Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 			ResourcesPlugin.getWorkspace().removeSaveParticipant(getUniqueIdentifier());
 		} finally {
@@ -716,6 +792,8 @@ public class DebugPlugin extends Plugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		new DebugOptions(context);
+		Preferences.addPreferenceListener(getUniqueIdentifier(), fEventDispatchPreferenceListener);
+		fEventDispatchJob.updatePreferences();
 		ResourcesPlugin.getWorkspace().addSaveParticipant(getUniqueIdentifier(),
 				new ISaveParticipant() {
 					@Override
@@ -1225,6 +1303,72 @@ public class DebugPlugin extends Plugin {
 		 * @param events debug events
 		 */
 		void dispatch(DebugEvent[] events) {
+			fEvents = filter(events);
+			if (fEvents == null || fEvents.length == 0) {
+				return;
+			}
+			notifyListeners();
+		}
+
+		/**
+		 * Filters the given event sets, merges them into one event set and
+		 * dispatches it. If an exception occurs in one listener, events are
+		 * still fired to subsequent listeners.
+		 *
+		 * @param sets debug event sets in the order they were fired
+		 * @param coalesce whether to drop change events which repeat the
+		 *            previous event for the same source
+		 */
+		void dispatch(List<DebugEvent[]> sets, boolean coalesce) {
+			List<DebugEvent> merged = new ArrayList<>();
+			for (DebugEvent[] set : sets) {
+				DebugEvent[] filtered = filter(set);
+				if (filtered != null) {
+					Collections.addAll(merged, filtered);
+				}
+			}
+			int coalesced = 0;
+			if (coalesce && merged.size() > 1) {
+				int size = merged.size();
+				merged = coalesce(merged);
+				coalesced = size - merged.size();
+			}
+			EventDispatchStatistics.getDefault().batchDispatched(coalesced);
+			if (merged.isEmpty()) {
+				return;
+			}
+			fEvents = merged.toArray(new DebugEvent[merged.size()]);
+			notifyListeners();
+		}
+
+		/**
+		 * Drops change events which repeat the previous event of the same
+		 * source, i.e. same kind, detail and data without any other event
+		 * for that source in between.
+		 *
+		 * @param events the events to coalesce
+		 * @return the remaining events in their original order
+		 */
+		private List<DebugEvent> coalesce(List<DebugEvent> events) {
+			Map<Object, DebugEvent> previous = new IdentityHashMap<>();
+			List<DebugEvent> result = new ArrayList<>(events.size());
+			for (DebugEvent event : events) {
+				DebugEvent last = previous.put(event.getSource(), event);
+				if (event.getKind() == DebugEvent.CHANGE && last != null && last.getKind() == DebugEvent.CHANGE && last.getDetail() == event.getDetail() && Objects.equals(last.getData(), event.getData())) {
+					continue;
+				}
+				result.add(event);
+			}
+			return result;
+		}
+
+		/**
+		 * Runs the given events through all registered filters.
+		 *
+		 * @param events debug events
+		 * @return the remaining events, may be <code>null</code> or empty
+		 */
+		private DebugEvent[] filter(DebugEvent[] events) {
 			fEvents = events;
 			if (!fEventFilters.isEmpty()) {
 				fMode = NOTIFY_FILTERS;
@@ -1232,11 +1376,20 @@ public class DebugPlugin extends Plugin {
 					fFilter = iDebugEventFilter;
 					SafeRunner.run(this);
 					if (fEvents == null || fEvents.length == 0) {
-						return;
+						break;
 					}
 				}
+				fFilter = null;
 			}
+			DebugEvent[] filtered = fEvents;
+			fEvents = null;
+			return filtered;
+		}
 
+		/**
+		 * Notifies all listeners of the current events.
+		 */
+		private void notifyListeners() {
 			fMode = NOTIFY_EVENTS;
 			if (DebugOptions.DEBUG_EVENTS) {
 				for (DebugEvent event : fEvents) {
@@ -64,6 +64,17 @@ public class RefreshUtil {
 	 */
 	public static final String ATTR_REFRESH_RECURSIVE = DebugPlugin.getUniqueIdentifier() + ".ATTR_REFRESH_RECURSIVE"; //$NON-NLS-1$
 
+	/**
+	 * Boolean attribute indicating if only the resources changed in the
+	 * refresh scope while a launch is running are refreshed when the launch
+	 * terminates. Default value is <code>false</code>. The changes are
+	 * recorded with a file system watcher; the whole scope is refreshed when
+	 * changes cannot be recorded.
+	 *
+	 * @since 3.18
+	 */
+	public static final String ATTR_REFRESH_TRACKED = DebugPlugin.getUniqueIdentifier() + ".ATTR_REFRESH_TRACKED"; //$NON-NLS-1$
+
 	/**
 	 * Resource memento referring to the selected resource's project.
 	 * Only works when the debug user interface is running.
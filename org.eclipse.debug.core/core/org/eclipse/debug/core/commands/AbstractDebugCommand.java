@@ -27,6 +27,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IRequest;
 import org.eclipse.debug.internal.core.DebugOptions;
+import org.eclipse.debug.internal.core.commands.EnabledStateUpdater;
 
 /**
  * Abstract implementation of a debug command handler. Handles {@link IDebugCommandRequest}
@@ -48,6 +49,11 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 		 */
 		private IEnabledStateRequest request;
 
+		/**
+		 * Generation of the enabled state cache when the request was made
+		 */
+		private final long generation;
+
 		/**
 		 * Whether this job has been run
 		 */
@@ -57,65 +63,21 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 		 * Creates a new job to update the specified request
 		 *
 		 * @param stateRequest the {@link IEnabledStateRequest}
+		 * @param cacheGeneration the generation of the enabled state cache
 		 */
-		UpdateJob(IEnabledStateRequest stateRequest) {
+		UpdateJob(IEnabledStateRequest stateRequest, long cacheGeneration) {
 			super(getEnabledStateTaskName());
 			request = stateRequest;
+			generation = cacheGeneration;
 			setSystem(true);
 			setRule(getEnabledStateSchedulingRule(request));
-			getJobManager().addJobChangeListener(this);
+			addJobChangeListener(this);
 		}
 
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			run = true;
-			if (DebugOptions.DEBUG_COMMANDS) {
-				DebugOptions.trace("can execute command: " + AbstractDebugCommand.this); //$NON-NLS-1$
-			}
-			if (monitor.isCanceled()) {
-				if (DebugOptions.DEBUG_COMMANDS) {
-					DebugOptions.trace(" >> *CANCELED* <<"); //$NON-NLS-1$
-				}
-				request.cancel();
-			}
-			Object[] elements = request.getElements();
-			Object[] targets = new Object[elements.length];
-			if (!request.isCanceled()) {
-				for (int i = 0; i < elements.length; i++) {
-					targets[i] = getTarget(elements[i]);
-					if (targets[i] == null) {
-						request.setEnabled(false);
-						request.cancel();
-						if (DebugOptions.DEBUG_COMMANDS) {
-							DebugOptions.trace(" >> false (no adapter)"); //$NON-NLS-1$
-						}
-					}
-				}
-				if (monitor.isCanceled()) {
-					request.cancel();
-				}
-			}
-			if (!request.isCanceled()) {
-				targets = coalesce(targets);
-				monitor.beginTask(getEnabledStateTaskName(), targets.length);
-				try {
-					boolean executable = isExecutable(targets, monitor, request);
-					if (DebugOptions.DEBUG_COMMANDS) {
-						DebugOptions.trace(" >> " + executable); //$NON-NLS-1$
-					}
-					request.setEnabled(executable);
-				} catch (CoreException e) {
-					request.setStatus(e.getStatus());
-					request.setEnabled(false);
-					if (DebugOptions.DEBUG_COMMANDS) {
-						DebugOptions.trace(" >> ABORTED"); //$NON-NLS-1$
-						DebugOptions.trace("\t" + e.getStatus().getMessage()); //$NON-NLS-1$
-					}
-				}
-			}
-			monitor.setCanceled(request.isCanceled());
-			request.done();
-			monitor.done();
+			updateEnabledState(request, generation, monitor);
 			return Status.OK_STATUS;
 		}
 
@@ -138,16 +100,10 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 
 		@Override
 		public void done(IJobChangeEvent event) {
-			if (event.getJob() == this) {
-				if (!run) {
-					request.cancel();
-					request.done();
-					if (DebugOptions.DEBUG_COMMANDS) {
-						DebugOptions.trace(" >> *CANCELED* <<" + AbstractDebugCommand.this); //$NON-NLS-1$
-					}
-				}
-				getJobManager().removeJobChangeListener(this);
+			if (!run) {
+				cancelEnabledState(request);
 			}
+			removeJobChangeListener(this);
 		}
 
 		@Override
@@ -169,10 +125,42 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 
 	}
 
+	/**
+	 * Update of the enabled state which is run together with the updates of
+	 * other commands for the same elements.
+	 */
+	private class BatchedUpdate implements EnabledStateUpdater.IUpdate {
+
+		private final IEnabledStateRequest request;
+
+		private final long generation;
+
+		BatchedUpdate(IEnabledStateRequest stateRequest, long cacheGeneration) {
+			request = stateRequest;
+			generation = cacheGeneration;
+		}
+
+		@Override
+		public Object getFamily() {
+			return getEnabledStateJobFamily(request);
+		}
+
+		@Override
+		public void run(IProgressMonitor monitor) {
+			updateEnabledState(request, generation, monitor);
+		}
+
+		@Override
+		public void cancel() {
+			cancelEnabledState(request);
+		}
+
+	}
+
 	/**
 	 * Scheduling rule to serialize commands on an object
 	 */
-	private class SerialPerObjectRule implements ISchedulingRule {
+	private static class SerialPerObjectRule implements ISchedulingRule {
 
 		private Object fObject = null;
 
@@ -251,8 +239,122 @@ public abstract class AbstractDebugCommand implements IDebugCommandHandler {
 
 	@Override
 	public void canExecute(final IEnabledStateRequest request) {
-		Job job = new UpdateJob(request);
-		job.schedule();
+		EnabledStateUpdater updater = EnabledStateUpdater.getDefault();
+		long generation = -1;
+		if (isEnabledStateCacheable(request)) {
+			Boolean enabled = updater.getCachedState(this, request.getElements());
+			if (enabled != null) {
+				if (DebugOptions.DEBUG_COMMANDS) {
+					DebugOptions.trace("can execute command: " + this + " >> " + enabled + " (cached)"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				request.setEnabled(enabled.booleanValue());
+				request.done();
+				return;
+			}
+			generation = updater.getGeneration();
+		}
+		ISchedulingRule rule = getEnabledStateSchedulingRule(request);
+		if (rule instanceof SerialPerObjectRule) {
+			// the default rule, shared with the updates of other commands for
+			// the same elements
+			updater.schedule(new BatchedUpdate(request, generation), request.getElements(), rule);
+		} else {
+			updater.schedule(new UpdateJob(request, generation));
+		}
+	}
+
+	/**
+	 * Computes the enabled state for the specified request and completes the
+	 * request.
+	 *
+	 * @param request the request to update
+	 * @param generation the generation of the enabled state cache when the
+	 *            request was made or <code>-1</code> if the state is not
+	 *            cached
+	 * @param monitor progress monitor
+	 */
+	private void updateEnabledState(IEnabledStateRequest request, long generation, IProgressMonitor monitor) {
+		if (DebugOptions.DEBUG_COMMANDS) {
+			DebugOptions.trace("can execute command: " + this); //$NON-NLS-1$
+		}
+		if (monitor.isCanceled()) {
+			if (DebugOptions.DEBUG_COMMANDS) {
+				DebugOptions.trace(" >> *CANCELED* <<"); //$NON-NLS-1$
+			}
+			request.cancel();
+		}
+		Object[] elements = request.getElements();
+		Object[] targets = new Object[elements.length];
+		if (!request.isCanceled()) {
+			for (int i = 0; i < elements.length; i++) {
+				targets[i] = getTarget(elements[i]);
+				if (targets[i] == null) {
+					request.setEnabled(false);
+					request.cancel();
+					if (DebugOptions.DEBUG_COMMANDS) {
+						DebugOptions.trace(" >> false (no adapter)"); //$NON-NLS-1$
+					}
+				}
+			}
+			if (monitor.isCanceled()) {
+				request.cancel();
+			}
+		}
+		if (!request.isCanceled()) {
+			targets = coalesce(targets);
+			monitor.beginTask(getEnabledStateTaskName(), targets.length);
+			try {
+				boolean executable = isExecutable(targets, monitor, request);
+				if (DebugOptions.DEBUG_COMMANDS) {
+					DebugOptions.trace(" >> " + executable); //$NON-NLS-1$
+				}
+				request.setEnabled(executable);
+				if (generation >= 0 && !monitor.isCanceled() && !request.isCanceled()) {
+					EnabledStateUpdater.getDefault().cacheState(this, elements, executable, generation);
+				}
+			} catch (CoreException e) {
+				request.setStatus(e.getStatus());
+				request.setEnabled(false);
+				if (DebugOptions.DEBUG_COMMANDS) {
+					DebugOptions.trace(" >> ABORTED"); //$NON-NLS-1$
+					DebugOptions.trace("\t" + e.getStatus().getMessage()); //$NON-NLS-1$
+				}
+			}
+		}
+		monitor.setCanceled(request.isCanceled());
+		request.done();
+		monitor.done();
+	}
+
+	/**
+	 * Cancels and completes the specified request which has not been updated.
+	 *
+	 * @param request the request to cancel
+	 */
+	private void cancelEnabledState(IEnabledStateRequest request) {
+		request.cancel();
+		request.done();
+		if (DebugOptions.DEBUG_COMMANDS) {
+			DebugOptions.trace(" >> *CANCELED* <<" + this); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns whether the enabled state computed for the specified request may
+	 * be cached and reused for requests on the same elements until the next
+	 * debug event. This is the case if the enabled state only depends on the
+	 * state of the debug model, which fires debug events when it changes. The
+	 * default implementation returns <code>false</code>.
+	 * <p>
+	 * Clients may override this method as required.
+	 * </p>
+	 *
+	 * @param request request to compute the enabled state for
+	 * @return whether the enabled state may be cached
+	 * @since 3.18
+	 */
+	protected boolean isEnabledStateCacheable(IEnabledStateRequest request) {
+		return false;
 	}
 
 	/**
@@ -54,6 +54,69 @@ public interface IBinaryStreamMonitor extends IFlushableStreamMonitor {
 	 */
 	byte[] getData();
 
+	/**
+	 * Returns the position of the first byte still available from
+	 * {@link #readData(long, byte[], int, int)}. Positions are counted from
+	 * the last flush of the monitor's buffer. A monitor which limits its
+	 * buffer may discard old content in which case the start position
+	 * increases.
+	 * <p>
+	 * The default implementation returns <code>0</code>.
+	 * </p>
+	 *
+	 * @return position of the first available byte
+	 * @since 3.18
+	 */
+	default long getDataStart() {
+		return 0;
+	}
+
+	/**
+	 * Returns the position after the last byte available from
+	 * {@link #readData(long, byte[], int, int)}.
+	 * <p>
+	 * The default implementation returns the length of {@link #getData()}.
+	 * </p>
+	 *
+	 * @return position after the last available byte
+	 * @since 3.18
+	 */
+	default long getDataEnd() {
+		return getData().length;
+	}
+
+	/**
+	 * Copies a range of the current contents of the stream without copying
+	 * the entire content. Allows to process large buffered content in
+	 * windows.
+	 * <p>
+	 * The default implementation copies from {@link #getData()}.
+	 * </p>
+	 *
+	 * @param position position of the first byte to copy, not less than
+	 *            {@link #getDataStart()}
+	 * @param buffer the destination
+	 * @param offset start offset in the destination
+	 * @param length maximum number of bytes to copy
+	 * @return number of copied bytes or <code>-1</code> if the position is at
+	 *         or after {@link #getDataEnd()}
+	 * @throws IndexOutOfBoundsException if the position is less than
+	 *             {@link #getDataStart()}
+	 * @since 3.18
+	 */
+	default int readData(long position, byte[] buffer, int offset, int length) {
+		byte[] data = getData();
+		if (position < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (position >= data.length) {
+			return -1;
+		}
+		int count = (int) Math.min(length, data.length - position);
+		System.arraycopy(data, (int) position, buffer, offset, count);
+		return count;
+	}
+
 	/**
 	 * Removes the given listener from this stream monitor's registered listeners.
 	 * Has no effect if the listener is not already registered.
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.DebugException;
+
+/**
+ * Optional extension to {@link IMemoryBlockExtension} which provides memory
+ * as {@link PackedMemoryBytes} instead of one {@link MemoryByte} object per
+ * byte. Memory renderings prefer this when showing large amounts of memory.
+ * <p>
+ * Clients may optionally implement this interface when providing
+ * implementations of {@link IMemoryBlockExtension}.
+ * </p>
+ *
+ * @since 3.18
+ * @see PackedMemoryBytes
+ */
+public interface IMemoryBlockExtension2 extends IMemoryBlockExtension {
+
+	/**
+	 * Returns bytes from this memory block based on the given address and the
+	 * addressable size of this memory block.
+	 * <p>
+	 * Behaves like {@link #getBytesFromAddress(BigInteger, long)}. Bytes
+	 * outside the accessible range must have the <code>READABLE</code> flag
+	 * turned off. The caller may modify the returned bytes.
+	 * </p>
+	 *
+	 * @param address address at which to begin retrieving bytes in terms of
+	 *            addressable units
+	 * @param units is the number of addressable units of memory to retrieve
+	 * @return the bytes from this memory block based on the given address and
+	 *         number of units. The length of the returned bytes must be equal
+	 *         to <code>units</code> * <code>getAddressableSize()</code>.
+	 * @throws DebugException if unable to retrieve the specified bytes due to
+	 *             a failure communicating with the target
+	 */
+	PackedMemoryBytes getPackedBytesFromAddress(BigInteger address, long units) throws DebugException;
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Optional extension to {@link IWatchExpressionDelegate} for delegates which
+ * can evaluate several watch expressions in the same context at once, for
+ * example with a single request to the debugged program.
+ * <p>
+ * When watch expressions are evaluated in a new context, for example after a
+ * thread suspended, the expression manager passes all expressions to be
+ * evaluated in that context to
+ * {@link #evaluateExpressions(String[], IDebugElement, IWatchExpressionListener, IProgressMonitor)}
+ * instead of evaluating them one by one.
+ * </p>
+ * <p>
+ * Clients contributing watch expression delegates may implement this
+ * interface.
+ * </p>
+ *
+ * @see IWatchExpressionDelegate
+ * @since 3.18
+ */
+public interface IWatchExpressionDelegate2 extends IWatchExpressionDelegate {
+
+	/**
+	 * Evaluates the given expressions in the given context asynchronously
+	 * and notifies the given listener once for each expression when its
+	 * evaluation finishes. The expression text of each result identifies the
+	 * evaluated expression.
+	 * <p>
+	 * The given monitor is canceled when the results are no longer needed,
+	 * for example because the expressions are to be evaluated in another
+	 * context. Delegates should then stop evaluating and need not notify the
+	 * listener for the remaining expressions.
+	 * </p>
+	 *
+	 * @param expressions the expressions to evaluate
+	 * @param context the context for the evaluation
+	 * @param listener the listener to notify when the evaluation of an
+	 *            expression completes
+	 * @param monitor monitor canceled when the evaluation is no longer needed
+	 */
+	void evaluateExpressions(String[] expressions, IDebugElement context, IWatchExpressionListener listener, IProgressMonitor monitor);
+
+}
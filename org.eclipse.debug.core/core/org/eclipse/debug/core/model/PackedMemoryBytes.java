@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.core.model;
+
+import java.util.Objects;
+
+/**
+ * A sequence of memory bytes stored as one array of values and one array of
+ * attribute flags. Each byte has the value and flags a {@link MemoryByte}
+ * would have, without requiring an object per byte.
+ * <p>
+ * A packed sequence can be a view of a range of another sequence. Views share
+ * the arrays of the sequence they were created from, so changes to values or
+ * flags are visible in both.
+ * </p>
+ * <p>
+ * Clients may instantiate this class. This class is not intended to be
+ * subclassed.
+ * </p>
+ *
+ * @since 3.18
+ * @see MemoryByte
+ * @see IMemoryBlockExtension2
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public final class PackedMemoryBytes {
+
+	private final byte[] fValues;
+	private final byte[] fFlags;
+	private final int fOffset;
+	private final int fLength;
+
+	/**
+	 * Constructs bytes with value <code>0</code> and no flags set, i.e. bytes
+	 * which are neither readable nor writable and have no known endianess.
+	 *
+	 * @param length number of bytes
+	 */
+	public PackedMemoryBytes(int length) {
+		this(new byte[length], new byte[length]);
+	}
+
+	/**
+	 * Constructs bytes backed by the given arrays. The arrays are not copied.
+	 *
+	 * @param values the byte values
+	 * @param flags the attribute flags of each byte as bit mask of the
+	 *            constants defined in {@link MemoryByte}
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public PackedMemoryBytes(byte[] values, byte[] flags) {
+		this(values, flags, 0, values.length);
+		if (values.length != flags.length) {
+			throw new IllegalArgumentException("Values and flags have different lengths"); //$NON-NLS-1$
+		}
+	}
+
+	private PackedMemoryBytes(byte[] values, byte[] flags, int offset, int length) {
+		fValues = values;
+		fFlags = flags;
+		fOffset = offset;
+		fLength = length;
+	}
+
+	/**
+	 * Constructs packed bytes with the values and flags of the given memory
+	 * bytes.
+	 *
+	 * @param bytes the memory bytes to copy
+	 * @return packed copy of the given bytes
+	 */
+	public static PackedMemoryBytes fromMemoryBytes(MemoryByte[] bytes) {
+		byte[] values = new byte[bytes.length];
+		byte[] flags = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			values[i] = bytes[i].getValue();
+			flags[i] = bytes[i].getFlags();
+		}
+		return new PackedMemoryBytes(values, flags);
+	}
+
+	/**
+	 * Returns the number of bytes.
+	 *
+	 * @return the number of bytes
+	 */
+	public int length() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the value of a byte.
+	 *
+	 * @param index zero based index of the byte
+	 * @return the value of the byte
+	 */
+	public byte getValue(int index) {
+		return fValues[fOffset + Objects.checkIndex(index, fLength)];
+	}
+
+	/**
+	 * Sets the value of a byte.
+	 *
+	 * @param index zero based index of the byte
+	 * @param value the new value
+	 */
+	public void setValue(int index, byte value) {
+		fValues[fOffset + Objects.checkIndex(index, fLength)] = value;
+	}
+
+	/**
+	 * Returns the attribute flags of a byte.
+	 *
+	 * @param index zero based index of the byte
+	 * @return the flags as bit mask of the constants defined in
+	 *         {@link MemoryByte}
+	 */
+	public byte getFlags(int index) {
+		return fFlags[fOffset + Objects.checkIndex(index, fLength)];
+	}
+
+	/**
+	 * Sets the attribute flags of a byte.
+	 *
+	 * @param index zero based index of the byte
+	 * @param flags the flags as bit mask of the constants defined in
+	 *            {@link MemoryByte}
+	 */
+	public void setFlags(int index, byte flags) {
+		fFlags[fOffset + Objects.checkIndex(index, fLength)] = flags;
+	}
+
+	/**
+	 * Returns whether all of the given flags are set for a byte.
+	 *
+	 * @param index zero based index of the byte
+	 * @param mask bit mask of the constants defined in {@link MemoryByte}
+	 * @return whether all flags in the mask are set
+	 */
+	public boolean hasFlags(int index, byte mask) {
+		return (getFlags(index) & mask) == mask;
+	}
+
+	/**
+	 * Sets or clears the given flags for a range of bytes.
+	 *
+	 * @param start zero based index of the first byte
+	 * @param length number of bytes
+	 * @param mask bit mask of the constants defined in {@link MemoryByte}
+	 * @param set <code>true</code> to set the flags, <code>false</code> to
+	 *            clear them
+	 */
+	public void setFlags(int start, int length, byte mask, boolean set) {
+		Objects.checkFromIndexSize(start, length, fLength);
+		for (int i = fOffset + start; i < fOffset + start + length; i++) {
+			fFlags[i] = (byte) (set ? fFlags[i] | mask : fFlags[i] & ~mask);
+		}
+	}
+
+	/**
+	 * Returns a view of a range of these bytes. The view shares the storage
+	 * with these bytes.
+	 *
+	 * @param start zero based index of the first byte of the range
+	 * @param length number of bytes in the range
+	 * @return view of the range
+	 */
+	public PackedMemoryBytes range(int start, int length) {
+		Objects.checkFromIndexSize(start, length, fLength);
+		return new PackedMemoryBytes(fValues, fFlags, fOffset + start, length);
+	}
+
+	/**
+	 * Returns a copy of these bytes with the given length. If the copy is
+	 * longer, the additional bytes have value <code>0</code> and no flags set.
+	 *
+	 * @param length length of the copy
+	 * @return the copy
+	 */
+	public PackedMemoryBytes copyOf(int length) {
+		PackedMemoryBytes copy = new PackedMemoryBytes(length);
+		int count = Math.min(length, fLength);
+		System.arraycopy(fValues, fOffset, copy.fValues, 0, count);
+		System.arraycopy(fFlags, fOffset, copy.fFlags, 0, count);
+		return copy;
+	}
+
+	/**
+	 * Copies values and flags of a range of these bytes to other packed bytes.
+	 *
+	 * @param start zero based index of the first byte to copy
+	 * @param target the bytes to copy to
+	 * @param targetStart zero based index in the target
+	 * @param length number of bytes to copy
+	 */
+	public void copyTo(int start, PackedMemoryBytes target, int targetStart, int length) {
+		Objects.checkFromIndexSize(start, length, fLength);
+		Objects.checkFromIndexSize(targetStart, length, target.fLength);
+		System.arraycopy(fValues, fOffset + start, target.fValues, target.fOffset + targetStart, length);
+		System.arraycopy(fFlags, fOffset + start, target.fFlags, target.fOffset + targetStart, length);
+	}
+
+	/**
+	 * Returns a copy of the values of a range of these bytes.
+	 *
+	 * @param start zero based index of the first byte
+	 * @param length number of bytes
+	 * @return the values
+	 */
+	public byte[] getValues(int start, int length) {
+		Objects.checkFromIndexSize(start, length, fLength);
+		byte[] values = new byte[length];
+		System.arraycopy(fValues, fOffset + start, values, 0, length);
+		return values;
+	}
+
+	/**
+	 * Creates memory byte objects for all bytes. Changes to the returned
+	 * objects are not reflected in these bytes.
+	 *
+	 * @return new memory bytes with the values and flags of these bytes
+	 */
+	public MemoryByte[] toMemoryBytes() {
+		return toMemoryBytes(0, fLength);
+	}
+
+	/**
+	 * Creates memory byte objects for a range of these bytes. Changes to the
+	 * returned objects are not reflected in these bytes.
+	 *
+	 * @param start zero based index of the first byte
+	 * @param length number of bytes
+	 * @return new memory bytes with the values and flags of the range
+	 */
+	public MemoryByte[] toMemoryBytes(int start, int length) {
+		Objects.checkFromIndexSize(start, length, fLength);
+		MemoryByte[] bytes = new MemoryByte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = new MemoryByte(fValues[fOffset + start + i], fFlags[fOffset + start + i]);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Concatenates packed bytes into one new sequence.
+	 *
+	 * @param parts the bytes to concatenate
+	 * @return new bytes containing copies of all parts
+	 */
+	public static PackedMemoryBytes concat(PackedMemoryBytes... parts) {
+		int length = 0;
+		for (PackedMemoryBytes part : parts) {
+			length += part.fLength;
+		}
+		PackedMemoryBytes result = new PackedMemoryBytes(length);
+		int offset = 0;
+		for (PackedMemoryBytes part : parts) {
+			part.copyTo(0, result, offset, part.fLength);
+			offset += part.fLength;
+		}
+		return result;
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -36,6 +37,7 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 import org.eclipse.debug.internal.core.NullStreamsProxy;
+import org.eclipse.debug.internal.core.ProcessIOEngine;
 import org.eclipse.debug.internal.core.StreamsProxy;
 
 /**
@@ -73,10 +75,24 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 
 	/**
 	 * The monitor which listens for this runtime process' system process
-	 * to terminate.
+	 * to terminate. <code>null</code> if the process is serviced by the
+	 * shared process I/O engine.
 	 */
 	private final ProcessMonitorThread fMonitor;
 
+	/**
+	 * The shared engine servicing this process' streams and termination or
+	 * <code>null</code> if dedicated threads are used.
+	 */
+	private final ProcessIOEngine fEngine;
+
+	/**
+	 * Completed if the system process could not be terminated, to notify this
+	 * runtime process of its termination anyway once the killed streams are
+	 * closed. Only used if the process is serviced by the shared engine.
+	 */
+	private final CompletableFuture<Object> fForcedTermination = new CompletableFuture<>();
+
 	/**
 	 * The streams proxy for this process
 	 */
@@ -142,13 +158,39 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 			DebugPlugin.log(e);
 		}
 
+		fEngine = ProcessIOEngine.isEnabled() ? ProcessIOEngine.getDefault() : null;
 		fStreamsProxy = createStreamsProxy();
-		fMonitor = new ProcessMonitorThread();
-		fMonitor.start();
+		if (fEngine == null) {
+			fMonitor = new ProcessMonitorThread();
+			fMonitor.start();
+		} else {
+			fMonitor = null;
+			monitorTermination(process);
+		}
 		launch.addProcess(this);
 		fireCreationEvent();
 	}
 
+	/**
+	 * Observes the termination of the given system process without a
+	 * dedicated thread. Once the process has terminated and its output is read
+	 * this runtime process is notified on a thread of the common pool. It must
+	 * not be notified on a thread of the shared engine since the listeners of
+	 * the termination event may block until the engine serviced other streams.
+	 *
+	 * @param process the system process to observe
+	 */
+	private void monitorTermination(Process process) {
+		CompletableFuture<?> termination = CompletableFuture.anyOf(process.onExit(), fForcedTermination);
+		if (fStreamsProxy instanceof StreamsProxy) {
+			CompletableFuture<Void> readCompletion = ((StreamsProxy) fStreamsProxy).getReadCompletion();
+			if (readCompletion != null) {
+				termination = termination.thenCompose(p -> readCompletion);
+			}
+		}
+		termination.whenCompleteAsync((r, e) -> terminated());
+	}
+
 	/**
 	 * Initialize the attributes of this process to those in the given map.
 	 *
@@ -250,7 +292,12 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 			}
 
 			// clean-up
-			fMonitor.killThread();
+			if (fMonitor != null) {
+				fMonitor.killThread();
+			} else {
+				// the streams were killed, so their read completes shortly
+				fForcedTermination.complete(null);
+			}
 			IStatus status = new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugException.TARGET_REQUEST_FAILED, DebugCoreMessages.RuntimeProcess_terminate_failed, null);
 			throw new DebugException(status);
 		}
@@ -346,6 +393,9 @@ public class RuntimeProcess extends PlatformObject implements IProcess {
 				DebugPlugin.log(e);
 			}
 		}
+		if (fEngine != null) {
+			return new StreamsProxy(getSystemProcess(), charset, fEngine);
+		}
 		return new StreamsProxy(getSystemProcess(), charset);
 	}
 
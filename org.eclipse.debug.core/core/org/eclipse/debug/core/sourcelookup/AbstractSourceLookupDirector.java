@@ -36,6 +36,7 @@ import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.IStatusHandler;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.sourcelookup.containers.DefaultSourceContainer;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -219,6 +220,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		}
 		fSourceContainers = null;
 		fResolvedElements = null;
+		SourceLookupCache.getDefault().invalidate(this);
 	}
 
 	/**
@@ -443,8 +445,9 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 				container.init(this);
 			}
 		}
-		// clear resolved duplicates
+		// clear resolved duplicates and cached source elements
 		fResolvedElements = null;
+		SourceLookupCache.getDefault().invalidate(this);
 		// notify participants
 		ISourceLookupParticipant[] participants = getParticipants();
 		for (ISourceLookupParticipant participant : participants) {
@@ -670,6 +673,7 @@ public abstract class AbstractSourceLookupDirector implements ISourceLookupDirec
 		for (ISourceLookupParticipant participant : participants) {
 			removeSourceLookupParticipant(participant);
 		}
+		SourceLookupCache.getDefault().invalidate(this);
 	}
 
 	@Override
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 
 
@@ -49,42 +50,61 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 
 	@Override
 	public Object[] findSourceElements(Object object) throws CoreException {
+		String name = getSourceName(object);
+		if (name == null) {
+			return EMPTY;
+		}
+		boolean duplicates = isFindDuplicates();
+		ISourceLookupDirector director = getDirector();
+		if (director == null || !isCacheSourceElements()) {
+			return findSourceElements(name, duplicates);
+		}
+		return SourceLookupCache.getDefault().lookup(director, this, name, duplicates, n -> findSourceElements(n, duplicates));
+	}
+
+	/**
+	 * Searches the source containers of this participant's director for
+	 * source elements with the given name.
+	 *
+	 * @param name source name
+	 * @param duplicates whether to search for duplicates
+	 * @return the source elements found, possibly empty
+	 * @throws CoreException if searching a source container fails
+	 */
+	private Object[] findSourceElements(String name, boolean duplicates) throws CoreException {
 		List<Object> results = null;
 		CoreException single = null;
 		MultiStatus multiStatus = null;
-		if (isFindDuplicates()) {
+		if (duplicates) {
 			results = new ArrayList<>();
 		}
-		String name = getSourceName(object);
-		if (name != null) {
-			ISourceContainer[] containers = getSourceContainers();
-			for (ISourceContainer c : containers) {
-				try {
-					ISourceContainer container = getDelegateContainer(c);
-					if (container != null) {
-						Object[] objects = container.findSourceElements(name);
-						if (objects.length > 0) {
-							//it will only not be null when we care about duplicates
-							//saves the computation in isFindDuplicates()
-							if (results != null) {
-								Collections.addAll(results, objects);
-							} else {
-								if (objects.length == 1) {
-									return objects;
-								}
-								return new Object[]{objects[0]};
+		ISourceContainer[] containers = getSourceContainers();
+		for (ISourceContainer c : containers) {
+			try {
+				ISourceContainer container = getDelegateContainer(c);
+				if (container != null) {
+					Object[] objects = container.findSourceElements(name);
+					if (objects.length > 0) {
+						//it will only not be null when we care about duplicates
+						//saves the computation in isFindDuplicates()
+						if (results != null) {
+							Collections.addAll(results, objects);
+						} else {
+							if (objects.length == 1) {
+								return objects;
 							}
+							return new Object[]{objects[0]};
 						}
 					}
-				} catch (CoreException e) {
-					if (single == null) {
-						single = e;
-					} else if (multiStatus == null) {
-						multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
-						multiStatus.add(e.getStatus());
-					} else {
-						multiStatus.add(e.getStatus());
-					}
+				}
+			} catch (CoreException e) {
+				if (single == null) {
+					single = e;
+				} else if (multiStatus == null) {
+					multiStatus = new MultiStatus(DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, new IStatus[]{single.getStatus()}, SourceLookupMessages.Source_Lookup_Error, null);
+					multiStatus.add(e.getStatus());
+				} else {
+					multiStatus.add(e.getStatus());
 				}
 			}
 		}
@@ -113,6 +133,25 @@ public abstract class AbstractSourceLookupParticipant implements ISourceLookupPa
 		return container;
 	}
 
+	/**
+	 * Returns whether the source elements found by this participant may be
+	 * shared by all elements with the same source name, until the source
+	 * containers of the director change or resources with the same file name
+	 * are added to or removed from the workspace. Source names nothing was
+	 * found for are only cached briefly. The default implementation returns
+	 * <code>false</code>. Subclasses may override and return
+	 * <code>true</code> if the source elements found only depend on the
+	 * source name and the source containers, i.e. not if
+	 * {@link #getDelegateContainer(ISourceContainer)} translates source
+	 * containers depending on other state.
+	 *
+	 * @return whether source elements found by this participant may be cached
+	 * @since 3.18
+	 */
+	protected boolean isCacheSourceElements() {
+		return false;
+	}
+
 	/**
 	 * Returns the source lookup director this participant is registered with
 	 * or <code>null</code> if none.
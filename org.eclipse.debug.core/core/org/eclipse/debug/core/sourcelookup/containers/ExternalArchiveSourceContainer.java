@@ -17,11 +17,8 @@ import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -30,6 +27,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
@@ -44,17 +42,36 @@ import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
  */
 public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 
-	private boolean fDisposed;
+	private volatile boolean fDisposed;
 	private boolean fDetectRoots;
-	private Set<String> fPotentialRoots;
-	private List<String> fRoots = new ArrayList<>();
+	/**
+	 * Roots found in the archive, read without locking.
+	 */
+	private final CopyOnWriteArrayList<String> fRoots = new CopyOnWriteArrayList<>();
 	private String fArchivePath;
+	/**
+	 * Index of the archive last searched or <code>null</code>.
+	 */
+	private volatile IndexedArchive fIndex;
 	/**
 	 * Unique identifier for the external archive source container type
 	 * (value <code>org.eclipse.debug.core.containerType.externalArchive</code>).
 	 */
 	public static final String TYPE_ID = DebugPlugin.getUniqueIdentifier() + ".containerType.externalArchive";	 //$NON-NLS-1$
 
+	/**
+	 * An opened archive with the index of its entry names.
+	 */
+	private static final class IndexedArchive {
+		final ZipFile fArchive;
+		final ArchiveIndex fIndex;
+
+		IndexedArchive(ZipFile archive, ArchiveIndex index) {
+			fArchive = archive;
+			fIndex = index;
+		}
+	}
+
 	/**
 	 * Creates an archive source container on the archive at the
 	 * specified location in the local file system.
@@ -87,136 +104,147 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 		if (file == null) {
 			return EMPTY;
 		}
-		// NOTE: archive can be closed between get (above) and synchronized block (below)
-		synchronized (file) {
-			boolean isQualfied = newname.indexOf('/') > 0;
-			if (fDetectRoots && isQualfied) {
-				ZipEntry entry = searchRoots(file, newname);
-				if (entry != null) {
-					return new Object[]{new ZipEntryStorage(file, entry)};
-				}
-			} else {
-				// try exact match
-				ZipEntry entry = null;
-				try {
-					entry = file.getEntry(newname);
-				} catch (IllegalStateException e) {
-					// archive was closed between retrieving and locking
-					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-							e.getMessage(), e));
-				}
-				if (entry != null) {
-					// can't be any duplicates if there is an exact match
-					return new Object[]{new ZipEntryStorage(file, entry)};
-				}
-				// search
-				Enumeration<? extends ZipEntry> entries = file.entries();
-				List<ZipEntryStorage> matches = null;
+		try {
+			return findSourceElements(file, newname);
+		} finally {
+			SourceLookupUtils.releaseZipFile(file);
+		}
+	}
+
+	/**
+	 * Searches the given archive for the given name.
+	 *
+	 * @param file the archive, acquired while searching
+	 * @param newname name with <code>/</code> as separator
+	 * @return the source elements found, possibly empty
+	 * @exception CoreException if the archive cannot be searched
+	 */
+	private Object[] findSourceElements(ZipFile file, String newname) throws CoreException {
+		ArchiveIndex index = getIndex(file);
+		if (index == null) {
+			return EMPTY;
+		}
+		boolean isQualfied = newname.indexOf('/') > 0;
+		if (fDetectRoots && isQualfied) {
+			ZipEntry entry = searchRoots(file, index, newname);
+			if (entry != null) {
+				return new Object[]{new ZipEntryStorage(file, entry)};
+			}
+		} else {
+			// try exact match
+			ZipEntry entry = getEntry(file, newname);
+			if (entry != null) {
+				// can't be any duplicates if there is an exact match
+				return new Object[]{new ZipEntryStorage(file, entry)};
+			}
+			// search
+			List<ZipEntryStorage> matches = null;
+			String zipFileCanonical = index.getCanonicalPath();
+			for (String entryName : index.getEntriesEndingWith(newname, !isQualfied)) {
 				try {
-					File zipFile = new File(fArchivePath);
-					String zipFileCanonical = zipFile.getCanonicalPath();
-					while (entries.hasMoreElements()) {
-						entry = entries.nextElement();
-						String entryName = entry.getName();
-						if (entryName.endsWith(newname)) {
-							String zipEntryCanonical = (new File(zipFile, entryName)).getCanonicalPath();
-							if (!zipEntryCanonical.startsWith(zipFileCanonical + File.separator)) {
-								throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + zipEntryCanonical)); //$NON-NLS-1$
-							}
-							if (isQualfied || entryName.length() == newname.length() || entryName.charAt(entryName.length() - newname.length() - 1) == '/') {
-								if (isFindDuplicates()) {
-									if (matches == null) {
-										matches = new ArrayList<>();
-									}
-									matches.add(new ZipEntryStorage(file, entry));
-								} else {
-									return new Object[] {
-											new ZipEntryStorage(file, entry) };
-								}
-							}
-						}
+					String zipEntryCanonical = (new File(zipFileCanonical, entryName)).getCanonicalPath();
+					if (!zipEntryCanonical.startsWith(zipFileCanonical + File.separator)) {
+						throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + zipEntryCanonical)); //$NON-NLS-1$
 					}
 				} catch (IOException e) {
 					throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + fArchivePath)); //$NON-NLS-1$
 				}
-				if (matches != null) {
-					return matches.toArray();
+				entry = getEntry(file, entryName);
+				if (entry != null) {
+					if (isFindDuplicates()) {
+						if (matches == null) {
+							matches = new ArrayList<>();
+						}
+						matches.add(new ZipEntryStorage(file, entry));
+					} else {
+						return new Object[] {
+								new ZipEntryStorage(file, entry) };
+					}
 				}
 			}
+			if (matches != null) {
+				return matches.toArray();
+			}
 		}
 		return EMPTY;
 	}
 
 	/**
-	 * Returns the root path in this archive for the given file name, based
-	 * on its type, or <code>null</code> if none. Detects a root if a root has
-	 * not yet been detected for the given file type.
+	 * Returns the entry with the given name in the given archive.
 	 *
 	 * @param file zip file to search in
+	 * @param name entry name
+	 * @return the {@link ZipEntry} with the given name or <code>null</code>
+	 * @exception CoreException if the archive was closed
+	 */
+	private ZipEntry getEntry(ZipFile file, String name) throws CoreException {
+		try {
+			return file.getEntry(name);
+		} catch (IllegalStateException e) {
+			// archive was closed between retrieving and searching
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+					e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * Returns the index of the entry names of the given archive, indexing the
+	 * archive if this container did not index it yet. The archive is indexed
+	 * again when it was reopened and has been modified since.
+	 *
+	 * @param file the archive
+	 * @return the index or <code>null</code> if this container is disposed
+	 * @exception CoreException if the archive cannot be indexed
+	 */
+	private ArchiveIndex getIndex(ZipFile file) throws CoreException {
+		IndexedArchive indexed = fIndex;
+		if (indexed != null && indexed.fArchive == file) {
+			return indexed.fIndex;
+		}
+		try {
+			ArchiveIndex index = ArchiveIndex.getIndex(fArchivePath, file);
+			if (fDisposed) {
+				return null;
+			}
+			fIndex = new IndexedArchive(file, index);
+			return index;
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), "Invalid path: " + fArchivePath)); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// archive was closed between retrieving and indexing
+			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
+				e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * Returns the entry for the given file name relative to a root path in
+	 * this archive. Roots found before are tried first, otherwise the first
+	 * entry ending with the given name whose root is not nested in a root
+	 * found before is returned and its root is remembered.
+	 *
+	 * @param file zip file to search in
+	 * @param index index of the zip file
 	 * @param name file name
 	 * @return the {@link ZipEntry} with the given name or <code>null</code>
-	 * @exception CoreException if an exception occurs while detecting the root
+	 * @exception CoreException if the archive was closed
 	 */
-	private synchronized ZipEntry searchRoots(ZipFile file, String name) throws CoreException {
+	private ZipEntry searchRoots(ZipFile file, ArchiveIndex index, String name) throws CoreException {
 		if (fDisposed) {
 			return null;
 		}
-		if (fPotentialRoots == null) {
-			fPotentialRoots = new HashSet<>();
-			fPotentialRoots.add(""); //$NON-NLS-1$
-			// all potential roots are the directories
-			try {
-				Enumeration<? extends ZipEntry> entries = file.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = entries.nextElement();
-					if (entry.isDirectory()) {
-						fPotentialRoots.add(entry.getName());
-					} else {
-						String entryName = entry.getName();
-						int index = entryName.lastIndexOf('/');
-						while (index > 0) {
-							if (fPotentialRoots.add(entryName.substring(0, index + 1))) {
-								entryName = entryName.substring(0, index);
-								index = entryName.lastIndexOf('/');
-							} else {
-								break;
-							}
-						}
-					}
-				}
-			} catch (IllegalStateException e) {
-				// archive was closed between retrieving and locking
-				throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-					e.getMessage(), e));
-			}
-		}
-		int i = 0;
-		while (i < fRoots.size()) {
-			String root = fRoots.get(i);
-			ZipEntry entry = file.getEntry(root+name);
+		for (String root : fRoots) {
+			ZipEntry entry = getEntry(file, root + name);
 			if (entry != null) {
 				return entry;
 			}
-			i++;
 		}
-		if (!fPotentialRoots.isEmpty()) {
-			for (String root : fPotentialRoots) {
-				ZipEntry entry = file.getEntry(root + name);
+		for (String entryName : index.getEntriesEndingWith(name, true)) {
+			String root = entryName.substring(0, entryName.length() - name.length());
+			if (!isNestedInRoot(root)) {
+				ZipEntry entry = getEntry(file, entryName);
 				if (entry != null) {
-					if (root != null) {
-						fRoots.add(root);
-						fPotentialRoots.remove(root);
-						// remove any roots that begin with the new root, as
-						// roots
-						// cannot be nested
-						Iterator<String> rs = fPotentialRoots.iterator();
-						while (rs.hasNext()) {
-							String r = rs.next();
-							if (r.startsWith(root)) {
-								rs.remove();
-							}
-						}
-					}
+					fRoots.addIfAbsent(root);
 					return entry;
 				}
 			}
@@ -225,17 +253,34 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	}
 
 	/**
-	 * Returns the archive to search in.
+	 * Returns whether the given root path is nested in a root found before,
+	 * as roots cannot be nested.
+	 *
+	 * @param root root path
+	 * @return whether the root is nested in another root
+	 */
+	private boolean isNestedInRoot(String root) {
+		for (String r : fRoots) {
+			if (root.startsWith(r) && !root.equals(r)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the archive to search in. The archive must be released with
+	 * {@link SourceLookupUtils#releaseZipFile(ZipFile)} after searching.
 	 * @return the {@link ZipFile} to search in
 	 *
 	 * @throws CoreException if unable to access the archive
 	 */
-	private synchronized ZipFile getArchive() throws CoreException {
+	private ZipFile getArchive() throws CoreException {
 		if (fDisposed) {
 			return null;
 		}
 		try {
-			return SourceLookupUtils.getZipFile(fArchivePath);
+			return SourceLookupUtils.acquireZipFile(fArchivePath);
 		} catch (IOException e) {
 			File file = new File(fArchivePath);
 			if (file.exists()) {
@@ -280,12 +325,10 @@ public class ExternalArchiveSourceContainer extends AbstractSourceContainer {
 	}
 
 	@Override
-	public synchronized void dispose() {
+	public void dispose() {
 		super.dispose();
-		if (fPotentialRoots != null) {
-			fPotentialRoots.clear();
-		}
-		fRoots.clear();
 		fDisposed = true;
+		fRoots.clear();
+		fIndex = null;
 	}
 }
@@ -14,6 +14,7 @@
 package org.eclipse.debug.core.sourcelookup.containers;
 
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.ZipEntry;
@@ -28,6 +29,7 @@ import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.internal.core.sourcelookup.SourceLookupMessages;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
 
 /**
  * Storage implementation for zip entries.
@@ -65,8 +67,45 @@ public class ZipEntryStorage extends PlatformObject implements IStorage {
 
 	@Override
 	public InputStream getContents() throws CoreException {
+		ZipFile archive = getArchive();
 		try {
-			return getArchive().getInputStream(getZipEntry());
+			if (!SourceLookupUtils.retainZipFile(archive)) {
+				try {
+					return archive.getInputStream(getZipEntry());
+				} catch (IllegalStateException e) {
+					// archive was closed, e.g. by source lookup when not in
+					// use anymore, read the entry from the archive reopened
+					archive = SourceLookupUtils.acquireZipFile(archive.getName());
+				}
+			}
+			InputStream contents = null;
+			try {
+				contents = archive.getInputStream(getZipEntry());
+			} finally {
+				if (contents == null) {
+					SourceLookupUtils.releaseZipFile(archive);
+				}
+			}
+			if (contents == null) {
+				return null;
+			}
+			ZipFile acquired = archive;
+			// the archive is not closed while its contents are read
+			return new FilterInputStream(contents) {
+				private boolean fClosed;
+
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						if (!fClosed) {
+							fClosed = true;
+							SourceLookupUtils.releaseZipFile(acquired);
+						}
+					}
+				}
+			};
 		} catch (IOException e) {
 			throw new CoreException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugPlugin.ERROR, SourceLookupMessages.ZipEntryStorage_0, e));
 		}
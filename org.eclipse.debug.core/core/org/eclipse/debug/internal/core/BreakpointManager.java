@@ -16,14 +16,18 @@ package org.eclipse.debug.internal.core;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
 import org.eclipse.core.resources.IProject;
@@ -33,6 +37,7 @@ import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
@@ -45,7 +50,9 @@ import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IBreakpointListener;
@@ -79,7 +86,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	/**
 	 * A collection of breakpoints registered with this manager.
 	 */
-	private Vector<IBreakpoint> fBreakpoints;
+	private BreakpointStore fBreakpoints;
 
 	/**
 	 * Map of breakpoint import participants.
@@ -130,7 +137,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * key: a marker
 	 * value: the breakpoint which contains that marker
 	 */
-	private final HashMap<IMarker, IBreakpoint> fMarkersToBreakpoints;
+	private final Map<IMarker, IBreakpoint> fMarkersToBreakpoints;
 
 	/**
 	 * Collection of breakpoint listeners.
@@ -165,6 +172,30 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 */
 	private final Set<IBreakpoint> fTriggerPointDisabledList = new LinkedHashSet<>();
 
+	/**
+	 * Job family of the jobs restoring breakpoints in the background.
+	 *
+	 * @see #isRestored()
+	 * @since 3.18
+	 */
+	public static final Object RESTORE_FAMILY = new Object();
+
+	/**
+	 * Number of breakpoints a restore job registers and publishes at once.
+	 */
+	private static final int RESTORE_BATCH_SIZE = 500;
+
+	/**
+	 * Serializes registration of restored breakpoints between restore jobs.
+	 */
+	private final Object fRestoreLock = new Object();
+
+	/**
+	 * Released once all breakpoints of the workspace are restored. Replaced
+	 * each time this manager is initialized.
+	 */
+	private volatile CountDownLatch fRestored = new CountDownLatch(1);
+
 
 	/**
 	 * Listens to POST_CHANGE notifications of breakpoint markers to detect when
@@ -259,7 +290,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * Constructs a new breakpoint manager.
 	 */
 	public BreakpointManager() {
-		fMarkersToBreakpoints = new HashMap<>(10);
+		fMarkersToBreakpoints = Collections.synchronizedMap(new HashMap<>(10));
 		fBreakpointExtensions = new HashMap<>(15);
 	}
 
@@ -310,9 +341,23 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * @throws CoreException if a problem is encountered
 	 */
 	protected IMarker[] getPersistedMarkers(IResource resource) throws CoreException {
+		return getPersistedMarkers(resource, IResource.DEPTH_INFINITE);
+	}
+
+	/**
+	 * Returns the persisted markers associated with the given resource up to
+	 * the given depth and deletes invalid breakpoint markers.
+	 *
+	 * @param resource the {@link IResource} to get markers for
+	 * @param depth one of the <code>IResource.DEPTH_*</code> constants
+	 * @return the persisted markers for the given {@link IResource}
+	 * @throws CoreException if a problem is encountered
+	 * @see #getPersistedMarkers(IResource)
+	 */
+	private IMarker[] getPersistedMarkers(IResource resource, int depth) throws CoreException {
 		final List<IMarker> delete = new ArrayList<>();
 		List<IMarker> persisted = new ArrayList<>();
-		for (IMarker marker : resource.findMarkers(IBreakpoint.BREAKPOINT_MARKER, true, IResource.DEPTH_INFINITE)) {
+		for (IMarker marker : resource.findMarkers(IBreakpoint.BREAKPOINT_MARKER, true, depth)) {
 			// ensure the marker has a valid model identifier attribute
 			// and delete the breakpoint if not
 			String modelId = marker.getAttribute(IBreakpoint.ID, null);
@@ -345,6 +390,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * and removes all breakpoint listeners.
 	 */
 	public void shutdown() {
+		Job.getJobManager().cancel(RESTORE_FAMILY);
 		getWorkspace().removeResourceChangeListener(this);
 		getWorkspace().removeResourceChangeListener(fPostChangeListener);
 		fBreakpointListeners.clear();
@@ -403,13 +449,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 
 	@Override
 	public IBreakpoint[] getBreakpoints() {
-		IBreakpoint[] temp = new IBreakpoint[0];
-		Vector<IBreakpoint> breakpoints = getBreakpoints0();
-		synchronized (breakpoints) {
-			temp = new IBreakpoint[breakpoints.size()];
-			breakpoints.copyInto(temp);
-		}
-		return temp;
+		return getBreakpoints0().toArray();
 	}
 
 	/**
@@ -430,9 +470,9 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * The BreakpointManager waits to load the breakpoints
 	 * of the workspace until a request is made to retrieve the
 	 * breakpoints.
-	 * @return the underlying {@link Vector} of breakpoints
+	 * @return the underlying store of breakpoints
 	 */
-	private synchronized Vector<IBreakpoint> getBreakpoints0() {
+	private synchronized BreakpointStore getBreakpoints0() {
 		if (fBreakpoints == null) {
 			initializeBreakpoints();
 		}
@@ -441,17 +481,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 
 	@Override
 	public IBreakpoint[] getBreakpoints(String modelIdentifier) {
-		Vector<IBreakpoint> allBreakpoints = getBreakpoints0();
-		synchronized (allBreakpoints) {
-			ArrayList<IBreakpoint> temp = new ArrayList<>(allBreakpoints.size());
-			for (IBreakpoint breakpoint : allBreakpoints) {
-				String id= breakpoint.getModelIdentifier();
-				if (id != null && id.equals(modelIdentifier)) {
-					temp.add(breakpoint);
-				}
-			}
-			return temp.toArray(new IBreakpoint[temp.size()]);
-		}
+		return getBreakpoints0().getBreakpoints(modelIdentifier);
 	}
 
 	/**
@@ -459,17 +489,124 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	 * workspace. Start listening to resource deltas.
 	 */
 	private void initializeBreakpoints() {
-		setBreakpoints(new Vector<>(10));
+		BreakpointStore store = new BreakpointStore();
+		setBreakpoints(store);
+		CountDownLatch restored = new CountDownLatch(1);
+		fRestored = restored;
 		try {
-			loadBreakpoints(getWorkspace().getRoot(), false);
+			if (Platform.getPreferencesService().getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND, false, null)) {
+				restoreBreakpoints(store, restored);
+			} else {
+				loadBreakpoints(getWorkspace().getRoot(), false);
+				restored.countDown();
+			}
 			getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_BUILD);
 			getWorkspace().addResourceChangeListener(fPostChangeListener, IResourceChangeEvent.POST_CHANGE);
 		} catch (CoreException ce) {
 			DebugPlugin.log(ce);
-			setBreakpoints(new Vector<>(0));
+			setBreakpoints(new BreakpointStore());
+			restored.countDown();
+		}
+	}
+
+	/**
+	 * Schedules one job restoring the breakpoints on the workspace root and
+	 * one job per accessible project. The given latch is released once all
+	 * jobs are done.
+	 *
+	 * @param store the store to restore breakpoints into
+	 * @param restored latch to release when restoration is complete
+	 */
+	private void restoreBreakpoints(BreakpointStore store, CountDownLatch restored) {
+		initBreakpointExtensions();
+		IWorkspaceRoot root = getWorkspace().getRoot();
+		IProject[] projects = root.getProjects(IContainer.INCLUDE_HIDDEN);
+		AtomicInteger pending = new AtomicInteger(projects.length + 1);
+		List<Job> jobs = new ArrayList<>(projects.length + 1);
+		jobs.add(new BreakpointRestoreJob(store, root, IResource.DEPTH_ZERO, pending, restored));
+		for (IProject project : projects) {
+			jobs.add(new BreakpointRestoreJob(store, project, IResource.DEPTH_INFINITE, pending, restored));
+		}
+		for (Job job : jobs) {
+			job.schedule();
 		}
 	}
 
+	/**
+	 * Registers a batch of restored breakpoints and notifies listeners of the
+	 * addition. Breakpoints whose marker was registered with another
+	 * breakpoint in the meantime are skipped. Breakpoints are verified like
+	 * breakpoints added with {@link #addBreakpoints(IBreakpoint[])}.
+	 *
+	 * @param store the store the breakpoints are restored into
+	 * @param breakpoints the restored breakpoints
+	 * @throws CoreException if a problem is encountered
+	 */
+	private void publishRestored(BreakpointStore store, List<IBreakpoint> breakpoints) throws CoreException {
+		List<IBreakpoint> added = new ArrayList<>(breakpoints.size());
+		synchronized (fRestoreLock) {
+			for (IBreakpoint breakpoint : breakpoints) {
+				IMarker marker = breakpoint.getMarker();
+				IBreakpoint existing = fMarkersToBreakpoints.get(marker);
+				if (existing != null && existing != breakpoint) {
+					continue;
+				}
+				// like breakpoints restored synchronously
+				verifyBreakpoint(breakpoint);
+				if (store.add(breakpoint)) {
+					fMarkersToBreakpoints.put(marker, breakpoint);
+					added.add(breakpoint);
+					if (breakpoint instanceof ITriggerPoint && ((ITriggerPoint) breakpoint).isTriggerPoint()) {
+						addTriggerPoint(breakpoint);
+					}
+				}
+			}
+		}
+		fireUpdate(added, null, ADDED);
+	}
+
+	/**
+	 * @param store a breakpoint store
+	 * @return whether the given store is still the store of this manager
+	 */
+	private synchronized boolean isCurrent(BreakpointStore store) {
+		return fBreakpoints == store;
+	}
+
+	/**
+	 * Returns whether all persisted breakpoints of the workspace are restored.
+	 * <p>
+	 * Breakpoints are restored synchronously on first access unless
+	 * background restoration is enabled. In that case they are published in
+	 * batches through {@link IBreakpointsListener#breakpointsAdded(IBreakpoint[])}
+	 * and this manager only knows a partial set of breakpoints until this
+	 * method returns <code>true</code>. This method does not trigger
+	 * initialization of this manager.
+	 * </p>
+	 *
+	 * @return whether breakpoint restoration is complete
+	 * @since 3.18
+	 */
+	public boolean isRestored() {
+		return fRestored.getCount() == 0;
+	}
+
+	/**
+	 * Initializes this manager if necessary and waits until all persisted
+	 * breakpoints of the workspace are restored.
+	 *
+	 * @param timeout maximum time to wait in milliseconds
+	 * @return <code>true</code> if restoration is complete,
+	 *         <code>false</code> if the timeout elapsed before
+	 * @throws InterruptedException if interrupted while waiting
+	 * @see #isRestored()
+	 * @since 3.18
+	 */
+	public boolean waitUntilRestored(long timeout) throws InterruptedException {
+		ensureInitialized();
+		return fRestored.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
 	/**
 	 * @see IBreakpointManager#isRegistered(IBreakpoint)
 	 */
@@ -493,7 +630,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 	@Override
 	public void removeBreakpoints(IBreakpoint[] breakpoints, final boolean delete) throws CoreException {
 		final List<IBreakpoint> remove = new ArrayList<>(breakpoints.length);
-		List<IBreakpoint> bps = getBreakpoints0();
+		BreakpointStore bps = getBreakpoints0();
 		for (IBreakpoint breakpoint : breakpoints) {
 			if (bps.contains(breakpoint)) {
 				remove.add(breakpoint);
@@ -619,7 +756,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		}
 		if (!update.isEmpty()) {
 			IWorkspaceRunnable r = monitor -> {
-				List<IBreakpoint> bps = getBreakpoints0();
+				BreakpointStore bps = getBreakpoints0();
 				for (IBreakpoint breakpoint : update) {
 					bps.add(breakpoint);
 					breakpoint.setRegistered(true);
@@ -862,7 +999,8 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		private IBreakpoint findMatchingBreakpoint(IMarker marker) {
 			try {
 				Integer line = (Integer) marker.getAttribute(IMarker.LINE_NUMBER);
-				for (IBreakpoint breakpoint : getBreakpoints0()) {
+				// only breakpoints on the same resource can match
+				for (IBreakpoint breakpoint : getBreakpoints0().getBreakpoints(marker.getResource())) {
 					IMarker bpMarker = breakpoint.getMarker();
 					if (bpMarker != null && marker.getResource().equals(bpMarker.getResource()) && bpMarker.getAttribute(IMarker.LINE_NUMBER, -1) == (line == null ? -1 : line.intValue())) {
 						return breakpoint;
@@ -910,12 +1048,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		private void handleProjectResourceOpenStateChange(final IResource project) {
 			if (!project.isAccessible()) {
 				//closed
-				for (@SuppressWarnings("unchecked") IBreakpoint breakpoint : (Vector<IBreakpoint>) getBreakpoints0().clone()) {
-					IResource markerResource= breakpoint.getMarker().getResource();
-					if (project.getFullPath().isPrefixOf(markerResource.getFullPath())) {
-						fRemoved.add(breakpoint);
-					}
-				}
+				Collections.addAll(fRemoved, getBreakpoints0().getBreakpointsUnder(project.getFullPath()));
 				return;
 			}
 			try {
@@ -965,7 +1098,7 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		getBreakpointsNotifier().notify(bpArray, deltaArray, update);
 	}
 
-	protected void setBreakpoints(Vector<IBreakpoint> breakpoints) {
+	protected void setBreakpoints(BreakpointStore breakpoints) {
 		fBreakpoints = breakpoints;
 	}
 
@@ -1234,6 +1367,78 @@ public class BreakpointManager implements IBreakpointManager, IResourceChangeLis
 		}
 	}
 
+	/**
+	 * Restores the persisted breakpoints of one resource in the background and
+	 * publishes them in batches. Restore jobs of different projects run in
+	 * parallel.
+	 */
+	class BreakpointRestoreJob extends Job {
+
+		private final BreakpointStore fStore;
+		private final IResource fResource;
+		private final int fDepth;
+		private final AtomicInteger fPending;
+		private final CountDownLatch fDone;
+
+		BreakpointRestoreJob(BreakpointStore store, IResource resource, int depth, AtomicInteger pending, CountDownLatch done) {
+			super("breakpoint restore job"); //$NON-NLS-1$
+			fStore = store;
+			fResource = resource;
+			fDepth = depth;
+			fPending = pending;
+			fDone = done;
+			setSystem(true);
+			addJobChangeListener(new JobChangeAdapter() {
+				@Override
+				public void done(IJobChangeEvent event) {
+					if (fPending.decrementAndGet() == 0) {
+						fDone.countDown();
+					}
+				}
+			});
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				if (!fResource.isAccessible()) {
+					return Status.OK_STATUS;
+				}
+				IMarker[] markers = getPersistedMarkers(fResource, fDepth);
+				List<IBreakpoint> batch = new ArrayList<>(Math.min(markers.length, RESTORE_BATCH_SIZE));
+				for (IMarker marker : markers) {
+					if (monitor.isCanceled() || !isCurrent(fStore)) {
+						return Status.CANCEL_STATUS;
+					}
+					try {
+						IBreakpoint breakpoint = createBreakpoint(marker);
+						synchronized (fPostChangMarkersChanged) {
+							fPostBuildMarkersAdded.add(marker);
+						}
+						if (breakpoint.isRegistered()) {
+							batch.add(breakpoint);
+						}
+					} catch (DebugException e) {
+						DebugPlugin.log(e);
+					}
+					if (batch.size() >= RESTORE_BATCH_SIZE) {
+						publishRestored(fStore, batch);
+						batch.clear();
+					}
+				}
+				publishRestored(fStore, batch);
+			} catch (CoreException e) {
+				DebugPlugin.log(e);
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == RESTORE_FAMILY;
+		}
+	}
+
 	@Override
 	public String getTypeName(IBreakpoint breakpoint) {
 		String typeName= null;
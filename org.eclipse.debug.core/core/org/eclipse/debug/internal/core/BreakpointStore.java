@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.debug.core.model.IBreakpoint;
+
+/**
+ * The registered breakpoints of the {@link BreakpointManager}, indexed by
+ * model identifier and by the resource of the breakpoint marker.
+ * <p>
+ * Iteration order is the order in which breakpoints were added. Index keys are
+ * captured when a breakpoint is added, so a breakpoint can be removed even
+ * after its marker was deleted. All methods are synchronized on the store.
+ * </p>
+ *
+ * @since 3.18
+ */
+public class BreakpointStore {
+
+	private static final IBreakpoint[] EMPTY = new IBreakpoint[0];
+
+	/**
+	 * Index keys captured when a breakpoint was added.
+	 */
+	private static final class Keys {
+		final String fModelIdentifier;
+		final IResource fResource;
+
+		Keys(String modelIdentifier, IResource resource) {
+			fModelIdentifier = modelIdentifier;
+			fResource = resource;
+		}
+	}
+
+	/**
+	 * All breakpoints in insertion order.
+	 */
+	private final Map<IBreakpoint, Keys> fBreakpoints = new LinkedHashMap<>();
+
+	private final Map<String, Set<IBreakpoint>> fByModelIdentifier = new HashMap<>();
+
+	private final Map<IResource, Set<IBreakpoint>> fByResource = new HashMap<>();
+
+	/**
+	 * Adds the given breakpoint.
+	 *
+	 * @param breakpoint the breakpoint to add
+	 * @return <code>true</code> if the breakpoint was not yet contained
+	 */
+	public synchronized boolean add(IBreakpoint breakpoint) {
+		if (fBreakpoints.containsKey(breakpoint)) {
+			return false;
+		}
+		IMarker marker = breakpoint.getMarker();
+		Keys keys = new Keys(breakpoint.getModelIdentifier(), marker == null ? null : marker.getResource());
+		fBreakpoints.put(breakpoint, keys);
+		if (keys.fModelIdentifier != null) {
+			fByModelIdentifier.computeIfAbsent(keys.fModelIdentifier, k -> new LinkedHashSet<>()).add(breakpoint);
+		}
+		if (keys.fResource != null) {
+			fByResource.computeIfAbsent(keys.fResource, k -> new LinkedHashSet<>()).add(breakpoint);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given breakpoint.
+	 *
+	 * @param breakpoint the breakpoint to remove
+	 * @return <code>true</code> if the breakpoint was contained
+	 */
+	public synchronized boolean remove(IBreakpoint breakpoint) {
+		Keys keys = fBreakpoints.remove(breakpoint);
+		if (keys == null) {
+			return false;
+		}
+		removeFromIndex(fByModelIdentifier, keys.fModelIdentifier, breakpoint);
+		removeFromIndex(fByResource, keys.fResource, breakpoint);
+		return true;
+	}
+
+	private static <K> void removeFromIndex(Map<K, Set<IBreakpoint>> index, K key, IBreakpoint breakpoint) {
+		if (key == null) {
+			return;
+		}
+		Set<IBreakpoint> breakpoints = index.get(key);
+		if (breakpoints != null) {
+			breakpoints.remove(breakpoint);
+			if (breakpoints.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * @param breakpoint the breakpoint to test
+	 * @return whether the given breakpoint is contained
+	 */
+	public synchronized boolean contains(IBreakpoint breakpoint) {
+		return fBreakpoints.containsKey(breakpoint);
+	}
+
+	/**
+	 * @return whether the store is empty
+	 */
+	public synchronized boolean isEmpty() {
+		return fBreakpoints.isEmpty();
+	}
+
+	/**
+	 * @return number of contained breakpoints
+	 */
+	public synchronized int size() {
+		return fBreakpoints.size();
+	}
+
+	/**
+	 * Removes all breakpoints.
+	 */
+	public synchronized void clear() {
+		fBreakpoints.clear();
+		fByModelIdentifier.clear();
+		fByResource.clear();
+	}
+
+	/**
+	 * @return all breakpoints in insertion order
+	 */
+	public synchronized IBreakpoint[] toArray() {
+		return toArray(fBreakpoints.keySet());
+	}
+
+	/**
+	 * @param modelIdentifier a debug model identifier
+	 * @return the breakpoints of the given debug model
+	 */
+	public synchronized IBreakpoint[] getBreakpoints(String modelIdentifier) {
+		return toArray(fByModelIdentifier.get(modelIdentifier));
+	}
+
+	/**
+	 * @param resource a resource
+	 * @return the breakpoints whose marker is on exactly the given resource
+	 */
+	public synchronized IBreakpoint[] getBreakpoints(IResource resource) {
+		return toArray(fByResource.get(resource));
+	}
+
+	/**
+	 * Returns the breakpoints whose marker is on the given resource or one of
+	 * its descendants.
+	 *
+	 * @param path full path of a resource
+	 * @return the breakpoints on or below the given path
+	 */
+	public synchronized IBreakpoint[] getBreakpointsUnder(IPath path) {
+		List<IBreakpoint> result = new ArrayList<>();
+		for (Map.Entry<IResource, Set<IBreakpoint>> entry : fByResource.entrySet()) {
+			if (path.isPrefixOf(entry.getKey().getFullPath())) {
+				result.addAll(entry.getValue());
+			}
+		}
+		return toArray(result);
+	}
+
+	private static IBreakpoint[] toArray(Collection<IBreakpoint> breakpoints) {
+		if (breakpoints == null || breakpoints.isEmpty()) {
+			return EMPTY;
+		}
+		return breakpoints.toArray(new IBreakpoint[breakpoints.size()]);
+	}
+}
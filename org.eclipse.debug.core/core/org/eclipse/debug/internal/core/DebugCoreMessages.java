@@ -53,7 +53,6 @@ public class DebugCoreMessages extends NLS {
 	public static String LaunchConfiguration_11;
 	public static String LaunchConfiguration_13;
 	public static String LaunchConfiguration_14;
-	public static String LaunchConfiguration_16;
 	public static String LaunchConfiguration_17;
 	public static String LaunchConfiguration_18;
 	public static String LaunchConfiguration_19;
@@ -117,6 +116,7 @@ public class DebugCoreMessages extends NLS {
 	public static String LogicalStructureType_0;
 	public static String OutputStreamMonitor_label;
 	public static String ProcessMonitorJob_0;
+	public static String ProcessIOEngine_threadName;
 	public static String RuntimeProcess_terminate_failed;
 	public static String RuntimeProcess_Exit_value_not_available_until_process_terminates__1;
 	public static String WatchExpression_0;
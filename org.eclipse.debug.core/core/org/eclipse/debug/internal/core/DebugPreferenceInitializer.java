@@ -31,6 +31,14 @@ public class DebugPreferenceInitializer extends AbstractPreferenceInitializer {
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), DebugPlugin.PREF_DELETE_CONFIGS_ON_PROJECT_DELETE, false);
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_ENABLE_STATUS_HANDLERS, true);
 		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_BREAKPOINT_MANAGER_ENABLED_STATE, true);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SHARED_PROCESS_IO, false);
+		Preferences.setDefaultLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_BUFFER_LIMIT, 0);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_BATCH_DEBUG_EVENTS, false);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_COALESCE_DEBUG_EVENTS, false);
+		Preferences.setDefaultBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND, false);
+		Preferences.setDefaultLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_SIZE, 8 * 1024 * 1024);
+		Preferences.setDefaultInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE, 1000);
+		Preferences.setDefaultInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OPEN_ARCHIVES_LIMIT, 50);
 		Preferences.savePreferences(DebugPlugin.getUniqueIdentifier());
 	}
 
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the debug event dispatch of
+ * {@link org.eclipse.debug.core.DebugPlugin}: current and maximum queue depth,
+ * number of dispatched event sets and batches, coalesced events and the
+ * latency between queuing and dispatch.
+ *
+ * @since 3.18
+ */
+public final class EventDispatchStatistics {
+
+	private static final EventDispatchStatistics fgDefault = new EventDispatchStatistics();
+
+	private final AtomicInteger fQueueDepth = new AtomicInteger();
+	private final AtomicInteger fMaxQueueDepth = new AtomicInteger();
+	private final AtomicLong fDispatchedItems = new AtomicLong();
+	private final AtomicLong fDispatchedBatches = new AtomicLong();
+	private final AtomicLong fCoalescedEvents = new AtomicLong();
+	private final AtomicLong fTotalLatency = new AtomicLong();
+	private final AtomicLong fMaxLatency = new AtomicLong();
+
+	private EventDispatchStatistics() {
+	}
+
+	/**
+	 * @return the statistics of the debug plug-in's event dispatch
+	 */
+	public static EventDispatchStatistics getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Records that an event set or runnable was queued.
+	 */
+	public void queued() {
+		int depth = fQueueDepth.incrementAndGet();
+		fMaxQueueDepth.accumulateAndGet(depth, Math::max);
+	}
+
+	/**
+	 * Records that a queued event set or runnable was taken from the queue.
+	 *
+	 * @param queueTime {@link System#nanoTime()} when the item was queued
+	 */
+	public void dequeued(long queueTime) {
+		fQueueDepth.decrementAndGet();
+		fDispatchedItems.incrementAndGet();
+		long latency = System.nanoTime() - queueTime;
+		fTotalLatency.addAndGet(latency);
+		fMaxLatency.accumulateAndGet(latency, Math::max);
+	}
+
+	/**
+	 * Records the dispatch of a merged batch of event sets.
+	 *
+	 * @param coalesced number of events dropped as redundant
+	 */
+	public void batchDispatched(int coalesced) {
+		fDispatchedBatches.incrementAndGet();
+		fCoalescedEvents.addAndGet(coalesced);
+	}
+
+	/**
+	 * @return number of queued, not yet dispatched event sets and runnables
+	 */
+	public int getQueueDepth() {
+		return fQueueDepth.get();
+	}
+
+	/**
+	 * @return maximum queue depth since the last reset
+	 */
+	public int getMaxQueueDepth() {
+		return fMaxQueueDepth.get();
+	}
+
+	/**
+	 * @return number of event sets and runnables taken from the queue
+	 */
+	public long getDispatchedCount() {
+		return fDispatchedItems.get();
+	}
+
+	/**
+	 * @return number of merged batches dispatched in batch mode
+	 */
+	public long getBatchCount() {
+		return fDispatchedBatches.get();
+	}
+
+	/**
+	 * @return number of events dropped as redundant in batch mode
+	 */
+	public long getCoalescedCount() {
+		return fCoalescedEvents.get();
+	}
+
+	/**
+	 * @return average time in nanoseconds from queuing to dispatch
+	 */
+	public long getAverageLatency() {
+		long count = fDispatchedItems.get();
+		return count == 0 ? 0 : fTotalLatency.get() / count;
+	}
+
+	/**
+	 * @return maximum time in nanoseconds from queuing to dispatch
+	 */
+	public long getMaxLatency() {
+		return fMaxLatency.get();
+	}
+
+	/**
+	 * Resets all counters except the current queue depth.
+	 */
+	public void reset() {
+		fMaxQueueDepth.set(fQueueDepth.get());
+		fDispatchedItems.set(0);
+		fDispatchedBatches.set(0);
+		fCoalescedEvents.set(0);
+		fTotalLatency.set(0);
+		fMaxLatency.set(0);
+	}
+}
@@ -38,9 +38,11 @@ import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IExpressionListener;
 import org.eclipse.debug.core.IExpressionManager;
 import org.eclipse.debug.core.IExpressionsListener;
+import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IExpression;
 import org.eclipse.debug.core.model.IWatchExpression;
 import org.eclipse.debug.core.model.IWatchExpressionDelegate;
+import org.eclipse.debug.core.model.IWatchExpressionResult;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -76,6 +78,11 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 	 */
 	private Map<String, IConfigurationElement> fWatchExpressionDelegates = new HashMap<>();
 
+	/**
+	 * Evaluates watch expressions in batches per context, created lazily
+	 */
+	private WatchExpressionEvaluator fEvaluator = null;
+
 	// Constants for add/remove/change/insert/move notification
 	private static final int ADDED = 1;
 	private static final int CHANGED = 2;
@@ -131,6 +138,45 @@ public class ExpressionManager extends PlatformObject implements IExpressionMana
 		}
 	}
 
+	/**
+	 * Evaluates the given watch expression in the given context. Expressions
+	 * to be evaluated in the same context are evaluated together, with one
+	 * call to the delegate of the context's debug model if it supports
+	 * evaluating several expressions at once. Results are cached per context
+	 * and expression text until the context's debug target resumes. A pending
+	 * evaluation of the expression in another context is canceled.
+	 * <p>
+	 * The result is passed to {@link WatchExpression#setResult(IWatchExpressionResult)}.
+	 * </p>
+	 *
+	 * @param expression the expression to evaluate
+	 * @param context the context to evaluate the expression in
+	 * @param refresh whether the expression must be evaluated even if a result
+	 *            is cached
+	 * @since 3.18
+	 */
+	public void evaluateWatchExpression(WatchExpression expression, IDebugElement context, boolean refresh) {
+		getEvaluator().evaluate(expression, context, refresh);
+	}
+
+	/**
+	 * Cancels a pending evaluation of the given watch expression, if any.
+	 *
+	 * @param expression the expression
+	 * @since 3.18
+	 */
+	public void cancelWatchExpressionEvaluation(WatchExpression expression) {
+		getEvaluator().cancel(expression);
+	}
+
+	private synchronized WatchExpressionEvaluator getEvaluator() {
+		if (fEvaluator == null) {
+			fEvaluator = new WatchExpressionEvaluator(this);
+			DebugPlugin.getDefault().addDebugEventListener(fEvaluator);
+		}
+		return fEvaluator;
+	}
+
 	@Override
 	public boolean hasWatchExpressionDelegate(String id) {
 		IConfigurationElement element= fWatchExpressionDelegates.get(id);
@@ -44,4 +44,82 @@ public interface IInternalDebugCoreConstants {
 	 */
 	String PREF_BREAKPOINT_MANAGER_ENABLED_STATE =  DebugPlugin.getUniqueIdentifier() + ".PREF_BREAKPOINT_MANAGER_ENABLED_STATE"; //$NON-NLS-1$
 
+	/**
+	 * Boolean preference controlling whether the standard streams and the
+	 * termination of new {@link org.eclipse.debug.core.model.RuntimeProcess}es
+	 * are serviced by the shared {@link ProcessIOEngine} instead of dedicated
+	 * threads per stream. Default value is <code>false</code>.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_SHARED_PROCESS_IO = DebugPlugin.getUniqueIdentifier() + ".PREF_SHARED_PROCESS_IO"; //$NON-NLS-1$
+
+	/**
+	 * Long preference limiting the number of bytes buffered by each output
+	 * stream monitor of a process. Once exceeded the oldest content is
+	 * discarded. Default value is <code>0</code> which means unlimited.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_STREAM_BUFFER_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_STREAM_BUFFER_LIMIT"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether debug event sets queued in a row
+	 * are merged and delivered to
+	 * {@link org.eclipse.debug.core.IDebugEventSetListener}s as one event set.
+	 * Default value is <code>false</code>.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_BATCH_DEBUG_EVENTS = DebugPlugin.getUniqueIdentifier() + ".PREF_BATCH_DEBUG_EVENTS"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether redundant change events of the
+	 * same source are dropped from merged event sets. Only used if
+	 * {@link #PREF_BATCH_DEBUG_EVENTS} is enabled. Default value is
+	 * <code>false</code>.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_COALESCE_DEBUG_EVENTS = DebugPlugin.getUniqueIdentifier() + ".PREF_COALESCE_DEBUG_EVENTS"; //$NON-NLS-1$
+
+	/**
+	 * Boolean preference controlling whether the breakpoint manager restores
+	 * persisted breakpoints with parallel background jobs and publishes them
+	 * incrementally instead of loading all of them on first access. Default
+	 * value is <code>false</code>.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND = DebugPlugin.getUniqueIdentifier() + ".PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND"; //$NON-NLS-1$
+
+	/**
+	 * Long preference limiting the estimated memory size in bytes of the
+	 * attributes of launch configurations cached by the launch manager. Least
+	 * recently used configurations are read again from their file when
+	 * exceeded. Default value is 8 MB, <code>0</code> means unlimited.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_LAUNCH_CONFIGURATION_CACHE_SIZE = DebugPlugin.getUniqueIdentifier() + ".PREF_LAUNCH_CONFIGURATION_CACHE_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference limiting the number of source names whose source
+	 * elements are cached for source lookup directors. Least recently used
+	 * source names are searched again in the source containers when exceeded.
+	 * Default value is <code>1000</code>, <code>0</code> disables the cache.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_SOURCE_LOOKUP_CACHE_SIZE = DebugPlugin.getUniqueIdentifier() + ".PREF_SOURCE_LOOKUP_CACHE_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * Integer preference limiting the number of archives kept open for source
+	 * lookup. Least recently used archives which are not in use are closed
+	 * when exceeded. Default value is <code>50</code>, <code>0</code> means
+	 * unlimited.
+	 *
+	 * @since 3.18
+	 */
+	String PREF_OPEN_ARCHIVES_LIMIT = DebugPlugin.getUniqueIdentifier() + ".PREF_OPEN_ARCHIVES_LIMIT"; //$NON-NLS-1$
 }
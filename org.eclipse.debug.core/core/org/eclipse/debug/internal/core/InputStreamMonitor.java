@@ -60,6 +60,24 @@ public class InputStreamMonitor {
 	 */
 	private Charset fCharset;
 
+	/**
+	 * The engine accounting for the stream if it is not written by a dedicated
+	 * long running thread.
+	 */
+	private ProcessIOEngine fEngine;
+
+	/**
+	 * Whether a short lived thread writing the queued content is running.
+	 * Guarded by {@link #fLock}.
+	 */
+	private boolean fDrainScheduled;
+
+	/**
+	 * Whether the monitor was closed while the stream is written by the
+	 * engine. Guarded by {@link #fLock}.
+	 */
+	private boolean fEngineClosed;
+
 	/**
 	 * Creates an input stream monitor which writes to system in via the given output stream.
 	 *
@@ -107,6 +125,7 @@ public class InputStreamMonitor {
 		synchronized (fLock) {
 			fQueue.add(fCharset == null ? text.getBytes() : text.getBytes(fCharset));
 			fLock.notifyAll();
+			scheduleDrain();
 		}
 	}
 
@@ -124,6 +143,7 @@ public class InputStreamMonitor {
 			System.arraycopy(data, offset, copy, 0, length);
 			fQueue.add(copy);
 			fLock.notifyAll();
+			scheduleDrain();
 		}
 	}
 
@@ -138,6 +158,24 @@ public class InputStreamMonitor {
 		}
 	}
 
+	/**
+	 * Writes the stream with short lived threads which only run while content
+	 * is queued instead of a dedicated thread for the lifetime of the process.
+	 * Writing to a process which does not read its input blocks, so the
+	 * content is not written by the threads of the given shared engine.
+	 *
+	 * @param engine the engine accounting for the stream
+	 */
+	public void startMonitoring(ProcessIOEngine engine) {
+		synchronized (fLock) {
+			if (fThread == null && fEngine == null) {
+				fEngine = engine;
+				engine.streamOpened();
+				scheduleDrain();
+			}
+		}
+	}
+
 	/**
 	 * Close all communications between this
 	 * monitor and the underlying stream.
@@ -147,6 +185,66 @@ public class InputStreamMonitor {
 			Thread thread= fThread;
 			fThread= null;
 			thread.interrupt();
+		} else {
+			synchronized (fLock) {
+				if (fEngine != null && !fEngineClosed) {
+					fEngineClosed = true;
+					scheduleDrain();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a thread writing the queued content if the stream is written on
+	 * behalf of the engine and no such thread is running. Must be called while
+	 * holding {@link #fLock}.
+	 */
+	private void scheduleDrain() {
+		if (fEngine != null && !fDrainScheduled && (!fQueue.isEmpty() || fEngineClosed)) {
+			fDrainScheduled = true;
+			Thread thread = new Thread(this::drain, DebugCoreMessages.InputStreamMonitor_label);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Writes the queued content to the stream. Closes the stream if the
+	 * monitor was closed in the meantime.
+	 */
+	private void drain() {
+		ProcessIOEngine engine;
+		while (true) {
+			byte[] data;
+			synchronized (fLock) {
+				engine = fEngine;
+				if (fQueue.isEmpty() || fClosed) {
+					fDrainScheduled = false;
+					if (!fEngineClosed) {
+						return;
+					}
+					// no further drain threads after the stream is closed
+					fEngine = null;
+					break;
+				}
+				data = fQueue.remove(0);
+			}
+			try {
+				fStream.write(data);
+				fStream.flush();
+				engine.transferred(data.length);
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+		}
+		engine.streamClosed();
+		if (!fClosed) {
+			try {
+				fStream.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
 		}
 	}
 
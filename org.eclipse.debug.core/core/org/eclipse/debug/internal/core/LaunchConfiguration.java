@@ -17,7 +17,6 @@ package org.eclipse.debug.internal.core;
 
 
 import java.io.File;
-import java.io.IOException;
 import java.io.StringReader;
 import java.net.URI;
 import java.text.MessageFormat;
@@ -28,10 +27,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -49,6 +46,8 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
@@ -62,11 +61,6 @@ import org.eclipse.debug.core.model.ILaunchConfigurationDelegate;
 import org.eclipse.debug.core.model.ILaunchConfigurationDelegate2;
 import org.eclipse.debug.core.model.IPersistableSourceLocator;
 import org.eclipse.debug.core.sourcelookup.IPersistableSourceLocator2;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Launch configuration handle.
@@ -241,15 +235,17 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 	protected LaunchConfiguration(String memento) throws CoreException {
 		Exception ex = null;
 		try {
-			Element root = null;
-			DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			parser.setErrorHandler(new DefaultHandler());
-			StringReader reader = new StringReader(memento);
-			InputSource source = new InputSource(reader);
-			root = parser.parse(source).getDocumentElement();
-
-			String localString = root.getAttribute(IConfigurationElementConstants.LOCAL);
-			String path = root.getAttribute(IConfigurationElementConstants.PATH);
+			XMLStreamReader reader = LaunchConfigurationXML.createReader(new StringReader(memento));
+			String localString = null;
+			String path = null;
+			try {
+				if (LaunchConfigurationXML.nextChildElement(reader)) {
+					localString = LaunchConfigurationXML.getAttribute(reader, IConfigurationElementConstants.LOCAL);
+					path = LaunchConfigurationXML.getAttribute(reader, IConfigurationElementConstants.PATH);
+				}
+			} finally {
+				reader.close();
+			}
 
 			String message = null;
 			if (path == null || IInternalDebugCoreConstants.EMPTY_STRING.equals(path)) {
@@ -272,11 +268,7 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 			setName(name);
 			setContainer(container);
 			return;
-		} catch (ParserConfigurationException e) {
-			ex = e;
-		} catch (SAXException e) {
-			ex = e;
-		} catch (IOException e) {
+		} catch (XMLStreamException e) {
 			ex = e;
 		}
 		IStatus s = newStatus(DebugCoreMessages.LaunchConfiguration_17, DebugException.INTERNAL_ERROR, ex);
@@ -488,6 +480,19 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 		return getLaunchManager().getInfo(this);
 	}
 
+	/**
+	 * Returns an info object containing at least the type and the mapped
+	 * resources of this configuration. Reading it does not require parsing
+	 * all attributes of the configuration.
+	 *
+	 * @return info containing at least the header attributes of this handle
+	 * @exception CoreException if unable to retrieve the info object
+	 * @since 3.18
+	 */
+	protected LaunchConfigurationInfo getHeaderInfo() throws CoreException {
+		return getLaunchManager().getHeaderInfo(this);
+	}
+
 	/**
 	 * Returns the launch manager
 	 *
@@ -535,11 +540,12 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 	@Override
 	public IResource[] getMappedResources() throws CoreException {
-		List<String> paths = getAttribute(ATTR_MAPPED_RESOURCE_PATHS, (List<String>) null);
+		LaunchConfigurationInfo info = getHeaderInfo();
+		List<String> paths = info.getListAttribute(ATTR_MAPPED_RESOURCE_PATHS, null);
 		if (paths == null || paths.isEmpty()) {
 			return null;
 		}
-		List<String> types = getAttribute(ATTR_MAPPED_RESOURCE_TYPES, (List<String>) null);
+		List<String> types = info.getListAttribute(ATTR_MAPPED_RESOURCE_TYPES, null);
 		if (types == null || types.size() != paths.size()) {
 			throw new CoreException(newStatus(DebugCoreMessages.LaunchConfiguration_0, DebugPlugin.ERROR, null));
 		}
@@ -596,23 +602,12 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 			local = false;
 			relativePath = file.getFullPath();
 		}
-		Exception e= null;
-		try {
-			Document doc = LaunchManager.getDocument();
-			Element node = doc.createElement(IConfigurationElementConstants.LAUNCH_CONFIGURATION);
-			doc.appendChild(node);
-			node.setAttribute(IConfigurationElementConstants.LOCAL, (Boolean.valueOf(local)).toString());
-			node.setAttribute(IConfigurationElementConstants.PATH, relativePath.toString());
-			return LaunchManager.serializeDocument(doc);
-		} catch (IOException ioe) {
-			e= ioe;
-		} catch (ParserConfigurationException pce) {
-			e= pce;
-		} catch (TransformerException te) {
-			e= te;
-		}
-		IStatus status = newStatus(DebugCoreMessages.LaunchConfiguration_16, DebugException.INTERNAL_ERROR,  e);
-		throw new CoreException(status);
+		LaunchConfigurationXML.XMLWriter writer = new LaunchConfigurationXML.XMLWriter();
+		writer.startElement(IConfigurationElementConstants.LAUNCH_CONFIGURATION);
+		writer.attribute(IConfigurationElementConstants.LOCAL, (Boolean.valueOf(local)).toString());
+		writer.attribute(IConfigurationElementConstants.PATH, relativePath.toString());
+		writer.endElement(IConfigurationElementConstants.LAUNCH_CONFIGURATION);
+		return writer.toString();
 	}
 
 	@Override
@@ -640,7 +635,7 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 	@Override
 	public ILaunchConfigurationType getType() throws CoreException {
-		return getInfo().getType();
+		return getHeaderInfo().getType();
 	}
 
 	@Override
@@ -800,7 +795,14 @@ public class LaunchConfiguration extends PlatformObject implements ILaunchConfig
 
 				/* Launch the delegate */
 				lmonitor.subTask(DebugCoreMessages.LaunchConfiguration_2);
-				delegate.launch(this, mode, launch, lmonitor.split(10));
+				// variables referenced repeatedly by the delegate are resolved once
+				IStringVariableManager variableManager = VariablesPlugin.getDefault().getStringVariableManager();
+				variableManager.beginCacheScope();
+				try {
+					delegate.launch(this, mode, launch, lmonitor.split(10));
+				} finally {
+					variableManager.endCacheScope();
+				}
 			} catch (CoreException e) {
 				// if there was an exception, and the launch is empty, remove it
 				if (!launch.hasChildren()) {
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+
+/**
+ * Index of the headers of launch configurations persisted between sessions.
+ * <p>
+ * For each launch configuration the index stores its type, whether it is a
+ * prototype and its mapped resources together with stamps of its file. When
+ * the launch manager builds its list of all configurations on startup, the
+ * headers of configurations whose file stamps did not change are taken from
+ * the index instead of reading the files. Configurations changed while the
+ * workspace was closed or since the index was written are read again.
+ * </p>
+ * <p>
+ * Shared configurations are stamped with the modification stamp and local
+ * time stamp of their workspace file, which are known without accessing the
+ * file system. Local configurations are stamped with the length and last
+ * modification time of their file.
+ * </p>
+ */
+public final class LaunchConfigurationIndex {
+
+	/**
+	 * Version of the index file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Prefixes of the keys of local and shared configurations.
+	 */
+	private static final char LOCAL = 'L';
+	private static final char SHARED = 'S';
+
+	/**
+	 * Indexed header of one launch configuration.
+	 */
+	private static final class Entry {
+		final String typeId;
+		final boolean prototype;
+		final long stamp;
+		final long timeStamp;
+		final List<String> mappedPaths;
+		final List<String> mappedTypes;
+
+		Entry(String typeId, boolean prototype, long stamp, long timeStamp, List<String> mappedPaths, List<String> mappedTypes) {
+			this.typeId = typeId;
+			this.prototype = prototype;
+			this.stamp = stamp;
+			this.timeStamp = timeStamp;
+			this.mappedPaths = mappedPaths;
+			this.mappedTypes = mappedTypes;
+		}
+	}
+
+	/**
+	 * Entries by configuration key, see {@link #getKey(LaunchConfiguration)}
+	 */
+	private final Map<String, Entry> fEntries = new HashMap<>();
+
+	/**
+	 * Reads an index from the given file. Returns an empty index if the file
+	 * does not exist or cannot be read.
+	 *
+	 * @param file the index file
+	 * @return the index read from the file
+	 */
+	public static LaunchConfigurationIndex read(File file) {
+		LaunchConfigurationIndex index = new LaunchConfigurationIndex();
+		if (!file.isFile()) {
+			return index;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return index;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				String typeId = in.readUTF();
+				boolean prototype = in.readBoolean();
+				long stamp = in.readLong();
+				long timeStamp = in.readLong();
+				List<String> mappedPaths = readList(in);
+				List<String> mappedTypes = readList(in);
+				index.fEntries.put(key, new Entry(typeId, prototype, stamp, timeStamp, mappedPaths, mappedTypes));
+			}
+		} catch (IOException e) {
+			// an incomplete index is as good as no index
+			DebugPlugin.log(e);
+			index.fEntries.clear();
+		}
+		return index;
+	}
+
+	private static List<String> readList(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(in.readUTF());
+		}
+		return list;
+	}
+
+	/**
+	 * Writes this index to the given file. The file is replaced once the index
+	 * has been written completely.
+	 *
+	 * @param file the index file
+	 * @throws IOException if writing fails
+	 */
+	public void write(File file) throws IOException {
+		File temp = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(VERSION);
+			out.writeInt(fEntries.size());
+			for (Map.Entry<String, Entry> mapEntry : fEntries.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeUTF(entry.typeId);
+				out.writeBoolean(entry.prototype);
+				out.writeLong(entry.stamp);
+				out.writeLong(entry.timeStamp);
+				writeList(out, entry.mappedPaths);
+				writeList(out, entry.mappedTypes);
+			}
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+		if (list == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(list.size());
+		for (String value : list) {
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Adds the current header of the given configuration to this index.
+	 * Working copies and configurations which do not exist are ignored.
+	 *
+	 * @param config launch configuration
+	 * @throws CoreException if the header of the configuration cannot be read
+	 */
+	void add(ILaunchConfiguration config) throws CoreException {
+		if (config instanceof LaunchConfiguration && !config.isWorkingCopy() && config.exists()) {
+			add((LaunchConfiguration) config, ((LaunchConfiguration) config).getHeaderInfo());
+		}
+	}
+
+	/**
+	 * Adds the given header of the given configuration to this index.
+	 *
+	 * @param config launch configuration
+	 * @param header info containing at least the header attributes of the
+	 *            configuration
+	 */
+	@SuppressWarnings("unchecked")
+	void add(LaunchConfiguration config, LaunchConfigurationInfo header) {
+		long[] stamps = getStamps(config);
+		if (stamps == null) {
+			return;
+		}
+		Object paths = header.getAttributeTable().get(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS);
+		Object types = header.getAttributeTable().get(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES);
+		fEntries.put(getKey(config), new Entry(header.getType().getIdentifier(), header.isPrototype(), stamps[0], stamps[1], paths instanceof List ? (List<String>) paths : null, types instanceof List ? (List<String>) types : null));
+	}
+
+	/**
+	 * Returns the indexed header of the given configuration if its file did
+	 * not change since it was indexed.
+	 *
+	 * @param config launch configuration
+	 * @return info only containing the header attributes or <code>null</code>
+	 *         if the configuration is not indexed, its file changed or its type
+	 *         is no longer defined
+	 */
+	LaunchConfigurationInfo getHeader(LaunchConfiguration config) {
+		Entry entry = getValidEntry(config);
+		if (entry == null) {
+			return null;
+		}
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(entry.typeId);
+		if (type == null) {
+			return null;
+		}
+		LaunchConfigurationInfo header = new LaunchConfigurationInfo();
+		header.setType(type);
+		if (entry.mappedPaths != null) {
+			header.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, new ArrayList<>(entry.mappedPaths));
+		}
+		if (entry.mappedTypes != null) {
+			header.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, new ArrayList<>(entry.mappedTypes));
+		}
+		header.setIsPrototype(entry.prototype);
+		return header;
+	}
+
+	/**
+	 * Returns the type identifier of the given configuration if it is indexed
+	 * and its file did not change since it was indexed.
+	 *
+	 * @param config launch configuration
+	 * @return the indexed type identifier or <code>null</code>
+	 */
+	String getTypeId(ILaunchConfiguration config) {
+		if (config instanceof LaunchConfiguration) {
+			Entry entry = getValidEntry((LaunchConfiguration) config);
+			if (entry != null) {
+				return entry.typeId;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of indexed configurations.
+	 *
+	 * @return number of indexed configurations
+	 */
+	public int size() {
+		return fEntries.size();
+	}
+
+	private Entry getValidEntry(LaunchConfiguration config) {
+		String key = getKey(config);
+		if (key == null) {
+			return null;
+		}
+		Entry entry = fEntries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		long[] stamps = getStamps(config);
+		if (stamps == null || stamps[0] != entry.stamp || stamps[1] != entry.timeStamp) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns the key of the given configuration in the index.
+	 */
+	private static String getKey(LaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			return SHARED + file.getFullPath().toPortableString();
+		}
+		return LOCAL + config.getFileName();
+	}
+
+	/**
+	 * Returns the current stamps of the file of the given configuration or
+	 * <code>null</code> if the file does not exist.
+	 */
+	private static long[] getStamps(LaunchConfiguration config) {
+		IFile file = config.getFile();
+		if (file != null) {
+			long stamp = file.getModificationStamp();
+			if (stamp == IFile.NULL_STAMP) {
+				return null;
+			}
+			return new long[] { stamp, file.getLocalTimeStamp() };
+		}
+		File local = LaunchManager.LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH.append(config.getFileName()).toFile();
+		long timeStamp = local.lastModified();
+		if (timeStamp == 0) {
+			return null;
+		}
+		return new long[] { local.length(), timeStamp };
+	}
+}
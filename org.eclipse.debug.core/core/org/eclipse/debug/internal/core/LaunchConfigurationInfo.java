@@ -15,23 +15,14 @@
 package org.eclipse.debug.internal.core;
 
 
-import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
-
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
@@ -40,35 +31,12 @@ import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationType;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 /**
  * The information associated with a launch configuration handle.
  */
 public class LaunchConfigurationInfo {
 
-	/**
-	 * Constants for XML element names and attributes
-	 */
-	private static final String KEY = "key"; //$NON-NLS-1$
-	private static final String VALUE = "value"; //$NON-NLS-1$
-	private static final String SET_ENTRY = "setEntry"; //$NON-NLS-1$
-	private static final String LAUNCH_CONFIGURATION = "launchConfiguration"; //$NON-NLS-1$
-	private static final String MAP_ENTRY = "mapEntry"; //$NON-NLS-1$
-	private static final String LIST_ENTRY = "listEntry"; //$NON-NLS-1$
-	private static final String SET_ATTRIBUTE = "setAttribute"; //$NON-NLS-1$
-	private static final String MAP_ATTRIBUTE = "mapAttribute"; //$NON-NLS-1$
-	private static final String LIST_ATTRIBUTE = "listAttribute"; //$NON-NLS-1$
-	private static final String BOOLEAN_ATTRIBUTE = "booleanAttribute"; //$NON-NLS-1$
-	private static final String INT_ATTRIBUTE = "intAttribute"; //$NON-NLS-1$
-	private static final String STRING_ATTRIBUTE = "stringAttribute"; //$NON-NLS-1$
-	private static final String TYPE = "type"; //$NON-NLS-1$
-	private static final String PROTOTYPE = "prototype"; //$NON-NLS-1$
-	private static final String VISIBLE_ATTRIBUTES = "visibleAttributes"; //$NON-NLS-1$
-
 	/**
 	 * This configurations attribute table. Keys are <code>String</code>s and
 	 * values are one of <code>String</code>, <code>Integer</code>,
@@ -130,7 +98,7 @@ public class LaunchConfigurationInfo {
 	 *
 	 * @return attribute table
 	 */
-	private TreeMap<String, Object> getAttributeTable() {
+	TreeMap<String, Object> getAttributeTable() {
 		return fAttributes;
 	}
 
@@ -432,393 +400,10 @@ public class LaunchConfigurationInfo {
 	 * @return the content of this info as XML
 	 * @throws CoreException
 	 *             if a attribute has been set with a null key
-	 * @throws IOException
-	 *             if an exception occurs creating the XML
-	 * @throws ParserConfigurationException
-	 *             if an exception occurs creating the XML
-	 * @throws TransformerException
-	 *             if an exception occurs creating the XML
-	 */
-	@SuppressWarnings("unchecked")
-	protected String getAsXML() throws CoreException, IOException, ParserConfigurationException, TransformerException {
-		Document doc = LaunchManager.getDocument();
-		Element configRootElement = doc.createElement(LAUNCH_CONFIGURATION);
-		doc.appendChild(configRootElement);
-
-		configRootElement.setAttribute(TYPE, getType().getIdentifier());
-
-		ILaunchConfiguration prototype = getPrototype();
-		if (prototype != null) {
-			configRootElement.setAttribute(PROTOTYPE, prototype.getName());
-		} else if (isPrototype()) {
-			configRootElement.setAttribute(VISIBLE_ATTRIBUTES, getVisibleAttributes().stream().collect(Collectors.joining(", "))); //$NON-NLS-1$
-		}
-
-		for (String key : getAttributeTable().keySet()) {
-			if (key == null) {
-				throw new DebugException(
-					new Status(
-						IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-						DebugException.REQUEST_FAILED, DebugCoreMessages.LaunchConfigurationInfo_36, null
-					)
-				);
-			}
-			Object value = getAttributeTable().get(key);
-			if (value == null) {
-				continue;
-			}
-			Element element = null;
-			String valueString = null;
-			if (value instanceof String) {
-				valueString = (String)value;
-				element = createKeyValueElement(doc, STRING_ATTRIBUTE, key, valueString);
-			} else if (value instanceof Integer) {
-				valueString = ((Integer)value).toString();
-				element = createKeyValueElement(doc, INT_ATTRIBUTE, key, valueString);
-			} else if (value instanceof Boolean) {
-				valueString = ((Boolean)value).toString();
-				element = createKeyValueElement(doc, BOOLEAN_ATTRIBUTE, key, valueString);
-			} else if (value instanceof List) {
-				element = createListElement(doc, LIST_ATTRIBUTE, key, (List<String>) value);
-			} else if (value instanceof Map) {
-				element = createMapElement(doc, MAP_ATTRIBUTE, key, (Map<String, String>) value);
-			} else if(value instanceof Set) {
-				element = createSetElement(doc, SET_ATTRIBUTE, key, (Set<String>) value);
-			}
-			configRootElement.appendChild(element);
-		}
-		return LaunchManager.serializeDocument(doc);
-	}
-
-	/**
-	 * Helper method that creates a 'key value' element of the specified type
-	 * with the specified attribute values.
-	 * @param doc the {@link Document}
-	 * @param elementType the {@link Element} type to create
-	 * @param key the {@link Element} key
-	 * @param value the {@link Element} value
-	 * @return the new {@link Element}
-	 */
-	protected Element createKeyValueElement(Document doc, String elementType, String key, String value) {
-		Element element = doc.createElement(elementType);
-		element.setAttribute(KEY, key);
-		element.setAttribute(VALUE, value);
-		return element;
-	}
-
-	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.List</code>
-	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param listKey the key for the element
-	 * @param list the list to fill the new element with
-	 * @return the new element
-	 */
-	protected Element createListElement(Document doc, String elementType, String listKey, List<String> list) {
-		Element listElement = doc.createElement(elementType);
-		listElement.setAttribute(KEY, listKey);
-		for (String value : list) {
-			Element element = doc.createElement(LIST_ENTRY);
-			element.setAttribute(VALUE, value);
-			listElement.appendChild(element);
-		}
-		return listElement;
-	}
-
-	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Set</code>
-	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param setKey the key for the element
-	 * @param set the set to fill the new element with
-	 * @return the new element
-	 *
-	 * @since 3.3
-	 */
-	protected Element createSetElement(Document doc, String elementType, String setKey, Set<String> set) {
-		Element setElement = doc.createElement(elementType);
-		setElement.setAttribute(KEY, setKey);
-		// persist in sorted order
-		List<String> list = new ArrayList<>(set);
-		Collections.sort(list);
-		Element element = null;
-		for (String str : list) {
-			element = doc.createElement(SET_ENTRY);
-			element.setAttribute(VALUE, str);
-			setElement.appendChild(element);
-		}
-		return setElement;
-	}
-
-	/**
-	 * Creates a new <code>Element</code> for the specified
-	 * <code>java.util.Map</code>
-	 *
-	 * @param doc the doc to add the element to
-	 * @param elementType the type of the element
-	 * @param mapKey the key for the element
-	 * @param map the map to fill the new element with
-	 * @return the new element
-	 *
-	 */
-	protected Element createMapElement(Document doc, String elementType, String mapKey, Map<String, String> map) {
-		Element mapElement = doc.createElement(elementType);
-		mapElement.setAttribute(KEY, mapKey);
-		// persist in sorted order based on keys
-		List<String> keys = new ArrayList<>(map.keySet());
-		Collections.sort(keys);
-		for (String key : keys) {
-			String value = map.get(key);
-			Element element = doc.createElement(MAP_ENTRY);
-			element.setAttribute(KEY, key);
-			element.setAttribute(VALUE, value);
-			mapElement.appendChild(element);
-		}
-		return mapElement;
-	}
-
-	/**
-	 * Initializes the mapping of attributes from the XML file
-	 * @param root the root node from the XML document
-	 * @throws CoreException if a problem is encountered
+	 * @see LaunchConfigurationXML#write(LaunchConfigurationInfo)
 	 */
-	protected void initializeFromXML(Element root) throws CoreException {
-		initializeFromXML(root, false);
-	}
-
-	/**
-	 * Initializes the mapping of attributes from the XML file
-	 *
-	 * @param root the root node from the XML document
-	 * @param isPrototype if the XML file corresponds to a prototype
-	 * @throws CoreException if a problem is encountered
-	 *
-	 * @since 3.12
-	 */
-	protected void initializeFromXML(Element root, boolean isPrototype) throws CoreException {
-		if (!root.getNodeName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
-			throw getInvalidFormatDebugException();
-		}
-
-		// read type
-		String id = root.getAttribute(TYPE);
-		if (id == null) {
-			throw getInvalidFormatDebugException();
-		}
-
-		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(id);
-		if (type == null) {
-			String message = MessageFormat.format(DebugCoreMessages.LaunchConfigurationInfo_missing_type, id);
-			throw new DebugException(
-					new Status(
-					 IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-					 DebugException.MISSING_LAUNCH_CONFIGURATION_TYPE, message, null)
-				);
-		}
-		setType(type);
-
-		NodeList list = root.getChildNodes();
-		Node node = null;
-		Element element = null;
-		String nodeName = null;
-		for (int i = 0; i < list.getLength(); ++i) {
-			node = list.item(i);
-			short nodeType = node.getNodeType();
-			if (nodeType == Node.ELEMENT_NODE) {
-				element = (Element) node;
-				nodeName = element.getNodeName();
-				if (nodeName.equalsIgnoreCase(STRING_ATTRIBUTE)) {
-					setStringAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(INT_ATTRIBUTE)) {
-					setIntegerAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(BOOLEAN_ATTRIBUTE))  {
-					setBooleanAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(LIST_ATTRIBUTE)) {
-					setListAttribute(element);
-				} else if (nodeName.equalsIgnoreCase(MAP_ATTRIBUTE)) {
-					setMapAttribute(element);
-				} else if(nodeName.equalsIgnoreCase(SET_ATTRIBUTE)) {
-					setSetAttribute(element);
-				}
-			}
-		}
-
-		if (isPrototype) {
-			setIsPrototype(true);
-			String visibleAttributes = root.getAttribute(VISIBLE_ATTRIBUTES);
-			if (visibleAttributes != null && visibleAttributes.length() > 0) {
-				String[] split = visibleAttributes.split(", "); //$NON-NLS-1$
-				setVisibleAttributes(new HashSet<>(Arrays.asList(split)));
-			}
-		} else {
-			setIsPrototype(false);
-			String prototype = root.getAttribute(PROTOTYPE);
-			if (prototype != null && prototype.length() > 0) {
-				ILaunchConfiguration[] launchConfigurations = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurations(ILaunchConfiguration.PROTOTYPE);
-				for (ILaunchConfiguration iLaunchConfiguration : launchConfigurations) {
-					if (prototype.equals(iLaunchConfiguration.getName())) {
-						setPrototype(iLaunchConfiguration);
-						break;
-					}
-				}
-			}
-		}
-	}
-
-	/**
-	 * Loads a <code>String</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setStringAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), getValueAttribute(element));
-	}
-
-	/**
-	 * Loads an <code>Integer</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setIntegerAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), Integer.valueOf(getValueAttribute(element)));
-	}
-
-	/**
-	 * Loads a <code>Boolean</code> from the specified element into the local attribute mapping
-	 * @param element the element to load from
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected void setBooleanAttribute(Element element) throws CoreException {
-		setAttribute(getKeyAttribute(element), Boolean.valueOf(getValueAttribute(element)));
-	}
-
-	/**
-	 * Reads a <code>List</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
-	 *
-	 * @param element the element to read the list attribute from
-	 * @throws CoreException if the element has an invalid format
-	 */
-	protected void setListAttribute(Element element) throws CoreException {
-		String listKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		List<String> list = new ArrayList<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(LIST_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				list.add(getValueAttribute(selement));
-			}
-		}
-		setAttribute(listKey, list);
-	}
-
-	/**
-	 * Reads a <code>Set</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
-	 *
-	 * @param element the element to read the set attribute from
-	 * @throws CoreException if the element has an invalid format
-	 *
-	 * @since 3.3
-	 */
-	protected void setSetAttribute(Element element) throws CoreException {
-		String setKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Set<String> set = new HashSet<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for(int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if(node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element)node;
-				if(!selement.getNodeName().equalsIgnoreCase(SET_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				set.add(getValueAttribute(selement));
-			}
-		}
-		setAttribute(setKey, set);
-	}
-
-	/**
-	 * Reads a <code>Map</code> attribute from the specified XML node and
-	 * loads it into the mapping of attributes
-	 *
-	 * @param element the element to read the map attribute from
-	 * @throws CoreException if the element has an invalid format
-	 */
-	protected void setMapAttribute(Element element) throws CoreException {
-		String mapKey = element.getAttribute(KEY);
-		NodeList nodeList = element.getChildNodes();
-		int entryCount = nodeList.getLength();
-		Map<String, String> map = new HashMap<>(entryCount);
-		Node node = null;
-		Element selement = null;
-		for (int i = 0; i < entryCount; i++) {
-			node = nodeList.item(i);
-			if (node.getNodeType() == Node.ELEMENT_NODE) {
-				selement = (Element) node;
-				if (!selement.getNodeName().equalsIgnoreCase(MAP_ENTRY)) {
-					throw getInvalidFormatDebugException();
-				}
-				map.put(getKeyAttribute(selement), getValueAttribute(selement));
-			}
-		}
-		setAttribute(mapKey, map);
-	}
-
-	/**
-	 * Returns the <code>String</code> representation of the 'key' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected String getKeyAttribute(Element element) throws CoreException {
-		String key = element.getAttribute(KEY);
-		if (key == null) {
-			throw getInvalidFormatDebugException();
-		}
-		return key;
-	}
-
-	/**
-	 * Returns the <code>String</code> representation of the 'value' attribute from the specified element
-	 * @param element the element to read from
-	 * @return the value
-	 * @throws CoreException if a problem is encountered
-	 */
-	protected String getValueAttribute(Element element) throws CoreException {
-		String value = element.getAttribute(VALUE);
-		if (value == null) {
-			throw getInvalidFormatDebugException();
-		}
-		return value;
-	}
-
-	/**
-	 * Returns an invalid format exception for reuse
-	 * @return an invalid format exception
-	 */
-	protected DebugException getInvalidFormatDebugException() {
-		return
-			new DebugException(
-				new Status(
-				 IStatus.ERROR, DebugPlugin.getUniqueIdentifier(),
-				 DebugException.REQUEST_FAILED, DebugCoreMessages.LaunchConfigurationInfo_Invalid_launch_configuration_XML__10, null
-				)
-			);
+	protected String getAsXML() throws CoreException {
+		return LaunchConfigurationXML.write(this);
 	}
 
 	/**
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+/**
+ * Cache of the infos of launch configurations read from their files.
+ * <p>
+ * Fully read infos are bounded by their estimated memory size, see
+ * {@link IInternalDebugCoreConstants#PREF_LAUNCH_CONFIGURATION_CACHE_SIZE}.
+ * The least recently used infos are evicted first and read again from their
+ * file when needed.
+ * </p>
+ * <p>
+ * Headers are infos only containing the type and the mapped resources of a
+ * configuration. They are small and are kept until the configuration changes
+ * or is deleted.
+ * </p>
+ */
+class LaunchConfigurationInfoCache {
+
+	/**
+	 * Estimated memory size of an attribute or collection entry in addition to
+	 * the size of its strings.
+	 */
+	private static final int ENTRY_WEIGHT = 48;
+
+	/**
+	 * Cached infos with their weight, in access order.
+	 */
+	private final LinkedHashMap<ILaunchConfiguration, CachedInfo> fInfos = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Cached headers of configurations which have no cached info.
+	 */
+	private final Map<ILaunchConfiguration, LaunchConfigurationInfo> fHeaders = new HashMap<>();
+
+	/**
+	 * Sum of the weights of all cached infos.
+	 */
+	private long fWeight = 0;
+
+	private static class CachedInfo {
+		final LaunchConfigurationInfo info;
+		final long weight;
+
+		CachedInfo(LaunchConfigurationInfo info, long weight) {
+			this.info = info;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Returns the cached info of the given configuration.
+	 *
+	 * @param config launch configuration
+	 * @return the cached info or <code>null</code>
+	 */
+	synchronized LaunchConfigurationInfo get(ILaunchConfiguration config) {
+		CachedInfo cached = fInfos.get(config);
+		return cached != null ? cached.info : null;
+	}
+
+	/**
+	 * Returns the cached info or header of the given configuration.
+	 *
+	 * @param config launch configuration
+	 * @return the cached info, the cached header if there is no info or
+	 *         <code>null</code>
+	 */
+	synchronized LaunchConfigurationInfo getHeader(ILaunchConfiguration config) {
+		CachedInfo cached = fInfos.get(config);
+		return cached != null ? cached.info : fHeaders.get(config);
+	}
+
+	/**
+	 * Caches the fully read info of the given configuration and evicts least
+	 * recently used infos if the cache exceeds its size.
+	 *
+	 * @param config launch configuration
+	 * @param info the info read from the configuration's file
+	 */
+	synchronized void put(ILaunchConfiguration config, LaunchConfigurationInfo info) {
+		CachedInfo cached = new CachedInfo(info, weigh(info));
+		CachedInfo previous = fInfos.put(config, cached);
+		if (previous != null) {
+			fWeight -= previous.weight;
+		}
+		fWeight += cached.weight;
+		fHeaders.remove(config);
+		evict(getMaximumWeight());
+	}
+
+	/**
+	 * Caches the header of the given configuration.
+	 *
+	 * @param config launch configuration
+	 * @param header info only containing the header attributes
+	 */
+	synchronized void putHeader(ILaunchConfiguration config, LaunchConfigurationInfo header) {
+		if (!fInfos.containsKey(config)) {
+			fHeaders.put(config, header);
+		}
+	}
+
+	/**
+	 * Removes the info and header of the given configuration.
+	 *
+	 * @param config launch configuration
+	 * @return whether an info or header was cached
+	 */
+	synchronized boolean remove(ILaunchConfiguration config) {
+		CachedInfo cached = fInfos.remove(config);
+		if (cached != null) {
+			fWeight -= cached.weight;
+		}
+		return fHeaders.remove(config) != null || cached != null;
+	}
+
+	/**
+	 * Returns the estimated memory size of all cached infos.
+	 *
+	 * @return estimated size in bytes
+	 */
+	synchronized long getWeight() {
+		return fWeight;
+	}
+
+	/**
+	 * Evicts least recently used infos until the cache does not exceed the
+	 * given weight. The most recently used info is always kept. An evicted info
+	 * is kept as header.
+	 *
+	 * @param maximumWeight the maximum weight, <code>0</code> for unlimited
+	 */
+	private void evict(long maximumWeight) {
+		if (maximumWeight <= 0) {
+			return;
+		}
+		Iterator<Map.Entry<ILaunchConfiguration, CachedInfo>> iterator = fInfos.entrySet().iterator();
+		while (fWeight > maximumWeight && fInfos.size() > 1) {
+			Map.Entry<ILaunchConfiguration, CachedInfo> eldest = iterator.next();
+			iterator.remove();
+			fWeight -= eldest.getValue().weight;
+			fHeaders.put(eldest.getKey(), LaunchConfigurationXML.toHeader(eldest.getValue().info));
+		}
+	}
+
+	private static long getMaximumWeight() {
+		return Platform.getPreferencesService().getLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_SIZE, 0, null);
+	}
+
+	/**
+	 * Returns an estimate of the memory used by the attributes of the given
+	 * info.
+	 *
+	 * @param info launch configuration info
+	 * @return estimated size in bytes
+	 */
+	static long weigh(LaunchConfigurationInfo info) {
+		long weight = ENTRY_WEIGHT;
+		for (Map.Entry<String, Object> attribute : info.getAttributeTable().entrySet()) {
+			weight += ENTRY_WEIGHT + weigh(attribute.getKey()) + weigh(attribute.getValue());
+		}
+		return weight;
+	}
+
+	private static long weigh(Object value) {
+		if (value instanceof String) {
+			return 2L * ((String) value).length();
+		}
+		long weight = 0;
+		if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				weight += ENTRY_WEIGHT + weigh(element);
+			}
+		} else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				weight += ENTRY_WEIGHT + weigh(entry.getKey()) + weigh(entry.getValue());
+			}
+		}
+		return weight;
+	}
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
+
+/**
+ * Index of launch configurations by the full paths of their mapped resources.
+ * <p>
+ * Mapped resource paths are kept in a trie of path segments, so the
+ * configurations mapped to a resource or to any of its members are found by
+ * walking the segments of the resource's path and collecting the subtree below
+ * it, instead of testing the mapped resources of every configuration. The index
+ * only contains launch configurations which are not prototypes and is updated
+ * as a launch configuration listener.
+ * </p>
+ */
+class LaunchConfigurationResourceIndex implements ILaunchConfigurationListener {
+
+	/**
+	 * Node of the trie for one path segment.
+	 */
+	private static class Node {
+		Map<String, Node> children;
+		final Set<ILaunchConfiguration> configs = new LinkedHashSet<>(2);
+
+		boolean isEmpty() {
+			return configs.isEmpty() && (children == null || children.isEmpty());
+		}
+	}
+
+	/**
+	 * Node of the workspace root.
+	 */
+	private final Node fRoot = new Node();
+
+	/**
+	 * Mapped resource paths by indexed configuration.
+	 */
+	private final Map<ILaunchConfiguration, IPath[]> fMappings = new HashMap<>();
+
+	/**
+	 * Order in which configurations were added, used to return configurations
+	 * in the order of the launch manager.
+	 */
+	private final Map<ILaunchConfiguration, Long> fOrder = new HashMap<>();
+
+	/**
+	 * Indexed configurations without mapped resources, in the order they were
+	 * added.
+	 */
+	private final Set<ILaunchConfiguration> fUnmapped = new LinkedHashSet<>();
+
+	private long fNextOrder = 0;
+
+	/**
+	 * The launch manager providing the initial configurations.
+	 */
+	private final LaunchManager fManager;
+
+	/**
+	 * Whether the configurations of the launch manager have been added.
+	 */
+	private boolean fInitialized = false;
+
+	/**
+	 * Creates an index which is filled with the configurations of the given
+	 * launch manager when first queried. The index must be registered as
+	 * launch configuration listener with the manager before.
+	 *
+	 * @param manager the launch manager
+	 */
+	LaunchConfigurationResourceIndex(LaunchManager manager) {
+		fManager = manager;
+	}
+
+	/**
+	 * Returns the configurations with a mapped resource at or below the given
+	 * path, in the order they were added.
+	 *
+	 * @param path full path of a resource
+	 * @param includeUnmapped whether configurations without mapped resources
+	 *            are included as well
+	 * @return the matching configurations
+	 */
+	synchronized List<ILaunchConfiguration> getConfigurations(IPath path, boolean includeUnmapped) {
+		if (!fInitialized) {
+			fInitialized = true;
+			for (ILaunchConfiguration config : fManager.getLaunchConfigurations()) {
+				add(config);
+			}
+		}
+		Set<ILaunchConfiguration> result = new LinkedHashSet<>();
+		Node node = fRoot;
+		for (int i = 0; i < path.segmentCount() && node != null; i++) {
+			node = node.children != null ? node.children.get(path.segment(i)) : null;
+		}
+		if (node != null) {
+			collect(node, result);
+		}
+		if (includeUnmapped) {
+			result.addAll(fUnmapped);
+		}
+		List<ILaunchConfiguration> list = new ArrayList<>(result);
+		list.sort(Comparator.comparing(fOrder::get));
+		return list;
+	}
+
+	private static void collect(Node node, Set<ILaunchConfiguration> result) {
+		result.addAll(node.configs);
+		if (node.children != null) {
+			for (Node child : node.children.values()) {
+				collect(child, result);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void launchConfigurationAdded(ILaunchConfiguration configuration) {
+		add(configuration);
+	}
+
+	@Override
+	public synchronized void launchConfigurationChanged(ILaunchConfiguration configuration) {
+		// keep the position of the configuration, like the launch manager does
+		Long order = fOrder.get(configuration);
+		remove(configuration);
+		add(configuration);
+		if (order != null && fOrder.containsKey(configuration)) {
+			fOrder.put(configuration, order);
+		}
+	}
+
+	@Override
+	public synchronized void launchConfigurationRemoved(ILaunchConfiguration configuration) {
+		remove(configuration);
+	}
+
+	private void add(ILaunchConfiguration config) {
+		if (config.isWorkingCopy() || fOrder.containsKey(config)) {
+			return;
+		}
+		IResource[] resources;
+		try {
+			if (config.isPrototype()) {
+				return;
+			}
+			resources = config.getMappedResources();
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+			return;
+		}
+		fOrder.put(config, Long.valueOf(fNextOrder++));
+		if (resources == null) {
+			fUnmapped.add(config);
+			return;
+		}
+		IPath[] paths = new IPath[resources.length];
+		for (int i = 0; i < resources.length; i++) {
+			paths[i] = resources[i].getFullPath();
+			Node node = fRoot;
+			for (int j = 0; j < paths[i].segmentCount(); j++) {
+				if (node.children == null) {
+					node.children = new HashMap<>(4);
+				}
+				node = node.children.computeIfAbsent(paths[i].segment(j), segment -> new Node());
+			}
+			node.configs.add(config);
+		}
+		fMappings.put(config, paths);
+	}
+
+	private void remove(ILaunchConfiguration config) {
+		if (fOrder.remove(config) == null) {
+			return;
+		}
+		fUnmapped.remove(config);
+		IPath[] paths = fMappings.remove(config);
+		if (paths != null) {
+			for (IPath path : paths) {
+				remove(fRoot, path, 0, config);
+			}
+		}
+	}
+
+	/**
+	 * Removes the configuration from the node of the given path below the given
+	 * node and prunes nodes which became empty.
+	 */
+	private static void remove(Node node, IPath path, int segment, ILaunchConfiguration config) {
+		if (segment == path.segmentCount()) {
+			node.configs.remove(config);
+			return;
+		}
+		Node child = node.children != null ? node.children.get(path.segment(segment)) : null;
+		if (child != null) {
+			remove(child, path, segment + 1, config);
+			if (child.isEmpty()) {
+				node.children.remove(path.segment(segment));
+			}
+		}
+	}
+}
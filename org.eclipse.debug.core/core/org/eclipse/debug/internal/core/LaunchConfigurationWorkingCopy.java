@@ -512,6 +512,16 @@ public class LaunchConfigurationWorkingCopy extends LaunchConfiguration implemen
 		return fInfo;
 	}
 
+	/**
+	 * A working copy always has its complete info object.
+	 *
+	 * @see LaunchConfiguration#getHeaderInfo()
+	 */
+	@Override
+	protected LaunchConfigurationInfo getHeaderInfo() {
+		return fInfo;
+	}
+
 	/**
 	 * Sets this working copy's state to dirty.
 	 * Notifies listeners that this working copy has
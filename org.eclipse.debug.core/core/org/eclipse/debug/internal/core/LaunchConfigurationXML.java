@@ -0,0 +1,507 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+
+/**
+ * Reads and writes the XML format of launch configuration files without
+ * building a DOM. Reading uses a StAX stream reader from a shared factory.
+ * Writing produces exactly the same characters as serializing the equivalent
+ * DOM with {@link LaunchManager#serializeDocument(org.w3c.dom.Document)}, so
+ * existing files do not change when they are saved again.
+ */
+public final class LaunchConfigurationXML {
+
+	/**
+	 * Constants for XML element names and attributes
+	 */
+	private static final String KEY = "key"; //$NON-NLS-1$
+	private static final String VALUE = "value"; //$NON-NLS-1$
+	private static final String SET_ENTRY = "setEntry"; //$NON-NLS-1$
+	private static final String LAUNCH_CONFIGURATION = "launchConfiguration"; //$NON-NLS-1$
+	private static final String MAP_ENTRY = "mapEntry"; //$NON-NLS-1$
+	private static final String LIST_ENTRY = "listEntry"; //$NON-NLS-1$
+	private static final String SET_ATTRIBUTE = "setAttribute"; //$NON-NLS-1$
+	private static final String MAP_ATTRIBUTE = "mapAttribute"; //$NON-NLS-1$
+	private static final String LIST_ATTRIBUTE = "listAttribute"; //$NON-NLS-1$
+	private static final String BOOLEAN_ATTRIBUTE = "booleanAttribute"; //$NON-NLS-1$
+	private static final String INT_ATTRIBUTE = "intAttribute"; //$NON-NLS-1$
+	private static final String STRING_ATTRIBUTE = "stringAttribute"; //$NON-NLS-1$
+	private static final String TYPE = "type"; //$NON-NLS-1$
+	private static final String PROTOTYPE = "prototype"; //$NON-NLS-1$
+	private static final String VISIBLE_ATTRIBUTES = "visibleAttributes"; //$NON-NLS-1$
+
+	/**
+	 * Attributes contained in the header of a launch configuration.
+	 */
+	private static final Set<String> HEADER_ATTRIBUTES = Set.of(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES);
+
+	/**
+	 * Factory shared by all readers. Creating readers from a configured
+	 * factory is thread safe.
+	 */
+	private static final XMLInputFactory INPUT_FACTORY;
+
+	static {
+		INPUT_FACTORY = XMLInputFactory.newInstance();
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	}
+
+	private LaunchConfigurationXML() {
+	}
+
+	/**
+	 * Creates a stream reader for the given XML.
+	 *
+	 * @param stream the XML, encoding is detected from the XML declaration
+	 * @return a new stream reader
+	 * @throws XMLStreamException if the reader cannot be created
+	 */
+	static XMLStreamReader createReader(InputStream stream) throws XMLStreamException {
+		return INPUT_FACTORY.createXMLStreamReader(stream);
+	}
+
+	/**
+	 * Creates a stream reader for the given XML.
+	 *
+	 * @param reader the XML
+	 * @return a new stream reader
+	 * @throws XMLStreamException if the reader cannot be created
+	 */
+	static XMLStreamReader createReader(Reader reader) throws XMLStreamException {
+		return INPUT_FACTORY.createXMLStreamReader(reader);
+	}
+
+	/**
+	 * Returns a new launch configuration info initialized from the launch
+	 * configuration XML in the given stream. The stream is not closed.
+	 *
+	 * @param stream the stream to read from
+	 * @param isPrototype whether the XML describes a prototype
+	 * @return the new info
+	 * @throws CoreException if the XML does not describe a launch configuration
+	 *             or its type is not defined
+	 * @throws XMLStreamException if the XML is not well-formed or the stream
+	 *             cannot be read
+	 */
+	public static LaunchConfigurationInfo read(InputStream stream, boolean isPrototype) throws CoreException, XMLStreamException {
+		XMLStreamReader reader = createReader(stream);
+		try {
+			LaunchConfigurationInfo info = new LaunchConfigurationInfo();
+			read(reader, info, isPrototype, false);
+			return info;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Returns a new launch configuration info only containing the header of
+	 * the launch configuration XML in the given stream: the type and the
+	 * attributes mapping the configuration to resources. The header can be
+	 * read much faster than the complete configuration and uses little
+	 * memory. The stream is not closed.
+	 *
+	 * @param stream the stream to read from
+	 * @param isPrototype whether the XML describes a prototype
+	 * @return the new info only containing the header
+	 * @throws CoreException if the XML does not describe a launch configuration
+	 *             or its type is not defined
+	 * @throws XMLStreamException if the XML is not well-formed or the stream
+	 *             cannot be read
+	 */
+	public static LaunchConfigurationInfo readHeader(InputStream stream, boolean isPrototype) throws CoreException, XMLStreamException {
+		XMLStreamReader reader = createReader(stream);
+		try {
+			LaunchConfigurationInfo info = new LaunchConfigurationInfo();
+			read(reader, info, isPrototype, true);
+			return info;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Returns a new info only containing the header of the given info.
+	 *
+	 * @param info launch configuration info
+	 * @return the new info only containing the header
+	 * @see #readHeader(InputStream, boolean)
+	 */
+	static LaunchConfigurationInfo toHeader(LaunchConfigurationInfo info) {
+		LaunchConfigurationInfo header = new LaunchConfigurationInfo();
+		header.setType(info.getType());
+		for (String key : HEADER_ATTRIBUTES) {
+			Object value = info.getAttributeTable().get(key);
+			if (value != null) {
+				header.setAttribute(key, value);
+			}
+		}
+		header.setIsPrototype(info.isPrototype());
+		return header;
+	}
+
+	/**
+	 * Returns the given launch configuration info as XML.
+	 *
+	 * @param info the info to write
+	 * @return the XML
+	 * @throws CoreException if the info contains an attribute with a
+	 *             <code>null</code> key
+	 */
+	@SuppressWarnings("unchecked")
+	public static String write(LaunchConfigurationInfo info) throws CoreException {
+		XMLWriter writer = new XMLWriter();
+		writer.startElement(LAUNCH_CONFIGURATION);
+		// attributes are written in alphabetical order like the DOM does
+		ILaunchConfiguration prototype = info.getPrototype();
+		if (prototype != null) {
+			writer.attribute(PROTOTYPE, prototype.getName());
+		}
+		writer.attribute(TYPE, info.getType().getIdentifier());
+		if (prototype == null && info.isPrototype()) {
+			writer.attribute(VISIBLE_ATTRIBUTES, info.getVisibleAttributes().stream().collect(Collectors.joining(", "))); //$NON-NLS-1$
+		}
+
+		for (Map.Entry<String, Object> entry : info.getAttributeTable().entrySet()) {
+			String key = entry.getKey();
+			if (key == null) {
+				throw new DebugException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugException.REQUEST_FAILED, DebugCoreMessages.LaunchConfigurationInfo_36, null));
+			}
+			Object value = entry.getValue();
+			if (value instanceof String) {
+				writeKeyValue(writer, STRING_ATTRIBUTE, key, (String) value);
+			} else if (value instanceof Integer) {
+				writeKeyValue(writer, INT_ATTRIBUTE, key, value.toString());
+			} else if (value instanceof Boolean) {
+				writeKeyValue(writer, BOOLEAN_ATTRIBUTE, key, value.toString());
+			} else if (value instanceof List) {
+				writeEntries(writer, LIST_ATTRIBUTE, LIST_ENTRY, key, (List<String>) value);
+			} else if (value instanceof Map) {
+				writeMap(writer, key, (Map<String, String>) value);
+			} else if (value instanceof Set) {
+				// persist in sorted order
+				List<String> list = new ArrayList<>((Set<String>) value);
+				Collections.sort(list);
+				writeEntries(writer, SET_ATTRIBUTE, SET_ENTRY, key, list);
+			}
+		}
+		writer.endElement(LAUNCH_CONFIGURATION);
+		return writer.toString();
+	}
+
+	private static void writeKeyValue(XMLWriter writer, String elementType, String key, String value) {
+		writer.startElement(elementType);
+		writer.attribute(KEY, key);
+		writer.attribute(VALUE, value);
+		writer.endElement(elementType);
+	}
+
+	private static void writeEntries(XMLWriter writer, String elementType, String entryType, String key, List<String> values) {
+		writer.startElement(elementType);
+		writer.attribute(KEY, key);
+		for (String value : values) {
+			writer.startElement(entryType);
+			writer.attribute(VALUE, value);
+			writer.endElement(entryType);
+		}
+		writer.endElement(elementType);
+	}
+
+	private static void writeMap(XMLWriter writer, String mapKey, Map<String, String> map) {
+		writer.startElement(MAP_ATTRIBUTE);
+		writer.attribute(KEY, mapKey);
+		// persist in sorted order based on keys
+		List<String> keys = new ArrayList<>(map.keySet());
+		Collections.sort(keys);
+		for (String key : keys) {
+			writeKeyValue(writer, MAP_ENTRY, key, map.get(key));
+		}
+		writer.endElement(MAP_ATTRIBUTE);
+	}
+
+	/**
+	 * Initializes the given info from the launch configuration XML of the
+	 * reader. If only the header is read, all attributes except the
+	 * {@link #HEADER_ATTRIBUTES} are skipped without validation and the
+	 * prototype is not resolved.
+	 */
+	private static void read(XMLStreamReader reader, LaunchConfigurationInfo info, boolean isPrototype, boolean headerOnly) throws CoreException, XMLStreamException {
+		if (!nextChildElement(reader) || !reader.getLocalName().equalsIgnoreCase(LAUNCH_CONFIGURATION)) {
+			throw getInvalidFormatDebugException();
+		}
+
+		// read type
+		String id = getAttribute(reader, TYPE);
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(id);
+		if (type == null) {
+			String message = MessageFormat.format(DebugCoreMessages.LaunchConfigurationInfo_missing_type, id);
+			throw new DebugException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugException.MISSING_LAUNCH_CONFIGURATION_TYPE, message, null));
+		}
+		info.setType(type);
+		String visibleAttributes = getAttribute(reader, VISIBLE_ATTRIBUTES);
+		String prototype = getAttribute(reader, PROTOTYPE);
+
+		while (nextChildElement(reader)) {
+			String name = reader.getLocalName();
+			String key = getAttribute(reader, KEY);
+			if (headerOnly && !HEADER_ATTRIBUTES.contains(key)) {
+				skipElement(reader);
+			} else if (name.equalsIgnoreCase(STRING_ATTRIBUTE)) {
+				info.setAttribute(key, getAttribute(reader, VALUE));
+				skipElement(reader);
+			} else if (name.equalsIgnoreCase(INT_ATTRIBUTE)) {
+				info.setAttribute(key, Integer.valueOf(getAttribute(reader, VALUE)));
+				skipElement(reader);
+			} else if (name.equalsIgnoreCase(BOOLEAN_ATTRIBUTE)) {
+				info.setAttribute(key, Boolean.valueOf(getAttribute(reader, VALUE)));
+				skipElement(reader);
+			} else if (name.equalsIgnoreCase(LIST_ATTRIBUTE)) {
+				List<String> list = new ArrayList<>();
+				readEntries(reader, LIST_ENTRY, list);
+				info.setAttribute(key, list);
+			} else if (name.equalsIgnoreCase(MAP_ATTRIBUTE)) {
+				Map<String, String> map = new HashMap<>();
+				while (nextChildElement(reader)) {
+					if (!reader.getLocalName().equalsIgnoreCase(MAP_ENTRY)) {
+						throw getInvalidFormatDebugException();
+					}
+					map.put(getAttribute(reader, KEY), getAttribute(reader, VALUE));
+					skipElement(reader);
+				}
+				info.setAttribute(key, map);
+			} else if (name.equalsIgnoreCase(SET_ATTRIBUTE)) {
+				Set<String> set = new HashSet<>();
+				readEntries(reader, SET_ENTRY, set);
+				info.setAttribute(key, set);
+			} else {
+				skipElement(reader);
+			}
+		}
+
+		if (isPrototype) {
+			info.setIsPrototype(true);
+			if (visibleAttributes.length() > 0) {
+				String[] split = visibleAttributes.split(", "); //$NON-NLS-1$
+				info.setVisibleAttributes(new HashSet<>(Arrays.asList(split)));
+			}
+		} else {
+			info.setIsPrototype(false);
+			if (!headerOnly && prototype.length() > 0) {
+				ILaunchConfiguration[] launchConfigurations = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurations(ILaunchConfiguration.PROTOTYPE);
+				for (ILaunchConfiguration launchConfiguration : launchConfigurations) {
+					if (prototype.equals(launchConfiguration.getName())) {
+						info.setPrototype(launchConfiguration);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the values of all child elements of the current element into the
+	 * given collection. All children must have the given entry name.
+	 */
+	private static void readEntries(XMLStreamReader reader, String entryType, Collection<String> values) throws CoreException, XMLStreamException {
+		while (nextChildElement(reader)) {
+			if (!reader.getLocalName().equalsIgnoreCase(entryType)) {
+				throw getInvalidFormatDebugException();
+			}
+			values.add(getAttribute(reader, VALUE));
+			skipElement(reader);
+		}
+	}
+
+	/**
+	 * Returns the value of an attribute of the current element, or an empty
+	 * string if the element has no such attribute.
+	 */
+	static String getAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue(null, name);
+		return value != null ? value : ""; //$NON-NLS-1$
+	}
+
+	/**
+	 * Advances to the next child element of the current element, skipping text
+	 * and comments. At the start of the document this advances to the root
+	 * element.
+	 *
+	 * @return <code>true</code> if positioned at the start of a child element,
+	 *         <code>false</code> if positioned at the end of the current
+	 *         element
+	 */
+	static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Advances to the end of the current element, skipping all its content.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Returns an invalid format exception for reuse
+	 *
+	 * @return an invalid format exception
+	 */
+	private static DebugException getInvalidFormatDebugException() {
+		return new DebugException(new Status(IStatus.ERROR, DebugPlugin.getUniqueIdentifier(), DebugException.REQUEST_FAILED, DebugCoreMessages.LaunchConfigurationInfo_Invalid_launch_configuration_XML__10, null));
+	}
+
+	/**
+	 * Writes elements with attributes in the same format as the indenting
+	 * <code>Transformer</code> used by
+	 * {@link LaunchManager#serializeDocument(org.w3c.dom.Document)}: a
+	 * standalone UTF-8 declaration, four spaces of indentation per level and
+	 * platform line separators. The <code>XMLStreamWriter</code> is not used
+	 * as its escaping differs.
+	 * <p>
+	 * Attributes must be written in alphabetical order of their names, which is
+	 * the order in which the DOM serializes them.
+	 * </p>
+	 */
+	static final class XMLWriter {
+
+		private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"; //$NON-NLS-1$
+		private static final String INDENT = "    "; //$NON-NLS-1$
+
+		private final StringBuilder fBuffer = new StringBuilder(1024);
+		private final String fLineSeparator = System.lineSeparator();
+		private int fDepth;
+		private boolean fStartTagOpen;
+
+		XMLWriter() {
+			fBuffer.append(DECLARATION);
+		}
+
+		void startElement(String name) {
+			if (fStartTagOpen) {
+				fBuffer.append('>');
+			}
+			newLine();
+			fBuffer.append('<').append(name);
+			fStartTagOpen = true;
+			fDepth++;
+		}
+
+		void attribute(String name, String value) {
+			fBuffer.append(' ').append(name).append("=\""); //$NON-NLS-1$
+			appendEscaped(value);
+			fBuffer.append('"');
+		}
+
+		void endElement(String name) {
+			fDepth--;
+			if (fStartTagOpen) {
+				fBuffer.append("/>"); //$NON-NLS-1$
+				fStartTagOpen = false;
+			} else {
+				newLine();
+				fBuffer.append("</").append(name).append('>'); //$NON-NLS-1$
+			}
+		}
+
+		private void newLine() {
+			fBuffer.append(fLineSeparator);
+			for (int i = 0; i < fDepth; i++) {
+				fBuffer.append(INDENT);
+			}
+		}
+
+		private void appendEscaped(String value) {
+			int length = value.length();
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				switch (c) {
+					case '&':
+						fBuffer.append("&amp;"); //$NON-NLS-1$
+						break;
+					case '<':
+						fBuffer.append("&lt;"); //$NON-NLS-1$
+						break;
+					case '>':
+						fBuffer.append("&gt;"); //$NON-NLS-1$
+						break;
+					case '"':
+						fBuffer.append("&quot;"); //$NON-NLS-1$
+						break;
+					default:
+						if (c < 0x20) {
+							fBuffer.append("&#").append((int) c).append(';'); //$NON-NLS-1$
+						} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+							fBuffer.append("&#").append(Character.toCodePoint(c, value.charAt(++i))).append(';'); //$NON-NLS-1$
+						} else {
+							fBuffer.append(c);
+						}
+						break;
+				}
+			}
+		}
+
+		/**
+		 * Returns the written XML. Must only be called after the root element
+		 * has been ended.
+		 */
+		@Override
+		public String toString() {
+			return fBuffer.toString() + fLineSeparator;
+		}
+	}
+}
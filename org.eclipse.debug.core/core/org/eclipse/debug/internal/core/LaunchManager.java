@@ -25,7 +25,6 @@ import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
@@ -51,6 +50,7 @@ import java.util.StringTokenizer;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -113,9 +113,6 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Manages launch configurations, launch configuration types, and registered launches.
@@ -512,6 +509,15 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	public static final IPath LOCAL_LAUNCH_CONFIGURATION_CONTAINER_PATH =
 		DebugPlugin.getDefault().getStateLocation().append(".launches"); //$NON-NLS-1$
+
+	/**
+	 * Path to the file in which the index of the headers of all launch
+	 * configurations is persisted between sessions.
+	 *
+	 * @see LaunchConfigurationIndex
+	 */
+	static final IPath LAUNCH_CONFIGURATION_INDEX_PATH =
+		DebugPlugin.getDefault().getStateLocation().append(".launchConfigurations.index"); //$NON-NLS-1$
 	/**
 	 * Returns a Document that can be used to build a DOM tree
 	 * @return the Document
@@ -554,10 +560,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	private List<ILaunchConfigurationType> fLaunchConfigurationTypes = null;
 
 	/**
-	 * Launch configuration cache. Keys are <code>LaunchConfiguration</code>,
-	 * values are <code>LaunchConfigurationInfo</code>.
+	 * Launch configuration cache of infos and headers read from launch
+	 * configuration files.
 	 */
-	private Map<ILaunchConfiguration, LaunchConfigurationInfo> fLaunchConfigurations = new HashMap<>(10);
+	private final LaunchConfigurationInfoCache fLaunchConfigurations = new LaunchConfigurationInfoCache();
 
 	/**
 	 * A cache of launch configuration names currently in the workspace.
@@ -570,6 +576,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	private List<ILaunchConfiguration> fLaunchConfigurationIndex = null;
 
+	/**
+	 * Index of launch configurations by mapped resource, created lazily.
+	 */
+	private LaunchConfigurationResourceIndex fResourceIndex = null;
+
 	/**
 	 * Launch configuration comparator extensions,
 	 * keyed by attribute name.
@@ -899,14 +910,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param stream the {@link InputStream} to read from
 	 * @return the new {@link LaunchConfigurationInfo}
 	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
-	 * @throws IOException if there is a problem handling the given stream or writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
-	 */
-	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException,
-																			 ParserConfigurationException,
-																			 IOException,
-																			 SAXException {
+	 * @throws XMLStreamException if the stream fails to parse or cannot be read
+	 */
+	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream) throws CoreException, XMLStreamException {
 		return createInfoFromXML(stream, false);
 	}
 
@@ -920,21 +926,12 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param isPrototype if the XML corresponds to a prototype
 	 * @return the new {@link LaunchConfigurationInfo}
 	 * @throws CoreException if a problem is encountered
-	 * @throws ParserConfigurationException if the stream fails to parse
-	 * @throws IOException if there is a problem handling the given stream or
-	 *             writing the new info file
-	 * @throws SAXException if there is a SAX parse exception
+	 * @throws XMLStreamException if the stream fails to parse or cannot be read
 	 *
 	 * @since 3.12
 	 */
-	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream, boolean isPrototype) throws CoreException, ParserConfigurationException, IOException, SAXException {
-		Element root = null;
-		DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-		parser.setErrorHandler(new DefaultHandler());
-		root = parser.parse(new InputSource(stream)).getDocumentElement();
-		LaunchConfigurationInfo info = new LaunchConfigurationInfo();
-		info.initializeFromXML(root, isPrototype);
-		return info;
+	protected LaunchConfigurationInfo createInfoFromXML(InputStream stream, boolean isPrototype) throws CoreException, XMLStreamException {
+		return LaunchConfigurationXML.read(stream, isPrototype);
 	}
 
 	/**
@@ -1122,9 +1119,12 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		if (fLaunchConfigurationIndex == null) {
 			try {
 				fLaunchConfigurationIndex = new ArrayList<>(20);
+				LaunchConfigurationIndex index = LaunchConfigurationIndex.read(LAUNCH_CONFIGURATION_INDEX_PATH.toFile());
 				List<ILaunchConfiguration> configs = findLocalLaunchConfigurations();
+				restoreHeaders(index, configs);
 				verifyConfigurations(configs, fLaunchConfigurationIndex);
 				configs = findLaunchConfigurations(ResourcesPlugin.getWorkspace().getRoot());
+				restoreHeaders(index, configs);
 				verifyConfigurations(configs, fLaunchConfigurationIndex);
 			} finally {
 				hookResourceChangeListener();
@@ -1133,6 +1133,57 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		return fLaunchConfigurationIndex;
 	}
 
+	/**
+	 * Caches the headers of the given configurations which are indexed and did
+	 * not change since they were indexed, so verifying them does not read their
+	 * files.
+	 *
+	 * @param index the persisted index
+	 * @param configs configurations to restore the headers of
+	 */
+	private void restoreHeaders(LaunchConfigurationIndex index, List<ILaunchConfiguration> configs) {
+		if (index.size() == 0) {
+			return;
+		}
+		for (ILaunchConfiguration config : configs) {
+			if (config instanceof LaunchConfiguration) {
+				LaunchConfigurationInfo header = index.getHeader((LaunchConfiguration) config);
+				if (header != null) {
+					fLaunchConfigurations.putHeader(config, header);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Persists the headers of all known launch configurations which are
+	 * cached, so the next session does not need to read their files when
+	 * building the collection of all launch configurations.
+	 */
+	private void persistLaunchConfigurationIndex() {
+		List<ILaunchConfiguration> configs;
+		synchronized (this) {
+			if (fLaunchConfigurationIndex == null) {
+				return;
+			}
+			configs = new ArrayList<>(fLaunchConfigurationIndex);
+		}
+		LaunchConfigurationIndex index = new LaunchConfigurationIndex();
+		for (ILaunchConfiguration config : configs) {
+			if (config instanceof LaunchConfiguration) {
+				LaunchConfigurationInfo header = fLaunchConfigurations.getHeader(config);
+				if (header != null) {
+					index.add((LaunchConfiguration) config, header);
+				}
+			}
+		}
+		try {
+			index.write(LAUNCH_CONFIGURATION_INDEX_PATH.toFile());
+		} catch (IOException e) {
+			DebugPlugin.log(e);
+		}
+	}
+
 	/**
 	 * Return a sorted array of the names of all <code>ILaunchConfiguration</code>s in
 	 * the workspace.  These are cached, and cache is cleared when a new config is added,
@@ -1337,41 +1388,74 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected LaunchConfigurationInfo getInfo(LaunchConfiguration config) throws CoreException {
 		LaunchConfigurationInfo info = fLaunchConfigurations.get(config);
 		if (info == null) {
-			IFileStore store = config.getFileStore();
-			if (config.exists()) {
-				BufferedInputStream stream = null;
-				try {
-					stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
+			info = readInfo(config, false);
+			fLaunchConfigurations.put(config, info);
+		}
+		return info;
+	}
+
+	/**
+	 * Returns an info object only containing the type and the mapped resources
+	 * of the specified launch configuration. Returns the complete info object
+	 * if it is cached, otherwise only the header of the configuration file is
+	 * read and cached.
+	 *
+	 * @param config the {@link ILaunchConfiguration} to get the header from
+	 * @return the {@link LaunchConfigurationInfo} containing at least the type
+	 *         and mapped resources of the given {@link ILaunchConfiguration}
+	 * @exception CoreException if an exception occurs reading the header
+	 * @exception DebugException if the config does not exist
+	 * @since 3.18
+	 */
+	protected LaunchConfigurationInfo getHeaderInfo(LaunchConfiguration config) throws CoreException {
+		LaunchConfigurationInfo info = fLaunchConfigurations.getHeader(config);
+		if (info == null) {
+			info = readInfo(config, true);
+			fLaunchConfigurations.putHeader(config, info);
+		}
+		return info;
+	}
+
+	/**
+	 * Reads the info object of the specified launch configuration from its
+	 * file.
+	 *
+	 * @param config the {@link LaunchConfiguration} to read
+	 * @param headerOnly whether to only read the header of the file
+	 * @return the new {@link LaunchConfigurationInfo}
+	 * @exception CoreException if an exception occurs reading the file
+	 * @exception DebugException if the config does not exist
+	 */
+	private LaunchConfigurationInfo readInfo(LaunchConfiguration config, boolean headerOnly) throws CoreException {
+		IFileStore store = config.getFileStore();
+		if (config.exists()) {
+			LaunchConfigurationInfo info = null;
+			BufferedInputStream stream = null;
+			try {
+				stream = new BufferedInputStream(store.openInputStream(EFS.NONE, null));
+				if (headerOnly) {
+					info = LaunchConfigurationXML.readHeader(stream, isPrototype(store));
+				} else {
 					info = createInfoFromXML(stream, isPrototype(store));
-					synchronized (this) {
-						fLaunchConfigurations.put(config, info);
-					}
-				} catch (FileNotFoundException e) {
-					throwException(config, e);
-				} catch (SAXException e) {
-					throwException(config, e);
-				} catch (ParserConfigurationException e) {
-					throwException(config, e);
-				} catch (IOException e) {
-					throwException(config, e);
-				} finally {
-					if (stream != null) {
-						try {
-							stream.close();
-						} catch (IOException e) {
-							throwException(config, e);
-						}
+				}
+			} catch (XMLStreamException e) {
+				throwException(config, e);
+			} finally {
+				if (stream != null) {
+					try {
+						stream.close();
+					} catch (IOException e) {
+						throwException(config, e);
 					}
 				}
-
-			} else if (store != null){
-				throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist, new Object[] {
-						config.getName(), store.toURI().toString() }), null);
-			} else {
-				throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist_no_store_found, new Object[] { config.getName() }), null);
 			}
+			return info;
+		} else if (store != null){
+			throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist, new Object[] {
+					config.getName(), store.toURI().toString() }), null);
+		} else {
+			throw createDebugException(MessageFormat.format(DebugCoreMessages.LaunchManager_does_not_exist_no_store_found, new Object[] { config.getName() }), null);
 		}
-		return info;
 	}
 
 	/**
@@ -2116,9 +2200,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param config the launch configuration that was changed
 	 */
 	protected void launchConfigurationChanged(ILaunchConfiguration config) {
-		synchronized(this) {
-			fLaunchConfigurations.remove(config);
-		}
+		fLaunchConfigurations.remove(config);
 		clearConfigNameCache();
 		if (isValid(config)) {
 			// in case the config has been refreshed and it was removed from the
@@ -2142,9 +2224,9 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	protected void launchConfigurationDeleted(ILaunchConfiguration config) {
 		boolean removed = false;
 		synchronized (this) {
-			Object key = fLaunchConfigurations.remove(config);
-			removed = key != null;
-			getAllLaunchConfigurations().remove(config);
+			// the info may have been evicted from the cache, also check the index
+			removed = fLaunchConfigurations.remove(config);
+			removed |= getAllLaunchConfigurations().remove(config);
 		}
 		if (removed) {
 			getConfigurationNotifier().notify(config, REMOVED);
@@ -2260,6 +2342,32 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 	}
 
+	/**
+	 * Returns the launch configurations, excluding prototypes, which have a
+	 * mapped resource that is the given resource or is contained in it. The
+	 * configurations are returned in the order of
+	 * {@link #getLaunchConfigurations()}.
+	 *
+	 * @param resource the resource
+	 * @param includeUnmapped whether configurations without mapped resources
+	 *            are returned as well
+	 * @return the launch configurations mapped to the given resource or its
+	 *         members, possibly empty
+	 * @since 3.18
+	 */
+	public ILaunchConfiguration[] getMappedLaunchConfigurations(IResource resource, boolean includeUnmapped) {
+		LaunchConfigurationResourceIndex index;
+		synchronized (this) {
+			if (fResourceIndex == null) {
+				fResourceIndex = new LaunchConfigurationResourceIndex(this);
+				addLaunchConfigurationListener(fResourceIndex);
+			}
+			index = fResourceIndex;
+		}
+		List<ILaunchConfiguration> configs = index.getConfigurations(resource.getFullPath(), includeUnmapped);
+		return configs.toArray(new ILaunchConfiguration[configs.size()]);
+	}
+
 	/**
 	 * Gets the launch configuration associated with the specified <code>IResource</code>.
 	 * This method relies on the resource mapping existing, if no such mapping
@@ -2270,25 +2378,10 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 */
 	private ArrayList<ILaunchConfiguration> collectAssociatedLaunches(IResource resource) {
 		ArrayList<ILaunchConfiguration> list = new ArrayList<>();
-		try {
-			ILaunchConfiguration[] configs = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurations();
-			IResource[] resources = null;
-			for (ILaunchConfiguration config : configs) {
-				if(config.isLocal()) {
-					resources = config.getMappedResources();
-					if(resources != null) {
-						for (IResource res : resources) {
-							if(resource.equals(res) ||
-									resource.getFullPath().isPrefixOf(res.getFullPath())) {
-								list.add(config);
-								break;
-							}
-						}
-					}
-				}
+		for (ILaunchConfiguration config : getMappedLaunchConfigurations(resource, false)) {
+			if (config.isLocal()) {
+				list.add(config);
 			}
-		} catch (CoreException e) {
-			DebugPlugin.log(e);
 		}
 		return list;
 	}
@@ -2333,6 +2426,7 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 		}
 
 		persistPreferredLaunchDelegates();
+		persistLaunchConfigurationIndex();
 		clearAllLaunchConfigurations();
 		fStepFilterManager = null;
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
@@ -2432,9 +2526,11 @@ public class LaunchManager extends PlatformObject implements ILaunchManager, IRe
 	 * @param valid the list to place valid configurations in
 	 */
 	protected void verifyConfigurations(List<ILaunchConfiguration> verify, List<ILaunchConfiguration> valid) {
+		Set<ILaunchConfiguration> known = new HashSet<>(valid);
 		for (ILaunchConfiguration config : verify) {
-			if (!valid.contains(config) && isValid(config)) {
+			if (!known.contains(config) && isValid(config)) {
 				valid.add(config);
+				known.add(config);
 			}
 		}
 	}
@@ -16,15 +16,17 @@
 package org.eclipse.debug.internal.core;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.ListenerList;
-import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IBinaryStreamListener;
 import org.eclipse.debug.core.IStreamListener;
@@ -63,15 +65,64 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	 *
 	 * @see #isBuffered()
 	 */
-	private ByteArrayOutputStream fContents;
+	private SegmentedByteBuffer fContents;
 
 	/**
-	 * Decoder used for the buffered content. This is required to keep the state
-	 * of an incomplete character.
+	 * Maximum number of buffered bytes or <code>0</code> if unlimited.
+	 */
+	private long fBufferLimit;
+
+	/**
+	 * Bytes of an incomplete character split by the last flush. Decoded in
+	 * front of the buffered content as long as nothing was discarded. May be
+	 * <code>null</code>.
+	 */
+	private byte[] fDecodePrefix;
+
+	/**
+	 * The buffered content decoded on demand. Dropped whenever the buffered
+	 * content changes.
 	 */
-	private StreamDecoder fBufferedDecoder;
 	private String fCachedDecodedContents;
 
+	/**
+	 * The buffered content decoded so far. Only content appended since the
+	 * last call of {@link #getContents()} is decoded, and characters of
+	 * discarded content are dropped from the front. <code>null</code> if not
+	 * decoded yet.
+	 */
+	private StringBuilder fDecodedContents;
+
+	/**
+	 * Number of characters in front of {@link #fDecodedContents} which belong
+	 * to discarded content.
+	 */
+	private int fDecodedOffset;
+
+	/**
+	 * Number of characters already removed from the front of
+	 * {@link #fDecodedContents}.
+	 */
+	private long fDecodedBase;
+
+	/**
+	 * The decoder of {@link #fDecodedContents}.
+	 */
+	private StreamDecoder fContentsDecoder;
+
+	/**
+	 * Buffer position up to which the content was decoded.
+	 */
+	private long fDecodedPosition;
+
+	/**
+	 * For every chunk boundary of the buffer passed while decoding: the buffer
+	 * position, the number of characters decoded in front of it (counted
+	 * including {@link #fDecodedBase}) and the number of bytes of an
+	 * incomplete character in front of it.
+	 */
+	private final Deque<long[]> fDecodedChunks = new ArrayDeque<>();
+
 	/**
 	 * The thread which reads from the stream
 	 */
@@ -81,7 +132,7 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	 * Whether or not this monitor has been killed. When the monitor is killed,
 	 * it stops reading from the stream immediately.
 	 */
-	private boolean fKilled = false;
+	private volatile boolean fKilled = false;
 
 	private long lastSleep;
 
@@ -89,8 +140,52 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 
 	private StreamDecoder fDecoder;
 
+	/**
+	 * Reused buffer to decode content for the text listeners. Only used by
+	 * the reading thread.
+	 */
+	private StringBuilder fDecodeBuffer = new StringBuilder(BUFFER_SIZE);
+
+	/**
+	 * Incremented whenever a listener is removed. Allows notification to skip
+	 * listeners removed after the listener snapshot was taken.
+	 */
+	private volatile int fListenerGeneration;
+
 	private final AtomicBoolean fDone;
 
+	/**
+	 * The engine reading the stream if it is not read by a dedicated thread.
+	 */
+	private ProcessIOEngine fEngine;
+
+	/**
+	 * Completed once the engine stopped reading the stream.
+	 */
+	private CompletableFuture<Void> fEngineReadCompletion;
+
+	/**
+	 * Read buffer used while the stream is read by the engine.
+	 */
+	private byte[] fEngineBuffer;
+
+	/**
+	 * Delay in milliseconds before the engine polls the stream again.
+	 */
+	private long fPollDelay;
+
+	/**
+	 * Whether the process writing the stream has terminated. Only used if the
+	 * stream is read by the engine.
+	 */
+	private volatile boolean fSourceTerminated;
+
+	/**
+	 * Time in epoch milliseconds when draining the stream of a terminated
+	 * process stops or <code>0</code> if draining has not started.
+	 */
+	private long fDrainDeadline;
+
 	/**
 	 * Creates an output stream monitor on the given stream (connected to system
 	 * out or err).
@@ -133,7 +228,10 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 
 	/**
 	 * Causes the monitor to close all communications between it and the
-	 * underlying stream by waiting for the thread to terminate.
+	 * underlying stream by waiting for the thread to terminate. If the stream
+	 * is read by the engine the listeners are released once the engine read
+	 * the stream up to its end, without blocking the caller which may be a
+	 * thread of the engine itself.
 	 */
 	protected void close() {
 		if (fThread != null) {
@@ -145,37 +243,54 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 			}
 			fListeners = new ListenerList<>();
 			fBinaryListeners = new ListenerList<>();
+		} else if (fEngine != null) {
+			fEngineReadCompletion.thenRun(() -> {
+				synchronized (this) {
+					fListeners = new ListenerList<>();
+					fBinaryListeners = new ListenerList<>();
+				}
+			});
 		}
 	}
 
 	/**
 	 * Notifies the listeners that content has been appended to the stream. Will
 	 * notify both, binary and text listeners.
+	 * <p>
+	 * Must be called without holding the monitor lock. The listener arrays are
+	 * snapshots taken while the content was buffered, so listeners added later
+	 * find the content in the buffer instead of being notified twice.
+	 * </p>
 	 *
 	 * @param data that has been appended; not <code>null</code>
 	 * @param offset start of valid data
 	 * @param length number of valid bytes
+	 * @param listeners snapshot of the text listeners
+	 * @param binaryListeners snapshot of the binary listeners
 	 */
-	private void fireStreamAppended(final byte[] data, int offset, int length) {
-		if (!fListeners.isEmpty()) {
-			StringBuilder sb = new StringBuilder();
-			fDecoder.decode(sb, data, offset, length);
-			final String text = sb.toString();
-			for (final IStreamListener listener : fListeners) {
-				SafeRunner.run(new ISafeRunnable() {
-					@Override
-					public void run() throws Exception {
-						listener.streamAppended(text, OutputStreamMonitor.this);
-					}
-
-					@Override
-					public void handleException(Throwable exception) {
-						DebugPlugin.log(exception);
-					}
-				});
+	private void fireStreamAppended(final byte[] data, int offset, int length, Object[] listeners, Object[] binaryListeners) {
+		int generation = fListenerGeneration;
+		if (listeners.length > 0) {
+			fDecodeBuffer.setLength(0);
+			fDecoder.decode(fDecodeBuffer, data, offset, length);
+			final String text = fDecodeBuffer.toString();
+			if (fDecodeBuffer.capacity() > BUFFER_SIZE * 4) {
+				// do not keep a large buffer after a single large decode
+				fDecodeBuffer = new StringBuilder(BUFFER_SIZE);
+			}
+			for (Object listener : listeners) {
+				if (generation != fListenerGeneration && !contains(fListeners.getListeners(), listener)) {
+					continue;
+				}
+				try {
+					((IStreamListener) listener).streamAppended(text, this);
+				} catch (Exception | LinkageError | AssertionError e) {
+					DebugPlugin.log(e);
+				}
 			}
 		}
-		if (!fBinaryListeners.isEmpty()) {
+		if (binaryListeners.length > 0) {
+			// all binary listeners share one copy of the data
 			final byte[] validData;
 			if (offset > 0 || length < data.length) {
 				validData = new byte[length];
@@ -183,20 +298,33 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 			} else {
 				validData = data;
 			}
-			for (final IBinaryStreamListener listener : fBinaryListeners) {
-				SafeRunner.run(new ISafeRunnable() {
-					@Override
-					public void run() throws Exception {
-						listener.streamAppended(validData, OutputStreamMonitor.this);
-					}
+			for (Object listener : binaryListeners) {
+				if (generation != fListenerGeneration && !contains(fBinaryListeners.getListeners(), listener)) {
+					continue;
+				}
+				try {
+					((IBinaryStreamListener) listener).streamAppended(validData, this);
+				} catch (Exception | LinkageError | AssertionError e) {
+					DebugPlugin.log(e);
+				}
+			}
+		}
+	}
 
-					@Override
-					public void handleException(Throwable exception) {
-						DebugPlugin.log(exception);
-					}
-				});
+	/**
+	 * Checks if a listener is (still) registered.
+	 *
+	 * @param listeners the currently registered listeners
+	 * @param listener the listener to find
+	 * @return <code>true</code> if the listener is registered
+	 */
+	private static boolean contains(Object[] listeners, Object listener) {
+		for (Object l : listeners) {
+			if (l == listener) {
+				return true;
 			}
 		}
+		return false;
 	}
 
 	@Override
@@ -207,18 +335,196 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		if (fCachedDecodedContents != null) {
 			return fCachedDecodedContents;
 		}
-		StringBuilder sb = new StringBuilder();
-		byte[] data = getData();
-		fBufferedDecoder.decode(sb, data, 0, data.length);
-		fCachedDecodedContents = sb.toString();
+		updateDecodedContents();
+		fCachedDecodedContents = fDecodedContents.substring(fDecodedOffset);
 		return fCachedDecodedContents;
 	}
 
+	/**
+	 * Drops the characters of discarded content from the decoded content and
+	 * decodes the content appended since the last update.
+	 */
+	private void updateDecodedContents() {
+		long start = fContents.getStart();
+		if (fDecodedContents == null || !dropDecodedContents(start)) {
+			fDecodedContents = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, fContents.size()));
+			fDecodedOffset = 0;
+			fDecodedBase = 0;
+			fDecodedChunks.clear();
+			fContentsDecoder = new StreamDecoder(getBufferCharset());
+			fDecodedPosition = start;
+			if (start > 0) {
+				// content was discarded, start decoding at the first whole character
+				fDecodedPosition = skipContinuationBytes(start);
+			} else if (fDecodePrefix != null) {
+				fContentsDecoder.decode(fDecodedContents, fDecodePrefix, 0, fDecodePrefix.length);
+			}
+		}
+		int chunkSize = fContents.getChunkSize();
+		byte[] data = new byte[(int) Math.min(BUFFER_SIZE, fContents.getEnd() - fDecodedPosition)];
+		int read;
+		while (true) {
+			// stop at chunk boundaries to know what to drop once chunks are discarded
+			long boundary = fDecodedPosition - fDecodedPosition % chunkSize + chunkSize;
+			int length = (int) Math.min(data.length, boundary - fDecodedPosition);
+			if ((read = fContents.read(fDecodedPosition, data, 0, length)) <= 0) {
+				break;
+			}
+			fContentsDecoder.decode(fDecodedContents, data, 0, read);
+			fDecodedPosition += read;
+			if (fDecodedPosition == boundary) {
+				fDecodedChunks.add(new long[] { boundary, fDecodedBase + fDecodedContents.length(), fContentsDecoder.getPendingBytes() });
+			}
+		}
+	}
+
+	/**
+	 * Drops the decoded characters of content discarded in front of the given
+	 * buffer position.
+	 *
+	 * @param start first retained buffer position
+	 * @return <code>false</code> if the decoded content must be rebuilt
+	 *         because it does not reach the given position
+	 */
+	private boolean dropDecodedContents(long start) {
+		if (start > fDecodedPosition) {
+			return false;
+		}
+		long[] chunk = null;
+		while (!fDecodedChunks.isEmpty() && fDecodedChunks.peekFirst()[0] <= start) {
+			chunk = fDecodedChunks.removeFirst();
+		}
+		if (chunk == null) {
+			// nothing discarded since the last update
+			return true;
+		}
+		if (chunk[0] != start) {
+			return false;
+		}
+		int offset = (int) (chunk[1] - fDecodedBase);
+		if (chunk[2] > 0 && StandardCharsets.UTF_8.equals(getBufferCharset())) {
+			// like a rebuild, skip the character whose start was discarded
+			if (offset >= fDecodedContents.length()) {
+				return false;
+			}
+			offset += Character.isHighSurrogate(fDecodedContents.charAt(offset)) ? 2 : 1;
+		}
+		fDecodedOffset = offset;
+		if (fDecodedOffset > fDecodedContents.length() / 2) {
+			fDecodedContents.delete(0, fDecodedOffset);
+			fDecodedBase += fDecodedOffset;
+			fDecodedOffset = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Drops the decoded content, e.g. if the buffered content was reset.
+	 */
+	private void resetDecodedContents() {
+		fCachedDecodedContents = null;
+		fDecodedContents = null;
+		fContentsDecoder = null;
+		fDecodedChunks.clear();
+	}
+
+	/**
+	 * @return charset used to decode the buffered content
+	 */
+	private Charset getBufferCharset() {
+		return fCharset == null ? Charset.defaultCharset() : fCharset;
+	}
+
+	/**
+	 * Skips the remainder of a UTF-8 character whose start was discarded from
+	 * the buffer. Other charsets are decoded from the given position.
+	 *
+	 * @param position first retained buffer position
+	 * @return position of the first complete character
+	 */
+	private long skipContinuationBytes(long position) {
+		if (!StandardCharsets.UTF_8.equals(getBufferCharset())) {
+			return position;
+		}
+		byte[] b = new byte[1];
+		// a UTF-8 character has at most three continuation bytes
+		for (int i = 0; i < 3 && fContents.read(position, b, 0, 1) > 0 && isContinuationByte(b[0]); i++) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the trailing bytes of the buffered content which do not form a
+	 * complete UTF-8 character yet.
+	 *
+	 * @return incomplete character or <code>null</code> if the content ends
+	 *         with a complete character or is not UTF-8
+	 */
+	private byte[] getIncompleteCharacter() {
+		if (!StandardCharsets.UTF_8.equals(getBufferCharset())) {
+			return null;
+		}
+		long start = Math.max(fContents.getStart(), fContents.getEnd() - 3);
+		byte[] tail = new byte[(int) (fContents.getEnd() - start)];
+		fContents.read(start, tail, 0, tail.length);
+		if (start == 0 && fDecodePrefix != null) {
+			byte[] joined = Arrays.copyOf(fDecodePrefix, fDecodePrefix.length + tail.length);
+			System.arraycopy(tail, 0, joined, fDecodePrefix.length, tail.length);
+			tail = joined;
+		}
+		for (int i = tail.length - 1; i >= 0; i--) {
+			if (!isContinuationByte(tail[i])) {
+				int lead = tail[i] & 0xFF;
+				int length = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+				return tail.length - i < length ? Arrays.copyOfRange(tail, i, tail.length) : null;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isContinuationByte(byte b) {
+		return (b & 0xC0) == 0x80;
+	}
+
 	@Override
 	public synchronized byte[] getData() {
 		return isBuffered() ? fContents.toByteArray() : new byte[0];
 	}
 
+	@Override
+	public synchronized long getDataStart() {
+		return isBuffered() ? fContents.getStart() : 0;
+	}
+
+	@Override
+	public synchronized long getDataEnd() {
+		return isBuffered() ? fContents.getEnd() : 0;
+	}
+
+	@Override
+	public synchronized int readData(long position, byte[] buffer, int offset, int length) {
+		if (!isBuffered()) {
+			return -1;
+		}
+		return fContents.read(position, buffer, offset, length);
+	}
+
+	/**
+	 * Limits the number of buffered bytes. Once the buffered content exceeds
+	 * the limit the oldest content is discarded.
+	 *
+	 * @param limit maximum number of buffered bytes; <code>0</code> or less
+	 *            for no limit
+	 */
+	public synchronized void setBufferLimit(long limit) {
+		fBufferLimit = Math.max(0, limit);
+		if (isBuffered()) {
+			fCachedDecodedContents = null;
+			fContents.setLimit(fBufferLimit);
+		}
+	}
+
 	private void read() {
 		try {
 			internalRead();
@@ -247,13 +553,7 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 					}
 					read = fStream.read(buffer);
 					if (read > 0) {
-						synchronized (this) {
-							if (isBuffered()) {
-								fCachedDecodedContents = null;
-								fContents.write(buffer, 0, read);
-							}
-							fireStreamAppended(buffer, 0, read);
-						}
+						append(buffer, read);
 					}
 				} catch (IOException ioe) {
 					if (!fKilled) {
@@ -288,6 +588,129 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		}
 	}
 
+	/**
+	 * Buffers and dispatches content read from the stream.
+	 *
+	 * @param buffer the read buffer
+	 * @param read number of valid bytes in the buffer
+	 */
+	private void append(byte[] buffer, int read) {
+		Object[] listeners;
+		Object[] binaryListeners;
+		synchronized (this) {
+			if (isBuffered()) {
+				fCachedDecodedContents = null;
+				fContents.write(buffer, 0, read);
+			}
+			// copy-on-write arrays, taking the snapshot does not allocate
+			listeners = fListeners.getListeners();
+			binaryListeners = fBinaryListeners.getListeners();
+		}
+		fireStreamAppended(buffer, 0, read, listeners, binaryListeners);
+	}
+
+	/**
+	 * Reads what is available from the stream without blocking and schedules
+	 * the next poll. Stops once the end of the stream is reached or the
+	 * monitor is killed.
+	 */
+	private void poll() {
+		ProcessIOEngine engine = fEngine;
+		boolean more = false;
+		try {
+			more = readAvailable(engine);
+		} finally {
+			if (more) {
+				engine.schedule(this::poll, fPollDelay);
+			} else {
+				try {
+					fStream.close();
+				} catch (IOException e) {
+					DebugPlugin.log(e);
+				}
+				fDone.set(true);
+				engine.streamClosed();
+				fEngineReadCompletion.complete(null);
+			}
+		}
+	}
+
+	/**
+	 * Reads up to a bounded amount of content from the stream without
+	 * blocking. Once the process writing the stream has terminated the stream
+	 * is drained until nothing became available for
+	 * {@link ProcessIOEngine#DRAIN_PERIOD}. A blocking read could pin a shared
+	 * engine thread forever if the stream is kept open by another process.
+	 *
+	 * @param engine the engine reading this stream
+	 * @return <code>false</code> if the end of the stream was reached, the
+	 *         drain period elapsed or the monitor was killed
+	 */
+	private boolean readAvailable(ProcessIOEngine engine) {
+		int total = 0;
+		try {
+			while (total < BUFFER_SIZE * 8) {
+				if (fKilled) {
+					return false;
+				}
+				int available = fStream.available();
+				if (available <= 0) {
+					break;
+				}
+				int read = fStream.read(fEngineBuffer, 0, Math.min(available, fEngineBuffer.length));
+				if (read < 0) {
+					return false;
+				}
+				if (read > 0) {
+					total += read;
+					engine.transferred(read);
+					append(fEngineBuffer, read);
+				}
+			}
+		} catch (IOException e) {
+			if (!fKilled) {
+				DebugPlugin.log(e);
+			}
+			return false;
+		}
+		if (total > 0) {
+			fPollDelay = 0;
+			fDrainDeadline = 0;
+		} else {
+			if (fSourceTerminated) {
+				long now = System.currentTimeMillis();
+				if (fDrainDeadline == 0) {
+					fDrainDeadline = now + ProcessIOEngine.DRAIN_PERIOD;
+				} else if (now >= fDrainDeadline) {
+					return false;
+				}
+			}
+			fPollDelay = Math.min(ProcessIOEngine.MAX_POLL_DELAY, Math.max(ProcessIOEngine.MIN_POLL_DELAY, fPollDelay * 2));
+		}
+		return true;
+	}
+
+	/**
+	 * Notification that the process writing the monitored stream has
+	 * terminated. Once all remaining content is read or nothing became
+	 * available for the drain period the monitor finishes.
+	 * Only relevant if the stream is read by the engine.
+	 */
+	void sourceTerminated() {
+		fSourceTerminated = true;
+	}
+
+	/**
+	 * Returns a future which completes once the engine has read the stream
+	 * up to its end or stopped reading because the monitor was killed.
+	 *
+	 * @return read completion or <code>null</code> if the stream is not read
+	 *         by an engine
+	 */
+	CompletableFuture<Void> getEngineReadCompletion() {
+		return fEngineReadCompletion;
+	}
+
 	protected void kill() {
 		fKilled = true;
 	}
@@ -295,11 +718,13 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 	@Override
 	public synchronized void removeListener(IStreamListener listener) {
 		fListeners.remove(listener);
+		fListenerGeneration++;
 	}
 
 	@Override
 	public synchronized void removeBinaryListener(IBinaryStreamListener listener) {
 		fBinaryListeners.remove(listener);
+		fListenerGeneration++;
 	}
 
 	/**
@@ -315,24 +740,42 @@ public class OutputStreamMonitor implements IBinaryStreamMonitor {
 		}
 	}
 
+	/**
+	 * Starts reading the stream with the given shared engine instead of a
+	 * dedicated thread.
+	 *
+	 * @param engine the engine to read the stream
+	 */
+	protected void startMonitoring(ProcessIOEngine engine) {
+		if (fThread == null && fEngine == null) {
+			fDone.set(false);
+			fEngine = engine;
+			fEngineBuffer = new byte[BUFFER_SIZE];
+			fEngineReadCompletion = new CompletableFuture<>();
+			engine.streamOpened();
+			engine.execute(this::poll);
+		}
+	}
+
 	@Override
 	public synchronized void setBuffered(boolean buffer) {
 		if (isBuffered() != buffer) {
-			fCachedDecodedContents = null;
+			resetDecodedContents();
 			if (buffer) {
-				fContents = new ByteArrayOutputStream();
-				fBufferedDecoder = new StreamDecoder(fCharset == null ? Charset.defaultCharset() : fCharset);
+				fContents = new SegmentedByteBuffer(SegmentedByteBuffer.DEFAULT_CHUNK_SIZE, fBufferLimit);
 			} else {
 				fContents = null;
-				fBufferedDecoder = null;
 			}
+			fDecodePrefix = null;
 		}
 	}
 
 	@Override
 	public synchronized void flushContents() {
 		if (isBuffered()) {
-			fCachedDecodedContents = null;
+			resetDecodedContents();
+			// keep a character split by the flush for the next decoding
+			fDecodePrefix = getIncompleteCharacter();
 			fContents.reset();
 		}
 	}
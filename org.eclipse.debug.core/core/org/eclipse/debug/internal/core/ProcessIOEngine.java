@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * Services the standard streams of any number of system processes from a
+ * small, bounded pool of daemon threads.
+ * <p>
+ * Without the engine every process costs a process monitor thread, two output
+ * reader threads and one input writer thread, most of them blocked most of the
+ * time. With the engine, output streams are polled without blocking: a read
+ * task consumes what is {@link java.io.InputStream#available() available},
+ * notifies the listeners and reschedules itself, backing off while the stream
+ * is idle. Input is written by short lived threads which only run while data
+ * is queued, since a write blocks as long as the process does not read its
+ * input. Process termination is observed through {@link Process#onExit()}.
+ * </p>
+ * <p>
+ * The engine is opt-in, see
+ * {@link IInternalDebugCoreConstants#PREF_SHARED_PROCESS_IO}.
+ * </p>
+ *
+ * @since 3.18
+ */
+public final class ProcessIOEngine {
+
+	/**
+	 * Number of threads servicing the streams of all processes.
+	 */
+	private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Time in seconds an idle pool thread is kept alive.
+	 */
+	private static final long KEEP_ALIVE = 30;
+
+	/**
+	 * Lower bound of the delay (in milliseconds) before an idle stream is
+	 * polled again.
+	 */
+	static final long MIN_POLL_DELAY = 1;
+
+	/**
+	 * Upper bound of the delay (in milliseconds) before an idle stream is
+	 * polled again.
+	 */
+	static final long MAX_POLL_DELAY = 50;
+
+	/**
+	 * Time (in milliseconds) the stream of a terminated process is still
+	 * polled after nothing was available anymore. The engine never blocks on
+	 * such a stream since it may be kept open by a child of the process.
+	 */
+	static final long DRAIN_PERIOD = 200;
+
+	/**
+	 * The shared engine or <code>null</code> if not yet created or already
+	 * shut down.
+	 */
+	private static ProcessIOEngine fgDefault;
+
+	private final ScheduledThreadPoolExecutor fExecutor;
+
+	/**
+	 * Number of streams currently serviced by this engine.
+	 */
+	private final AtomicInteger fOpenStreams = new AtomicInteger();
+
+	/**
+	 * Number of bytes read from or written to process streams.
+	 */
+	private final AtomicLong fTransferredBytes = new AtomicLong();
+
+	private ProcessIOEngine() {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory factory = r -> {
+			Thread thread = new Thread(r, DebugCoreMessages.ProcessIOEngine_threadName + " #" + threadCount.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		};
+		fExecutor = new ScheduledThreadPoolExecutor(POOL_SIZE, factory);
+		fExecutor.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+		fExecutor.allowCoreThreadTimeOut(true);
+		fExecutor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Returns whether new processes should use the shared engine.
+	 *
+	 * @return <code>true</code> if the shared process I/O engine is enabled
+	 */
+	public static boolean isEnabled() {
+		IPreferencesService service = Platform.getPreferencesService();
+		if (service == null) {
+			return false;
+		}
+		return service.getBoolean(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SHARED_PROCESS_IO, false, null);
+	}
+
+	/**
+	 * Returns the shared engine, creating it if necessary.
+	 *
+	 * @return the shared process I/O engine
+	 */
+	public static synchronized ProcessIOEngine getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new ProcessIOEngine();
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Shuts down the shared engine if it was created. Streams still serviced
+	 * by the engine are no longer read.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			fgDefault.fExecutor.shutdownNow();
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Runs the given task as soon as a pool thread is available.
+	 *
+	 * @param task the task to run
+	 */
+	void execute(Runnable task) {
+		schedule(task, 0);
+	}
+
+	/**
+	 * Runs the given task after the given delay.
+	 *
+	 * @param task the task to run
+	 * @param delay delay in milliseconds
+	 */
+	void schedule(Runnable task, long delay) {
+		try {
+			if (delay <= 0) {
+				fExecutor.execute(task);
+			} else {
+				fExecutor.schedule(task, delay, TimeUnit.MILLISECONDS);
+			}
+		} catch (RejectedExecutionException e) {
+			// engine shut down
+			DebugPlugin.log(e);
+		}
+	}
+
+	/**
+	 * Records that a stream is now serviced by this engine.
+	 */
+	void streamOpened() {
+		fOpenStreams.incrementAndGet();
+	}
+
+	/**
+	 * Records that a stream is no longer serviced by this engine.
+	 */
+	void streamClosed() {
+		fOpenStreams.decrementAndGet();
+	}
+
+	/**
+	 * Records transferred stream content.
+	 *
+	 * @param count number of bytes read or written
+	 */
+	void transferred(int count) {
+		fTransferredBytes.addAndGet(count);
+	}
+
+	/**
+	 * @return number of streams currently serviced by this engine
+	 */
+	public int getOpenStreamCount() {
+		return fOpenStreams.get();
+	}
+
+	/**
+	 * @return number of bytes transferred by this engine since its creation
+	 */
+	public long getTransferredBytes() {
+		return fTransferredBytes.get();
+	}
+
+	/**
+	 * @return number of threads currently in the engine's pool
+	 */
+	public int getThreadCount() {
+		return fExecutor.getPoolSize();
+	}
+
+	/**
+	 * @return maximum number of threads the engine will use
+	 */
+	public int getMaximumThreadCount() {
+		return POOL_SIZE;
+	}
+}
@@ -0,0 +1,535 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.RefreshUtil;
+
+/**
+ * Records the files changed in the refresh scope of a launch configuration
+ * while its process runs, so only the changed resources are refreshed when
+ * the process terminates, see {@link RefreshUtil#ATTR_REFRESH_TRACKED}.
+ * <p>
+ * The directories of the scope are watched with a {@link WatchService}.
+ * Changed files are refreshed to depth zero and directories in which files
+ * were created or deleted to depth one. Directories created in a recursive
+ * scope are refreshed completely. The whole scope is refreshed as configured
+ * if events were lost or too many files changed.
+ * </p>
+ * <p>
+ * The directories are registered in the background while the process already
+ * runs. Files and directories modified since the launch are recorded as
+ * changed when found during the registration. If the watch service does not
+ * report changes promptly, for example because it polls the file system, or
+ * the process terminates before the registration completed, the whole scope
+ * is refreshed.
+ * </p>
+ *
+ * @since 3.18
+ */
+public final class RefreshTracker {
+
+	/**
+	 * Maximum number of changed paths to record before falling back to
+	 * refreshing the whole scope.
+	 */
+	private static final int MAX_CHANGES = 10000;
+
+	/**
+	 * Time in milliseconds without events after which the events of a
+	 * terminated process are assumed to be delivered.
+	 */
+	private static final long QUIET_PERIOD = 100;
+
+	/**
+	 * Maximum time in milliseconds to wait for the events of a terminated
+	 * process.
+	 */
+	private static final long MAX_DRAIN_TIME = 5000;
+
+	/**
+	 * Granularity in milliseconds of file modification times. Files modified
+	 * this long before the launch are considered changed by it.
+	 */
+	private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+	/**
+	 * Whether the default watch service reports changes within the
+	 * {@link #QUIET_PERIOD}, or <code>null</code> if not yet checked.
+	 */
+	private static volatile Boolean fgReportsImmediately;
+
+	private final ILaunchConfiguration fConfiguration;
+	private final IResource[] fResources;
+	private final boolean fRecursive;
+	private final WatchService fWatcher;
+
+	/**
+	 * Files and directories modified after this time (in milliseconds) are
+	 * considered changed by the launch if they are found while registering
+	 * the directories of the scope.
+	 */
+	private final long fStartTime;
+
+	/**
+	 * Watched directories by their watch key.
+	 */
+	private final Map<WatchKey, Path> fDirectories = new ConcurrentHashMap<>();
+
+	/**
+	 * Files whose contents changed.
+	 */
+	private final Set<Path> fChangedFiles = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Directories in which files were created or deleted.
+	 */
+	private final Set<Path> fChangedDirectories = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Directories created in a recursive scope.
+	 */
+	private final Set<Path> fCreatedDirectories = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Whether changes were lost and the whole scope must be refreshed.
+	 */
+	private volatile boolean fOverflow = false;
+
+	private volatile boolean fStopping = false;
+
+	/**
+	 * Whether the directories of the scope are registered.
+	 */
+	private volatile boolean fRegistered = false;
+
+	private Thread fThread;
+
+	private RefreshTracker(ILaunchConfiguration configuration, IResource[] resources, boolean recursive, WatchService watcher) {
+		fConfiguration = configuration;
+		fResources = resources;
+		fRecursive = recursive;
+		fWatcher = watcher;
+		fStartTime = System.currentTimeMillis() - MODIFICATION_TIME_GRANULARITY;
+	}
+
+	/**
+	 * Starts recording the changes in the refresh scope of the given launch
+	 * configuration if it asks for a tracked refresh. To be called before the
+	 * process of the launch is started. The directories of the scope are
+	 * registered in the background while the process already runs.
+	 *
+	 * @param configuration launch configuration
+	 * @return the tracker or <code>null</code> if the configuration does not
+	 *         ask for a tracked refresh or changes cannot be tracked, the
+	 *         scope is then to be refreshed with
+	 *         {@link RefreshUtil#refreshResources(ILaunchConfiguration, IProgressMonitor)}
+	 */
+	public static RefreshTracker start(ILaunchConfiguration configuration) {
+		try {
+			if (!configuration.getAttribute(RefreshUtil.ATTR_REFRESH_TRACKED, false)) {
+				return null;
+			}
+			String scope = configuration.getAttribute(RefreshUtil.ATTR_REFRESH_SCOPE, (String) null);
+			if (scope == null) {
+				return null;
+			}
+			IResource[] resources = RefreshUtil.toResources(scope);
+			if (resources == null || resources.length == 0) {
+				return null;
+			}
+			RefreshTracker tracker = new RefreshTracker(configuration, resources, RefreshUtil.isRefreshRecursive(configuration), FileSystems.getDefault().newWatchService());
+			tracker.fThread = new Thread(tracker::run, "Refresh Tracker: " + configuration.getName()); //$NON-NLS-1$
+			tracker.fThread.setDaemon(true);
+			tracker.fThread.start();
+			return tracker;
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+		} catch (IOException e) {
+			if (DebugOptions.DEBUG) {
+				DebugOptions.trace("Unable to track changes of " + configuration.getName() + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether the default watch service reports changes within the
+	 * {@link #QUIET_PERIOD}. Watch services which poll the file system report
+	 * the last changes of a process too late to be drained once it terminated.
+	 * Checked once by creating a file in a temporary directory.
+	 */
+	private static boolean isReportingImmediately() {
+		Boolean immediately = fgReportsImmediately;
+		if (immediately == null) {
+			immediately = Boolean.valueOf(probeWatchService());
+			fgReportsImmediately = immediately;
+		}
+		return immediately.booleanValue();
+	}
+
+	private static boolean probeWatchService() {
+		Path directory = null;
+		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			directory = Files.createTempDirectory("refresh"); //$NON-NLS-1$
+			directory.register(watcher, ENTRY_CREATE);
+			Files.createFile(directory.resolve("probe")); //$NON-NLS-1$
+			return watcher.poll(QUIET_PERIOD * 5, TimeUnit.MILLISECONDS) != null;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			if (directory != null) {
+				try {
+					Files.deleteIfExists(directory.resolve("probe")); //$NON-NLS-1$
+					Files.deleteIfExists(directory);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Registers the directories of the scope with the watch service.
+	 */
+	private void watchScope() throws CoreException, IOException {
+		List<IContainer> containers = new ArrayList<>();
+		for (IResource resource : fResources) {
+			if (resource == null || !resource.isAccessible()) {
+				continue;
+			}
+			if (resource instanceof IWorkspaceRoot) {
+				if (!fRecursive) {
+					// the workspace directory contains the metadata, the
+					// projects are refreshed as configured
+					fOverflow = true;
+					return;
+				}
+				for (IResource project : ((IWorkspaceRoot) resource).getProjects()) {
+					if (project.isAccessible()) {
+						containers.add((IContainer) project);
+					}
+				}
+			} else if (resource instanceof IContainer) {
+				containers.add((IContainer) resource);
+			}
+		}
+		List<IPath> locations = new ArrayList<>();
+		for (IContainer container : containers) {
+			locations.add(container.getLocation());
+			if (fRecursive) {
+				// linked folders are located elsewhere
+				container.accept(proxy -> {
+					if (proxy.isLinked() && proxy.getType() == IResource.FOLDER) {
+						locations.add(proxy.requestResource().getLocation());
+					}
+					return true;
+				}, IContainer.NONE);
+			}
+		}
+		for (IPath location : locations) {
+			if (location != null && !fOverflow) {
+				watch(location.toFile().toPath(), fRecursive);
+			}
+		}
+	}
+
+	/**
+	 * Registers the given directory, and all directories in it if recursive.
+	 * Since the process may already change files, the files and directories
+	 * modified since the launch are recorded as changed.
+	 */
+	private void watch(Path directory, boolean recursive) throws IOException {
+		Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), recursive ? Integer.MAX_VALUE : 1, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (fOverflow) {
+					return FileVisitResult.TERMINATE;
+				}
+				if (fStopping && !fRegistered) {
+					// the process terminated before the scope was registered
+					fOverflow = true;
+					return FileVisitResult.TERMINATE;
+				}
+				register(dir);
+				// read again, entries may have changed before the registration
+				if (isModifiedSinceStart(Files.getLastModifiedTime(dir, LinkOption.NOFOLLOW_LINKS))) {
+					fChangedDirectories.add(dir);
+				}
+				return checkChanges();
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (!attrs.isDirectory() && isModifiedSinceStart(attrs.lastModifiedTime())) {
+					fChangedFiles.add(file);
+				}
+				return checkChanges();
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exc) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private boolean isModifiedSinceStart(FileTime time) {
+		return time.toMillis() >= fStartTime;
+	}
+
+	/**
+	 * Flags an overflow if too many changes were recorded.
+	 */
+	private FileVisitResult checkChanges() {
+		if (fChangedFiles.size() + fChangedDirectories.size() + fCreatedDirectories.size() > MAX_CHANGES) {
+			fOverflow = true;
+			return FileVisitResult.TERMINATE;
+		}
+		return FileVisitResult.CONTINUE;
+	}
+
+	private void register(Path directory) throws IOException {
+		fDirectories.put(directory.register(fWatcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+	}
+
+	/**
+	 * Registers the directories of the scope and records the events of the
+	 * watch service until stopped and no events arrived for a while. Events
+	 * occurring while the directories are registered are buffered by the
+	 * watch service.
+	 */
+	private void run() {
+		long stopDeadline = Long.MAX_VALUE;
+		try {
+			if (!isReportingImmediately()) {
+				fOverflow = true;
+				return;
+			}
+			watchScope();
+			fRegistered = true;
+			while (!fOverflow) {
+				WatchKey key = fWatcher.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS);
+				if (fStopping && stopDeadline == Long.MAX_VALUE) {
+					stopDeadline = System.currentTimeMillis() + MAX_DRAIN_TIME;
+				}
+				if (key == null) {
+					if (fStopping) {
+						return;
+					}
+					continue;
+				}
+				record(key);
+				if (System.currentTimeMillis() > stopDeadline) {
+					// the tool's children still change files
+					fOverflow = true;
+					return;
+				}
+			}
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+			fOverflow = true;
+		} catch (IOException e) {
+			// for example too many watched directories, refresh the whole scope
+			if (DebugOptions.DEBUG) {
+				DebugOptions.trace("Unable to track changes of " + fConfiguration.getName() + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			fOverflow = true;
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			fOverflow = true;
+		} finally {
+			try {
+				fWatcher.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private void record(WatchKey key) {
+		Path directory = fDirectories.get(key);
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == OVERFLOW || directory == null) {
+				fOverflow = true;
+				continue;
+			}
+			Path child = directory.resolve((Path) event.context());
+			if (event.kind() == ENTRY_MODIFY) {
+				if (!Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					fChangedFiles.add(child);
+				}
+			} else {
+				fChangedDirectories.add(directory);
+				if (event.kind() == ENTRY_CREATE && fRecursive && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+					fCreatedDirectories.add(child);
+					try {
+						watch(child, true);
+					} catch (IOException e) {
+						// refreshed completely anyway
+					}
+				}
+			}
+		}
+		if (!key.reset()) {
+			fDirectories.remove(key);
+		}
+		if (fChangedFiles.size() + fChangedDirectories.size() + fCreatedDirectories.size() > MAX_CHANGES) {
+			fOverflow = true;
+		}
+	}
+
+	/**
+	 * Stops recording changes once the events of the terminated process are
+	 * delivered.
+	 */
+	private void stop() {
+		fStopping = true;
+		try {
+			fThread.join(MAX_DRAIN_TIME + QUIET_PERIOD * 2);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (fThread.isAlive()) {
+			fOverflow = true;
+			try {
+				fWatcher.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the whole scope is refreshed because changes were lost
+	 * or too many files changed.
+	 *
+	 * @return whether the whole scope is refreshed
+	 */
+	public boolean isOverflow() {
+		return fOverflow;
+	}
+
+	/**
+	 * Stops recording changes and refreshes the changed resources, or the
+	 * whole scope if changes were lost. To be called when the process of the
+	 * launch terminated.
+	 *
+	 * @param monitor progress monitor which may be <code>null</code>
+	 * @throws CoreException if an exception occurs while refreshing resources
+	 */
+	public void refresh(IProgressMonitor monitor) throws CoreException {
+		stop();
+		if (fOverflow) {
+			RefreshUtil.refreshResources(fConfiguration, monitor);
+			return;
+		}
+		Map<IResource, Integer> depths = new LinkedHashMap<>();
+		for (IResource resource : fResources) {
+			if (resource != null) {
+				depths.put(resource, Integer.valueOf(IResource.DEPTH_ZERO));
+			}
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (Path file : fChangedFiles) {
+			for (IResource resource : root.findFilesForLocationURI(file.toUri())) {
+				depths.merge(resource, Integer.valueOf(IResource.DEPTH_ZERO), RefreshTracker::deeper);
+			}
+		}
+		for (Path directory : fChangedDirectories) {
+			for (IResource resource : root.findContainersForLocationURI(directory.toUri())) {
+				depths.merge(resource, Integer.valueOf(IResource.DEPTH_ONE), RefreshTracker::deeper);
+			}
+		}
+		for (Path directory : fCreatedDirectories) {
+			for (IResource resource : root.findContainersForLocationURI(directory.toUri())) {
+				depths.merge(resource, Integer.valueOf(IResource.DEPTH_INFINITE), RefreshTracker::deeper);
+			}
+		}
+		if (DebugOptions.DEBUG) {
+			DebugOptions.trace("Refreshing " + depths.size() + " changed resources of " + fConfiguration.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		int[] order = new int[] { IResource.DEPTH_INFINITE, IResource.DEPTH_ONE, IResource.DEPTH_ZERO };
+		SubMonitor lmonitor = SubMonitor.convert(monitor, order.length);
+		MultiStatus status = new MultiStatus(DebugPlugin.getUniqueIdentifier(), 0, DebugCoreMessages.RefreshingResourcesError, null);
+		for (int depth : order) {
+			List<IResource> resources = new ArrayList<>();
+			depths.forEach((resource, d) -> {
+				if (d.intValue() == depth) {
+					resources.add(resource);
+				}
+			});
+			try {
+				RefreshUtil.refreshResources(resources.toArray(new IResource[resources.size()]), depth, lmonitor.split(1));
+			} catch (CoreException e) {
+				status.merge(e.getStatus());
+			}
+		}
+		if (!status.isOK()) {
+			throw new CoreException(status);
+		}
+	}
+
+	/**
+	 * Stops recording changes without refreshing, for example because the
+	 * process could not be started.
+	 */
+	public void dispose() {
+		stop();
+	}
+
+	private static Integer deeper(Integer depth, Integer other) {
+		return depth.intValue() >= other.intValue() ? depth : other;
+	}
+}
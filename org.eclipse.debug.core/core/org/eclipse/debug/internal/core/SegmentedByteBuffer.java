@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only byte buffer storing its content in fixed-size chunks.
+ * <p>
+ * Unlike a {@link java.io.ByteArrayOutputStream} the buffer never copies
+ * existing content when it grows. Optionally the buffer is limited to a
+ * maximum size. In that case the oldest chunks are discarded once the limit is
+ * exceeded (ring mode). Content is addressed by absolute positions counted
+ * from the last {@link #reset()}, i.e. positions of retained bytes do not
+ * change when older content is discarded.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+public class SegmentedByteBuffer {
+
+	/**
+	 * Default size of a single chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 16384;
+
+	private final int fChunkSize;
+
+	/**
+	 * The retained chunks. Only the last chunk may be partially filled.
+	 */
+	private final List<byte[]> fChunks = new ArrayList<>();
+
+	/**
+	 * Index of the first retained chunk in {@link #fChunks}. Discarded chunks
+	 * are nulled and only removed from the list once they make up half of it.
+	 */
+	private int fFirstChunk;
+
+	/**
+	 * Absolute position of the first retained byte.
+	 */
+	private long fStart;
+
+	/**
+	 * Absolute position after the last written byte.
+	 */
+	private long fEnd;
+
+	/**
+	 * Maximum number of retained bytes or <code>0</code> if unlimited.
+	 */
+	private long fLimit;
+
+	/**
+	 * Creates an unlimited buffer with the default chunk size.
+	 */
+	public SegmentedByteBuffer() {
+		this(DEFAULT_CHUNK_SIZE, 0);
+	}
+
+	/**
+	 * Creates a buffer.
+	 *
+	 * @param chunkSize size of a single chunk
+	 * @param limit maximum number of retained bytes; <code>0</code> or less
+	 *            for no limit. Content is discarded in whole chunks, so up
+	 *            to one chunk less than the limit may be retained, and the
+	 *            chunk being written is retained even if it alone exceeds the
+	 *            limit.
+	 */
+	public SegmentedByteBuffer(int chunkSize, long limit) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive"); //$NON-NLS-1$
+		}
+		fChunkSize = chunkSize;
+		setLimit(limit);
+	}
+
+	/**
+	 * Sets the maximum number of retained bytes. If the buffer already holds
+	 * more content the oldest chunks are discarded immediately.
+	 *
+	 * @param limit maximum number of retained bytes; <code>0</code> or less
+	 *            for no limit
+	 */
+	public void setLimit(long limit) {
+		fLimit = Math.max(0, limit);
+		trim();
+	}
+
+	/**
+	 * @return size of a single chunk. Content is discarded in whole chunks, so
+	 *         the first retained position is always a multiple of it.
+	 */
+	public int getChunkSize() {
+		return fChunkSize;
+	}
+
+	/**
+	 * @return maximum number of retained bytes or <code>0</code> if unlimited
+	 */
+	public long getLimit() {
+		return fLimit;
+	}
+
+	/**
+	 * Appends the given bytes.
+	 *
+	 * @param data the data to append
+	 * @param offset start of valid data
+	 * @param length number of valid bytes
+	 */
+	public void write(byte[] data, int offset, int length) {
+		while (length > 0) {
+			int chunkOffset = (int) (fEnd % fChunkSize);
+			if (chunkOffset == 0) {
+				fChunks.add(new byte[fChunkSize]);
+			}
+			byte[] chunk = fChunks.get(fChunks.size() - 1);
+			int count = Math.min(length, fChunkSize - chunkOffset);
+			System.arraycopy(data, offset, chunk, chunkOffset, count);
+			offset += count;
+			length -= count;
+			fEnd += count;
+		}
+		trim();
+	}
+
+	/**
+	 * Copies retained content starting at the given absolute position.
+	 *
+	 * @param position absolute position of the first byte to copy
+	 * @param buffer destination
+	 * @param offset start offset in the destination
+	 * @param length maximum number of bytes to copy
+	 * @return number of copied bytes or <code>-1</code> if the position is at
+	 *         or after the end of the buffer
+	 * @throws IndexOutOfBoundsException if the position was already discarded
+	 */
+	public int read(long position, byte[] buffer, int offset, int length) {
+		if (position < fStart) {
+			throw new IndexOutOfBoundsException("Position " + position + " already discarded. First retained position is " + fStart); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (position >= fEnd) {
+			return -1;
+		}
+		int total = 0;
+		long remaining = Math.min(length, fEnd - position);
+		while (remaining > 0) {
+			long chunkStart = fStart - fStart % fChunkSize;
+			int chunkIndex = fFirstChunk + (int) ((position - chunkStart) / fChunkSize);
+			int chunkOffset = (int) (position % fChunkSize);
+			int count = (int) Math.min(remaining, fChunkSize - chunkOffset);
+			System.arraycopy(fChunks.get(chunkIndex), chunkOffset, buffer, offset + total, count);
+			total += count;
+			position += count;
+			remaining -= count;
+		}
+		return total;
+	}
+
+	/**
+	 * @return a copy of all retained content
+	 */
+	public byte[] toByteArray() {
+		long size = size();
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new OutOfMemoryError("Buffered content too large for single array: " + size); //$NON-NLS-1$
+		}
+		byte[] data = new byte[(int) size];
+		if (size > 0) {
+			read(fStart, data, 0, data.length);
+		}
+		return data;
+	}
+
+	/**
+	 * Discards all content and restarts positions at <code>0</code>.
+	 */
+	public void reset() {
+		fChunks.clear();
+		fFirstChunk = 0;
+		fStart = 0;
+		fEnd = 0;
+	}
+
+	/**
+	 * @return absolute position of the first retained byte
+	 */
+	public long getStart() {
+		return fStart;
+	}
+
+	/**
+	 * @return absolute position after the last written byte
+	 */
+	public long getEnd() {
+		return fEnd;
+	}
+
+	/**
+	 * @return number of retained bytes
+	 */
+	public long size() {
+		return fEnd - fStart;
+	}
+
+	/**
+	 * Discards the oldest complete chunks while the retained content exceeds
+	 * the limit.
+	 */
+	private void trim() {
+		if (fLimit <= 0) {
+			return;
+		}
+		while (fEnd - fStart > fLimit && fChunks.size() - fFirstChunk > 1) {
+			fChunks.set(fFirstChunk++, null);
+			fStart = fStart - fStart % fChunkSize + fChunkSize;
+		}
+		if (fFirstChunk > 0 && fFirstChunk >= fChunks.size() / 2) {
+			fChunks.subList(0, fFirstChunk).clear();
+			fFirstChunk = 0;
+		}
+	}
+}
@@ -86,6 +86,14 @@ public class StreamDecoder {
 		this.consume(consumer);
 	}
 
+	/**
+	 * @return number of bytes decoded so far which do not form a complete
+	 *         character yet
+	 */
+	public int getPendingBytes() {
+		return this.inputBuffer.remaining();
+	}
+
 	public void finish(StringBuilder consumer) {
 		if (this.finished) {
 			return;
@@ -16,7 +16,11 @@ package org.eclipse.debug.internal.core;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
 
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.model.IBinaryStreamMonitor;
 import org.eclipse.debug.core.model.IBinaryStreamsProxy;
 import org.eclipse.debug.core.model.IStreamMonitor;
@@ -64,11 +68,40 @@ public class StreamsProxy implements IBinaryStreamsProxy {
 		fOutputMonitor = new OutputStreamMonitor(process.getInputStream(), charset);
 		fErrorMonitor = new OutputStreamMonitor(process.getErrorStream(), charset);
 		fInputMonitor = new InputStreamMonitor(process.getOutputStream(), charset);
+		applyBufferLimit();
 		fOutputMonitor.startMonitoring();
 		fErrorMonitor.startMonitoring();
 		fInputMonitor.startMonitoring();
 	}
 
+	/**
+	 * Creates a <code>StreamsProxy</code> on the streams of the given system
+	 * process which are serviced by the given shared engine instead of
+	 * dedicated threads.
+	 *
+	 * @param process system process to create a streams proxy on
+	 * @param charset the process's charset or <code>null</code> if default
+	 * @param engine the engine servicing the streams; not <code>null</code>
+	 * @since 3.18
+	 */
+	@SuppressWarnings("resource")
+	public StreamsProxy(Process process, Charset charset, ProcessIOEngine engine) {
+		if (process == null) {
+			return;
+		}
+		fOutputMonitor = new OutputStreamMonitor(process.getInputStream(), charset);
+		fErrorMonitor = new OutputStreamMonitor(process.getErrorStream(), charset);
+		fInputMonitor = new InputStreamMonitor(process.getOutputStream(), charset);
+		applyBufferLimit();
+		fOutputMonitor.startMonitoring(engine);
+		fErrorMonitor.startMonitoring(engine);
+		fInputMonitor.startMonitoring(engine);
+		process.onExit().whenComplete((p, e) -> {
+			fOutputMonitor.sourceTerminated();
+			fErrorMonitor.sourceTerminated();
+		});
+	}
+
 	/**
 	 * Creates a <code>StreamsProxy</code> on the streams of the given system
 	 * process.
@@ -86,6 +119,21 @@ public class StreamsProxy implements IBinaryStreamsProxy {
 		this(process, Charset.forName(encoding));
 	}
 
+	/**
+	 * Limits the content buffered by the output monitors as configured in the
+	 * preferences.
+	 */
+	private void applyBufferLimit() {
+		IPreferencesService service = Platform.getPreferencesService();
+		if (service != null) {
+			long limit = service.getLong(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_STREAM_BUFFER_LIMIT, 0, null);
+			if (limit > 0) {
+				fOutputMonitor.setBufferLimit(limit);
+				fErrorMonitor.setBufferLimit(limit);
+			}
+		}
+	}
+
 	/**
 	 * Causes the proxy to close all communications between it and the
 	 * underlying streams after all remaining data in the streams is read.
@@ -98,6 +146,20 @@ public class StreamsProxy implements IBinaryStreamsProxy {
 		}
 	}
 
+	/**
+	 * Returns a future which completes once the output and error streams are
+	 * read up to their end. Closing the proxy after completion will not block.
+	 *
+	 * @return read completion of both output streams or <code>null</code> if
+	 *         the streams are read by dedicated threads
+	 */
+	public CompletableFuture<Void> getReadCompletion() {
+		if (fOutputMonitor == null || fOutputMonitor.getEngineReadCompletion() == null) {
+			return null;
+		}
+		return CompletableFuture.allOf(fOutputMonitor.getEngineReadCompletion(), fErrorMonitor.getEngineReadCompletion());
+	}
+
 	/**
 	 * Returns whether the proxy is currently closed.  This method
 	 * synchronizes access to the <code>fClosed</code> flag.
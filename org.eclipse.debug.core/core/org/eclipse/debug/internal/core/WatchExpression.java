@@ -15,7 +15,6 @@ package org.eclipse.debug.internal.core;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.DebugEvent;
-import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
@@ -23,8 +22,6 @@ import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IValue;
 import org.eclipse.debug.core.model.IWatchExpression;
-import org.eclipse.debug.core.model.IWatchExpressionDelegate;
-import org.eclipse.debug.core.model.IWatchExpressionListener;
 import org.eclipse.debug.core.model.IWatchExpressionResult;
 
 /**
@@ -66,41 +63,24 @@ public class WatchExpression implements IWatchExpression {
 	 */
 	@Override
 	public void evaluate() {
+		evaluate(true);
+	}
+
+	/**
+	 * Evaluates this expression in its current context together with the
+	 * other watch expressions evaluated in that context.
+	 *
+	 * @param refresh whether to evaluate even if a result is cached for the
+	 *            context
+	 */
+	private void evaluate(boolean refresh) {
 		IDebugElement context= fCurrentContext;
 		if (context == null) {
 			return;
 		}
 
-		IWatchExpressionListener listener = this::setResult;
 		setPending(true);
-		IWatchExpressionDelegate delegate= DebugPlugin.getDefault().getExpressionManager().newWatchExpressionDelegate(context.getModelIdentifier());
-		if (delegate != null) {
-			delegate.evaluateExpression(getExpressionText(), context, listener);
-		} else {
-			// No delegate provided
-			listener.watchEvaluationFinished(new IWatchExpressionResult() {
-				@Override
-				public IValue getValue() {
-					return null;
-				}
-				@Override
-				public boolean hasErrors() {
-					return true;
-				}
-				@Override
-				public String[] getErrorMessages() {
-					return new String[] { DebugCoreMessages.WatchExpression_0 };
-				}
-				@Override
-				public String getExpressionText() {
-					return WatchExpression.this.getExpressionText();
-				}
-				@Override
-				public DebugException getException() {
-					return null;
-				}
-			});
-		}
+		getExpressionManager().evaluateWatchExpression(this, context, refresh);
 	}
 
 	@Override
@@ -109,6 +89,7 @@ public class WatchExpression implements IWatchExpression {
 			fCurrentContext= context;
 		}
 		if (context == null) {
+			getExpressionManager().cancelWatchExpressionEvaluation(this);
 			setResult(null);
 			return;
 		}
@@ -116,7 +97,7 @@ public class WatchExpression implements IWatchExpression {
 			return;
 		}
 
-		evaluate();
+		evaluate(false);
 	}
 
 	/**
@@ -148,7 +129,11 @@ public class WatchExpression implements IWatchExpression {
 	 * persisted expression.
 	 */
 	private void watchExpressionChanged() {
-		((ExpressionManager)DebugPlugin.getDefault().getExpressionManager()).watchExpressionChanged(this);
+		getExpressionManager().watchExpressionChanged(this);
+	}
+
+	private static ExpressionManager getExpressionManager() {
+		return (ExpressionManager) DebugPlugin.getDefault().getExpressionManager();
 	}
 
 	/**
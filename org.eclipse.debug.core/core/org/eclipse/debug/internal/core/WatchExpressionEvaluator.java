@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IExpression;
+import org.eclipse.debug.core.model.IValue;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate2;
+import org.eclipse.debug.core.model.IWatchExpressionResult;
+
+/**
+ * Evaluates watch expressions in batches per context.
+ * <p>
+ * Expressions to be evaluated in the same context are collected for a short
+ * time and evaluated by one job, with one call to the watch expression
+ * delegate if it implements {@link IWatchExpressionDelegate2}. An evaluation
+ * is canceled as soon as none of its expressions still waits for it, because
+ * they are to be evaluated in another context. Results without errors are
+ * cached per context and expression text until the debug target of the
+ * context resumes, terminates or changes.
+ * </p>
+ */
+class WatchExpressionEvaluator implements IDebugEventSetListener {
+
+	/**
+	 * Time in milliseconds to collect expressions for a context before they
+	 * are evaluated.
+	 */
+	private static final long BATCH_DELAY = 20;
+
+	/**
+	 * Maximum number of cached results.
+	 */
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	/**
+	 * Evaluation of the expressions for one context.
+	 */
+	private class Batch extends Job {
+
+		private final IDebugElement fContext;
+
+		/**
+		 * Expressions to evaluate and whether a cached result may not be
+		 * used for them, guarded by the evaluator.
+		 */
+		private final Map<WatchExpression, Boolean> fExpressions = new LinkedHashMap<>();
+
+		/**
+		 * Expressions by evaluated expression text, once the evaluation
+		 * started, guarded by the evaluator.
+		 */
+		private final Map<String, List<WatchExpression>> fTexts = new HashMap<>();
+
+		/**
+		 * Number of expressions still waiting for this evaluation, guarded by
+		 * the evaluator.
+		 */
+		private int fWaiting = 0;
+
+		/**
+		 * Whether the evaluation started, guarded by the evaluator.
+		 */
+		private boolean fRun = false;
+
+		/**
+		 * Cache generation when the evaluation started.
+		 */
+		private long fStartGeneration;
+
+		/**
+		 * Canceled when no expression waits for this evaluation anymore.
+		 */
+		private final IProgressMonitor fMonitor = new NullProgressMonitor();
+
+		Batch(IDebugElement context) {
+			// this is a system job name and does not need to be NLS'd
+			super("Evaluate Watch Expressions"); //$NON-NLS-1$
+			fContext = context;
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Map<String, IWatchExpressionResult> cached = new LinkedHashMap<>();
+			List<String> evaluate = new ArrayList<>();
+			synchronized (WatchExpressionEvaluator.this) {
+				fRun = true;
+				fPending.remove(fContext, this);
+				fStartGeneration = fGeneration;
+				Map<String, IWatchExpressionResult> results = fCache.get(fContext);
+				for (Entry<WatchExpression, Boolean> entry : fExpressions.entrySet()) {
+					String text = entry.getKey().getExpressionText();
+					fTexts.computeIfAbsent(text, t -> new ArrayList<>()).add(entry.getKey());
+					IWatchExpressionResult result = results != null && !entry.getValue().booleanValue() ? results.get(text) : null;
+					if (result != null) {
+						cached.putIfAbsent(text, result);
+					} else if (!evaluate.contains(text)) {
+						evaluate.add(text);
+					}
+				}
+				for (String text : evaluate) {
+					cached.remove(text);
+				}
+			}
+			cached.forEach(this::finished);
+			if (!evaluate.isEmpty() && !fMonitor.isCanceled()) {
+				evaluate(evaluate);
+			}
+			return Status.OK_STATUS;
+		}
+
+		private void evaluate(List<String> texts) {
+			String model = fContext.getModelIdentifier();
+			IWatchExpressionDelegate delegate = fManager.newWatchExpressionDelegate(model);
+			if (delegate == null) {
+				for (String text : texts) {
+					finished(text, new NoDelegateResult(text));
+				}
+			} else if (delegate instanceof IWatchExpressionDelegate2) {
+				((IWatchExpressionDelegate2) delegate).evaluateExpressions(texts.toArray(new String[texts.size()]), fContext, result -> finished(result.getExpressionText(), result), fMonitor);
+			} else {
+				// a delegate evaluates one expression at a time
+				IWatchExpressionDelegate next = delegate;
+				for (String text : texts) {
+					if (fMonitor.isCanceled()) {
+						return;
+					}
+					if (next == null) {
+						next = fManager.newWatchExpressionDelegate(model);
+					}
+					if (next != null) {
+						next.evaluateExpression(text, fContext, result -> finished(text, result));
+						next = null;
+					} else {
+						finished(text, new NoDelegateResult(text));
+					}
+				}
+			}
+		}
+
+		/**
+		 * Caches the result of the evaluation of the given expression text and
+		 * passes it to the expressions still waiting for it.
+		 */
+		private void finished(String text, IWatchExpressionResult result) {
+			List<WatchExpression> expressions = new ArrayList<>();
+			synchronized (WatchExpressionEvaluator.this) {
+				List<WatchExpression> candidates = fTexts.remove(text);
+				if (candidates == null) {
+					return;
+				}
+				for (WatchExpression expression : candidates) {
+					if (fLatest.get(expression) == this) {
+						fLatest.remove(expression);
+						fWaiting--;
+						expressions.add(expression);
+					}
+				}
+				if (!result.hasErrors() && fStartGeneration == fGeneration && !fMonitor.isCanceled()) {
+					cache(fContext, text, result);
+				}
+			}
+			for (WatchExpression expression : expressions) {
+				expression.setResult(result);
+			}
+		}
+	}
+
+	/**
+	 * Result of expressions for whose debug model there is no delegate.
+	 */
+	private static final class NoDelegateResult implements IWatchExpressionResult {
+
+		private final String fText;
+
+		NoDelegateResult(String text) {
+			fText = text;
+		}
+
+		@Override
+		public IValue getValue() {
+			return null;
+		}
+
+		@Override
+		public boolean hasErrors() {
+			return true;
+		}
+
+		@Override
+		public String[] getErrorMessages() {
+			return new String[] { DebugCoreMessages.WatchExpression_0 };
+		}
+
+		@Override
+		public String getExpressionText() {
+			return fText;
+		}
+
+		@Override
+		public DebugException getException() {
+			return null;
+		}
+	}
+
+	private final ExpressionManager fManager;
+
+	/**
+	 * Evaluations which did not start yet by context.
+	 */
+	private final Map<IDebugElement, Batch> fPending = new HashMap<>();
+
+	/**
+	 * The evaluation each expression waits for.
+	 */
+	private final Map<WatchExpression, Batch> fLatest = new HashMap<>();
+
+	/**
+	 * Results by expression text by context.
+	 */
+	private final Map<IDebugElement, Map<String, IWatchExpressionResult>> fCache = new HashMap<>();
+
+	private int fCacheSize = 0;
+
+	/**
+	 * Incremented whenever cached results are removed.
+	 */
+	private long fGeneration = 0;
+
+	WatchExpressionEvaluator(ExpressionManager manager) {
+		fManager = manager;
+	}
+
+	/**
+	 * Evaluates the given expression in the given context together with the
+	 * other expressions to be evaluated in that context. A pending evaluation
+	 * of the expression in another context is canceled.
+	 *
+	 * @param expression the expression to evaluate
+	 * @param context the context to evaluate the expression in
+	 * @param refresh whether the expression must be evaluated even if a
+	 *            result is cached
+	 */
+	void evaluate(WatchExpression expression, IDebugElement context, boolean refresh) {
+		Batch batch;
+		Batch canceled;
+		boolean schedule = false;
+		synchronized (this) {
+			batch = fPending.get(context);
+			Batch previous = fLatest.get(expression);
+			if (batch != null && previous == batch) {
+				if (refresh) {
+					batch.fExpressions.put(expression, Boolean.TRUE);
+				}
+				return;
+			}
+			canceled = withdraw(expression);
+			if (batch == null) {
+				batch = new Batch(context);
+				fPending.put(context, batch);
+				schedule = true;
+			}
+			batch.fExpressions.merge(expression, Boolean.valueOf(refresh), (a, b) -> Boolean.valueOf(a.booleanValue() || b.booleanValue()));
+			batch.fWaiting++;
+			fLatest.put(expression, batch);
+		}
+		if (canceled != null) {
+			canceled.cancel();
+		}
+		if (schedule) {
+			batch.schedule(BATCH_DELAY);
+		}
+	}
+
+	/**
+	 * Cancels the pending evaluation of the given expression, if any.
+	 *
+	 * @param expression the expression
+	 */
+	void cancel(WatchExpression expression) {
+		Batch canceled;
+		synchronized (this) {
+			canceled = withdraw(expression);
+		}
+		if (canceled != null) {
+			canceled.cancel();
+		}
+	}
+
+	/**
+	 * Removes the given expression from the evaluation it waits for. Cancels
+	 * the evaluation if no expression waits for it anymore.
+	 *
+	 * @return an evaluation which did not start and is to be canceled or
+	 *         <code>null</code>
+	 */
+	private Batch withdraw(WatchExpression expression) {
+		Batch batch = fLatest.remove(expression);
+		if (batch == null) {
+			return null;
+		}
+		batch.fWaiting--;
+		if (!batch.fRun) {
+			batch.fExpressions.remove(expression);
+		}
+		if (batch.fWaiting == 0) {
+			batch.fMonitor.setCanceled(true);
+			if (!batch.fRun) {
+				fPending.remove(batch.fContext, batch);
+				return batch;
+			}
+		}
+		return null;
+	}
+
+	private void cache(IDebugElement context, String text, IWatchExpressionResult result) {
+		if (fCacheSize >= MAX_CACHE_SIZE) {
+			fCache.clear();
+			fCacheSize = 0;
+		}
+		if (fCache.computeIfAbsent(context, c -> new HashMap<>()).put(text, result) == null) {
+			fCacheSize++;
+		}
+	}
+
+	@Override
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			if (event.isEvaluation() || event.getSource() instanceof IExpression || !(event.getSource() instanceof IDebugElement)) {
+				continue;
+			}
+			switch (event.getKind()) {
+				case DebugEvent.RESUME:
+				case DebugEvent.TERMINATE:
+				case DebugEvent.CHANGE:
+					invalidate(((IDebugElement) event.getSource()).getDebugTarget());
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Removes the cached results of contexts of the given debug target.
+	 */
+	private synchronized void invalidate(IDebugTarget target) {
+		// results of evaluations in progress are not cached either
+		fGeneration++;
+		for (Iterator<Entry<IDebugElement, Map<String, IWatchExpressionResult>>> iterator = fCache.entrySet().iterator(); iterator.hasNext();) {
+			Entry<IDebugElement, Map<String, IWatchExpressionResult>> entry = iterator.next();
+			if (target == null || target.equals(entry.getKey().getDebugTarget())) {
+				fCacheSize -= entry.getValue().size();
+				iterator.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,397 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.internal.core.DebugOptions;
+
+/**
+ * Runs the enabled state updates of debug commands.
+ * <p>
+ * Updates for the same elements which use the same scheduling rule are
+ * batched into one job while the job waits to run, so a selection change
+ * updating many commands schedules one job instead of one per command.
+ * Enabled states computed by commands which allow it are cached until the
+ * next debug event, since the state of the debug model which determines
+ * whether a command is enabled only changes along with debug events.
+ * </p>
+ * <p>
+ * The updater counts the requests, cache hits and jobs it handles, see
+ * {@link #getRequestCount()}, {@link #getCacheHitCount()} and
+ * {@link #getJobCount()}.
+ * </p>
+ *
+ * @since 3.18
+ */
+public final class EnabledStateUpdater implements IDebugEventSetListener {
+
+	/**
+	 * An enabled state update of one command.
+	 */
+	public interface IUpdate {
+
+		/**
+		 * Returns the job family of this update or <code>null</code> if none.
+		 *
+		 * @return job family or <code>null</code>
+		 */
+		Object getFamily();
+
+		/**
+		 * Computes the enabled state and completes the request of this
+		 * update.
+		 *
+		 * @param monitor progress monitor, canceled to cancel this update
+		 */
+		void run(IProgressMonitor monitor);
+
+		/**
+		 * Cancels and completes the request of this update without running
+		 * it.
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Maximum number of cached enabled states.
+	 */
+	private static final int MAX_CACHE_SIZE = 256;
+
+	private static EnabledStateUpdater fgDefault;
+
+	/**
+	 * Job running the updates for the same elements.
+	 */
+	private final class Batch extends Job {
+
+		private final List<Object> fElements;
+
+		private final List<IUpdate> fUpdates = new CopyOnWriteArrayList<>();
+
+		/**
+		 * The update being run or <code>null</code>.
+		 */
+		private volatile IUpdate fCurrent;
+
+		/**
+		 * Whether this job has been run, guarded by the updater.
+		 */
+		private boolean fRun = false;
+
+		Batch(List<Object> elements, ISchedulingRule rule) {
+			// this is a system job name and does not need to be NLS'd
+			super("Check Debug Commands"); //$NON-NLS-1$
+			fElements = elements;
+			setSystem(true);
+			setRule(rule);
+			addJobChangeListener(new JobChangeAdapter() {
+				@Override
+				public void done(IJobChangeEvent event) {
+					List<IUpdate> updates;
+					synchronized (EnabledStateUpdater.this) {
+						if (fRun) {
+							return;
+						}
+						fPending.remove(fElements, Batch.this);
+						updates = new ArrayList<>(fUpdates);
+						fUpdates.clear();
+					}
+					for (IUpdate update : updates) {
+						update.cancel();
+					}
+				}
+			});
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			List<IUpdate> updates;
+			synchronized (EnabledStateUpdater.this) {
+				fRun = true;
+				fPending.remove(fElements, this);
+				updates = new ArrayList<>(fUpdates);
+			}
+			if (DebugOptions.DEBUG_COMMANDS) {
+				DebugOptions.trace("batched " + updates.size() + " command updates on " + fElements); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			for (IUpdate update : updates) {
+				// canceling one update does not cancel the following ones
+				monitor.setCanceled(false);
+				fCurrent = update;
+				update.run(monitor);
+			}
+			fCurrent = null;
+			fUpdates.clear();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			if (family == null) {
+				return false;
+			}
+			IUpdate current = fCurrent;
+			if (current != null) {
+				return family.equals(current.getFamily());
+			}
+			for (IUpdate update : fUpdates) {
+				if (family.equals(update.getFamily())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return getName() + " on " + fElements; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Key of a cached enabled state.
+	 */
+	private static final class CacheKey {
+		private final Object fCommand;
+		private final Object[] fElements;
+		private final int fHashCode;
+
+		CacheKey(Object command, Object[] elements) {
+			fCommand = command;
+			fElements = elements;
+			fHashCode = System.identityHashCode(command) * 31 + Arrays.hashCode(elements);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof CacheKey) {
+				CacheKey other = (CacheKey) obj;
+				return fCommand == other.fCommand && Arrays.equals(fElements, other.fElements);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+	}
+
+	/**
+	 * Batches waiting to run by their elements.
+	 */
+	private final Map<List<Object>, Batch> fPending = new HashMap<>();
+
+	/**
+	 * Cached enabled states, guarded by this updater.
+	 */
+	private final Map<CacheKey, Boolean> fCache = new HashMap<>();
+
+	/**
+	 * Incremented whenever the cache is invalidated, guarded by this updater.
+	 */
+	private long fGeneration = 0;
+
+	private final AtomicLong fRequests = new AtomicLong();
+	private final AtomicLong fCacheHits = new AtomicLong();
+	private final AtomicLong fJobs = new AtomicLong();
+
+	/**
+	 * Returns the updater shared by all debug commands.
+	 *
+	 * @return the shared updater
+	 */
+	public static synchronized EnabledStateUpdater getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new EnabledStateUpdater();
+			DebugPlugin.getDefault().addDebugEventListener(fgDefault);
+		}
+		return fgDefault;
+	}
+
+	private EnabledStateUpdater() {
+	}
+
+	/**
+	 * Returns the cached enabled state of the given command for the given
+	 * elements. A request answered from the cache is counted.
+	 *
+	 * @param command the command
+	 * @param elements the elements of the request
+	 * @return the cached enabled state or <code>null</code> if none
+	 */
+	public Boolean getCachedState(Object command, Object[] elements) {
+		Boolean enabled;
+		synchronized (this) {
+			enabled = fCache.get(new CacheKey(command, elements));
+		}
+		if (enabled != null) {
+			fRequests.incrementAndGet();
+			fCacheHits.incrementAndGet();
+		}
+		return enabled;
+	}
+
+	/**
+	 * Returns the generation of the cache, to be passed to
+	 * {@link #cacheState(Object, Object[], boolean, long)} with the state
+	 * computed afterwards.
+	 *
+	 * @return the current generation of the cache
+	 */
+	public synchronized long getGeneration() {
+		return fGeneration;
+	}
+
+	/**
+	 * Caches the enabled state of the given command for the given elements,
+	 * unless the cache was invalidated since the given generation.
+	 *
+	 * @param command the command
+	 * @param elements the elements of the request
+	 * @param enabled the enabled state
+	 * @param generation the generation of the cache before the state was
+	 *            computed
+	 */
+	public synchronized void cacheState(Object command, Object[] elements, boolean enabled, long generation) {
+		if (generation != fGeneration) {
+			return;
+		}
+		if (fCache.size() >= MAX_CACHE_SIZE) {
+			fCache.clear();
+		}
+		fCache.put(new CacheKey(command, elements.clone()), Boolean.valueOf(enabled));
+	}
+
+	/**
+	 * Schedules the given update for the given elements. The update is run by
+	 * a job waiting to run updates for the same elements if there is one.
+	 * Updates for the same elements must use the same scheduling rule.
+	 *
+	 * @param update the update
+	 * @param elements the elements of the update's request
+	 * @param rule the scheduling rule of the update
+	 */
+	public void schedule(IUpdate update, Object[] elements, ISchedulingRule rule) {
+		fRequests.incrementAndGet();
+		List<Object> key = Arrays.asList(elements.clone());
+		Batch batch;
+		synchronized (this) {
+			batch = fPending.get(key);
+			if (batch != null) {
+				batch.fUpdates.add(update);
+				return;
+			}
+			batch = new Batch(key, rule);
+			batch.fUpdates.add(update);
+			fPending.put(key, batch);
+		}
+		fJobs.incrementAndGet();
+		batch.schedule();
+	}
+
+	/**
+	 * Schedules a job running one update on its own and counts it.
+	 *
+	 * @param job the job
+	 */
+	public void schedule(Job job) {
+		fRequests.incrementAndGet();
+		fJobs.incrementAndGet();
+		job.schedule();
+	}
+
+	/**
+	 * Cancels the updates of the given family which wait to be run together
+	 * with other updates, without canceling the others.
+	 *
+	 * @param family job family of the updates to cancel
+	 */
+	public void cancel(Object family) {
+		List<IUpdate> canceled = new ArrayList<>();
+		List<Batch> empty = new ArrayList<>();
+		synchronized (this) {
+			for (Batch batch : fPending.values()) {
+				for (IUpdate update : batch.fUpdates) {
+					if (family.equals(update.getFamily())) {
+						batch.fUpdates.remove(update);
+						canceled.add(update);
+					}
+				}
+				if (batch.fUpdates.isEmpty()) {
+					empty.add(batch);
+				}
+			}
+			for (Batch batch : empty) {
+				fPending.remove(batch.fElements);
+			}
+		}
+		for (Batch batch : empty) {
+			batch.cancel();
+		}
+		for (IUpdate update : canceled) {
+			update.cancel();
+		}
+	}
+
+	/**
+	 * Returns the number of enabled state requests handled.
+	 *
+	 * @return number of requests
+	 */
+	public long getRequestCount() {
+		return fRequests.get();
+	}
+
+	/**
+	 * Returns the number of enabled state requests answered from the cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public long getCacheHitCount() {
+		return fCacheHits.get();
+	}
+
+	/**
+	 * Returns the number of jobs scheduled to update enabled states.
+	 *
+	 * @return number of scheduled jobs
+	 */
+	public long getJobCount() {
+		return fJobs.get();
+	}
+
+	@Override
+	public synchronized void handleDebugEvents(DebugEvent[] events) {
+		fGeneration++;
+		fCache.clear();
+	}
+}
@@ -53,6 +53,15 @@ public abstract class ForEachCommand extends AbstractDebugCommand {
 
 	protected abstract boolean isExecutable(Object target);
 
+	/*
+	 * The enabled state only depends on the state of the debug model, changes
+	 * of which are notified with debug events.
+	 */
+	@Override
+	protected boolean isEnabledStateCacheable(IEnabledStateRequest request) {
+		return true;
+	}
+
 	/*
 	 * Do not allow parallel update requests for the same command, since those
 	 * can result in race conditions, where one selected element enables a
@@ -58,6 +58,15 @@ public abstract class StepCommand extends AbstractDebugCommand {
 
 	protected abstract boolean isSteppable(Object target) throws CoreException;
 
+	/*
+	 * The enabled state only depends on the state of the debug model, changes
+	 * of which are notified with debug events.
+	 */
+	@Override
+	protected boolean isEnabledStateCacheable(IEnabledStateRequest request) {
+		return true;
+	}
+
 	protected boolean isThreadCompatible(Object[] targets) {
 		if (targets.length == 1) {
 			return true;
@@ -15,8 +15,10 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.groups;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.IStatus;
@@ -46,7 +48,7 @@ public class GroupLaunch extends Launch implements ILaunchesListener2 {
 	/**
 	 * Keeps track of whether launching has been finished
 	 */
-	private boolean fLaunched = false;
+	private volatile boolean fLaunched = false;
 
 	/**
 	 * A map of all our sub-launches and the current processes that belong to
@@ -54,6 +56,76 @@ public class GroupLaunch extends Launch implements ILaunchesListener2 {
 	 */
 	private Map<ILaunch, IProcess[]> subLaunches = new HashMap<>();
 
+	/**
+	 * Timings of the members launched so far, in the order they became ready.
+	 */
+	private final List<MemberTiming> fTimings = new ArrayList<>();
+
+	/**
+	 * Time spent launching a member of the group.
+	 *
+	 * @since 3.18
+	 */
+	public static final class MemberTiming {
+		private final String fName;
+		private final long fWaitTime;
+		private final long fLaunchTime;
+		private final long fReadyTime;
+		private final String fMatchedLine;
+
+		MemberTiming(String name, long waitTime, long launchTime, long readyTime, String matchedLine) {
+			fName = name;
+			fWaitTime = waitTime;
+			fLaunchTime = launchTime;
+			fReadyTime = readyTime;
+			fMatchedLine = matchedLine;
+		}
+
+		/**
+		 * @return the name of the member's launch configuration
+		 */
+		public String getName() {
+			return fName;
+		}
+
+		/**
+		 * @return milliseconds from the start of the group launch until the
+		 *         member was launched, waiting for its dependencies
+		 */
+		public long getWaitTime() {
+			return fWaitTime;
+		}
+
+		/**
+		 * @return milliseconds spent launching the member
+		 */
+		public long getLaunchTime() {
+			return fLaunchTime;
+		}
+
+		/**
+		 * @return milliseconds from the member being launched until it was
+		 *         ready, performing its post launch action
+		 */
+		public long getReadyTime() {
+			return fReadyTime;
+		}
+
+		/**
+		 * @return the line of the member's output which matched the
+		 *         expression it waited for or <code>null</code>
+		 */
+		public String getMatchedLine() {
+			return fMatchedLine;
+		}
+
+		@Override
+		public String toString() {
+			String timing = fName + ": waited " + fWaitTime + " ms, launched in " + fLaunchTime + " ms, ready after " + fReadyTime + " ms"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			return fMatchedLine != null ? timing + " on '" + fMatchedLine + '\'' : timing; //$NON-NLS-1$
+		}
+	}
+
 	public GroupLaunch(ILaunchConfiguration launchConfiguration, String mode) {
 		super(launchConfiguration, mode, null);
 		getLaunchManager().addLaunchListener((ILaunchesListener2) this);
@@ -63,6 +135,31 @@ public class GroupLaunch extends Launch implements ILaunchesListener2 {
 		fLaunched = true;
 	}
 
+	/**
+	 * Records the timing of a member which is ready.
+	 *
+	 * @param timing the timing of the member
+	 * @since 3.18
+	 */
+	void addMemberTiming(MemberTiming timing) {
+		synchronized (fTimings) {
+			fTimings.add(timing);
+		}
+	}
+
+	/**
+	 * Returns the timings of the members launched by this group so far, in the
+	 * order they became ready.
+	 *
+	 * @return the member timings
+	 * @since 3.18
+	 */
+	public List<MemberTiming> getMemberTimings() {
+		synchronized (fTimings) {
+			return new ArrayList<>(fTimings);
+		}
+	}
+
 	/**
 	 * Associate the launch
 	 *
@@ -16,21 +16,31 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.groups;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.debug.core.DebugPlugin;
@@ -38,15 +48,16 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.ILaunchesListener2;
 import org.eclipse.debug.core.IStatusHandler;
 import org.eclipse.debug.core.model.ILaunchConfigurationDelegate2;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
+import org.eclipse.debug.internal.core.DebugOptions;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 import org.eclipse.debug.internal.core.groups.GroupLaunchElement.GroupElementPostLaunchAction;
-import org.eclipse.debug.internal.core.groups.observer.ProcessObserver;
-import org.eclipse.debug.internal.core.groups.observer.StreamObserver;
+import org.eclipse.debug.internal.core.groups.observer.OutputMatchObserver;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -66,10 +77,17 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 	private static final String MODE_PROP = "mode"; //$NON-NLS-1$
 	private static final String ACTION_PROP = "action"; //$NON-NLS-1$
 	private static final String ACTION_PARAM_PROP = "actionParam"; //$NON-NLS-1$
+	private static final String DEPENDENCIES_PROP = "dependencies"; //$NON-NLS-1$
+	private static final String ACTION_TIMEOUT_PROP = "actionTimeout"; //$NON-NLS-1$
 	private static final String MULTI_LAUNCH_CONSTANTS_PREFIX = "org.eclipse.debug.core.launchGroup"; //$NON-NLS-1$
 
 	private static final String DEBUG_CORE = "org.eclipse.debug.core"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of members launched concurrently.
+	 */
+	private static final int MAX_PARALLEL_LAUNCHES = Math.max(4, Runtime.getRuntime().availableProcessors());
+
 	private static final Status UNSUPPORTED_MODE = new Status(IStatus.ERROR, DEBUG_CORE, 230, IInternalDebugCoreConstants.EMPTY_STRING, null);
 	private static final Status GROUP_ELEMENT_STARTED = new Status(IStatus.OK, DEBUG_CORE, 231, IInternalDebugCoreConstants.EMPTY_STRING, null);
 	private static final Status GROUP_CYCLE = new Status(IStatus.ERROR, DEBUG_CORE, 232, IInternalDebugCoreConstants.EMPTY_STRING, null);
@@ -94,62 +112,349 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 		try {
 			SubMonitor progress = SubMonitor.convert(monitor, NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_Launching, groupConfig.getName()), 1000);
 
-			List<GroupLaunchElement> launches = createLaunchElements(groupConfig);
-			for (int i = 0; i < launches.size(); ++i) {
-				GroupLaunchElement le = launches.get(i);
+			List<GroupMember> members = createMembers(groupConfig, mode, createLaunchElements(groupConfig));
+			if (!members.isEmpty()) {
+				new GroupExecution(group, members, progress).run();
+			}
 
-				if (!le.enabled) {
-					continue;
-				}
+			if (!group.hasChildren()) {
+				DebugPlugin.getDefault().getLaunchManager().removeLaunch(group);
+			}
+		} finally {
+			// safety net - launching is finished also in case of a problem.
+			group.markLaunched();
+			groupStateHandler.handleStatus(GROUP_LAUNCH_DONE, group);
+			monitor.done();
+		}
+	}
 
-				// find launch; if not found, skip (error?)
-				final ILaunchConfiguration conf = findLaunchConfiguration(le.name);
-				if (conf == null) {
-					continue;
-				}
+	/**
+	 * A member of a group being launched.
+	 */
+	private static final class GroupMember {
+		final GroupLaunchElement element;
+
+		/**
+		 * The configuration to launch, <code>null</code> if the member is
+		 * skipped.
+		 */
+		final ILaunchConfiguration config;
+		final String mode;
+		final List<GroupMember> dependencies = new ArrayList<>();
+
+		/**
+		 * Completes with <code>true</code> when the member is ready and its
+		 * dependents may be launched, with <code>false</code> if launching
+		 * the member or one of its dependencies failed.
+		 */
+		final CompletableFuture<Boolean> ready = new CompletableFuture<>();
+
+		/**
+		 * The output line which made the member ready, if any.
+		 */
+		volatile String matchedLine;
+
+		GroupMember(GroupLaunchElement element, ILaunchConfiguration config, String mode) {
+			this.element = element;
+			this.config = config;
+			this.mode = mode;
+		}
+	}
 
+	/**
+	 * Resolves the configurations and dependencies of the elements of a group.
+	 * Elements which are disabled or cannot be launched are kept as members
+	 * without configuration, so their dependents are still launched.
+	 */
+	private List<GroupMember> createMembers(ILaunchConfiguration groupConfig, String mode, List<GroupLaunchElement> elements) throws CoreException {
+		List<GroupMember> members = new ArrayList<>(elements.size());
+		Map<String, GroupMember> byName = new HashMap<>();
+		for (GroupLaunchElement le : elements) {
+			if (le == null) {
+				continue;
+			}
+			ILaunchConfiguration conf = null;
+			String localMode = mode;
+			if (le.enabled) {
+				// find launch; if not found, skip (error?)
+				conf = findLaunchConfiguration(le.name);
+			}
+			if (conf != null) {
 				// determine mode for each launch
-				final String localMode;
 				if (!le.mode.equals(GroupLaunchElement.MODE_INHERIT)) {
 					localMode = le.mode;
-				} else {
-					localMode = mode;
 				}
 				if (!conf.supportsMode(localMode)) {
 					IStatusHandler handler = DebugPlugin.getDefault().getStatusHandler(UNSUPPORTED_MODE);
 					handler.handleStatus(UNSUPPORTED_MODE, new String[] {
 							conf.getName(), localMode });
-					continue;
-				}
-
-				if (groupConfig.getName().equals(conf.getName())) {
-					// loop detected. report as appropriate and die.
+					conf = null;
+				} else if (groupConfig.getName().equals(conf.getName())) {
+					// loop detected. report as appropriate and skip.
 					IStatusHandler cycleHandler = DebugPlugin.getDefault().getStatusHandler(GROUP_CYCLE);
 					cycleHandler.handleStatus(GROUP_CYCLE, conf.getName());
-				} else if (!launchChild(progress.newChild(1000 / launches.size()), group, le, conf, localMode, (i == launches.size() - 1))) {
-					break;
+					conf = null;
 				}
+			}
+			GroupMember member = new GroupMember(le, conf, localMode);
+			members.add(member);
+			byName.putIfAbsent(le.name, member);
+		}
 
-				// in case the group has been terminated while waiting in the
-				// post launch action.
-				if (group.isTerminated()) {
-					break;
+		for (int i = 0; i < members.size(); i++) {
+			GroupMember member = members.get(i);
+			if (member.element.dependencies == null) {
+				if (i > 0) {
+					member.dependencies.add(members.get(i - 1));
+				}
+			} else {
+				for (String dependency : member.element.dependencies) {
+					GroupMember other = byName.get(dependency);
+					if (other != null && other != member && !member.dependencies.contains(other)) {
+						member.dependencies.add(other);
+					}
 				}
 			}
+		}
 
+		// members in or behind a dependency cycle can never be launched
+		if (failCycles(members)) {
+			IStatusHandler cycleHandler = DebugPlugin.getDefault().getStatusHandler(GROUP_CYCLE);
+			cycleHandler.handleStatus(GROUP_CYCLE, groupConfig.getName());
+		}
+		return members;
+	}
 
-			if (!group.hasChildren()) {
-				DebugPlugin.getDefault().getLaunchManager().removeLaunch(group);
+	/**
+	 * Sorts the members topologically and fails the members which cannot be
+	 * sorted because they are part of or depend on a dependency cycle.
+	 *
+	 * @return whether there is a cycle
+	 */
+	private static boolean failCycles(List<GroupMember> members) {
+		Map<GroupMember, Integer> inDegree = new HashMap<>();
+		Map<GroupMember, List<GroupMember>> dependents = new HashMap<>();
+		Deque<GroupMember> free = new ArrayDeque<>();
+		for (GroupMember member : members) {
+			inDegree.put(member, member.dependencies.size());
+			for (GroupMember dependency : member.dependencies) {
+				dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(member);
+			}
+			if (member.dependencies.isEmpty()) {
+				free.add(member);
+			}
+		}
+		int sorted = 0;
+		while (!free.isEmpty()) {
+			GroupMember member = free.remove();
+			sorted++;
+			for (GroupMember dependent : dependents.getOrDefault(member, Collections.emptyList())) {
+				if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+					free.add(dependent);
+				}
+			}
+		}
+		if (sorted == members.size()) {
+			return false;
+		}
+		for (GroupMember member : members) {
+			if (inDegree.get(member) > 0) {
+				member.ready.complete(Boolean.FALSE);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Launches the members of a group on a bounded executor, each as soon as
+	 * all of its dependencies are ready. Progress is reported by the thread
+	 * running the group launch, which waits until all members are ready or
+	 * failed.
+	 */
+	private final class GroupExecution {
+		private final GroupLaunch group;
+		private final List<GroupMember> members;
+		private final SubMonitor progress;
+
+		/**
+		 * Progress updates posted by the launching threads.
+		 */
+		private final BlockingQueue<Runnable> updates = new LinkedBlockingQueue<>();
+
+		/**
+		 * Pending post launch actions, failed when launching is canceled.
+		 */
+		private final Set<CompletableFuture<Boolean>> waits = ConcurrentHashMap.newKeySet();
+
+		/**
+		 * Members which have not been launched or skipped yet.
+		 */
+		private final AtomicInteger pending;
+
+		/**
+		 * The first exception thrown when launching a member.
+		 */
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		private final long start = System.nanoTime();
+
+		private volatile boolean canceled = false;
+
+		/**
+		 * Monitor of the members' launches, canceled with the group launch.
+		 */
+		private final IProgressMonitor memberMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return canceled;
+			}
+		};
+
+		GroupExecution(GroupLaunch group, List<GroupMember> members, SubMonitor progress) {
+			this.group = group;
+			this.members = members;
+			this.progress = progress;
+			this.pending = new AtomicInteger(members.size());
+		}
+
+		void run() throws CoreException {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(members.size(), MAX_PARALLEL_LAUNCHES), runnable -> {
+				Thread thread = new Thread(runnable, "Group launch: " + group.getLaunchConfiguration().getName()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			progress.setWorkRemaining(members.size());
+			try {
+				CompletableFuture<?>[] all = new CompletableFuture<?>[members.size()];
+				for (int i = 0; i < members.size(); i++) {
+					GroupMember member = members.get(i);
+					all[i] = member.ready;
+					member.ready.whenComplete((ok, e) -> post(() -> progress.worked(1)));
+					if (member.ready.isDone()) {
+						// failed by a dependency cycle
+						launchFinished();
+						continue;
+					}
+					CompletableFuture<?>[] dependencies = member.dependencies.stream().map(d -> d.ready).toArray(CompletableFuture<?>[]::new);
+					CompletableFuture.allOf(dependencies).thenRunAsync(() -> launchMember(member), executor).whenComplete((v, e) -> {
+						if (e != null) {
+							failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+							member.ready.complete(Boolean.FALSE);
+						}
+					});
+				}
+				CompletableFuture<Void> done = CompletableFuture.allOf(all);
+				done.whenComplete((v, e) -> post(() -> {
+					// wake up
+				}));
+				while (!done.isDone() || !updates.isEmpty()) {
+					Runnable update = updates.poll(100, TimeUnit.MILLISECONDS);
+					if (update != null) {
+						update.run();
+					}
+					if (progress.isCanceled() && !canceled) {
+						cancel();
+					}
+				}
+			} catch (InterruptedException e) {
+				cancel();
+				Thread.currentThread().interrupt();
+			} finally {
+				executor.shutdown();
+			}
+			Throwable e = failure.get();
+			if (e instanceof CoreException) {
+				throw (CoreException) e;
+			} else if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			} else if (e instanceof Error) {
+				throw (Error) e;
 			}
-		} finally {
-			// safety net - launching is finished also in case of a problem.
-			group.markLaunched();
-			groupStateHandler.handleStatus(GROUP_LAUNCH_DONE, group);
-			monitor.done();
 		}
+
+		/**
+		 * Stops launching members and fails pending post launch actions.
+		 */
+		private void cancel() {
+			canceled = true;
+			for (CompletableFuture<Boolean> wait : waits) {
+				wait.complete(Boolean.FALSE);
+			}
+		}
+
+		private void post(Runnable update) {
+			updates.add(update);
+		}
+
+		/**
+		 * Counts a member as launched or skipped. Once the last member is
+		 * launched, the group terminates with its last terminating member.
+		 */
+		private void launchFinished() {
+			if (pending.decrementAndGet() == 0) {
+				group.markLaunched();
+			}
+		}
+
+		/**
+		 * Launches a member whose dependencies are ready, on a thread of the
+		 * executor.
+		 */
+		private void launchMember(GroupMember member) {
+			boolean dependenciesReady = member.dependencies.stream().allMatch(d -> d.ready.join().booleanValue());
+			// in case the group has been terminated while waiting for a
+			// post launch action.
+			if (!dependenciesReady || canceled || failure.get() != null || group.isTerminated()) {
+				launchFinished();
+				member.ready.complete(Boolean.FALSE);
+				return;
+			}
+			if (member.config == null) {
+				launchFinished();
+				member.ready.complete(Boolean.TRUE);
+				return;
+			}
+			long launchStart = System.nanoTime();
+			CompletableFuture<Boolean> launching;
+			try {
+				launching = launchChild(member, this);
+			} catch (CoreException | RuntimeException | Error e) {
+				failure.compareAndSet(null, e);
+				launching = CompletableFuture.completedFuture(Boolean.FALSE);
+			}
+			final CompletableFuture<Boolean> ready = launching;
+			long launched = System.nanoTime();
+			waits.add(ready);
+			if (canceled) {
+				ready.complete(Boolean.FALSE);
+			}
+			ready.whenComplete((ok, e) -> {
+				waits.remove(ready);
+				post(() -> progress.subTask(IInternalDebugCoreConstants.EMPTY_STRING));
+				GroupLaunch.MemberTiming timing = new GroupLaunch.MemberTiming(member.config.getName(), toMillis(launchStart - start), toMillis(launched - launchStart), toMillis(System.nanoTime() - launched), member.matchedLine);
+				group.addMemberTiming(timing);
+				if (DebugOptions.DEBUG_GROUPS) {
+					DebugOptions.trace("Group launch '" + group.getLaunchConfiguration().getName() + "' member " + timing); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				member.ready.complete(e == null ? ok : Boolean.FALSE);
+			});
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
 	}
 
-	private boolean launchChild(SubMonitor monitor, final GroupLaunch group, GroupLaunchElement le, final ILaunchConfiguration child, final String localMode, boolean lastConfig) throws CoreException {
+	/**
+	 * Launches or adopts the configuration of the given member and starts its
+	 * post launch action.
+	 *
+	 * @return future completing when the member is ready
+	 */
+	private CompletableFuture<Boolean> launchChild(GroupMember member, GroupExecution execution) throws CoreException {
+		GroupLaunch group = execution.group;
+		GroupLaunchElement le = member.element;
+		ILaunchConfiguration child = member.config;
 		final Set<ILaunch> running = le.adoptIfRunning ? findRunningLaunch(le.name) : Collections.emptySet();
 		ILaunch subLaunch = running.stream().findFirst().orElse(null);
 		boolean launched = false;
@@ -164,8 +469,15 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 			} catch (Exception e) {
 				// ignore and use default
 			}
-			subLaunch = child.launch(localMode, monitor, build);
+			try {
+				subLaunch = child.launch(member.mode, execution.memberMonitor, build);
+			} finally {
+				// launching has finished for this member, even if it failed
+				execution.launchFinished();
+			}
 			launched = true;
+		} else {
+			execution.launchFinished();
 		}
 
 		group.addSubLaunch(subLaunch);
@@ -184,89 +496,87 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 					group, subLaunch });
 		}
 
-		// if this is the last child, mark the group as "launching finished", so
-		// that from now on the last terminating child will also terminate the
-		// group.
-		if (lastConfig) {
-			group.markLaunched();
-		}
-
 		// in case we adopted the launch, and did not launch outselves, don't
 		// execute the post launch action!
 		if (launched) {
-			return postLaunchAction(subLaunch, le, monitor);
-		} else {
-			return true;
+			return postLaunchAction(subLaunch, member, execution);
 		}
+		return CompletableFuture.completedFuture(Boolean.TRUE);
 	}
 
-	private boolean postLaunchAction(ILaunch subLaunch, GroupLaunchElement le, IProgressMonitor monitor) {
+	private CompletableFuture<Boolean> postLaunchAction(ILaunch subLaunch, GroupMember member, GroupExecution execution) {
+		GroupLaunchElement le = member.element;
 		switch (le.action) {
 			case NONE:
-				return true;
+				return CompletableFuture.completedFuture(Boolean.TRUE);
 			case WAIT_FOR_TERMINATION:
-				monitor.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_Waiting_for_termination, subLaunch.getLaunchConfiguration().getName()));
-				while (!subLaunch.isTerminated() && !monitor.isCanceled()) {
-					try {
-						Thread.sleep(1000);
-					} catch (InterruptedException e) {
-						break;
-					}
-				}
-				monitor.subTask(""); //$NON-NLS-1$
-				break;
+				String name = subLaunch.getLaunchConfiguration().getName();
+				execution.post(() -> execution.progress.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_Waiting_for_termination, name)));
+				return waitForTermination(subLaunch);
 			case DELAY:
 				Integer waitSecs = (Integer) le.actionParam;
 				if (waitSecs != null) {
-					monitor.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_Delaying, waitSecs.toString()));
-					try {
-						Thread.sleep(waitSecs * 1000); // param is milliseconds
-					} catch (InterruptedException e) {
-						// ok
-					}
+					execution.post(() -> execution.progress.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_Delaying, waitSecs.toString())));
+					return CompletableFuture.supplyAsync(() -> Boolean.TRUE, CompletableFuture.delayedExecutor(waitSecs.longValue(), TimeUnit.SECONDS));
 				}
-				break;
-
+				return CompletableFuture.completedFuture(Boolean.TRUE);
 			case OUTPUT_REGEXP:
 				String regexp = (String) le.actionParam;
 				if (regexp != null) {
-					monitor.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_waiting, regexp, subLaunch.getLaunchConfiguration().getName()));
-					if (!waitForOutputMatching(subLaunch, monitor, regexp)) {
-						return false;
-					}
+					execution.post(() -> execution.progress.subTask(NLS.bind(DebugCoreMessages.GroupLaunchConfigurationDelegate_waiting, regexp, subLaunch.getLaunchConfiguration().getName())));
+					CompletableFuture<String> match = OutputMatchObserver.observe(subLaunch, regexp, le.actionTimeout, TimeUnit.SECONDS);
+					CompletableFuture<Boolean> matched = match.thenApply(line -> {
+						member.matchedLine = line;
+						return Boolean.valueOf(line != null);
+					});
+					// stop observing if launching is canceled
+					matched.whenComplete((ok, e) -> match.complete(null));
+					return matched;
 				}
-
-				break;
-
+				return CompletableFuture.completedFuture(Boolean.TRUE);
 			default:
 				assert false : "new post launch action type is missing logic"; //$NON-NLS-1$
+				return CompletableFuture.completedFuture(Boolean.TRUE);
 		}
-
-		return true;
 	}
 
-	// blocks until a specific string is in the log output
-	private boolean waitForOutputMatching(ILaunch launch, IProgressMonitor m, String regexp) {
-		int processCount = launch.getProcesses().length;
-		final ExecutorService executor = Executors.newCachedThreadPool();
-		final CountDownLatch countDownLatch = new CountDownLatch(processCount);
-		Future<Integer> process = null;
-		for (IProcess p : launch.getProcesses()) {
-			process = executor.submit(new ProcessObserver(m, p, countDownLatch));
-			executor.submit(new StreamObserver(m, p, regexp, countDownLatch));
-		}
-		try {
-			countDownLatch.await();
-		} catch (InterruptedException e) {
-			// should not happen at all!
-		}
-		executor.shutdown();
-		// process terminated before condition
-		if (process == null || process.isDone()) {
-			return false;
+	/**
+	 * Returns a future which completes when the given launch terminates, as
+	 * notified by the launch manager.
+	 */
+	private static CompletableFuture<Boolean> waitForTermination(ILaunch launch) {
+		CompletableFuture<Boolean> terminated = new CompletableFuture<>();
+		ILaunchManager launchManager = DebugPlugin.getDefault().getLaunchManager();
+		ILaunchesListener2 listener = new ILaunchesListener2() {
+			@Override
+			public void launchesTerminated(ILaunch[] launches) {
+				for (ILaunch l : launches) {
+					if (l == launch) {
+						terminated.complete(Boolean.TRUE);
+					}
+				}
+			}
+
+			@Override
+			public void launchesRemoved(ILaunch[] launches) {
+				launchesTerminated(launches);
+			}
+
+			@Override
+			public void launchesAdded(ILaunch[] launches) {
+			}
+
+			@Override
+			public void launchesChanged(ILaunch[] launches) {
+			}
+		};
+		launchManager.addLaunchListener(listener);
+		terminated.whenComplete((ok, e) -> launchManager.removeLaunchListener(listener));
+		// the launch may have terminated before the listener was added
+		if (launch.isTerminated()) {
+			terminated.complete(Boolean.TRUE);
 		}
-		// condition matched
-		return true;
+		return terminated;
 	}
 
 	@Override
@@ -351,6 +661,10 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 							}
 							if (action == GroupElementPostLaunchAction.OUTPUT_REGEXP) {
 								actionParam = attrs.get(getProp(index, ACTION_PARAM_PROP));
+								Object timeout = attrs.get(getProp(index, ACTION_TIMEOUT_PROP));
+								if (timeout instanceof Integer) {
+									el.actionTimeout = ((Integer) timeout).intValue();
+								}
 							}
 							el.action = action;
 							el.actionParam = actionParam;
@@ -359,6 +673,13 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 							}
 							el.mode = (String) attrs.get(getProp(index, MODE_PROP));
 							el.enabled = (Boolean) attrs.get(getProp(index, ENABLED_PROP));
+							Object dependencies = attrs.get(getProp(index, DEPENDENCIES_PROP));
+							if (dependencies instanceof List) {
+								el.dependencies = new ArrayList<>();
+								for (Object dependency : (List<?>) dependencies) {
+									el.dependencies.add((String) dependency);
+								}
+							}
 							try {
 								el.data = findLaunchConfiguration(el.name);
 							} catch (Exception e) {
@@ -397,6 +718,12 @@ public class GroupLaunchConfigurationDelegate extends LaunchConfigurationDelegat
 			configuration.setAttribute(getProp(i, ACTION_PARAM_PROP), el.actionParam != null ? el.actionParam.toString() : null);
 			configuration.setAttribute(getProp(i, MODE_PROP), el.mode);
 			configuration.setAttribute(getProp(i, ENABLED_PROP), el.enabled);
+			if (el.actionTimeout > 0) {
+				configuration.setAttribute(getProp(i, ACTION_TIMEOUT_PROP), el.actionTimeout);
+			}
+			if (el.dependencies != null) {
+				configuration.setAttribute(getProp(i, DEPENDENCIES_PROP), el.dependencies);
+			}
 			i++;
 		}
 	}
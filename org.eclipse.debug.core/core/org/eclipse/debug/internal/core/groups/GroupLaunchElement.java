@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.groups;
 
+import java.util.List;
+
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.internal.core.DebugCoreMessages;
 
@@ -31,8 +33,8 @@ public class GroupLaunchElement {
 	 * {@link GroupLaunchElement}.
 	 * <p>
 	 * These actions get performed after the associated
-	 * {@link GroupLaunchElement} has been launched, before the next one is
-	 * launched (or launching is finished).
+	 * {@link GroupLaunchElement} has been launched, before the elements
+	 * depending on it are launched (or launching is finished).
 	 */
 	public static enum GroupElementPostLaunchAction {
 		NONE(DebugCoreMessages.GroupLaunchConfigurationDelegate_None), //
@@ -66,6 +68,26 @@ public class GroupLaunchElement {
 	public GroupLaunchElement.GroupElementPostLaunchAction action = GroupElementPostLaunchAction.NONE;
 	public boolean adoptIfRunning = false;
 	public Object actionParam;
+
+	/**
+	 * Seconds to wait for the post launch action
+	 * {@link GroupElementPostLaunchAction#OUTPUT_REGEXP} to match, or
+	 * <code>0</code> to wait until the launched processes terminate.
+	 *
+	 * @since 3.18
+	 */
+	public int actionTimeout;
 	public String name;
 	public ILaunchConfiguration data;
+
+	/**
+	 * Names of the elements which must be ready, that is launched and done
+	 * with their post launch action, before this element is launched. Elements
+	 * without dependencies are launched concurrently. <code>null</code> if this
+	 * element depends on the preceding element, which launches the elements of
+	 * a group one after another.
+	 *
+	 * @since 3.18
+	 */
+	public List<String> dependencies;
 }
\ No newline at end of file
@@ -52,6 +52,10 @@ public class GroupMemberChangeListener implements ILaunchConfigurationListener {
 							updated = true;
 							e.name = configuration.getName();
 						}
+						if (e.dependencies != null && e.dependencies.contains(original.getName())) {
+							updated = true;
+							e.dependencies.replaceAll(name -> name.equals(original.getName()) ? configuration.getName() : name);
+						}
 					}
 
 					if (updated) {
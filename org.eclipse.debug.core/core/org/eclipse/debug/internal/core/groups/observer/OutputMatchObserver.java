@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.groups.observer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.core.model.IStreamsProxy;
+
+/**
+ * The {@code OutputMatchObserver} observes the standard output and error
+ * streams of the processes of a launch until a line matches a regular
+ * expression.
+ * <p>
+ * Output is matched by the threads appending it, line by line per stream, see
+ * {@link StreamLineMatcher}. Output appended before the observer was attached
+ * is matched as well if the stream monitor buffers its contents. Termination
+ * of the processes is taken from debug events, so no thread waits for the
+ * output.
+ * </p>
+ */
+public final class OutputMatchObserver implements IDebugEventSetListener {
+
+	/**
+	 * Completes with the matching line, or with <code>null</code> if all
+	 * processes terminated or the timeout elapsed without a match.
+	 */
+	private final CompletableFuture<String> fMatch = new CompletableFuture<>();
+
+	private final Pattern fPattern;
+
+	/**
+	 * Listeners by observed stream, each with its own line matcher.
+	 */
+	private final Map<IStreamMonitor, IStreamListener> fListeners = new ConcurrentHashMap<>();
+
+	/**
+	 * Observed processes which have not terminated yet.
+	 */
+	private final Set<IProcess> fRunning = ConcurrentHashMap.newKeySet();
+
+	private OutputMatchObserver(Pattern pattern) {
+		fPattern = pattern;
+	}
+
+	/**
+	 * Starts observing the output of the processes of the given launch.
+	 * Completing the returned future stops observing.
+	 *
+	 * @param launch the launch whose processes are observed
+	 * @param regexp regular expression to find in a line of the output
+	 * @param timeout the maximum time to wait for a match, <code>0</code> to
+	 *            wait until the processes terminate
+	 * @param unit the unit of the timeout
+	 * @return future completing with the first line matching the expression,
+	 *         or with <code>null</code> if there is no process, all processes
+	 *         terminated or the timeout elapsed before a line matched
+	 */
+	public static CompletableFuture<String> observe(ILaunch launch, String regexp, long timeout, TimeUnit unit) {
+		Pattern pattern;
+		try {
+			pattern = Pattern.compile(regexp);
+		} catch (PatternSyntaxException e) {
+			DebugPlugin.log(e);
+			return CompletableFuture.completedFuture(null);
+		}
+		OutputMatchObserver observer = new OutputMatchObserver(pattern);
+		observer.start(launch.getProcesses());
+		if (timeout > 0) {
+			observer.fMatch.completeOnTimeout(null, timeout, unit);
+		}
+		return observer.fMatch;
+	}
+
+	private void start(IProcess[] processes) {
+		// stream monitors may not allow to remove a listener while notifying it
+		fMatch.whenCompleteAsync((line, e) -> stop());
+		DebugPlugin.getDefault().addDebugEventListener(this);
+		for (IProcess process : processes) {
+			fRunning.add(process);
+			IStreamsProxy streams = process.getStreamsProxy();
+			if (streams != null) {
+				observe(streams.getOutputStreamMonitor());
+				observe(streams.getErrorStreamMonitor());
+			}
+		}
+		// the processes may have terminated before the listener was added
+		for (IProcess process : processes) {
+			if (process.isTerminated()) {
+				terminated(process);
+			}
+		}
+		if (processes.length == 0) {
+			fMatch.complete(null);
+		}
+	}
+
+	private void observe(IStreamMonitor monitor) {
+		if (monitor == null || fMatch.isDone()) {
+			return;
+		}
+		StreamLineMatcher matcher = new StreamLineMatcher(fPattern);
+		IStreamListener listener = (text, m) -> {
+			if (!fMatch.isDone()) {
+				matched(matcher.append(text));
+			}
+		};
+		fListeners.put(monitor, listener);
+		// content appended while holding the monitor's lock is buffered and
+		// dispatched to the listeners registered at that time, so the
+		// buffered contents and the notifications neither overlap nor leave
+		// a gap
+		synchronized (monitor) {
+			monitor.addListener(listener);
+			String contents = monitor.getContents();
+			if (contents != null && !contents.isEmpty()) {
+				matched(matcher.append(contents));
+			}
+		}
+		if (fMatch.isDone()) {
+			// completed concurrently, after the listeners were removed
+			monitor.removeListener(listener);
+		}
+	}
+
+	private void stop() {
+		DebugPlugin.getDefault().removeDebugEventListener(this);
+		fListeners.forEach(IStreamMonitor::removeListener);
+	}
+
+	private void matched(String line) {
+		if (line != null) {
+			fMatch.complete(line);
+		}
+	}
+
+	private void terminated(IProcess process) {
+		if (fRunning.remove(process) && fRunning.isEmpty()) {
+			fMatch.complete(null);
+		}
+	}
+
+	@Override
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			if (event.getKind() == DebugEvent.TERMINATE && event.getSource() instanceof IProcess) {
+				terminated((IProcess) event.getSource());
+			}
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.groups.observer;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Assembles the chunks appended to a stream into lines and finds the first
+ * line matching a pattern.
+ * <p>
+ * Lines are terminated by <code>\n</code>, <code>\r</code> or
+ * <code>\r\n</code>, so a match split across chunks is found once its line is
+ * complete. A line which is not terminated yet, like a prompt, is tested as
+ * well each time it grows. Only the first {@link #MAX_LINE_LENGTH} characters
+ * of a line are kept and tested.
+ * </p>
+ */
+public final class StreamLineMatcher {
+
+	/**
+	 * Maximum number of characters of a line kept for matching.
+	 */
+	public static final int MAX_LINE_LENGTH = 16 * 1024;
+
+	private final Matcher fMatcher;
+
+	/**
+	 * The current, not yet terminated line.
+	 */
+	private final StringBuilder fLine = new StringBuilder();
+
+	/**
+	 * Whether the last character appended terminated a line with
+	 * <code>\r</code>, so a following <code>\n</code> is part of the same
+	 * line terminator.
+	 */
+	private boolean fAfterCarriageReturn = false;
+
+	/**
+	 * The matched line, once found.
+	 */
+	private String fMatch = null;
+
+	/**
+	 * Creates a matcher finding lines containing a match of the given pattern.
+	 *
+	 * @param pattern the pattern to find in a line
+	 */
+	public StreamLineMatcher(Pattern pattern) {
+		fMatcher = pattern.matcher(""); //$NON-NLS-1$
+	}
+
+	/**
+	 * Appends a chunk of the stream and returns the first line matching the
+	 * pattern. Once a line matched, it is returned for all further chunks.
+	 *
+	 * @param text the chunk appended to the stream
+	 * @return the matching line without terminator or <code>null</code> if no
+	 *         line matched yet
+	 */
+	public synchronized String append(CharSequence text) {
+		if (fMatch != null) {
+			return fMatch;
+		}
+		int start = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				boolean lineFeedAfterCarriageReturn = c == '\n' && i == start && fAfterCarriageReturn && fLine.length() == 0;
+				fAfterCarriageReturn = c == '\r';
+				if (!lineFeedAfterCarriageReturn) {
+					appendToLine(text, start, i);
+					if (find()) {
+						return fMatch;
+					}
+				}
+				fLine.setLength(0);
+				start = i + 1;
+			} else {
+				fAfterCarriageReturn = false;
+			}
+		}
+		if (start < length && appendToLine(text, start, length) && find()) {
+			return fMatch;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the matched line.
+	 *
+	 * @return the matching line or <code>null</code> if no line matched yet
+	 */
+	public synchronized String getMatch() {
+		return fMatch;
+	}
+
+	/**
+	 * Appends characters to the current line as long as it is not longer than
+	 * {@link #MAX_LINE_LENGTH}.
+	 *
+	 * @return whether characters were appended
+	 */
+	private boolean appendToLine(CharSequence text, int start, int end) {
+		int available = MAX_LINE_LENGTH - fLine.length();
+		if (available <= 0) {
+			return false;
+		}
+		fLine.append(text, start, Math.min(end, start + available));
+		return true;
+	}
+
+	private boolean find() {
+		if (fMatcher.reset(fLine).find()) {
+			fMatch = fLine.toString();
+			return true;
+		}
+		return false;
+	}
+}
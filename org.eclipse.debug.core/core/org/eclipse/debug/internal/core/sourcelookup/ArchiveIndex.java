@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Immutable index of the entry names of an archive by their simple name, the
+ * last segment of the name.
+ * <p>
+ * An opened archive is indexed once and the index is shared by all source
+ * containers using the same {@link ZipFile}, see
+ * {@link SourceLookupUtils#acquireZipFile(String)}. A modified archive is
+ * opened again and therefore indexed again. Since the index is immutable it is
+ * read concurrently without locking. Indexes are released with their
+ * {@link ZipFile}.
+ * </p>
+ *
+ * @since 3.18
+ */
+public final class ArchiveIndex {
+
+	private static final int[] NO_ENTRIES = new int[0];
+
+	/**
+	 * Shared indexes by opened archive.
+	 */
+	private static final Map<ZipFile, ArchiveIndex> fgIndexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Entry names in the order of the archive.
+	 */
+	private final String[] fNames;
+
+	/**
+	 * Ascending indexes into {@link #fNames} by simple name.
+	 */
+	private final Map<String, int[]> fBySimpleName;
+
+	private final String fCanonicalPath;
+
+	private ArchiveIndex(String[] names, Map<String, int[]> bySimpleName, String canonicalPath) {
+		fNames = names;
+		fBySimpleName = bySimpleName;
+		fCanonicalPath = canonicalPath;
+	}
+
+	/**
+	 * Returns the index of the given archive, indexing it if it was not
+	 * indexed yet.
+	 *
+	 * @param path path of the archive in the local file system
+	 * @param archive the opened archive
+	 * @return the index of the archive
+	 * @throws IOException if the canonical path of the archive cannot be
+	 *             determined
+	 * @throws IllegalStateException if the archive was closed
+	 */
+	public static ArchiveIndex getIndex(String path, ZipFile archive) throws IOException {
+		ArchiveIndex index = fgIndexes.get(archive);
+		if (index != null) {
+			return index;
+		}
+		// the entries are read from the opened archive, which may differ from
+		// the file if it was modified since
+		index = create(archive, new File(path).getCanonicalPath());
+		fgIndexes.put(archive, index);
+		return index;
+	}
+
+	private static ArchiveIndex create(ZipFile archive, String canonicalPath) {
+		List<String> names = new ArrayList<>(archive.size());
+		Map<String, List<Integer>> bySimpleName = new HashMap<>();
+		Enumeration<? extends ZipEntry> entries = archive.entries();
+		while (entries.hasMoreElements()) {
+			String name = entries.nextElement().getName();
+			bySimpleName.computeIfAbsent(getSimpleName(name), n -> new ArrayList<>(1)).add(Integer.valueOf(names.size()));
+			names.add(name);
+		}
+		Map<String, int[]> compact = new HashMap<>(bySimpleName.size() * 4 / 3 + 1);
+		bySimpleName.forEach((simpleName, indexes) -> compact.put(simpleName, indexes.stream().mapToInt(Integer::intValue).toArray()));
+		return new ArchiveIndex(names.toArray(new String[names.size()]), compact, canonicalPath);
+	}
+
+	/**
+	 * Returns the last segment of the given entry or source name.
+	 *
+	 * @param name entry or source name, with <code>/</code> as separator
+	 * @return the last segment, empty if the name ends with a separator
+	 */
+	public static String getSimpleName(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Returns the names of the entries ending with the given name, in the
+	 * order of the archive.
+	 *
+	 * @param name source name, with <code>/</code> as separator
+	 * @param atSegment whether the given name must start at a segment of the
+	 *            entry name
+	 * @return the names of the matching entries, possibly empty
+	 */
+	public List<String> getEntriesEndingWith(String name, boolean atSegment) {
+		int[] candidates = fBySimpleName.getOrDefault(getSimpleName(name), NO_ENTRIES);
+		List<String> matches = new ArrayList<>(Math.min(candidates.length, 4));
+		for (int candidate : candidates) {
+			String entryName = fNames[candidate];
+			if (entryName.endsWith(name) && (!atSegment || entryName.length() == name.length() || entryName.charAt(entryName.length() - name.length() - 1) == '/')) {
+				matches.add(entryName);
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns the canonical path of the archive.
+	 *
+	 * @return canonical path of the archive in the local file system
+	 */
+	public String getCanonicalPath() {
+		return fCanonicalPath;
+	}
+
+	/**
+	 * Returns the number of entries in the archive.
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return fNames.length;
+	}
+}
@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.core.sourcelookup;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupDirector;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.containers.LocalFileStorage;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+
+/**
+ * Cache of the source elements found by source lookup participants in the
+ * source containers of their director, by source name.
+ * <p>
+ * Stack frames of the same source share the cached elements, so stepping
+ * through a deep stack only searches the source containers once per source
+ * name. The number of cached source names is bounded, see
+ * {@link IInternalDebugCoreConstants#PREF_SOURCE_LOOKUP_CACHE_SIZE}, and the
+ * least recently used are evicted first.
+ * </p>
+ * <p>
+ * The elements cached for a director are removed when its source containers
+ * change. Resources added to or removed from the workspace only remove the
+ * elements cached for source names of the same file name, and changed
+ * archives only remove the elements found in them and the source names
+ * nothing was found for.
+ * </p>
+ * <p>
+ * Source names nothing was found for are only cached for
+ * {@link #NEGATIVE_LIFETIME}, since containers outside of the workspace, like
+ * directories or external archives, do not report added files.
+ * </p>
+ * <p>
+ * The cache counts hits and misses and the time spent searching the source
+ * containers on misses, see {@link #getHitCount()}, {@link #getMissCount()}
+ * and {@link #getLookupTime()}.
+ * </p>
+ *
+ * @since 3.18
+ */
+public final class SourceLookupCache implements IResourceChangeListener {
+
+	/**
+	 * Searches the source containers for the source elements of a source
+	 * name.
+	 */
+	public interface ISourceElementFinder {
+
+		/**
+		 * Returns the source elements found for the given source name.
+		 *
+		 * @param sourceName the source name
+		 * @return the source elements found, possibly empty
+		 * @throws CoreException if searching a source container fails
+		 */
+		Object[] find(String sourceName) throws CoreException;
+	}
+
+	/**
+	 * Time in milliseconds the result of a source name nothing was found for
+	 * is cached. Long enough to be shared by the stack frames of one suspend.
+	 */
+	public static final long NEGATIVE_LIFETIME = 1000;
+
+	private static SourceLookupCache fgDefault;
+
+	/**
+	 * Key of cached source elements.
+	 */
+	private static final class Key {
+		final ISourceLookupDirector fDirector;
+		final ISourceLookupParticipant fParticipant;
+		final String fSourceName;
+		final boolean fDuplicates;
+		private final int fHashCode;
+
+		Key(ISourceLookupDirector director, ISourceLookupParticipant participant, String sourceName, boolean duplicates) {
+			fDirector = director;
+			fParticipant = participant;
+			fSourceName = sourceName;
+			fDuplicates = duplicates;
+			fHashCode = (System.identityHashCode(director) * 31 + System.identityHashCode(participant)) * 31 + sourceName.hashCode() + (duplicates ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Key) {
+				Key other = (Key) obj;
+				return fDirector == other.fDirector && fParticipant == other.fParticipant && fDuplicates == other.fDuplicates && fSourceName.equals(other.fSourceName);
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+	}
+
+	/**
+	 * Cached source elements.
+	 */
+	private static final class CachedElements {
+		final Object[] fElements;
+
+		/**
+		 * Time in milliseconds after which the elements are outdated or
+		 * <code>0</code> if they are valid until invalidated.
+		 */
+		final long fExpires;
+
+		CachedElements(Object[] elements) {
+			fElements = elements;
+			fExpires = elements.length == 0 ? System.currentTimeMillis() + NEGATIVE_LIFETIME : 0;
+		}
+
+		/**
+		 * Returns whether the cached elements may still be used. Elements in
+		 * the workspace are checked by resource deltas, files in the local
+		 * file system are checked here.
+		 */
+		boolean isValid() {
+			if (fExpires != 0) {
+				return System.currentTimeMillis() < fExpires;
+			}
+			for (Object element : fElements) {
+				if (element instanceof LocalFileStorage && !((LocalFileStorage) element).getFile().exists()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Cached source elements in access order, guarded by this cache.
+	 */
+	private final LinkedHashMap<Key, CachedElements> fElements = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Incremented whenever cached elements are removed, guarded by this cache.
+	 */
+	private long fGeneration = 0;
+
+	private final AtomicLong fHits = new AtomicLong();
+	private final AtomicLong fMisses = new AtomicLong();
+	private final AtomicLong fLookupTime = new AtomicLong();
+
+	/**
+	 * Returns the cache shared by all source lookup directors.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized SourceLookupCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new SourceLookupCache();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fgDefault, IResourceChangeEvent.POST_CHANGE);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Called when the debug plug-in shuts down.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fgDefault);
+			fgDefault = null;
+		}
+	}
+
+	private SourceLookupCache() {
+	}
+
+	/**
+	 * Returns the source elements of the given source name found by the given
+	 * participant. Cached elements are returned if there are any, otherwise
+	 * the given finder searches the source containers and the elements found
+	 * are cached.
+	 *
+	 * @param director the director of the participant
+	 * @param participant the participant looking up source
+	 * @param sourceName the source name
+	 * @param duplicates whether the director searches for duplicates
+	 * @param finder searches the source containers
+	 * @return the source elements found, possibly empty
+	 * @throws CoreException if searching a source container fails, nothing is
+	 *             cached then
+	 */
+	public Object[] lookup(ISourceLookupDirector director, ISourceLookupParticipant participant, String sourceName, boolean duplicates, ISourceElementFinder finder) throws CoreException {
+		Key key = new Key(director, participant, sourceName, duplicates);
+		Object[] elements = null;
+		long generation;
+		synchronized (this) {
+			CachedElements cached = fElements.get(key);
+			if (cached != null) {
+				if (cached.isValid()) {
+					elements = cached.fElements;
+				} else {
+					fElements.remove(key);
+				}
+			}
+			generation = fGeneration;
+		}
+		if (elements != null) {
+			fHits.incrementAndGet();
+			return elements.length == 0 ? elements : elements.clone();
+		}
+		fMisses.incrementAndGet();
+		long start = System.nanoTime();
+		try {
+			elements = finder.find(sourceName);
+		} finally {
+			fLookupTime.addAndGet(System.nanoTime() - start);
+		}
+		put(key, elements.clone(), generation);
+		return elements;
+	}
+
+	/**
+	 * Caches the given elements unless cached elements were removed since the
+	 * given generation, since the elements may then be outdated.
+	 */
+	private synchronized void put(Key key, Object[] elements, long generation) {
+		if (generation != fGeneration) {
+			return;
+		}
+		int capacity = getCapacity();
+		if (capacity <= 0) {
+			return;
+		}
+		fElements.put(key, new CachedElements(elements));
+		Iterator<Key> iterator = fElements.keySet().iterator();
+		while (fElements.size() > capacity) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Removes the source elements cached for the given director, for example
+	 * because its source containers or participants changed.
+	 *
+	 * @param director source lookup director
+	 */
+	public synchronized void invalidate(ISourceLookupDirector director) {
+		fGeneration++;
+		fElements.keySet().removeIf(key -> key.fDirector == director);
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		Set<String> fileNames = new HashSet<>();
+		Set<String> archives = new HashSet<>();
+		boolean[] all = new boolean[1];
+		try {
+			delta.accept(child -> {
+				int flags = child.getFlags();
+				if ((flags & IResourceDelta.OPEN) != 0) {
+					// the contents of opened or closed projects are not reported
+					all[0] = true;
+					return false;
+				}
+				String name = child.getResource().getName();
+				if (child.getKind() == IResourceDelta.ADDED || child.getKind() == IResourceDelta.REMOVED || (flags & IResourceDelta.REPLACED) != 0) {
+					fileNames.add(name.toLowerCase(Locale.ROOT));
+				}
+				if (child.getKind() != IResourceDelta.CHANGED || (flags & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+					String extension = child.getResource().getFileExtension();
+					if (extension != null && (extension.equalsIgnoreCase("jar") || extension.equalsIgnoreCase("zip"))) { //$NON-NLS-1$ //$NON-NLS-2$
+						archives.add(name);
+					}
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			DebugPlugin.log(e);
+			all[0] = true;
+		}
+		if (all[0] || !fileNames.isEmpty() || !archives.isEmpty()) {
+			invalidate(fileNames, archives, all[0]);
+		}
+	}
+
+	/**
+	 * Removes the source elements cached for source names with one of the
+	 * given file names, and, if archives changed, the elements found in them
+	 * and the source names nothing was found for.
+	 */
+	private synchronized void invalidate(Set<String> fileNames, Set<String> archives, boolean all) {
+		fGeneration++;
+		if (all) {
+			fElements.clear();
+			return;
+		}
+		for (Iterator<Entry<Key, CachedElements>> iterator = fElements.entrySet().iterator(); iterator.hasNext();) {
+			Entry<Key, CachedElements> entry = iterator.next();
+			if (fileNames.contains(getFileName(entry.getKey().fSourceName)) || (!archives.isEmpty() && isFoundIn(entry.getValue().fElements, archives))) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns whether nothing was found or the given elements were found in
+	 * one of the given archives.
+	 */
+	private static boolean isFoundIn(Object[] elements, Set<String> archives) {
+		if (elements.length == 0) {
+			return true;
+		}
+		for (Object element : elements) {
+			if (element instanceof ZipEntryStorage && archives.contains(new File(((ZipEntryStorage) element).getArchive().getName()).getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the last segment of the given source name in lower case.
+	 */
+	private static String getFileName(String sourceName) {
+		int index = Math.max(sourceName.lastIndexOf('/'), sourceName.lastIndexOf('\\'));
+		return sourceName.substring(index + 1).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns the number of source lookups answered from the cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public long getHitCount() {
+		return fHits.get();
+	}
+
+	/**
+	 * Returns the number of source lookups which searched the source
+	 * containers.
+	 *
+	 * @return number of cache misses
+	 */
+	public long getMissCount() {
+		return fMisses.get();
+	}
+
+	/**
+	 * Returns the total time spent searching the source containers on cache
+	 * misses.
+	 *
+	 * @return lookup time in nanoseconds
+	 */
+	public long getLookupTime() {
+		return fLookupTime.get();
+	}
+
+	/**
+	 * Returns the number of cached source names.
+	 *
+	 * @return number of cached source names
+	 */
+	public synchronized int size() {
+		return fElements.size();
+	}
+
+	private static int getCapacity() {
+		return Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE, 0, null);
+	}
+}
@@ -13,16 +13,24 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.core.sourcelookup;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipFile;
 
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchesListener2;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 
 /**
  * Utility and supporting methods for source location. Most of these
@@ -35,57 +43,310 @@ import org.eclipse.debug.core.ILaunchesListener2;
 public class SourceLookupUtils {
 
 	/**
-	 * Cache of shared zip files. Zip files are closed
-	 * when this class's plug-in is shutdown, when a project
-	 * is about to be closed or deleted, when a launch is
-	 * removed, and when a debug target or process terminates.
+	 * Pool of shared zip files by name. Zip files are closed when this
+	 * class's plug-in is shutdown and when a project is about to be closed or
+	 * deleted. Zip files which are not in use are closed when more zip files
+	 * than {@link IInternalDebugCoreConstants#PREF_OPEN_ARCHIVES_LIMIT} are
+	 * open, least recently used first, and when a launch terminates if they
+	 * changed since they were opened.
 	 */
-	private static HashMap<String, ZipFile> fgZipFileCache = new HashMap<>(5);
-	private static ArchiveCleaner fgCleaner = null;
+	private static final Map<String, ArchiveHandle> fgArchives = new ConcurrentHashMap<>();
+	/**
+	 * Handles of the open zip files by zip file.
+	 */
+	private static final Map<ZipFile, ArchiveHandle> fgHandles = new ConcurrentHashMap<>();
+	/**
+	 * Orders the uses of the zip files.
+	 */
+	private static final AtomicLong fgUses = new AtomicLong();
+	private static volatile ArchiveCleaner fgCleaner = null;
+
+	/**
+	 * A zip file in the pool with the number of its users.
+	 */
+	private static final class ArchiveHandle {
+		private final String fName;
+		private ZipFile fFile;
+		private long fLastModified;
+		private long fLength;
+		private int fReferences;
+		private long fLastUse;
+		/**
+		 * Whether the handle was removed from the pool, so its zip file is
+		 * closed once it is no longer in use and the handle is not reused.
+		 */
+		private boolean fRemoved;
+
+		ArchiveHandle(String name) {
+			fName = name;
+		}
+
+		/**
+		 * Opens the zip file if needed and adds a reference to it.
+		 *
+		 * @return the zip file or <code>null</code> if the handle was removed
+		 *         from the pool
+		 */
+		@SuppressWarnings("resource")
+		synchronized ZipFile acquire() throws IOException {
+			if (fRemoved) {
+				return null;
+			}
+			if (fFile == null) {
+				File file = new File(fName);
+				fLastModified = file.lastModified();
+				fLength = file.length();
+				fFile = new ZipFile(fName);
+				fgHandles.put(fFile, this);
+			}
+			fReferences++;
+			fLastUse = fgUses.incrementAndGet();
+			return fFile;
+		}
+
+		/**
+		 * Adds a reference to the given zip file if it is this handle's open
+		 * zip file.
+		 *
+		 * @return whether a reference was added
+		 */
+		synchronized boolean acquire(ZipFile file) {
+			if (fFile != file) {
+				return false;
+			}
+			fReferences++;
+			fLastUse = fgUses.incrementAndGet();
+			return true;
+		}
+
+		synchronized void release(ZipFile file) {
+			if (fFile != file || fReferences == 0) {
+				return;
+			}
+			fReferences--;
+			if (fReferences == 0 && fRemoved) {
+				close();
+			}
+		}
+
+		/**
+		 * Removes this handle from the pool. Its zip file is closed now if it is
+		 * not in use, otherwise when it is released.
+		 */
+		synchronized void remove() {
+			fRemoved = true;
+			fgArchives.remove(fName, this);
+			if (fReferences == 0) {
+				close();
+			}
+		}
+
+		/**
+		 * Removes this handle from the pool if its zip file is open and not in
+		 * use.
+		 *
+		 * @return whether the handle was removed
+		 */
+		synchronized boolean removeIfIdle() {
+			if (fFile == null || fReferences > 0) {
+				return false;
+			}
+			remove();
+			return true;
+		}
+
+		/**
+		 * Returns whether the zip file was modified since it was opened.
+		 */
+		synchronized boolean isModified() {
+			File file = new File(fName);
+			return fFile != null && (file.lastModified() != fLastModified || file.length() != fLength);
+		}
+
+		synchronized boolean isOpen() {
+			return fFile != null;
+		}
+
+		synchronized boolean isInUse() {
+			return fReferences > 0;
+		}
+
+		synchronized long getLastUse() {
+			return fLastUse;
+		}
+
+		private void close() {
+			if (fFile == null) {
+				return;
+			}
+			fgHandles.remove(fFile, this);
+			try {
+				fFile.close();
+			} catch (IOException e) {
+				DebugPlugin.log(e);
+			}
+			fFile = null;
+		}
+	}
 
 	/**
-	 * Returns a zip file with the given name
+	 * Returns a zip file with the given name. The zip file is shared and may be
+	 * closed as soon as it is not in use anymore. Clients which use the zip
+	 * file for a while should use {@link #acquireZipFile(String)} instead.
 	 *
 	 * @param name zip file name
 	 * @return The zip file with the given name
 	 * @exception IOException if unable to create the specified zip
 	 * 	file
 	 */
-	@SuppressWarnings("resource")
 	public static ZipFile getZipFile(String name) throws IOException {
-		synchronized (fgZipFileCache) {
-			if (fgCleaner == null) {
-				fgCleaner = new ArchiveCleaner();
-				DebugPlugin.getDefault().getLaunchManager().addLaunchListener(fgCleaner);
-				ResourcesPlugin.getWorkspace().addResourceChangeListener(fgCleaner, IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.PRE_CLOSE);
+		ZipFile zip = acquireZipFile(name);
+		releaseZipFile(zip);
+		return zip;
+	}
+
+	/**
+	 * Returns the shared zip file with the given name, opening it if needed.
+	 * The zip file is not closed until it is released with
+	 * {@link #releaseZipFile(ZipFile)}, unless this class's plug-in is shut
+	 * down or a project is about to be closed or deleted. Zip files with
+	 * different names can be acquired concurrently.
+	 *
+	 * @param name zip file name
+	 * @return The zip file with the given name
+	 * @exception IOException if unable to create the specified zip file
+	 */
+	public static ZipFile acquireZipFile(String name) throws IOException {
+		if (fgCleaner == null) {
+			synchronized (SourceLookupUtils.class) {
+				if (fgCleaner == null) {
+					ArchiveCleaner cleaner = new ArchiveCleaner();
+					DebugPlugin.getDefault().getLaunchManager().addLaunchListener(cleaner);
+					ResourcesPlugin.getWorkspace().addResourceChangeListener(cleaner, IResourceChangeEvent.PRE_DELETE | IResourceChangeEvent.PRE_CLOSE);
+					fgCleaner = cleaner;
+				}
+			}
+		}
+		while (true) {
+			ArchiveHandle handle = fgArchives.computeIfAbsent(name, ArchiveHandle::new);
+			boolean open = handle.isOpen();
+			ZipFile zip;
+			try {
+				zip = handle.acquire();
+			} catch (IOException e) {
+				handle.remove();
+				throw e;
+			}
+			if (zip != null) {
+				if (!open) {
+					closeIdleArchives(getOpenArchivesLimit());
+				}
+				return zip;
+			}
+			// the handle was removed concurrently
+		}
+	}
+
+	/**
+	 * Adds a reference to the given zip file if it is an open zip file of the
+	 * pool.
+	 *
+	 * @param zip zip file
+	 * @return whether a reference was added and the zip file needs to be
+	 *         released with {@link #releaseZipFile(ZipFile)}
+	 */
+	public static boolean retainZipFile(ZipFile zip) {
+		ArchiveHandle handle = fgHandles.get(zip);
+		return handle != null && handle.acquire(zip);
+	}
+
+	/**
+	 * Releases a zip file returned by {@link #acquireZipFile(String)}.
+	 *
+	 * @param zip zip file
+	 */
+	public static void releaseZipFile(ZipFile zip) {
+		ArchiveHandle handle = fgHandles.get(zip);
+		if (handle != null) {
+			handle.release(zip);
+		}
+	}
+
+	/**
+	 * Closes the least recently used zip files which are not in use until no
+	 * more than the given number of zip files are open.
+	 *
+	 * @param limit maximum number of open zip files
+	 */
+	private static void closeIdleArchives(int limit) {
+		if (limit <= 0 || fgHandles.size() <= limit) {
+			return;
+		}
+		List<ArchiveHandle> idle = new ArrayList<>();
+		for (ArchiveHandle handle : fgArchives.values()) {
+			if (handle.isOpen() && !handle.isInUse()) {
+				idle.add(handle);
 			}
-			ZipFile zip = fgZipFileCache.get(name);
-			if (zip == null) {
-				zip = new ZipFile(name);
-				fgZipFileCache.put(name, zip);
+		}
+		idle.sort(Comparator.comparingLong(ArchiveHandle::getLastUse));
+		for (ArchiveHandle handle : idle) {
+			if (fgHandles.size() <= limit) {
+				return;
 			}
-			return zip;
+			handle.removeIfIdle();
 		}
 	}
 
+	/**
+	 * Returns the number of open zip files.
+	 *
+	 * @return number of open zip files
+	 */
+	public static int getOpenArchiveCount() {
+		return fgHandles.size();
+	}
+
+	/**
+	 * Returns the number of open zip files which are in use.
+	 *
+	 * @return number of acquired zip files
+	 */
+	public static int getAcquiredArchiveCount() {
+		int count = 0;
+		for (ArchiveHandle handle : fgArchives.values()) {
+			if (handle.isInUse()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int getOpenArchivesLimit() {
+		return Platform.getPreferencesService().getInt(DebugPlugin.getUniqueIdentifier(), IInternalDebugCoreConstants.PREF_OPEN_ARCHIVES_LIMIT, 0, null);
+	}
+
 	/**
 	 * Closes all zip files that have been opened,
-	 * and removes them from the zip file cache.
+	 * and removes them from the zip file pool. Zip files
+	 * in use are closed when they are released.
 	 * This method is only to be called by the debug
 	 * plug-in.
 	 */
 	public static void closeArchives() {
-		synchronized (fgZipFileCache) {
-			for (ZipFile file : fgZipFileCache.values()) {
-				synchronized (file) {
-					try {
-						file.close();
-					} catch (IOException e) {
-						DebugPlugin.log(e);
-					}
-				}
+		for (ArchiveHandle handle : fgArchives.values()) {
+			handle.remove();
+		}
+	}
+
+	/**
+	 * Removes the zip files which were modified since they were opened from
+	 * the pool. Zip files in use are closed when they are released.
+	 */
+	static void closeModifiedArchives() {
+		for (ArchiveHandle handle : fgArchives.values()) {
+			if (handle.isModified()) {
+				handle.remove();
 			}
-			fgZipFileCache.clear();
 		}
 	}
 
@@ -101,8 +362,9 @@ public class SourceLookupUtils {
 	}
 
 	/**
-	 * Clears the cache of open zip files when a launch terminates,
-	 * is removed, or when a project is about to be deleted or closed.
+	 * Closes the zip files which changed when a launch terminates or is
+	 * removed, and all zip files when a project is about to be deleted or
+	 * closed.
 	 */
 	static class ArchiveCleaner implements IResourceChangeListener, ILaunchesListener2 {
 
@@ -110,7 +372,7 @@ public class SourceLookupUtils {
 		public void launchesRemoved(ILaunch[] launches) {
 			for (ILaunch launch : launches) {
 				if (!launch.isTerminated()) {
-					SourceLookupUtils.closeArchives();
+					SourceLookupUtils.closeModifiedArchives();
 					return;
 				}
 			}
@@ -131,7 +393,7 @@ public class SourceLookupUtils {
 
 		@Override
 		public void launchesTerminated(ILaunch[] launches) {
-			SourceLookupUtils.closeArchives();
+			SourceLookupUtils.closeModifiedArchives();
 		}
 
 	}
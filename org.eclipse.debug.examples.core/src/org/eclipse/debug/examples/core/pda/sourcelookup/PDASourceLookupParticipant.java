@@ -37,4 +37,10 @@ public class PDASourceLookupParticipant extends AbstractSourceLookupParticipant
 		return null;
 		//#endif
 	}
+
+	@Override
+	protected boolean isCacheSourceElements() {
+		// the source name of a frame is all that is needed to find its source
+		return true;
+	}
 }
@@ -17,33 +17,51 @@ package org.eclipse.debug.tests;
 
 import org.eclipse.debug.tests.breakpoint.BreakpointOrderingTests;
 import org.eclipse.debug.tests.breakpoint.BreakpointTests;
+import org.eclipse.debug.tests.commands.DebugCommandEnablementTests;
 import org.eclipse.debug.tests.console.ConsoleDocumentAdapterTests;
 import org.eclipse.debug.tests.console.ConsoleManagerTests;
+import org.eclipse.debug.tests.console.ConsoleOutputStoreTests;
 import org.eclipse.debug.tests.console.ConsoleTests;
 import org.eclipse.debug.tests.console.FileLinkTests;
 import org.eclipse.debug.tests.console.IOConsoleFixedWidthTests;
 import org.eclipse.debug.tests.console.IOConsoleTests;
 import org.eclipse.debug.tests.console.InputStreamMonitorTests;
+import org.eclipse.debug.tests.console.MultiPatternMatcherTests;
 import org.eclipse.debug.tests.console.OutputStreamMonitorTests;
 import org.eclipse.debug.tests.console.ProcessConsoleManagerTests;
 import org.eclipse.debug.tests.console.ProcessConsoleTests;
+import org.eclipse.debug.tests.console.ProcessIOEngineTests;
 import org.eclipse.debug.tests.console.RuntimeProcessTests;
 import org.eclipse.debug.tests.console.StreamsProxyTests;
 import org.eclipse.debug.tests.console.TextConsoleViewerTest;
+import org.eclipse.debug.tests.events.EventDispatchTests;
+import org.eclipse.debug.tests.expressions.WatchExpressionEvaluationTests;
 import org.eclipse.debug.tests.launching.AcceleratorSubstitutionTests;
 import org.eclipse.debug.tests.launching.ArgumentParsingTests;
+import org.eclipse.debug.tests.launching.CommandLineCacheTests;
+import org.eclipse.debug.tests.launching.ExternalToolBuilderTests;
 import org.eclipse.debug.tests.launching.LaunchConfigurationTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationXMLTests;
 import org.eclipse.debug.tests.launching.LaunchFavoriteTests;
 import org.eclipse.debug.tests.launching.LaunchGroupTests;
 import org.eclipse.debug.tests.launching.LaunchHistoryTests;
 import org.eclipse.debug.tests.launching.LaunchManagerTests;
 import org.eclipse.debug.tests.launching.LaunchTests;
 import org.eclipse.debug.tests.launching.RefreshTabTests;
+import org.eclipse.debug.tests.launching.RefreshTrackerTests;
+import org.eclipse.debug.tests.launching.StreamLineMatcherTests;
+import org.eclipse.debug.tests.launching.StringSubstitutionTests;
+import org.eclipse.debug.tests.launching.StringVariableManagerConcurrencyTests;
 import org.eclipse.debug.tests.logicalstructure.LogicalStructureCacheTest;
+import org.eclipse.debug.tests.sourcelookup.ArchivePoolTests;
+import org.eclipse.debug.tests.sourcelookup.ExternalArchiveSourceContainerTests;
+import org.eclipse.debug.tests.sourcelookup.SourceLookupCacheTests;
 import org.eclipse.debug.tests.sourcelookup.SourceLookupFacilityTests;
 import org.eclipse.debug.tests.statushandlers.StatusHandlerTests;
 import org.eclipse.debug.tests.stepfilters.StepFiltersTests;
+import org.eclipse.debug.tests.view.memory.LongAddressRenderingTests;
 import org.eclipse.debug.tests.view.memory.MemoryRenderingTests;
+import org.eclipse.debug.tests.view.memory.PackedMemoryBytesTests;
 import org.eclipse.debug.tests.viewer.model.ChildrenUpdateTests;
 import org.eclipse.debug.tests.viewer.model.FilterTransformTests;
 import org.eclipse.debug.tests.viewer.model.PresentationContextTests;
@@ -66,6 +84,9 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 		// Source lookup tests
 		SourceLookupFacilityTests.class,
+		SourceLookupCacheTests.class,
+		ExternalArchiveSourceContainerTests.class,
+		ArchivePoolTests.class,
 		// BP tests
 		BreakpointOrderingTests.class,
 		BreakpointTests.class,
@@ -89,14 +110,22 @@ import org.junit.runners.Suite;
 
 		// Memory view
 		MemoryRenderingTests.class,
+		PackedMemoryBytesTests.class,
+		LongAddressRenderingTests.class,
 
 		// Launch framework
 		LaunchConfigurationTests.class,
+		LaunchConfigurationXMLTests.class,
 		AcceleratorSubstitutionTests.class,
 		LaunchHistoryTests.class,
 		LaunchFavoriteTests.class,
 		LaunchManagerTests.class,
 		RefreshTabTests.class,
+		RefreshTrackerTests.class,
+		ExternalToolBuilderTests.class,
+		CommandLineCacheTests.class,
+		StringSubstitutionTests.class,
+		StringVariableManagerConcurrencyTests.class,
 		ArgumentParsingTests.class,
 		LaunchTests.class,
 
@@ -106,6 +135,15 @@ import org.junit.runners.Suite;
 		// Step filters
 		StepFiltersTests.class,
 
+		// Debug commands
+		DebugCommandEnablementTests.class,
+
+		// Debug events
+		EventDispatchTests.class,
+
+		// Watch expressions
+		WatchExpressionEvaluationTests.class,
+
 		// Console view
 		ConsoleDocumentAdapterTests.class,
 		ConsoleManagerTests.class,
@@ -119,10 +157,14 @@ import org.junit.runners.Suite;
 		RuntimeProcessTests.class,
 		OutputStreamMonitorTests.class,
 		InputStreamMonitorTests.class,
+		ProcessIOEngineTests.class,
 		FileLinkTests.class,
+		MultiPatternMatcherTests.class,
+		ConsoleOutputStoreTests.class,
 
 		// Launch Groups
 		LaunchGroupTests.class,
+		StreamLineMatcherTests.class,
 
 		// Logical structure
 		LogicalStructureCacheTest.class,
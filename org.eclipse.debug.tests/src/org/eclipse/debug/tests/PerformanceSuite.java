@@ -13,6 +13,14 @@
  *******************************************************************************/
 package org.eclipse.debug.tests;
 
+import org.eclipse.debug.tests.breakpoint.BreakpointManagerPerformanceTests;
+import org.eclipse.debug.tests.console.MultiPatternMatcherPerformanceTests;
+import org.eclipse.debug.tests.console.OutputStreamMonitorPerformanceTests;
+import org.eclipse.debug.tests.launching.ExternalToolBuilderPerformanceTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationResourceIndexPerformanceTests;
+import org.eclipse.debug.tests.launching.LaunchConfigurationXMLPerformanceTests;
+import org.eclipse.debug.tests.launching.StringSubstitutionPerformanceTests;
+import org.eclipse.debug.tests.view.memory.TableRenderingPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.JFaceViewerPerformanceTests;
 import org.eclipse.debug.tests.viewer.model.VirtualViewerPerformanceTests;
 import org.junit.runner.RunWith;
@@ -26,6 +34,14 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		JFaceViewerPerformanceTests.class,
-		VirtualViewerPerformanceTests.class })
+		VirtualViewerPerformanceTests.class,
+		OutputStreamMonitorPerformanceTests.class,
+		BreakpointManagerPerformanceTests.class,
+		MultiPatternMatcherPerformanceTests.class,
+		LaunchConfigurationXMLPerformanceTests.class,
+		LaunchConfigurationResourceIndexPerformanceTests.class,
+		ExternalToolBuilderPerformanceTests.class,
+		StringSubstitutionPerformanceTests.class,
+		TableRenderingPerformanceTests.class })
 public class PerformanceSuite {
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.breakpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IBreakpointManager;
+import org.eclipse.debug.core.model.IBreakpoint;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures bulk import and queries of many breakpoints in the
+ * {@link IBreakpointManager}.
+ */
+public class BreakpointManagerPerformanceTests extends AbstractDebugTest {
+
+	/** Number of breakpoints imported per run. */
+	private static final int BREAKPOINTS = 50_000;
+
+	private final IBreakpointManager bpm = DebugPlugin.getDefault().getBreakpointManager();
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testImportAndQuery() throws Exception {
+		TestBreakpoint[] breakpoints = new TestBreakpoint[BREAKPOINTS];
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			for (int i = 0; i < breakpoints.length; i++) {
+				breakpoints[i] = new TestBreakpoint("bp" + i); //$NON-NLS-1$
+			}
+		}, null);
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 3; i++) {
+				meter.start();
+				bpm.addBreakpoints(breakpoints);
+				for (int q = 0; q < 100; q++) {
+					assertEquals(BREAKPOINTS, bpm.getBreakpoints(TestBreakpoint.MODEL).length);
+					assertTrue(bpm.isRegistered(breakpoints[q * (BREAKPOINTS / 100)]));
+				}
+				bpm.removeBreakpoints(breakpoints, false);
+				meter.stop();
+				assertEquals(0, bpm.getBreakpoints(TestBreakpoint.MODEL).length);
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (IBreakpoint breakpoint : breakpoints) {
+					if (breakpoint != null) {
+						breakpoint.delete();
+					}
+				}
+			}, null);
+		}
+	}
+}
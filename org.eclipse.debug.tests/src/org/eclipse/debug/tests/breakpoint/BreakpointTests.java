@@ -18,14 +18,25 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.commands.operations.IOperationHistory;
 import org.eclipse.core.commands.operations.IUndoContext;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.IBreakpointManager;
+import org.eclipse.debug.core.IBreakpointsListener;
 import org.eclipse.debug.core.model.IBreakpoint;
 import org.eclipse.debug.internal.core.BreakpointManager;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.views.breakpoints.BreakpointsView;
 import org.eclipse.debug.tests.AbstractDebugTest;
@@ -131,4 +142,61 @@ public class BreakpointTests extends AbstractDebugTest {
 			}
 		}
 	}
+
+	/**
+	 * Tests that persisted breakpoints are restored in the background and
+	 * published in batches if background restoration is enabled.
+	 */
+	@Test
+	public void testBackgroundRestore() throws Exception {
+		int count = 1200;
+		List<TestBreakpoint> created = new ArrayList<>(count);
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			for (int i = 0; i < count; i++) {
+				created.add(new TestBreakpoint("restore" + i)); //$NON-NLS-1$
+			}
+		}, null);
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		preferences.putBoolean(IInternalDebugCoreConstants.PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND, true);
+		BreakpointManager manager = new BreakpointManager();
+		try {
+			Set<IMarker> published = Collections.synchronizedSet(new HashSet<>());
+			AtomicInteger batches = new AtomicInteger();
+			manager.addBreakpointListener(new IBreakpointsListener() {
+				@Override
+				public void breakpointsAdded(IBreakpoint[] breakpoints) {
+					batches.incrementAndGet();
+					for (IBreakpoint breakpoint : breakpoints) {
+						published.add(breakpoint.getMarker());
+					}
+				}
+
+				@Override
+				public void breakpointsRemoved(IBreakpoint[] breakpoints, IMarkerDelta[] deltas) {
+				}
+
+				@Override
+				public void breakpointsChanged(IBreakpoint[] breakpoints, IMarkerDelta[] deltas) {
+				}
+			});
+			assertFalse("Restored before initialization", manager.isRestored());
+			assertTrue("Breakpoints not restored in time", manager.waitUntilRestored(testTimeout));
+			assertTrue(manager.isRestored());
+			assertTrue("Breakpoints not published in batches", batches.get() > 1);
+			for (TestBreakpoint breakpoint : created) {
+				assertTrue("Breakpoint not published", published.contains(breakpoint.getMarker()));
+				IBreakpoint restored = manager.getBreakpoint(breakpoint.getMarker());
+				assertNotNull("Breakpoint not restored", restored);
+				assertTrue(manager.isRegistered(restored));
+			}
+		} finally {
+			manager.shutdown();
+			preferences.remove(IInternalDebugCoreConstants.PREF_RESTORE_BREAKPOINTS_IN_BACKGROUND);
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (TestBreakpoint breakpoint : created) {
+					breakpoint.delete();
+				}
+			}, null);
+		}
+	}
 }
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.commands;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IRequest;
+import org.eclipse.debug.core.commands.AbstractDebugCommand;
+import org.eclipse.debug.core.commands.IDebugCommandRequest;
+import org.eclipse.debug.core.commands.IEnabledStateRequest;
+import org.eclipse.debug.internal.core.commands.DebugCommandRequest;
+import org.eclipse.debug.internal.core.commands.EnabledStateUpdater;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.junit.Test;
+
+/**
+ * Tests the batching and caching of debug command enabled state updates.
+ */
+@SuppressWarnings("restriction")
+public class DebugCommandEnablementTests extends AbstractDebugTest {
+
+	/**
+	 * Command enabled for all elements, recording its checks.
+	 */
+	private static class TestCommand extends AbstractDebugCommand {
+
+		final AtomicInteger checks = new AtomicInteger();
+		final Object family;
+		final boolean cacheable;
+		volatile CountDownLatch block;
+		volatile Job job;
+
+		TestCommand(Object family, boolean cacheable) {
+			this.family = family;
+			this.cacheable = cacheable;
+		}
+
+		@Override
+		protected void doExecute(Object[] targets, IProgressMonitor monitor, IRequest request) {
+		}
+
+		@Override
+		protected boolean isExecutable(Object[] targets, IProgressMonitor monitor, IEnabledStateRequest request) {
+			job = Job.getJobManager().currentJob();
+			checks.incrementAndGet();
+			CountDownLatch latch = block;
+			if (latch != null) {
+				try {
+					latch.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return true;
+		}
+
+		@Override
+		protected Object getTarget(Object element) {
+			return element;
+		}
+
+		@Override
+		protected Object getEnabledStateJobFamily(IDebugCommandRequest request) {
+			return family;
+		}
+
+		@Override
+		protected boolean isEnabledStateCacheable(IEnabledStateRequest request) {
+			return cacheable;
+		}
+	}
+
+	private static class TestRequest extends DebugCommandRequest implements IEnabledStateRequest {
+
+		final CountDownLatch done = new CountDownLatch(1);
+		volatile boolean enabled;
+
+		TestRequest(Object... elements) {
+			super(elements);
+		}
+
+		@Override
+		public void setEnabled(boolean result) {
+			enabled = result;
+		}
+
+		@Override
+		public void done() {
+			done.countDown();
+		}
+
+		void await() throws InterruptedException {
+			assertTrue("request not done", done.await(30, TimeUnit.SECONDS)); //$NON-NLS-1$
+		}
+	}
+
+	@Test
+	public void testUpdatesBatched() throws Exception {
+		Object element = new Object();
+		TestCommand blocking = new TestCommand(null, false);
+		TestCommand first = new TestCommand(null, false);
+		TestCommand second = new TestCommand(null, false);
+		blocking.block = new CountDownLatch(1);
+		TestRequest blockingRequest = new TestRequest(element);
+		blocking.canExecute(blockingRequest);
+		assertFalse(TestUtil.waitWhile(() -> blocking.checks.get() == 0, testTimeout));
+
+		// both wait for the rule of the blocking update on the same element
+		TestRequest firstRequest = new TestRequest(element);
+		TestRequest secondRequest = new TestRequest(element);
+		first.canExecute(firstRequest);
+		second.canExecute(secondRequest);
+		blocking.block.countDown();
+		blockingRequest.await();
+		firstRequest.await();
+		secondRequest.await();
+
+		assertTrue(firstRequest.enabled);
+		assertTrue(secondRequest.enabled);
+		assertSame("updates not batched", first.job, second.job); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCancelBatchedFamily() throws Exception {
+		Object element = new Object();
+		Object family = new Object();
+		TestCommand blocking = new TestCommand(null, false);
+		TestCommand canceled = new TestCommand(family, false);
+		TestCommand other = new TestCommand(null, false);
+		blocking.block = new CountDownLatch(1);
+		TestRequest blockingRequest = new TestRequest(element);
+		blocking.canExecute(blockingRequest);
+		assertFalse(TestUtil.waitWhile(() -> blocking.checks.get() == 0, testTimeout));
+
+		TestRequest canceledRequest = new TestRequest(element);
+		TestRequest otherRequest = new TestRequest(element);
+		canceled.canExecute(canceledRequest);
+		other.canExecute(otherRequest);
+		EnabledStateUpdater.getDefault().cancel(family);
+		blocking.block.countDown();
+		canceledRequest.await();
+		otherRequest.await();
+
+		assertTrue(canceledRequest.isCanceled());
+		assertEquals(0, canceled.checks.get());
+		assertFalse(otherRequest.isCanceled());
+		assertTrue(otherRequest.enabled);
+	}
+
+	@Test
+	public void testStateCachedUntilDebugEvent() throws Exception {
+		Object element = new Object();
+		TestCommand command = new TestCommand(null, true);
+		EnabledStateUpdater updater = EnabledStateUpdater.getDefault();
+
+		TestRequest request = new TestRequest(element);
+		command.canExecute(request);
+		request.await();
+		assertEquals(1, command.checks.get());
+
+		long hits = updater.getCacheHitCount();
+		request = new TestRequest(element);
+		command.canExecute(request);
+		request.await();
+		assertTrue(request.enabled);
+		assertEquals(1, command.checks.get());
+		assertEquals(hits + 1, updater.getCacheHitCount());
+
+		long generation = updater.getGeneration();
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { new DebugEvent(element, DebugEvent.CHANGE) });
+		assertFalse("cache not invalidated", TestUtil.waitWhile(() -> updater.getGeneration() == generation, testTimeout)); //$NON-NLS-1$
+		request = new TestRequest(element);
+		command.canExecute(request);
+		request.await();
+		assertEquals(2, command.checks.get());
+	}
+}
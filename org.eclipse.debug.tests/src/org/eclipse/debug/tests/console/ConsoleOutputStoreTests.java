@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.ui.internal.console.ConsoleOutputStore;
+import org.eclipse.ui.internal.console.ConsoleOutputStore.Run;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ConsoleOutputStore} used for deferred console rendering.
+ */
+public class ConsoleOutputStoreTests extends AbstractDebugTest {
+
+	private final ConsoleOutputStore store = new ConsoleOutputStore();
+
+	@Test
+	public void testAppendAcrossChunks() {
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; expected.length() < 200_000; i++) {
+			String text = "line " + i + '\n'; //$NON-NLS-1$
+			store.append("out", text); //$NON-NLS-1$
+			expected.append(text);
+		}
+		assertEquals(expected.length(), store.getLength());
+		assertEquals(expected.toString(), store.get(0, expected.length()));
+		assertEquals(expected.substring(65530, 65600), store.get(65530, 70));
+	}
+
+	@Test
+	public void testRuns() {
+		store.append("out", "aa"); //$NON-NLS-1$ //$NON-NLS-2$
+		store.append("out", "bb"); //$NON-NLS-1$ //$NON-NLS-2$
+		store.append("err", "cc"); //$NON-NLS-1$ //$NON-NLS-2$
+		store.append("out", "dd"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		List<Run> runs = store.getRuns(0, store.getLength());
+		assertEquals(3, runs.size());
+		assertEquals(4, runs.get(0).getLength());
+		assertSame("err", runs.get(1).getSource()); //$NON-NLS-1$
+		assertEquals(4, runs.get(1).getOffset());
+
+		runs = store.getRuns(3, 3);
+		assertEquals(2, runs.size());
+		assertEquals(3, runs.get(0).getOffset());
+		assertEquals(1, runs.get(0).getLength());
+		assertEquals(2, runs.get(1).getLength());
+	}
+
+	@Test
+	public void testTrimAndClear() {
+		String text = String.join("", Collections.nCopies(20_000, "0123456789")); //$NON-NLS-1$ //$NON-NLS-2$
+		store.append("out", text); //$NON-NLS-1$
+		store.trim(150_000);
+		assertEquals(150_000, store.getStart());
+		assertEquals(text.length(), store.getEnd());
+		assertEquals(text.substring(150_000, 150_010), store.get(150_000, 10));
+		try {
+			store.get(149_999, 10);
+			fail("Trimmed content returned"); //$NON-NLS-1$
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		store.clear();
+		assertEquals(0, store.getLength());
+		store.append("out", "after clear"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("after clear", store.get(text.length(), 11)); //$NON-NLS-1$
+		assertEquals(1, store.getRuns(store.getStart(), store.getLength()).size());
+	}
+}
@@ -16,6 +16,7 @@ package org.eclipse.debug.tests.console;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
@@ -847,6 +848,40 @@ public class IOConsoleTests extends AbstractDebugTest {
 		assertEquals("Test triggered errors in IOConsole.", 0, loggedErrors.get());
 	}
 
+	/**
+	 * Test that with deferred rendering large output is added completely to the
+	 * document in several steps.
+	 */
+	@Test
+	public void testDeferredRendering() throws Exception {
+		final IOConsoleTestUtil c = getTestUtil("Test deferred rendering");
+		@SuppressWarnings("restriction")
+		final org.eclipse.ui.internal.console.IOConsolePartitioner partitioner = (org.eclipse.ui.internal.console.IOConsolePartitioner) c.getPartitioner();
+		partitioner.setDeferredRendering(true);
+		assertTrue(partitioner.isDeferredRendering());
+
+		final int lines = 50000;
+		long length = 0;
+		for (int i = 0; i < lines; i++) {
+			final String line = "Output line " + i + "\n";
+			c.writeFast(line);
+			length += line.length();
+		}
+		c.waitForScheduledJobs();
+		assertEquals("Output store incomplete.", length, partitioner.getOutputStore().getEnd());
+		assertEquals("Output added to document still stored.", 0, partitioner.getOutputStore().getLength());
+		assertEquals("Document incomplete.", length, c.getContentLength());
+		assertEquals("Wrong number of lines.", lines + 1, c.getDocument().getNumberOfLines());
+		c.verifyContentByOffset("Output line 0\n", 0);
+		c.verifyContentByOffset("Output line " + (lines - 1) + "\n", -("Output line " + (lines - 1) + "\n").length());
+		c.verifyPartitions();
+
+		partitioner.setDeferredRendering(false);
+		assertNull(partitioner.getOutputStore());
+		c.writeAndVerify("more output");
+		closeConsole(c);
+	}
+
 	/**
 	 * Regression test for deadlock in stream processing.
 	 */
@@ -19,6 +19,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.core.runtime.CoreException;
@@ -41,6 +44,16 @@ public class MockProcess extends Process {
 	 */
 	public static final int RUN_FOREVER = -1;
 
+	/**
+	 * Completes {@link #onExit()} of all mockup processes. Unlike the default
+	 * implementation this does not block a thread per process.
+	 */
+	private static final ScheduledExecutorService EXIT_NOTIFIER = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "Mockup Process Exit Notifier");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	/** Mockup processe's standard streams. */
 	private final ByteArrayOutputStream stdin = new ByteArrayOutputStream();
 	private final InputStream stdout;
@@ -72,6 +85,9 @@ public class MockProcess extends Process {
 	/** The delay after a call to destroy() until actual termination. */
 	private int terminationDelay = 0;
 
+	/** Completed once this mockup process terminated. */
+	private final CompletableFuture<Process> exit = new CompletableFuture<>();
+
 	/**
 	 * Create new silent mockup process which runs for a given amount of time.
 	 * Does not read input or produce any output.
@@ -126,6 +142,7 @@ public class MockProcess extends Process {
 					if (receivedInput.get() + stdin.size() >= expectedInputSize) {
 						endTime = System.currentTimeMillis();
 						waitForTerminationLock.notifyAll();
+						scheduleExit();
 						break;
 					}
 				}
@@ -218,6 +235,34 @@ public class MockProcess extends Process {
 		return isTerminated();
 	}
 
+	@Override
+	public CompletableFuture<Process> onExit() {
+		scheduleExit();
+		return exit;
+	}
+
+	/**
+	 * Schedules completion of {@link #onExit()} at the current termination
+	 * time. Does nothing if the process runs until destroyed.
+	 */
+	private void scheduleExit() {
+		long delay;
+		synchronized (waitForTerminationLock) {
+			if (endTime == RUN_FOREVER || exit.isDone()) {
+				return;
+			}
+			delay = Math.max(0, endTime - System.currentTimeMillis());
+		}
+		EXIT_NOTIFIER.schedule(() -> {
+			if (isTerminated()) {
+				handle.ifPresent(MockProcessHandle::setTerminated);
+				exit.complete(this);
+			} else {
+				scheduleExit();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
 	@Override
 	public int exitValue() {
 		if (!isTerminated()) {
@@ -246,6 +291,7 @@ public class MockProcess extends Process {
 				handle.ifPresent(MockProcessHandle::setTerminated);
 			}
 		}
+		scheduleExit();
 	}
 
 	/**
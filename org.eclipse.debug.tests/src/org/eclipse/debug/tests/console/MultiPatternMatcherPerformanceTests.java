@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.jface.text.Document;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.eclipse.ui.internal.console.MultiPatternMatcher;
+import org.eclipse.ui.internal.console.MultiPatternMatcher.Entry;
+import org.junit.Test;
+
+/**
+ * Measures how fast the {@link MultiPatternMatcher} scans console output
+ * appended in chunks with different numbers of registered patterns.
+ */
+public class MultiPatternMatcherPerformanceTests extends AbstractDebugTest {
+
+	/** Size of the console content per run. */
+	private static final int CONTENT_SIZE = 4 * 1024 * 1024;
+
+	/** Size of the chunks appended between two scans. */
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testScan1Pattern() throws Exception {
+		measureScan(1);
+	}
+
+	@Test
+	public void testScan10Patterns() throws Exception {
+		measureScan(10);
+	}
+
+	@Test
+	public void testScan50Patterns() throws Exception {
+		measureScan(50);
+	}
+
+	private void measureScan(int patterns) throws Exception {
+		String content = createContent();
+		AtomicInteger matches = new AtomicInteger();
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 5; i++) {
+				matches.set(0);
+				Entry[] entries = createEntries(patterns);
+				MultiPatternMatcher matcher = new MultiPatternMatcher();
+				Document document = new Document();
+
+				long start = System.nanoTime();
+				meter.start();
+				for (int offset = 0; offset < content.length(); offset += CHUNK_SIZE) {
+					document.replace(document.getLength(), 0, content.substring(offset, Math.min(content.length(), offset + CHUNK_SIZE)));
+					assertTrue(matcher.match(document, entries, new NullProgressMonitor(), (entry, o, l) -> matches.incrementAndGet()));
+				}
+				meter.stop();
+				long duration = Math.max(1, System.nanoTime() - start);
+
+				assertEquals("Wrong number of matches.", getExpectedMatches(content, patterns), matches.get()); //$NON-NLS-1$
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%d patterns: %.1f MB/s", //$NON-NLS-1$
+						patterns, content.length() * 1000.0 / duration));
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Every line matches the first pattern, every other pattern matches the
+	 * lines of one frame index.
+	 */
+	private static int getExpectedMatches(String content, int patterns) {
+		int lines = content.split("\n").length; //$NON-NLS-1$
+		int expected = lines;
+		for (int i = 1; i < patterns; i++) {
+			expected += lines / 1000 + (i < lines % 1000 ? 1 : 0);
+		}
+		return expected;
+	}
+
+	/**
+	 * Creates one pattern for file links in stack frames and further patterns
+	 * for specific frames, similar to what launch types register.
+	 */
+	private static Entry[] createEntries(int count) {
+		Entry[] entries = new Entry[count];
+		entries[0] = new Entry(Pattern.compile("\\w+\\.java:\\d+"), Pattern.compile("\\.java:")); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 1; i < count; i++) {
+			entries[i] = new Entry(Pattern.compile("Frame" + i + "\\.run\\(Frame\\.java:\\d+\\)"), Pattern.compile("Frame" + i + "\\.run")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		return entries;
+	}
+
+	/**
+	 * Creates stack trace like lines. Frame indices cycle through 1000 values.
+	 */
+	private static String createContent() {
+		StringBuilder sb = new StringBuilder(CONTENT_SIZE + 100);
+		for (int i = 0; sb.length() < CONTENT_SIZE; i++) {
+			sb.append("\tat org.eclipse.debug.tests.Frame").append(i % 1000).append(".run(Frame.java:").append(i).append(")\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		return sb.toString();
+	}
+}
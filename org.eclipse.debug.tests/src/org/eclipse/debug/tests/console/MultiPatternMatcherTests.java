@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.jface.text.Document;
+import org.eclipse.ui.internal.console.MultiPatternMatcher;
+import org.eclipse.ui.internal.console.MultiPatternMatcher.Entry;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MultiPatternMatcher} used to notify console pattern match
+ * listeners.
+ */
+public class MultiPatternMatcherTests extends AbstractDebugTest {
+
+	private final MultiPatternMatcher matcher = new MultiPatternMatcher();
+	private final Map<Entry, List<String>> matches = new HashMap<>();
+	private final Document document = new Document();
+
+	private Entry createEntry(String pattern, String qualifier) {
+		Entry entry = new Entry(Pattern.compile(pattern), qualifier == null ? null : Pattern.compile(qualifier));
+		matches.put(entry, new ArrayList<>());
+		return entry;
+	}
+
+	private void append(String text, Entry... entries) throws Exception {
+		document.replace(document.getLength(), 0, text);
+		assertTrue(matcher.match(document, entries, new NullProgressMonitor(), (entry, offset, length) -> {
+			try {
+				matches.get(entry).add(document.get(offset, length));
+			} catch (Exception e) {
+				throw new AssertionError(e);
+			}
+		}));
+	}
+
+	@Test
+	public void testQualifiedAndUnqualifiedPatterns() throws Exception {
+		Entry file = createEntry("\\w+\\.java:\\d+", "\\.java:");
+		Entry url = createEntry("https?://\\S+", null);
+		Entry error = createEntry("ERROR \\w+", "ERROR");
+
+		append("at Foo.java:12 and Bar.java:3\nsee http://example.org\nERROR one ERROR two\n", file, url, error); //$NON-NLS-1$
+		assertEquals(Arrays.asList("Foo.java:12", "Bar.java:3"), matches.get(file)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList("http://example.org"), matches.get(url)); //$NON-NLS-1$
+		assertEquals(Arrays.asList("ERROR one", "ERROR two"), matches.get(error)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testIncrementalAppend() throws Exception {
+		Entry file = createEntry("\\w+\\.java:\\d+", "\\.java");
+		Entry url = createEntry("https?://[\\w./]+\\s", null);
+
+		append("first line\nat Foo.ja", file, url); //$NON-NLS-1$
+		assertTrue(matches.get(file).isEmpty());
+		append("va:42\r\nhttp://exa", file, url); //$NON-NLS-1$
+		assertEquals(Arrays.asList("Foo.java:42"), matches.get(file)); //$NON-NLS-1$
+		assertTrue(matches.get(url).isEmpty());
+		append("mple.org/x\rBar.java:7\n", file, url); //$NON-NLS-1$
+		assertEquals(Arrays.asList("Foo.java:42", "Bar.java:7"), matches.get(file)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList("http://example.org/x\r"), matches.get(url)); //$NON-NLS-1$
+		append("", file, url); //$NON-NLS-1$
+		assertEquals("Match on last line reported twice", 2, matches.get(file).size()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEntryAddedLater() throws Exception {
+		Entry early = createEntry("foo", "foo");
+		append("foo\nfoo\n", early); //$NON-NLS-1$
+		Entry late = createEntry("foo", "foo");
+		append("foo\n", early, late); //$NON-NLS-1$
+		assertEquals(3, matches.get(early).size());
+		assertEquals(3, matches.get(late).size());
+		// both continue after the match on the last line
+		assertEquals(document.getLength() - 1, early.getEnd());
+		assertEquals(early.getEnd(), late.getEnd());
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		Entry entry = createEntry("foo", "foo");
+		document.set("foo\nfoo\n"); //$NON-NLS-1$
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		assertFalse(matcher.match(document, new Entry[] { entry }, monitor, (e, offset, length) -> matches.get(e).add("")));
+		assertTrue(matches.get(entry).isEmpty());
+		assertEquals("End updated after cancel", 0, entry.getEnd()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCancelAfterMatches() throws Exception {
+		Entry qualified = createEntry("foo\\d", "foo");
+		Entry unqualified = createEntry("bar\\d", null);
+		document.set("foo1 bar1\nfoo2 bar2\nfoo3 bar3\n"); //$NON-NLS-1$
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		MultiPatternMatcher.MatchCollector collector = (entry, offset, length) -> {
+			try {
+				matches.get(entry).add(document.get(offset, length));
+			} catch (Exception e) {
+				throw new AssertionError(e);
+			}
+			// cancel after the second match of each entry
+			if (matches.get(entry).size() == 2) {
+				monitor.setCanceled(true);
+			}
+		};
+		Entry[] entries = new Entry[] { qualified, unqualified };
+		assertFalse(matcher.match(document, entries, monitor, collector));
+		assertEquals(Arrays.asList("foo1", "foo2"), matches.get(qualified)); //$NON-NLS-1$ //$NON-NLS-2$
+		monitor.setCanceled(false);
+		assertFalse(matcher.match(document, entries, monitor, collector));
+		assertEquals(Arrays.asList("bar1", "bar2"), matches.get(unqualified)); //$NON-NLS-1$ //$NON-NLS-2$
+		monitor.setCanceled(false);
+		assertTrue(matcher.match(document, entries, monitor, collector));
+		assertEquals("Matches reported again after cancel", Arrays.asList("foo1", "foo2", "foo3"), matches.get(qualified)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals("Matches reported again after cancel", Arrays.asList("bar1", "bar2", "bar3"), matches.get(unqualified)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.internal.core.OutputStreamMonitor;
+import org.eclipse.debug.internal.core.StreamDecoder;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures throughput and allocation of {@link OutputStreamMonitor} notifying
+ * several text and binary listeners. The baseline scenario notifies the same
+ * listeners like the monitor did before listeners were notified outside of its
+ * lock, so both scenarios can be compared in the performance results.
+ */
+public class OutputStreamMonitorPerformanceTests extends AbstractDebugTest {
+
+	/** Size of the simulated process output per run. */
+	private static final int CONTENT_SIZE = 16 * 1024 * 1024;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Test
+	public void testStreamAppendedThroughput() throws Exception {
+		byte[] content = createContent();
+		AtomicLong chars = new AtomicLong();
+		AtomicLong bytes = new AtomicLong();
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 10; i++) {
+				chars.set(0);
+				bytes.set(0);
+				PerformanceOutputStreamMonitor monitor = new PerformanceOutputStreamMonitor(new ByteArrayInputStream(content), StandardCharsets.UTF_8);
+				monitor.setBuffered(false);
+				for (int l = 0; l < 3; l++) {
+					monitor.addListener((text, m) -> chars.addAndGet(text.length()));
+				}
+				for (int l = 0; l < 2; l++) {
+					monitor.addBinaryListener((data, m) -> bytes.addAndGet(data.length));
+				}
+				// measures allocation of the reading thread from first to last notification
+				long[] allocation = new long[2];
+				AtomicLong probed = new AtomicLong();
+				monitor.addBinaryListener((data, m) -> {
+					long total = probed.addAndGet(data.length);
+					if (total == data.length) {
+						allocation[0] = getAllocatedBytes();
+					}
+					if (total == content.length) {
+						allocation[1] = getAllocatedBytes();
+					}
+				});
+
+				long start = System.nanoTime();
+				meter.start();
+				monitor.startMonitoring();
+				monitor.close();
+				meter.stop();
+				long duration = Math.max(1, System.nanoTime() - start);
+				long allocated = allocation[1] - allocation[0];
+
+				assertEquals("Wrong number of bytes notified.", 2L * content.length, bytes.get());
+				assertEquals("Wrong number of chars notified.", 3L * content.length, chars.get());
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%.1f MB/s, %d bytes allocated by reader (%.2f per byte read)", //$NON-NLS-1$
+						content.length * 1000.0 / duration, allocated, (double) allocated / content.length));
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	/**
+	 * Notifies the listeners like {@link #testStreamAppendedThroughput()} in
+	 * the way the monitor notified them before: while holding the monitor
+	 * lock, with a new decoded string per chunk, a safe runnable per listener
+	 * and chunk, and a copy of partially filled chunks.
+	 */
+	@Test
+	public void testLockedNotificationBaseline() throws Exception {
+		byte[] content = createContent();
+		AtomicLong chars = new AtomicLong();
+		AtomicLong bytes = new AtomicLong();
+
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int i = 0; i < 10; i++) {
+				chars.set(0);
+				bytes.set(0);
+				LockedNotifier notifier = new LockedNotifier(StandardCharsets.UTF_8);
+				for (int l = 0; l < 3; l++) {
+					notifier.textListeners.add(text -> chars.addAndGet(text.length()));
+				}
+				for (int l = 0; l < 2; l++) {
+					notifier.binaryListeners.add(data -> bytes.addAndGet(data.length));
+				}
+				long[] allocation = new long[2];
+				AtomicLong probed = new AtomicLong();
+				notifier.binaryListeners.add(data -> {
+					long total = probed.addAndGet(data.length);
+					if (total == data.length) {
+						allocation[0] = getAllocatedBytes();
+					}
+					if (total == content.length) {
+						allocation[1] = getAllocatedBytes();
+					}
+				});
+
+				long start = System.nanoTime();
+				meter.start();
+				notifier.read(new ByteArrayInputStream(content));
+				meter.stop();
+				long duration = Math.max(1, System.nanoTime() - start);
+				long allocated = allocation[1] - allocation[0];
+
+				assertEquals("Wrong number of bytes notified.", 2L * content.length, bytes.get());
+				assertEquals("Wrong number of chars notified.", 3L * content.length, chars.get());
+				TestUtil.log(IStatus.INFO, name.getMethodName(), String.format("%.1f MB/s, %d bytes allocated by reader (%.2f per byte read)", //$NON-NLS-1$
+						content.length * 1000.0 / duration, allocated, (double) allocated / content.length));
+				System.gc();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+
+	private static byte[] createContent() {
+		StringBuilder sb = new StringBuilder(CONTENT_SIZE);
+		for (int i = 0; sb.length() < CONTENT_SIZE; i++) {
+			sb.append("\tat org.eclipse.debug.tests.Frame").append(i).append(".run(Frame.java:").append(i % 1000).append(")\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		sb.setLength(CONTENT_SIZE);
+		return sb.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * @return bytes allocated by the current thread or <code>0</code> if the
+	 *         VM cannot report allocations
+	 */
+	private static long getAllocatedBytes() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			Class<?> extended = ClassLoader.getSystemClassLoader().loadClass("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+			if (!extended.isInstance(bean)) {
+				return 0;
+			}
+			Method method = extended.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+			return (Long) method.invoke(bean, Thread.currentThread().getId());
+		} catch (ReflectiveOperationException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Reads a stream and notifies listeners like {@link OutputStreamMonitor}
+	 * before listeners were notified outside of its lock.
+	 */
+	private static class LockedNotifier {
+
+		private static final int BUFFER_SIZE = 8192;
+
+		final List<Consumer<String>> textListeners = new CopyOnWriteArrayList<>();
+		final List<Consumer<byte[]>> binaryListeners = new CopyOnWriteArrayList<>();
+		private final StreamDecoder decoder;
+
+		LockedNotifier(Charset charset) {
+			decoder = new StreamDecoder(charset);
+		}
+
+		void read(InputStream stream) throws IOException {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				synchronized (this) {
+					fireStreamAppended(buffer, 0, read);
+				}
+			}
+		}
+
+		private void fireStreamAppended(byte[] data, int offset, int length) {
+			if (!textListeners.isEmpty()) {
+				StringBuilder sb = new StringBuilder();
+				decoder.decode(sb, data, offset, length);
+				String text = sb.toString();
+				for (Consumer<String> listener : textListeners) {
+					SafeRunner.run(new ISafeRunnable() {
+						@Override
+						public void run() throws Exception {
+							listener.accept(text);
+						}
+
+						@Override
+						public void handleException(Throwable exception) {
+							DebugPlugin.log(exception);
+						}
+					});
+				}
+			}
+			if (!binaryListeners.isEmpty()) {
+				byte[] validData;
+				if (offset > 0 || length < data.length) {
+					validData = new byte[length];
+					System.arraycopy(data, offset, validData, 0, length);
+				} else {
+					validData = data;
+				}
+				for (Consumer<byte[]> listener : binaryListeners) {
+					SafeRunner.run(new ISafeRunnable() {
+						@Override
+						public void run() throws Exception {
+							listener.accept(validData);
+						}
+
+						@Override
+						public void handleException(Throwable exception) {
+							DebugPlugin.log(exception);
+						}
+					});
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@link OutputStreamMonitor} with public {@link #startMonitoring()} and
+	 * {@link #close()}.
+	 */
+	private static class PerformanceOutputStreamMonitor extends OutputStreamMonitor {
+
+		public PerformanceOutputStreamMonitor(InputStream stream, Charset charset) {
+			super(stream, charset);
+		}
+
+		@Override
+		public void startMonitoring() {
+			super.startMonitoring();
+		}
+
+		@Override
+		public void close() {
+			super.close();
+		}
+	}
+}
@@ -15,6 +15,8 @@ package org.eclipse.debug.tests.console;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -24,6 +26,7 @@ import java.io.PipedOutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.eclipse.debug.core.IBinaryStreamListener;
 import org.eclipse.debug.core.IStreamListener;
@@ -157,6 +160,148 @@ public class OutputStreamMonitorTests extends AbstractDebugTest {
 		}
 	}
 
+	/**
+	 * Test limited buffer discarding old content and windowed access to the
+	 * buffered content.
+	 */
+	@Test
+	public void testBufferLimit() throws Exception {
+		final int limit = 32 * 1024;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; sb.length() < 100_000; i++) {
+			sb.append("line ").append(i).append('\n');
+		}
+		byte[] byteInput = sb.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			monitor.addBinaryListener(fBinaryListener);
+			monitor.setBufferLimit(limit);
+			monitor.startMonitoring();
+			sysout.write(byteInput);
+			sysout.flush();
+			TestUtil.waitWhile(() -> notifiedBytes.size() < byteInput.length, 1000);
+
+			long start = monitor.getDataStart();
+			long end = monitor.getDataEnd();
+			assertEquals("Wrong end position.", byteInput.length, end);
+			assertTrue("Old content not discarded.", start > 0);
+			assertTrue("Too much content buffered.", end - start <= 2 * limit);
+			assertArrayEquals("Wrong buffered content.", Arrays.copyOfRange(byteInput, (int) start, byteInput.length), monitor.getData());
+			assertEquals("Wrong decoded content.", new String(byteInput, (int) start, (int) (end - start), StandardCharsets.UTF_8), monitor.getContents());
+
+			byte[] window = new byte[100];
+			assertEquals("Wrong window size.", window.length, monitor.readData(end - 150, window, 0, window.length));
+			assertArrayEquals("Wrong window content.", Arrays.copyOfRange(byteInput, (int) end - 150, (int) end - 50), window);
+			assertEquals("Read after end.", -1, monitor.readData(end, window, 0, window.length));
+			assertThrows(IndexOutOfBoundsException.class, () -> monitor.readData(0, window, 0, window.length));
+		} finally {
+			sysout.close();
+			monitor.close();
+		}
+	}
+
+	/**
+	 * Test that decoding the buffered content starts at a complete character
+	 * if the start of a multibyte character was discarded.
+	 */
+	@Test
+	public void testBufferLimitMultibyte() throws Exception {
+		final int limit = 32 * 1024;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; sb.length() < 100_000; i++) {
+			sb.append("\u00F6\u20AC ").append(i).append('\n');
+		}
+		byte[] byteInput = sb.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			monitor.addBinaryListener(fBinaryListener);
+			monitor.setBufferLimit(limit);
+			monitor.startMonitoring();
+			sysout.write(byteInput);
+			sysout.flush();
+			TestUtil.waitWhile(() -> notifiedBytes.size() < byteInput.length, 1000);
+
+			int start = (int) monitor.getDataStart();
+			assertTrue("Old content not discarded.", start > 0);
+			while ((byteInput[start] & 0xC0) == 0x80) {
+				start++;
+			}
+			String contents = monitor.getContents();
+			assertEquals("Wrong decoded content.", new String(byteInput, start, byteInput.length - start, StandardCharsets.UTF_8), contents);
+			assertEquals("Broken character decoded.", -1, contents.indexOf('\uFFFD'));
+		} finally {
+			sysout.close();
+			monitor.close();
+		}
+	}
+
+	/**
+	 * Test that the decoded content stays correct if it is requested while
+	 * content is appended and old content is discarded.
+	 */
+	@Test
+	public void testBufferLimitIncrementalDecoding() throws Exception {
+		final int limit = 32 * 1024;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; sb.length() < 100_000; i++) {
+			sb.append("\u00F6\u20AC ").append(i).append('\n');
+		}
+		byte[] byteInput = sb.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			monitor.addBinaryListener(fBinaryListener);
+			monitor.setBufferLimit(limit);
+			monitor.startMonitoring();
+			// odd portion size to split characters and chunks at varying positions
+			for (int written = 0; written < byteInput.length;) {
+				int length = Math.min(3001, byteInput.length - written);
+				sysout.write(byteInput, written, length);
+				sysout.flush();
+				written += length;
+				final int expected = written;
+				TestUtil.waitWhile(() -> notifiedBytes.size() < expected, 1000);
+
+				int start = (int) monitor.getDataStart();
+				while ((byteInput[start] & 0xC0) == 0x80) {
+					start++;
+				}
+				// the start of a character split by the portion is not decoded yet
+				int end = written;
+				while (end < byteInput.length && (byteInput[end] & 0xC0) == 0x80) {
+					end--;
+				}
+				assertEquals("Wrong decoded content after " + written + " bytes.", new String(byteInput, start, end - start, StandardCharsets.UTF_8), monitor.getContents());
+			}
+		} finally {
+			sysout.close();
+			monitor.close();
+		}
+	}
+
+	/**
+	 * Test that a multibyte character split by a flush of the buffered content
+	 * is decoded completely.
+	 */
+	@Test
+	public void testFlushSplitCharacter() throws Exception {
+		byte[] euro = "\u20AC".getBytes(StandardCharsets.UTF_8);
+		try {
+			monitor.addBinaryListener(fBinaryListener);
+			monitor.startMonitoring();
+			sysout.write(euro, 0, 1);
+			sysout.flush();
+			TestUtil.waitWhile(() -> notifiedBytes.size() < 1, 1000);
+			monitor.flushContents();
+			sysout.write(euro, 1, euro.length - 1);
+			sysout.write('x');
+			sysout.flush();
+			TestUtil.waitWhile(() -> notifiedBytes.size() < euro.length + 1, 1000);
+
+			assertEquals("Wrong decoded content.", "\u20ACx", monitor.getContents());
+			assertArrayEquals("Flushed content still buffered.", new byte[] { euro[1], euro[2], 'x' }, monitor.getData());
+		} finally {
+			sysout.close();
+			monitor.close();
+		}
+	}
+
 	/**
 	 * Test that passing <code>null</code> as charset does not raise exceptions.
 	 */
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.console;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.model.IBinaryStreamsProxy;
+import org.eclipse.debug.core.model.RuntimeProcess;
+import org.eclipse.debug.internal.core.DebugCoreMessages;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.ProcessIOEngine;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the shared {@link ProcessIOEngine} servicing process streams.
+ */
+public class ProcessIOEngineTests extends AbstractDebugTest {
+
+	/** Number of processes started by the stress test. */
+	private static final int STRESS_PROCESSES = 300;
+
+	/** Number of output lines each stress test process writes per stream. */
+	private static final int STRESS_LINES = 500;
+
+	/**
+	 * Threads which may be started besides the engine threads while the
+	 * stress test runs, e.g. job workers dispatching debug events.
+	 */
+	private static final int STRESS_THREAD_MARGIN = 8;
+
+	private IEclipsePreferences fPreferences;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fPreferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		fPreferences.putBoolean(IInternalDebugCoreConstants.PREF_SHARED_PROCESS_IO, true);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fPreferences.remove(IInternalDebugCoreConstants.PREF_SHARED_PROCESS_IO);
+		super.tearDown();
+	}
+
+	/**
+	 * Test that output is completely read and the process terminates if
+	 * serviced by the engine.
+	 */
+	@Test
+	public void testOutputAndTermination() throws Exception {
+		byte[] out = createOutput("out", 1000);
+		byte[] err = createOutput("err", 100);
+		MockProcess mockProcess = new MockProcess(new ByteArrayInputStream(out), new ByteArrayInputStream(err), 100);
+		RuntimeProcess runtimeProcess = mockProcess.toRuntimeProcess();
+
+		TestUtil.waitWhile(p -> !p.isTerminated(), runtimeProcess, testTimeout, p -> "RuntimeProcess not terminated.");
+		IBinaryStreamsProxy proxy = (IBinaryStreamsProxy) runtimeProcess.getStreamsProxy();
+		assertNotNull(proxy);
+		assertArrayEquals(out, proxy.getBinaryOutputStreamMonitor().getData());
+		assertArrayEquals(err, proxy.getBinaryErrorStreamMonitor().getData());
+	}
+
+	/**
+	 * Test that input written to the streams proxy reaches the process.
+	 */
+	@Test
+	public void testInput() throws Exception {
+		String input = "input for the mockup process\n";
+		MockProcess mockProcess = new MockProcess(input.length(), testTimeout);
+		RuntimeProcess runtimeProcess = mockProcess.toRuntimeProcess();
+
+		runtimeProcess.getStreamsProxy().write(input);
+		TestUtil.waitWhile(p -> !p.isTerminated(), runtimeProcess, testTimeout, p -> "RuntimeProcess not terminated.");
+		assertEquals(input, new String(mockProcess.getReceivedInput(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test terminating a process which does not stop on its own.
+	 */
+	@Test
+	public void testTerminate() throws Exception {
+		MockProcess mockProcess = new MockProcess(MockProcess.RUN_FOREVER);
+		RuntimeProcess runtimeProcess = mockProcess.toRuntimeProcess();
+		assertFalse("RuntimeProcess already terminated.", runtimeProcess.isTerminated());
+
+		runtimeProcess.terminate();
+		TestUtil.waitWhile(p -> !p.isTerminated(), runtimeProcess, testTimeout, p -> "RuntimeProcess not terminated.");
+	}
+
+	/**
+	 * Test that more processes than engine threads which could not be
+	 * terminated are still reported as terminated. Notifying their
+	 * termination must not wait for stream reads on the engine's own threads.
+	 */
+	@Test
+	public void testTerminateFailedForManyProcesses() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			List<RuntimeProcess> processes = new ArrayList<>();
+			List<Thread> terminators = new ArrayList<>();
+			List<DebugException> failures = Collections.synchronizedList(new ArrayList<>());
+			for (int i = 0; i <= ProcessIOEngine.getDefault().getMaximumThreadCount(); i++) {
+				MockProcess mockProcess = new MockProcess(new OpenInputStream(release), new OpenInputStream(release), MockProcess.RUN_FOREVER);
+				mockProcess.setTerminationDelay(6000);
+				RuntimeProcess runtimeProcess = mockProcess.toRuntimeProcess("terminate failed " + i);
+				processes.add(runtimeProcess);
+				Thread terminator = new Thread(() -> {
+					try {
+						runtimeProcess.terminate();
+					} catch (DebugException e) {
+						failures.add(e);
+					}
+				});
+				terminator.start();
+				terminators.add(terminator);
+			}
+			for (Thread terminator : terminators) {
+				terminator.join(testTimeout);
+			}
+			assertEquals("Termination did not fail.", processes.size(), failures.size());
+			for (RuntimeProcess process : processes) {
+				TestUtil.waitWhile(p -> !p.isTerminated(), process, testTimeout, p -> "RuntimeProcess not terminated.");
+			}
+		} finally {
+			release.countDown();
+		}
+	}
+
+	/**
+	 * Test that streams kept open after their process terminated, e.g. by a
+	 * child process, neither block the process termination nor the engine.
+	 */
+	@Test
+	public void testStreamOpenAfterTermination() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			List<RuntimeProcess> processes = new ArrayList<>();
+			for (int i = 0; i <= ProcessIOEngine.getDefault().getMaximumThreadCount(); i++) {
+				MockProcess mockProcess = new MockProcess(new OpenInputStream(release), new OpenInputStream(release), 0);
+				processes.add(mockProcess.toRuntimeProcess("open stream " + i));
+			}
+			for (RuntimeProcess process : processes) {
+				TestUtil.waitWhile(p -> !p.isTerminated(), process, testTimeout, p -> "RuntimeProcess not terminated.");
+			}
+
+			byte[] out = createOutput("out", 100);
+			MockProcess mockProcess = new MockProcess(new ByteArrayInputStream(out), null, 0);
+			RuntimeProcess runtimeProcess = mockProcess.toRuntimeProcess();
+			TestUtil.waitWhile(p -> !p.isTerminated(), runtimeProcess, testTimeout, p -> "RuntimeProcess not terminated.");
+			assertArrayEquals(out, ((IBinaryStreamsProxy) runtimeProcess.getStreamsProxy()).getBinaryOutputStreamMonitor().getData());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	/**
+	 * Starts hundreds of chatty processes and checks that the number of
+	 * threads stays bounded. Reports thread count and throughput.
+	 */
+	@Test
+	public void testManyChattyProcesses() throws Exception {
+		List<RuntimeProcess> processes = new ArrayList<>();
+		List<byte[]> outputs = new ArrayList<>();
+		long start = System.currentTimeMillis();
+		int baseThreads = Thread.activeCount();
+		int peakThreads = 0;
+		int peakStreamThreads = 0;
+		for (int i = 0; i < STRESS_PROCESSES; i++) {
+			byte[] out = createOutput("process " + i + " out", STRESS_LINES);
+			byte[] err = createOutput("process " + i + " err", STRESS_LINES);
+			outputs.add(out);
+			MockProcess mockProcess = new MockProcess(new ByteArrayInputStream(out), new ByteArrayInputStream(err), 500);
+			processes.add(mockProcess.toRuntimeProcess("stress " + i));
+			peakThreads = Math.max(peakThreads, Thread.activeCount());
+			peakStreamThreads = Math.max(peakStreamThreads, countStreamThreads());
+		}
+		for (RuntimeProcess process : processes) {
+			TestUtil.waitWhile(p -> !p.isTerminated(), process, testTimeout, p -> "RuntimeProcess not terminated.");
+			peakThreads = Math.max(peakThreads, Thread.activeCount());
+			peakStreamThreads = Math.max(peakStreamThreads, countStreamThreads());
+		}
+		long duration = Math.max(1, System.currentTimeMillis() - start);
+
+		long bytes = 0;
+		for (int i = 0; i < processes.size(); i++) {
+			IBinaryStreamsProxy proxy = (IBinaryStreamsProxy) processes.get(i).getStreamsProxy();
+			byte[] out = proxy.getBinaryOutputStreamMonitor().getData();
+			assertArrayEquals("Output of process " + i + " incomplete.", outputs.get(i), out);
+			bytes += out.length + proxy.getBinaryErrorStreamMonitor().getData().length;
+		}
+		TestUtil.log(IStatus.INFO, name.getMethodName(), STRESS_PROCESSES + " processes, " + bytes + " bytes in " + duration + " ms (" + (bytes / duration) + " KB/s), peak threads: " + peakThreads + ", peak stream threads: " + peakStreamThreads); //$NON-NLS-1$
+		assertTrue("Too many stream threads: " + peakStreamThreads, peakStreamThreads <= ProcessIOEngine.getDefault().getMaximumThreadCount());
+		int startedThreads = peakThreads - baseThreads;
+		assertTrue("Too many threads started: " + startedThreads, startedThreads <= ProcessIOEngine.getDefault().getMaximumThreadCount() + STRESS_THREAD_MARGIN);
+	}
+
+	/**
+	 * @return number of live threads reading, writing or monitoring process
+	 *         streams
+	 */
+	private static int countStreamThreads() {
+		Thread[] threads = new Thread[Thread.activeCount() * 2];
+		int count = Thread.enumerate(threads);
+		int streamThreads = 0;
+		for (int i = 0; i < count; i++) {
+			String threadName = threads[i].getName();
+			if (threadName.startsWith(DebugCoreMessages.OutputStreamMonitor_label) || threadName.startsWith(DebugCoreMessages.InputStreamMonitor_label) || threadName.startsWith(DebugCoreMessages.ProcessMonitorJob_0) || threadName.startsWith(DebugCoreMessages.ProcessIOEngine_threadName)) {
+				streamThreads++;
+			}
+		}
+		return streamThreads;
+	}
+
+	/**
+	 * A stream which has nothing available and blocks reading until released,
+	 * like a pipe kept open by a child of the terminated process.
+	 */
+	private static class OpenInputStream extends InputStream {
+		private final CountDownLatch fRelease;
+
+		OpenInputStream(CountDownLatch release) {
+			fRelease = release;
+		}
+
+		@Override
+		public int read() {
+			try {
+				fRelease.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return -1;
+		}
+	}
+
+	private static byte[] createOutput(String prefix, int lines) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			sb.append(prefix).append(" line ").append(i).append('\n');
+		}
+		return sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.events;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.internal.core.EventDispatchStatistics;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the batched and coalesced dispatch of debug events.
+ */
+public class EventDispatchTests extends AbstractDebugTest {
+
+	/** Maximum number of events delivered in one merged event set. */
+	private static final int MAX_BATCH_SIZE = 1000;
+
+	/**
+	 * Source of the events fired by this test. Events of other sources are
+	 * ignored.
+	 */
+	private static class Source {
+		final String fName;
+
+		Source(String name) {
+			fName = name;
+		}
+
+		@Override
+		public String toString() {
+			return fName;
+		}
+	}
+
+	/** Source of the event used to block the event dispatch. */
+	private final Source fBlocker = new Source("blocker"); //$NON-NLS-1$
+
+	/** Counted down once the event dispatch is blocked. */
+	private CountDownLatch fBlocked;
+
+	/** Releases the blocked event dispatch. */
+	private CountDownLatch fRelease;
+
+	/** The received event sets and runnable markers in delivery order. */
+	private final List<Object> fReceived = Collections.synchronizedList(new ArrayList<>());
+
+	private final IDebugEventSetListener fListener = events -> {
+		List<DebugEvent> own = new ArrayList<>();
+		for (DebugEvent event : events) {
+			if (event.getSource() instanceof Source) {
+				own.add(event);
+			}
+		}
+		if (!own.isEmpty() && own.get(0).getSource() == fBlocker) {
+			own.remove(0);
+			fBlocked.countDown();
+			try {
+				fRelease.await(testTimeout, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (!own.isEmpty()) {
+			fReceived.add(own.toArray(new DebugEvent[own.size()]));
+		}
+	};
+
+	private IEclipsePreferences fPreferences;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fBlocked = new CountDownLatch(1);
+		fRelease = new CountDownLatch(1);
+		fPreferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		fPreferences.putBoolean(IInternalDebugCoreConstants.PREF_BATCH_DEBUG_EVENTS, true);
+		DebugPlugin.getDefault().addDebugEventListener(fListener);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fRelease.countDown();
+		DebugPlugin.getDefault().removeDebugEventListener(fListener);
+		fPreferences.remove(IInternalDebugCoreConstants.PREF_BATCH_DEBUG_EVENTS);
+		fPreferences.remove(IInternalDebugCoreConstants.PREF_COALESCE_DEBUG_EVENTS);
+		super.tearDown();
+	}
+
+	/**
+	 * Test that event sets queued in a row are delivered as one event set in
+	 * the order they were fired.
+	 */
+	@Test
+	public void testMergedDelivery() throws Exception {
+		blockDispatch();
+		List<DebugEvent> fired = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			DebugEvent[] set = new DebugEvent[] {
+					new DebugEvent(new Source("first " + i), DebugEvent.CREATE), //$NON-NLS-1$
+					new DebugEvent(new Source("second " + i), DebugEvent.CREATE) }; //$NON-NLS-1$
+			Collections.addAll(fired, set);
+			DebugPlugin.getDefault().fireDebugEventSet(set);
+		}
+		releaseDispatch(fired.size());
+
+		assertEquals("Event sets not merged.", 1, fReceived.size()); //$NON-NLS-1$
+		assertArrayEquals("Wrong merged events.", fired.toArray(), (Object[]) fReceived.get(0)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Test that merged event sets do not exceed the maximum batch size.
+	 */
+	@Test
+	public void testBatchSizeLimit() throws Exception {
+		blockDispatch();
+		int count = MAX_BATCH_SIZE + MAX_BATCH_SIZE / 2;
+		for (int i = 0; i < count; i++) {
+			DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+					new DebugEvent(new Source("source " + i), DebugEvent.CREATE) }); //$NON-NLS-1$
+		}
+		releaseDispatch(count);
+
+		assertTrue("Event sets not merged.", fReceived.size() > 1 && fReceived.size() < count); //$NON-NLS-1$
+		for (Object set : fReceived) {
+			assertTrue("Merged event set too large.", ((DebugEvent[]) set).length <= MAX_BATCH_SIZE); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Test that only change events repeating kind, detail and data of the
+	 * previous event of the same source are dropped.
+	 */
+	@Test
+	public void testCoalesceIdenticalEvents() throws Exception {
+		fPreferences.putBoolean(IInternalDebugCoreConstants.PREF_COALESCE_DEBUG_EVENTS, true);
+		Source source = new Source("source"); //$NON-NLS-1$
+		DebugEvent content = new DebugEvent(source, DebugEvent.CHANGE, DebugEvent.CONTENT);
+		DebugEvent repeated = new DebugEvent(source, DebugEvent.CHANGE, DebugEvent.CONTENT);
+		DebugEvent state = new DebugEvent(source, DebugEvent.CHANGE, DebugEvent.STATE);
+		DebugEvent data = new DebugEvent(source, DebugEvent.CHANGE, DebugEvent.STATE);
+		data.setData("data"); //$NON-NLS-1$
+		DebugEvent other = new DebugEvent(new Source("other"), DebugEvent.CHANGE, DebugEvent.STATE); //$NON-NLS-1$
+		DebugEvent suspend = new DebugEvent(source, DebugEvent.SUSPEND);
+		DebugEvent repeatedSuspend = new DebugEvent(source, DebugEvent.SUSPEND);
+
+		long coalesced = EventDispatchStatistics.getDefault().getCoalescedCount();
+		blockDispatch();
+		DebugEvent[][] sets = new DebugEvent[][] { { content }, { repeated },
+				{ state, data }, { other }, { suspend }, { repeatedSuspend } };
+		for (DebugEvent[] set : sets) {
+			DebugPlugin.getDefault().fireDebugEventSet(set);
+		}
+		DebugEvent[] expected = new DebugEvent[] { content, state, data, other, suspend, repeatedSuspend };
+		releaseDispatch(expected.length);
+
+		assertEquals("Event sets not merged.", 1, fReceived.size()); //$NON-NLS-1$
+		assertArrayEquals("Wrong coalesced events.", expected, (Object[]) fReceived.get(0)); //$NON-NLS-1$
+		assertTrue("Coalesced event not counted.", EventDispatchStatistics.getDefault().getCoalescedCount() > coalesced); //$NON-NLS-1$
+	}
+
+	/**
+	 * Test that a runnable runs after the events queued before it and before
+	 * the events queued after it.
+	 */
+	@Test
+	public void testRunnableOrder() throws Exception {
+		blockDispatch();
+		DebugEvent before = new DebugEvent(new Source("before"), DebugEvent.CREATE); //$NON-NLS-1$
+		DebugEvent after = new DebugEvent(new Source("after"), DebugEvent.CREATE); //$NON-NLS-1$
+		String marker = "runnable"; //$NON-NLS-1$
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { before });
+		DebugPlugin.getDefault().asyncExec(() -> fReceived.add(marker));
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { after });
+		fRelease.countDown();
+		TestUtil.waitWhile(() -> fReceived.size() < 3, testTimeout);
+
+		assertEquals("Wrong number of deliveries.", 3, fReceived.size()); //$NON-NLS-1$
+		assertArrayEquals("Events queued before runnable not delivered first.", new Object[] { before }, (Object[]) fReceived.get(0)); //$NON-NLS-1$
+		assertSame("Runnable not run in order.", marker, fReceived.get(1)); //$NON-NLS-1$
+		assertArrayEquals("Events queued after runnable not delivered last.", new Object[] { after }, (Object[]) fReceived.get(2)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Test that the dispatch statistics never become negative while events
+	 * are fired from several threads.
+	 */
+	@Test
+	public void testStatisticsNotNegative() throws Exception {
+		EventDispatchStatistics statistics = EventDispatchStatistics.getDefault();
+		statistics.reset();
+		int threads = 4;
+		int events = 2000;
+		List<Thread> firing = new ArrayList<>();
+		boolean[] negative = new boolean[1];
+		for (int t = 0; t < threads; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < events; i++) {
+					DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+							new DebugEvent(new Source("source " + i), DebugEvent.CHANGE) }); //$NON-NLS-1$
+					if (statistics.getQueueDepth() < 0) {
+						negative[0] = true;
+					}
+				}
+			}, "Event Firing Thread " + t); //$NON-NLS-1$
+			firing.add(thread);
+			thread.start();
+		}
+		for (Thread thread : firing) {
+			thread.join(testTimeout);
+		}
+		TestUtil.waitWhile(() -> receivedEvents() < threads * events, testTimeout);
+
+		assertEquals("Events lost.", threads * events, receivedEvents()); //$NON-NLS-1$
+		assertFalse("Negative queue depth observed.", negative[0]); //$NON-NLS-1$
+		assertTrue("Negative queue depth.", statistics.getQueueDepth() >= 0); //$NON-NLS-1$
+		assertTrue("Negative maximum queue depth.", statistics.getMaxQueueDepth() >= 0); //$NON-NLS-1$
+		assertTrue("Dispatched items not counted.", statistics.getDispatchedCount() >= threads * events); //$NON-NLS-1$
+		assertTrue("Negative batch count.", statistics.getBatchCount() >= 0); //$NON-NLS-1$
+		assertTrue("Negative coalesced count.", statistics.getCoalescedCount() >= 0); //$NON-NLS-1$
+		assertTrue("Negative latency.", statistics.getAverageLatency() >= 0 && statistics.getMaxLatency() >= 0); //$NON-NLS-1$
+	}
+
+	/**
+	 * Fires an event whose delivery blocks the event dispatch until
+	 * {@link #fRelease} is counted down.
+	 */
+	private void blockDispatch() throws Exception {
+		DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] {
+				new DebugEvent(fBlocker, DebugEvent.CHANGE) });
+		TestUtil.waitWhile(() -> fBlocked.getCount() > 0, testTimeout);
+		assertEquals("Event dispatch not blocked.", 0, fBlocked.getCount()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Releases the blocked event dispatch and waits for the given number of
+	 * events.
+	 *
+	 * @param expected number of events to wait for
+	 */
+	private void releaseDispatch(int expected) throws Exception {
+		fRelease.countDown();
+		TestUtil.waitWhile(() -> receivedEvents() < expected, testTimeout);
+		assertEquals("Wrong number of events received.", expected, receivedEvents()); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return number of received events
+	 */
+	private int receivedEvents() {
+		int count = 0;
+		synchronized (fReceived) {
+			for (Object item : fReceived) {
+				if (item instanceof DebugEvent[]) {
+					count += ((DebugEvent[]) item).length;
+				}
+			}
+		}
+		return count;
+	}
+}
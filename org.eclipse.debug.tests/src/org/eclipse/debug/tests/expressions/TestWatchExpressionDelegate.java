@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.expressions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IValue;
+import org.eclipse.debug.core.model.IWatchExpressionDelegate2;
+import org.eclipse.debug.core.model.IWatchExpressionListener;
+import org.eclipse.debug.core.model.IWatchExpressionResult;
+
+/**
+ * Watch expression delegate recording the expressions it is asked to
+ * evaluate. Each expression evaluates without errors to a <code>null</code>
+ * value.
+ */
+public class TestWatchExpressionDelegate implements IWatchExpressionDelegate2 {
+
+	/**
+	 * Debug model the delegate is contributed for.
+	 */
+	public static final String MODEL_ID = "org.eclipse.debug.tests.watchExpressions"; //$NON-NLS-1$
+
+	/**
+	 * The expressions of each evaluation request, in order.
+	 */
+	public static final List<List<String>> EVALUATIONS = Collections.synchronizedList(new ArrayList<>());
+
+	@Override
+	public void evaluateExpression(String expression, IDebugElement context, IWatchExpressionListener listener) {
+		evaluateExpressions(new String[] { expression }, context, listener, null);
+	}
+
+	@Override
+	public void evaluateExpressions(String[] expressions, IDebugElement context, IWatchExpressionListener listener, IProgressMonitor monitor) {
+		List<String> evaluation = new ArrayList<>();
+		Collections.addAll(evaluation, expressions);
+		EVALUATIONS.add(evaluation);
+		for (String expression : expressions) {
+			listener.watchEvaluationFinished(new IWatchExpressionResult() {
+				@Override
+				public IValue getValue() {
+					return null;
+				}
+
+				@Override
+				public boolean hasErrors() {
+					return false;
+				}
+
+				@Override
+				public String[] getErrorMessages() {
+					return new String[0];
+				}
+
+				@Override
+				public String getExpressionText() {
+					return expression;
+				}
+
+				@Override
+				public DebugException getException() {
+					return null;
+				}
+			});
+		}
+	}
+}
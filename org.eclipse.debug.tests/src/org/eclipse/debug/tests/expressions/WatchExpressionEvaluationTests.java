@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.expressions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.IExpressionManager;
+import org.eclipse.debug.core.model.IDebugElement;
+import org.eclipse.debug.core.model.IDebugTarget;
+import org.eclipse.debug.core.model.IWatchExpression;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the evaluation of watch expressions in batches per context and the
+ * caching of their results.
+ */
+public class WatchExpressionEvaluationTests extends AbstractDebugTest {
+
+	private IDebugTarget fTarget;
+	private IDebugElement fContext;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		TestUtil.waitForJobs(name.getMethodName(), 0, 1000);
+		TestWatchExpressionDelegate.EVALUATIONS.clear();
+		fTarget = (IDebugTarget) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { IDebugTarget.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals": //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				case "hashCode": //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				case "getDebugTarget": //$NON-NLS-1$
+					return proxy;
+				case "getModelIdentifier": //$NON-NLS-1$
+					return TestWatchExpressionDelegate.MODEL_ID;
+				default:
+					return null;
+			}
+		});
+		fContext = (IDebugElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { IDebugElement.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals": //$NON-NLS-1$
+					return Boolean.valueOf(proxy == args[0]);
+				case "hashCode": //$NON-NLS-1$
+					return Integer.valueOf(System.identityHashCode(proxy));
+				case "getDebugTarget": //$NON-NLS-1$
+					return fTarget;
+				case "getModelIdentifier": //$NON-NLS-1$
+					return TestWatchExpressionDelegate.MODEL_ID;
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static IWatchExpression[] newWatchExpressions(String... texts) {
+		IExpressionManager manager = DebugPlugin.getDefault().getExpressionManager();
+		IWatchExpression[] expressions = new IWatchExpression[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			expressions[i] = manager.newWatchExpression(texts[i]);
+		}
+		return expressions;
+	}
+
+	private void evaluate(IWatchExpression... expressions) throws Exception {
+		for (IWatchExpression expression : expressions) {
+			expression.setExpressionContext(fContext);
+		}
+		waitForResults(expressions);
+	}
+
+	private void waitForResults(IWatchExpression... expressions) throws Exception {
+		assertFalse("evaluation not finished", TestUtil.waitWhile(() -> { //$NON-NLS-1$
+			for (IWatchExpression expression : expressions) {
+				if (expression.isPending()) {
+					return true;
+				}
+			}
+			return false;
+		}, testTimeout));
+	}
+
+	@Test
+	public void testExpressionsEvaluatedTogether() throws Exception {
+		evaluate(newWatchExpressions("a", "b", "c")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(1, TestWatchExpressionDelegate.EVALUATIONS.size());
+		assertEquals(List.of("a", "b", "c"), TestWatchExpressionDelegate.EVALUATIONS.get(0)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testResultCachedUntilResume() throws Exception {
+		IWatchExpression[] expressions = newWatchExpressions("x", "x"); //$NON-NLS-1$ //$NON-NLS-2$
+		evaluate(expressions[0]);
+		evaluate(expressions[1]);
+		assertEquals(1, TestWatchExpressionDelegate.EVALUATIONS.size());
+		assertFalse(expressions[1].hasErrors());
+
+		// listeners are notified in order, so the cache is invalidated once
+		// this listener is notified
+		CountDownLatch resumed = new CountDownLatch(1);
+		IDebugEventSetListener listener = events -> {
+			for (DebugEvent event : events) {
+				if (event.getSource() == fTarget && event.getKind() == DebugEvent.RESUME) {
+					resumed.countDown();
+				}
+			}
+		};
+		DebugPlugin.getDefault().addDebugEventListener(listener);
+		try {
+			DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[] { new DebugEvent(fTarget, DebugEvent.RESUME) });
+			assertTrue("resume not notified", resumed.await(testTimeout, TimeUnit.MILLISECONDS)); //$NON-NLS-1$
+		} finally {
+			DebugPlugin.getDefault().removeDebugEventListener(listener);
+		}
+		evaluate(expressions[1]);
+		assertEquals(2, TestWatchExpressionDelegate.EVALUATIONS.size());
+	}
+
+	@Test
+	public void testReevaluateIgnoresCache() throws Exception {
+		IWatchExpression[] expressions = newWatchExpressions("y"); //$NON-NLS-1$
+		evaluate(expressions);
+		expressions[0].evaluate();
+		waitForResults(expressions);
+		assertEquals(2, TestWatchExpressionDelegate.EVALUATIONS.size());
+	}
+}
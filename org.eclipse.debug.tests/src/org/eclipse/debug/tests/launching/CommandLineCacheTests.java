@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.core.externaltools.internal.IExternalToolConstants;
+import org.eclipse.core.externaltools.internal.launchConfigurations.CommandLineCache;
+import org.eclipse.core.externaltools.internal.launchConfigurations.CommandLineCache.ResolvedCommand;
+import org.eclipse.core.externaltools.internal.launchConfigurations.ProgramLaunchDelegate;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.console.MockProcess;
+import org.junit.Test;
+
+/**
+ * Tests reusing the resolved command lines of external tools and waiting for
+ * external tools launched in the foreground.
+ */
+@SuppressWarnings("restriction")
+public class CommandLineCacheTests extends AbstractLaunchTest {
+
+	private ILaunchConfigurationWorkingCopy newConfiguration(String location, String arguments) throws CoreException {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(IExternalToolConstants.ID_PROGRAM_LAUNCH_CONFIGURATION_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(null, name.getMethodName());
+		wc.setAttribute(IExternalToolConstants.ATTR_LOCATION, location);
+		wc.setAttribute(IExternalToolConstants.ATTR_TOOL_ARGUMENTS, arguments);
+		return wc;
+	}
+
+	private static ResolvedCommand newCommand(File program, String... arguments) {
+		IPath location = new Path(program.getAbsolutePath());
+		String[] commandLine = new String[arguments.length + 1];
+		commandLine[0] = location.toOSString();
+		System.arraycopy(arguments, 0, commandLine, 1, arguments.length);
+		return new ResolvedCommand(location, null, commandLine, null);
+	}
+
+	private static File getJava() {
+		File bin = new File(System.getProperty("java.home"), "bin"); //$NON-NLS-1$ //$NON-NLS-2$
+		File java = new File(bin, "java"); //$NON-NLS-1$
+		return java.isFile() ? java : new File(bin, "java.exe"); //$NON-NLS-1$
+	}
+
+	private static IStringVariableManager getVariableManager() {
+		return VariablesPlugin.getDefault().getStringVariableManager();
+	}
+
+	/**
+	 * Tests that a resolved command line is reused.
+	 */
+	@Test
+	public void testCacheHit() throws Exception {
+		File java = getJava();
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(java.getAbsolutePath(), "-version"); //$NON-NLS-1$
+		ResolvedCommand command = newCommand(java, "-version"); //$NON-NLS-1$
+		CommandLineCache cache = CommandLineCache.getDefault();
+		cache.put(wc, command);
+		assertSame("Command line not reused", command, cache.get(wc)); //$NON-NLS-1$
+
+		wc.setAttribute(IExternalToolConstants.ATTR_TOOL_ARGUMENTS, "-help"); //$NON-NLS-1$
+		assertNull("Command line of changed configuration reused", cache.get(wc)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the cache is cleared when a value variable changes.
+	 */
+	@Test
+	public void testValueVariableChanged() throws Exception {
+		IStringVariableManager manager = getVariableManager();
+		IValueVariable variable = manager.newValueVariable(name.getMethodName(), null, false, "-version"); //$NON-NLS-1$
+		manager.addVariables(new IValueVariable[] { variable });
+		try {
+			File java = getJava();
+			ILaunchConfigurationWorkingCopy wc = newConfiguration(java.getAbsolutePath(), "${" + name.getMethodName() + '}'); //$NON-NLS-1$
+			CommandLineCache cache = CommandLineCache.getDefault();
+			cache.put(wc, newCommand(java, "-version")); //$NON-NLS-1$
+			assertNotNull("Command line not cached", cache.get(wc)); //$NON-NLS-1$
+
+			variable.setValue("-help"); //$NON-NLS-1$
+			assertNull("Command line of changed variable reused", cache.get(wc)); //$NON-NLS-1$
+		} finally {
+			manager.removeVariables(new IValueVariable[] { variable });
+		}
+	}
+
+	/**
+	 * Tests that command lines depending on the context are not cached, also
+	 * if referenced through a value variable.
+	 */
+	@Test
+	public void testContextDependentNotCached() throws Exception {
+		File java = getJava();
+		CommandLineCache cache = CommandLineCache.getDefault();
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(java.getAbsolutePath(), "${selected_resource_loc}"); //$NON-NLS-1$
+		cache.put(wc, newCommand(java, "file")); //$NON-NLS-1$
+		assertNull("Context dependent command line cached", cache.get(wc)); //$NON-NLS-1$
+
+		IStringVariableManager manager = getVariableManager();
+		IValueVariable variable = manager.newValueVariable(name.getMethodName(), null, false, "${selected_resource_loc}"); //$NON-NLS-1$
+		manager.addVariables(new IValueVariable[] { variable });
+		try {
+			wc.setAttribute(IExternalToolConstants.ATTR_TOOL_ARGUMENTS, "${" + name.getMethodName() + '}'); //$NON-NLS-1$
+			cache.put(wc, newCommand(java, "file")); //$NON-NLS-1$
+			assertNull("Context dependent value variable cached", cache.get(wc)); //$NON-NLS-1$
+		} finally {
+			manager.removeVariables(new IValueVariable[] { variable });
+		}
+	}
+
+	/**
+	 * Tests that a command line is dropped when its program no longer exists.
+	 */
+	@Test
+	public void testMissingProgram() throws Exception {
+		File program = File.createTempFile("tool", ".exe"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			ILaunchConfigurationWorkingCopy wc = newConfiguration(program.getAbsolutePath(), null);
+			CommandLineCache cache = CommandLineCache.getDefault();
+			cache.put(wc, newCommand(program));
+			assertNotNull("Command line not cached", cache.get(wc)); //$NON-NLS-1$
+
+			assertTrue("Program not deleted", program.delete()); //$NON-NLS-1$
+			assertNull("Command line of missing program reused", cache.get(wc)); //$NON-NLS-1$
+		} finally {
+			program.delete();
+		}
+	}
+
+	/**
+	 * Tests that waiting for a process returns once it terminated.
+	 */
+	@Test
+	public void testWaitForExit() throws Exception {
+		IProcess process = new MockProcess(300).toRuntimeProcess();
+		ProgramLaunchDelegate.waitForExit(process, new NullProgressMonitor());
+		assertTrue("Process not terminated", process.isTerminated()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that canceling the wait terminates the process.
+	 */
+	@Test
+	public void testWaitForExitCanceled() throws Exception {
+		MockProcess mockProcess = new MockProcess(MockProcess.RUN_FOREVER);
+		IProcess process = mockProcess.toRuntimeProcess();
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		Thread canceler = new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				// cancel right away
+			}
+			monitor.setCanceled(true);
+		});
+		canceler.start();
+		try {
+			ProgramLaunchDelegate.waitForExit(process, monitor);
+			assertFalse("Process not terminated", TestUtil.waitWhile(() -> !process.isTerminated(), testTimeout)); //$NON-NLS-1$
+			assertFalse("Mock process still alive", mockProcess.isAlive()); //$NON-NLS-1$
+		} finally {
+			canceler.join();
+			mockProcess.destroy();
+		}
+	}
+}
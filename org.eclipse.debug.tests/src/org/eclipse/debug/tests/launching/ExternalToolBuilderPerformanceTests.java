@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the latency of incremental builds running an external tool
+ * builder.
+ */
+public class ExternalToolBuilderPerformanceTests extends AbstractLaunchTest {
+
+	private boolean fAutoBuilding;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		fAutoBuilding = description.isAutoBuilding();
+		description.setAutoBuilding(false);
+		workspace.setDescription(description);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		description.setAutoBuilding(fAutoBuilding);
+		workspace.setDescription(description);
+		super.tearDown();
+	}
+
+	/**
+	 * Changes the given number of files and builds the project incrementally,
+	 * measuring the builds.
+	 */
+	private void measureIncrementalBuilds(int changedFiles, boolean manifest) throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			IFile[] files = new IFile[changedFiles];
+			for (int i = 0; i < files.length; i++) {
+				files[i] = project.getFile("input" + i + ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+				files[i].create(new ByteArrayInputStream(new byte[0]), true, null);
+			}
+			ExternalToolBuilderTests.addBuilder(project, manifest);
+			project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+			for (int run = 0; run < 10; run++) {
+				for (IFile file : files) {
+					file.setContents(new ByteArrayInputStream(new byte[] { (byte) run }), true, false, null);
+				}
+				meter.start();
+				project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+				meter.stop();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Measures incremental builds after a single file changed.
+	 */
+	@Test
+	public void testIncrementalBuild() throws Exception {
+		measureIncrementalBuilds(1, false);
+	}
+
+	/**
+	 * Measures incremental builds writing a manifest after many files changed.
+	 */
+	@Test
+	public void testIncrementalBuildWithManifest() throws Exception {
+		measureIncrementalBuilds(1000, true);
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.externaltools.internal.IExternalToolConstants;
+import org.eclipse.core.externaltools.internal.model.BuildManifest;
+import org.eclipse.core.externaltools.internal.model.BuilderCoreUtils;
+import org.eclipse.core.resources.ICommand;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests external tool builders writing a manifest of the changed files.
+ */
+@SuppressWarnings("restriction")
+public class ExternalToolBuilderTests extends AbstractLaunchTest {
+
+	private boolean fAutoBuilding;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		// builds are triggered by the tests only
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		fAutoBuilding = description.isAutoBuilding();
+		description.setAutoBuilding(false);
+		workspace.setDescription(description);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description = workspace.getDescription();
+		description.setAutoBuilding(fAutoBuilding);
+		workspace.setDescription(description);
+		super.tearDown();
+	}
+
+	/**
+	 * Adds a builder to the given project which runs <code>java -version</code>
+	 * in the foreground.
+	 *
+	 * @param project project to add the builder to
+	 * @param manifest whether the builder writes a manifest of the changed
+	 *            files
+	 * @return the builder configuration
+	 */
+	static ILaunchConfiguration addBuilder(IProject project, boolean manifest) throws CoreException {
+		ILaunchConfigurationType type = DebugPlugin.getDefault().getLaunchManager().getLaunchConfigurationType(IExternalToolConstants.ID_PROGRAM_BUILDER_LAUNCH_CONFIGURATION_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(BuilderCoreUtils.getBuilderFolder(project, true), "generator"); //$NON-NLS-1$
+		String java = Platform.OS_WIN32.equals(Platform.getOS()) ? "java.exe" : "java"; //$NON-NLS-1$ //$NON-NLS-2$
+		wc.setAttribute(IExternalToolConstants.ATTR_LOCATION, new File(new File(System.getProperty("java.home"), "bin"), java).getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$
+		wc.setAttribute(IExternalToolConstants.ATTR_TOOL_ARGUMENTS, "-version"); //$NON-NLS-1$
+		wc.setAttribute(IExternalToolConstants.ATTR_LAUNCH_IN_BACKGROUND, false);
+		wc.setAttribute(IExternalToolConstants.ATTR_TRIGGERS_CONFIGURED, true);
+		wc.setAttribute(IExternalToolConstants.ATTR_BUILD_MANIFEST, manifest);
+		ILaunchConfiguration config = wc.doSave();
+		IProjectDescription description = project.getDescription();
+		ICommand command = BuilderCoreUtils.toBuildCommand(project, config, description.newCommand());
+		description.setBuildSpec(new ICommand[] { command });
+		project.setDescription(description, null);
+		return config;
+	}
+
+	private static List<String> readManifest(IProject project, ILaunchConfiguration config) throws Exception {
+		return Files.readAllLines(BuildManifest.getManifestFile(project, config).toPath(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Tests that the manifest lists the files changed since the last build.
+	 */
+	@Test
+	public void testManifest() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		try {
+			IFile changed = project.getFile("changed.txt"); //$NON-NLS-1$
+			IFile removed = project.getFile("removed.txt"); //$NON-NLS-1$
+			changed.create(new ByteArrayInputStream(new byte[0]), true, null);
+			removed.create(new ByteArrayInputStream(new byte[0]), true, null);
+			ILaunchConfiguration config = addBuilder(project, true);
+			project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+			assertEquals("Wrong manifest of full build", Collections.singletonList(BuildManifest.ALL_FILES + "\t" + project.getLocation().toOSString()), readManifest(project, config)); //$NON-NLS-1$ //$NON-NLS-2$
+
+			IFile added = project.getFile("added.txt"); //$NON-NLS-1$
+			added.create(new ByteArrayInputStream(new byte[0]), true, null);
+			changed.setContents(new ByteArrayInputStream(new byte[] { 1 }), true, false, null);
+			removed.delete(true, null);
+			project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+			List<String> lines = readManifest(project, config);
+			lines.sort(null);
+			List<String> expected = Arrays.asList("A\t" + added.getLocation().toOSString(), "C\t" + changed.getLocation().toOSString(), "R\t" + removed.getLocation().toOSString()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Wrong manifest", expected, lines); //$NON-NLS-1$
+		} finally {
+			project.delete(true, true, null);
+		}
+	}
+}
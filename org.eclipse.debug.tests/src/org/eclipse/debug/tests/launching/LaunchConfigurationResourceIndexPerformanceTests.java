@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures looking up the launch configurations mapped to resources of deep
+ * resource trees.
+ */
+@SuppressWarnings("restriction")
+public class LaunchConfigurationResourceIndexPerformanceTests extends AbstractLaunchTest {
+
+	/** Number of mapped configurations. */
+	private static final int CONFIGURATIONS = 5_000;
+
+	/** Number of projects the configurations are mapped into. */
+	private static final int PROJECTS = 10;
+
+	/** Number of folders between a project and a mapped file. */
+	private static final int DEPTH = 8;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the path of the file the configuration with the given number is
+	 * mapped to, <code>/perf.projectP/f0/f1/.../fN/fileI.txt</code>.
+	 */
+	private static IPath getMappedPath(int i) {
+		IPath path = new Path("/perf.project" + (i % PROJECTS)); //$NON-NLS-1$
+		for (int depth = 0; depth < DEPTH; depth++) {
+			path = path.append("f" + ((i >> depth) & 3)); //$NON-NLS-1$
+		}
+		return path.append("file" + i + ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testGetMappedLaunchConfigurations() throws Exception {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		List<ILaunchConfiguration> configs = new ArrayList<>(CONFIGURATIONS);
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			List<String> types = List.of(Integer.toString(IResource.FILE));
+			for (int i = 0; i < CONFIGURATIONS; i++) {
+				ILaunchConfigurationWorkingCopy wc = type.newInstance(null, "perf-mapped-" + i); //$NON-NLS-1$
+				wc.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_PATHS, List.of(getMappedPath(i).toPortableString()));
+				wc.setAttribute(LaunchConfiguration.ATTR_MAPPED_RESOURCE_TYPES, types);
+				configs.add(wc.doSave());
+			}
+
+			// a file, its parent folders and its project for every tenth configuration
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			List<IResource> resources = new ArrayList<>();
+			for (int i = 0; i < CONFIGURATIONS; i += 10) {
+				IPath path = getMappedPath(i);
+				resources.add(root.getFile(path));
+				for (int segments = path.segmentCount() - 1; segments > 1; segments--) {
+					resources.add(root.getFolder(path.uptoSegment(segments)));
+				}
+				resources.add(root.getProject(path.segment(0)));
+			}
+
+			LaunchManager manager = (LaunchManager) getLaunchManager();
+			assertEquals(CONFIGURATIONS / PROJECTS, manager.getMappedLaunchConfigurations(root.getProject("perf.project0"), false).length); //$NON-NLS-1$
+			for (int run = 0; run < 10; run++) {
+				meter.start();
+				for (IResource resource : resources) {
+					manager.getMappedLaunchConfigurations(resource, false);
+				}
+				meter.stop();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			for (ILaunchConfiguration config : configs) {
+				config.delete();
+			}
+		}
+	}
+}
@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
@@ -55,6 +56,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
@@ -65,7 +68,9 @@ import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.ILaunchesListener2;
 import org.eclipse.debug.core.Launch;
 import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 import org.eclipse.debug.internal.core.LaunchConfiguration;
+import org.eclipse.debug.internal.core.LaunchConfigurationIndex;
 import org.eclipse.debug.internal.core.LaunchManager;
 import org.eclipse.debug.tests.TestsPlugin;
 import org.eclipse.debug.tests.console.MockProcess;
@@ -1905,4 +1910,119 @@ public class LaunchConfigurationTests extends AbstractLaunchTest implements ILau
 
 	}
 
+	/**
+	 * Tests that launch configurations evicted from the bounded cache of the
+	 * launch manager are read again from their file.
+	 *
+	 * @throws CoreException
+	 */
+	@Test
+	public void testEvictedInfoIsReloaded() throws CoreException {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		preferences.putLong(IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_SIZE, 1);
+		ILaunchConfiguration[] configs = new ILaunchConfiguration[3];
+		try {
+			for (int i = 0; i < configs.length; i++) {
+				ILaunchConfigurationWorkingCopy wc = newConfiguration(null, "test-evicted-info-" + i); //$NON-NLS-1$
+				wc.setAttribute("Index", i); //$NON-NLS-1$
+				setResourceMappings(wc, new ResourceItem[] { new ResourceItem("/test.project" + i, Integer.valueOf(IResource.PROJECT)) }); //$NON-NLS-1$
+				configs[i] = wc.doSave();
+			}
+			for (int round = 0; round < 2; round++) {
+				for (int i = 0; i < configs.length; i++) {
+					assertEquals("Wrong attribute after reload", i, configs[i].getAttribute("Index", -1)); //$NON-NLS-1$ //$NON-NLS-2$
+					assertEquals("Wrong type", ID_TEST_LAUNCH_TYPE, configs[i].getType().getIdentifier()); //$NON-NLS-1$
+					IResource[] resources = configs[i].getMappedResources();
+					assertEquals("Wrong mapped resources", 1, resources.length); //$NON-NLS-1$
+					assertEquals("Wrong mapped resource", "test.project" + i, resources[0].getName()); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		} finally {
+			preferences.remove(IInternalDebugCoreConstants.PREF_LAUNCH_CONFIGURATION_CACHE_SIZE);
+			for (ILaunchConfiguration config : configs) {
+				if (config != null) {
+					config.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that the persisted index of launch configuration headers is read
+	 * back and that entries of changed configurations are stale.
+	 */
+	@Test
+	public void testLaunchConfigurationIndex() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = newConfiguration(null, "test-index"); //$NON-NLS-1$
+		setResourceMappings(wc, new ResourceItem[] { new ResourceItem("/index.project", Integer.valueOf(IResource.PROJECT)) }); //$NON-NLS-1$
+		ILaunchConfiguration config = wc.doSave();
+		File file = File.createTempFile("launchConfigurations", ".index"); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			// the index is only filled by the launch manager
+			Method add = LaunchConfigurationIndex.class.getDeclaredMethod("add", ILaunchConfiguration.class); //$NON-NLS-1$
+			add.setAccessible(true);
+			Method getTypeId = LaunchConfigurationIndex.class.getDeclaredMethod("getTypeId", ILaunchConfiguration.class); //$NON-NLS-1$
+			getTypeId.setAccessible(true);
+			LaunchConfigurationIndex index = new LaunchConfigurationIndex();
+			add.invoke(index, config);
+			index.write(file);
+
+			LaunchConfigurationIndex restored = LaunchConfigurationIndex.read(file);
+			assertEquals("Wrong number of entries", 1, restored.size()); //$NON-NLS-1$
+			assertEquals("Wrong indexed type", ID_TEST_LAUNCH_TYPE, getTypeId.invoke(restored, config)); //$NON-NLS-1$
+
+			wc = config.getWorkingCopy();
+			wc.setAttribute("Changed", "a value which changes the length of the file"); //$NON-NLS-1$ //$NON-NLS-2$
+			config = wc.doSave();
+			assertNull("Entry of changed configuration should be stale", getTypeId.invoke(restored, config)); //$NON-NLS-1$
+		} finally {
+			file.delete();
+			config.delete();
+		}
+	}
+
+	/**
+	 * Tests that configurations are found by the resources they are mapped to
+	 * and that the index follows changes of the mappings.
+	 */
+	@Test
+	public void testGetMappedLaunchConfigurations() throws CoreException {
+		LaunchManager manager = (LaunchManager) getLaunchManager();
+		IResource project = ResourcesPlugin.getWorkspace().getRoot().getProject("mapped.project"); //$NON-NLS-1$
+		IResource folder = ResourcesPlugin.getWorkspace().getRoot().getFolder(new Path("/mapped.project/a")); //$NON-NLS-1$
+		IResource file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/mapped.project/a/b/c.txt")); //$NON-NLS-1$
+		IResource other = ResourcesPlugin.getWorkspace().getRoot().getProject("mapped.other"); //$NON-NLS-1$
+		ILaunchConfiguration onFolder = null;
+		ILaunchConfiguration onFile = null;
+		try {
+			ILaunchConfigurationWorkingCopy wc = newConfiguration(null, "test-mapped-folder"); //$NON-NLS-1$
+			setResourceMappings(wc, new ResourceItem[] { new ResourceItem("/mapped.project/a", Integer.valueOf(IResource.FOLDER)) }); //$NON-NLS-1$
+			onFolder = wc.doSave();
+			wc = newConfiguration(null, "test-mapped-file"); //$NON-NLS-1$
+			setResourceMappings(wc, new ResourceItem[] { new ResourceItem("/mapped.project/a/b/c.txt", Integer.valueOf(IResource.FILE)) }); //$NON-NLS-1$
+			onFile = wc.doSave();
+
+			assertEquals("Wrong configurations for project", Set.of(onFolder, onFile), Set.of(manager.getMappedLaunchConfigurations(project, false))); //$NON-NLS-1$
+			assertEquals("Wrong configurations for folder", Set.of(onFolder, onFile), Set.of(manager.getMappedLaunchConfigurations(folder, false))); //$NON-NLS-1$
+			assertEquals("Wrong configurations for file", Set.of(onFile), Set.of(manager.getMappedLaunchConfigurations(file, false))); //$NON-NLS-1$
+			assertEquals("Wrong configurations for other project", 0, manager.getMappedLaunchConfigurations(other, false).length); //$NON-NLS-1$
+
+			wc = onFile.getWorkingCopy();
+			setResourceMappings(wc, new ResourceItem[] { new ResourceItem("/mapped.other", Integer.valueOf(IResource.PROJECT)) }); //$NON-NLS-1$
+			onFile = wc.doSave();
+			assertEquals("Wrong configurations for file after change", 0, manager.getMappedLaunchConfigurations(file, false).length); //$NON-NLS-1$
+			assertEquals("Wrong configurations for other project after change", Set.of(onFile), Set.of(manager.getMappedLaunchConfigurations(other, false))); //$NON-NLS-1$
+
+			onFolder.delete();
+			assertEquals("Wrong configurations for project after delete", 0, manager.getMappedLaunchConfigurations(project, false).length); //$NON-NLS-1$
+			onFolder = null;
+		} finally {
+			if (onFolder != null) {
+				onFolder.delete();
+			}
+			if (onFile != null) {
+				onFile.delete();
+			}
+		}
+	}
 }
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchConfigurationXML;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures saving and loading of many launch configurations.
+ */
+@SuppressWarnings("restriction")
+public class LaunchConfigurationXMLPerformanceTests extends AbstractLaunchTest {
+
+	/** Number of configurations saved per run. */
+	private static final int SAVED_CONFIGURATIONS = 500;
+
+	/** Number of configurations read and written per run. */
+	private static final int PARSED_CONFIGURATIONS = 2_000;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns a new working copy with attributes typical for a Java
+	 * application launch configuration.
+	 */
+	private ILaunchConfigurationWorkingCopy newWorkingCopy(String configName) throws CoreException {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(null, configName);
+		for (int i = 0; i < 15; i++) {
+			wc.setAttribute("org.eclipse.debug.tests.string" + i, "value " + i + " of <" + configName + '>'); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		wc.setAttribute("org.eclipse.debug.tests.boolean", true); //$NON-NLS-1$
+		wc.setAttribute("org.eclipse.debug.tests.int", 42); //$NON-NLS-1$
+		List<String> list = new ArrayList<>();
+		Map<String, String> map = new HashMap<>();
+		for (int i = 0; i < 10; i++) {
+			list.add("/project/lib/library" + i + ".jar"); //$NON-NLS-1$ //$NON-NLS-2$
+			map.put("VARIABLE_" + i, "value&" + i); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		wc.setAttribute("org.eclipse.debug.tests.list", list); //$NON-NLS-1$
+		wc.setAttribute("org.eclipse.debug.tests.map", map); //$NON-NLS-1$
+		return wc;
+	}
+
+	@Test
+	public void testSave() throws Exception {
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		List<ILaunchConfiguration> saved = new ArrayList<>(SAVED_CONFIGURATIONS);
+		try {
+			for (int run = 0; run < 3; run++) {
+				List<ILaunchConfigurationWorkingCopy> copies = new ArrayList<>(SAVED_CONFIGURATIONS);
+				for (int i = 0; i < SAVED_CONFIGURATIONS; i++) {
+					copies.add(newWorkingCopy("perf-save-" + i)); //$NON-NLS-1$
+				}
+				meter.start();
+				for (ILaunchConfigurationWorkingCopy wc : copies) {
+					saved.add(wc.doSave());
+				}
+				meter.stop();
+				for (ILaunchConfiguration config : saved) {
+					config.delete();
+				}
+				saved.clear();
+			}
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			for (ILaunchConfiguration config : saved) {
+				config.delete();
+			}
+		}
+	}
+
+	@Test
+	public void testReadAndWrite() throws Exception {
+		ILaunchConfiguration config = newWorkingCopy("perf-read").doSave(); //$NON-NLS-1$
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			byte[] content = Files.readAllBytes(config.getLocation().toFile().toPath());
+			String xml = null;
+			for (int run = 0; run < 10; run++) {
+				meter.start();
+				for (int i = 0; i < PARSED_CONFIGURATIONS; i++) {
+					LaunchConfigurationInfo info = LaunchConfigurationXML.read(new ByteArrayInputStream(content), false);
+					xml = LaunchConfigurationXML.write(info);
+				}
+				meter.stop();
+			}
+			assertEquals(new String(content, StandardCharsets.UTF_8), xml);
+
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			config.delete();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.internal.core.LaunchConfigurationInfo;
+import org.eclipse.debug.internal.core.LaunchConfigurationXML;
+import org.eclipse.debug.internal.core.LaunchManager;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Tests that {@link LaunchConfigurationXML} reads and writes the same XML as
+ * the DOM based serialization.
+ */
+@SuppressWarnings("restriction")
+public class LaunchConfigurationXMLTests extends AbstractLaunchTest {
+
+	/**
+	 * Value using all characters which need escaping in attributes.
+	 */
+	private static final String SPECIAL = "a&b<c>d\"e'f\ng\rh\ti\u00e9 j\uD83D\uDE00k"; //$NON-NLS-1$
+
+	private static Element addKeyValue(Document doc, Element parent, String elementType, String key, String value) {
+		Element element = doc.createElement(elementType);
+		element.setAttribute("key", key); //$NON-NLS-1$
+		element.setAttribute("value", value); //$NON-NLS-1$
+		parent.appendChild(element);
+		return element;
+	}
+
+	private static Element addEntries(Document doc, Element parent, String elementType, String entryType, String key, String... values) {
+		Element element = doc.createElement(elementType);
+		element.setAttribute("key", key); //$NON-NLS-1$
+		for (String value : values) {
+			Element entry = doc.createElement(entryType);
+			entry.setAttribute("value", value); //$NON-NLS-1$
+			element.appendChild(entry);
+		}
+		parent.appendChild(element);
+		return element;
+	}
+
+	/**
+	 * Returns the XML of a configuration with all kinds of attributes as
+	 * written by the DOM serializer. Attributes are sorted by key like in the
+	 * launch configuration info.
+	 */
+	private static String createDomXML() throws Exception {
+		Document doc = LaunchManager.getDocument();
+		Element root = doc.createElement("launchConfiguration"); //$NON-NLS-1$
+		root.setAttribute("type", LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE); //$NON-NLS-1$
+		doc.appendChild(root);
+		addKeyValue(doc, root, "stringAttribute", SPECIAL, "key"); //$NON-NLS-1$ //$NON-NLS-2$
+		addKeyValue(doc, root, "booleanAttribute", "a.boolean", "true"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addKeyValue(doc, root, "intAttribute", "b.int", "-42"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addEntries(doc, root, "listAttribute", "c.emptyList", "listEntry"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addEntries(doc, root, "listAttribute", "d.list", "listEntry", "z", SPECIAL, "a"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		Element map = addEntries(doc, root, "mapAttribute", "e.map", "mapEntry"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addKeyValue(doc, map, "mapEntry", "k1", SPECIAL); //$NON-NLS-1$ //$NON-NLS-2$
+		addKeyValue(doc, map, "mapEntry", "k2", ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		addEntries(doc, root, "setAttribute", "f.set", "setEntry", "x", "y"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		addKeyValue(doc, root, "stringAttribute", "g.string", SPECIAL); //$NON-NLS-1$ //$NON-NLS-2$
+		return LaunchManager.serializeDocument(doc);
+	}
+
+	private static LaunchConfigurationInfo read(String xml) throws Exception {
+		return LaunchConfigurationXML.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), false);
+	}
+
+	/**
+	 * Tests that writing a configuration read from DOM serialized XML gives
+	 * the identical XML.
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		String xml = createDomXML();
+		assertEquals(xml, LaunchConfigurationXML.write(read(xml)));
+	}
+
+	/**
+	 * Tests that a saved configuration is read back with equal attributes.
+	 */
+	@Test
+	public void testSaveAndRead() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE).newInstance(null, "xml-config"); //$NON-NLS-1$
+		wc.setAttribute("string", SPECIAL); //$NON-NLS-1$
+		wc.setAttribute("int", 7); //$NON-NLS-1$
+		ILaunchConfiguration config = wc.doSave();
+		try {
+			ILaunchConfiguration restored = getLaunchManager().getLaunchConfiguration(config.getMemento());
+			assertEquals(config, restored);
+			assertEquals(SPECIAL, restored.getAttribute("string", (String) null)); //$NON-NLS-1$
+			assertEquals(7, restored.getAttribute("int", 0)); //$NON-NLS-1$
+		} finally {
+			config.delete();
+		}
+	}
+
+	/**
+	 * Tests that unknown elements and text are ignored when reading.
+	 */
+	@Test
+	public void testIgnoreUnknownContent() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //$NON-NLS-1$
+				+ "<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\">\n" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "<!-- comment --><unknown><stringAttribute key=\"nested\" value=\"x\"/></unknown>text\n" //$NON-NLS-1$
+				+ "<stringAttribute key=\"known\" value=\"y\"/>\n" //$NON-NLS-1$
+				+ "</launchConfiguration>\n"; //$NON-NLS-1$
+		String written = LaunchConfigurationXML.write(read(xml));
+		assertTrue(written, written.contains("<stringAttribute key=\"known\" value=\"y\"/>")); //$NON-NLS-1$
+		assertFalse(written, written.contains("nested")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that list entries of the wrong type are rejected.
+	 */
+	@Test(expected = DebugException.class)
+	public void testInvalidListEntry() throws Exception {
+		read("<launchConfiguration type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + "\">" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "<listAttribute key=\"l\"><setEntry value=\"x\"/></listAttribute></launchConfiguration>"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that reading the header only reads the type and mapped resources.
+	 */
+	@Test
+	public void testReadHeader() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE).newInstance(null, "xml-header"); //$NON-NLS-1$
+		wc.setAttribute("string", SPECIAL); //$NON-NLS-1$
+		wc.setMappedResources(new IResource[] { ResourcesPlugin.getWorkspace().getRoot().getProject("header.project") }); //$NON-NLS-1$
+		ILaunchConfiguration config = wc.doSave();
+		try (InputStream stream = new FileInputStream(config.getLocation().toFile())) {
+			LaunchConfigurationInfo header = LaunchConfigurationXML.readHeader(stream, false);
+			String xml = LaunchConfigurationXML.write(header);
+			assertTrue(xml, xml.contains("type=\"" + LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE + '"')); //$NON-NLS-1$
+			assertTrue(xml, xml.contains("header.project")); //$NON-NLS-1$
+			assertFalse(xml, xml.contains("\"string\"")); //$NON-NLS-1$
+		} finally {
+			config.delete();
+		}
+	}
+}
@@ -44,6 +44,7 @@ import org.eclipse.debug.core.model.IStreamMonitor;
 import org.eclipse.debug.core.model.IStreamsProxy;
 import org.eclipse.debug.core.model.LaunchConfigurationDelegate;
 import org.eclipse.debug.internal.core.LaunchManager;
+import org.eclipse.debug.internal.core.groups.GroupLaunch;
 import org.eclipse.debug.internal.core.groups.GroupLaunchConfigurationDelegate;
 import org.eclipse.debug.internal.core.groups.GroupLaunchElement;
 import org.eclipse.debug.internal.core.groups.GroupLaunchElement.GroupElementPostLaunchAction;
@@ -347,6 +348,57 @@ public class LaunchGroupTests extends AbstractLaunchTest {
 		assertTrue("group element should be updated", elements.get(0).name.equals("AnotherTest")); //$NON-NLS-1$//$NON-NLS-2$
 	}
 
+	/**
+	 * Tests that members without dependencies are launched concurrently and
+	 * that a member is launched once all its dependencies are ready.
+	 */
+	@Test
+	public void testDependencies() throws Exception {
+		ILaunchConfiguration t1 = getLaunchConfiguration("Test1"); //$NON-NLS-1$
+		ILaunchConfiguration t2 = getLaunchConfiguration("Test2"); //$NON-NLS-1$
+		ILaunchConfiguration t3 = getLaunchConfiguration("Test3"); //$NON-NLS-1$
+		GroupLaunchElement e1 = createLaunchGroupElement(t1, GroupElementPostLaunchAction.DELAY, 2, false);
+		e1.dependencies = new ArrayList<>();
+		GroupLaunchElement e2 = createLaunchGroupElement(t2, GroupElementPostLaunchAction.DELAY, 2, false);
+		e2.dependencies = new ArrayList<>();
+		GroupLaunchElement e3 = createLaunchGroupElement(t3, GroupElementPostLaunchAction.NONE, null, false);
+		e3.dependencies = new ArrayList<>(Arrays.asList(t1.getName(), t2.getName()));
+		ILaunchConfiguration grp = createLaunchGroup(DEF_GRP_NAME, e3, e1, e2);
+
+		long start = System.currentTimeMillis();
+		GroupLaunch launch = (GroupLaunch) grp.launch(ILaunchManager.RUN_MODE, new NullProgressMonitor());
+		long duration = System.currentTimeMillis() - start;
+
+		assertTrue("delay was not awaited", duration >= 2000); //$NON-NLS-1$
+		assertTrue("members were not launched concurrently: " + duration, duration < 4000); //$NON-NLS-1$
+		List<GroupLaunch.MemberTiming> timings = launch.getMemberTimings();
+		assertEquals(timings.toString(), 3, timings.size());
+		GroupLaunch.MemberTiming last = timings.get(2);
+		assertEquals("Test3 should be ready last", t3.getName(), last.getName()); //$NON-NLS-1$
+		assertTrue("Test3 should wait for its dependencies: " + last, last.getWaitTime() >= 2000); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that dependencies are stored and follow renamed members.
+	 */
+	@Test
+	public void testRenameDependency() throws Exception {
+		ILaunchConfiguration t1 = getLaunchConfiguration("Test1"); //$NON-NLS-1$
+		ILaunchConfiguration t2 = getLaunchConfiguration("Test2"); //$NON-NLS-1$
+		GroupLaunchElement e2 = createLaunchGroupElement(t2, GroupElementPostLaunchAction.NONE, null, false);
+		e2.dependencies = new ArrayList<>(Arrays.asList(t1.getName()));
+		ILaunchConfiguration grp = createLaunchGroup(DEF_GRP_NAME, createLaunchGroupElement(t1, GroupElementPostLaunchAction.NONE, null, false), e2);
+
+		ILaunchConfigurationWorkingCopy workingCopy = t1.getWorkingCopy();
+		workingCopy.rename("AnotherTest"); //$NON-NLS-1$
+		workingCopy.doSave();
+
+		grp = getLaunchConfiguration(DEF_GRP_NAME);
+		List<GroupLaunchElement> elements = GroupLaunchConfigurationDelegate.createLaunchElements(grp);
+		assertEquals("dependency should be updated", Arrays.asList("AnotherTest"), elements.get(1).dependencies); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("implicit dependency should be kept", null, elements.get(0).dependencies); //$NON-NLS-1$
+	}
+
 	/**
 	 * Test for Bug 529651. Build before launch was not invoked for launches
 	 * started as part of group launch.
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfigurationType;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.core.RefreshUtil;
+import org.eclipse.debug.internal.core.RefreshTracker;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.junit.Test;
+
+/**
+ * Tests refreshing only the resources changed while a launch runs.
+ */
+@SuppressWarnings("restriction")
+public class RefreshTrackerTests extends AbstractLaunchTest {
+
+	private ILaunchConfigurationWorkingCopy newConfiguration(IResource scope) throws CoreException {
+		ILaunchConfigurationType type = getLaunchManager().getLaunchConfigurationType(LaunchConfigurationTests.ID_TEST_LAUNCH_TYPE);
+		ILaunchConfigurationWorkingCopy wc = type.newInstance(null, name.getMethodName());
+		wc.setAttribute(RefreshUtil.ATTR_REFRESH_SCOPE, RefreshUtil.toMemento(new IResource[] { scope }));
+		wc.setAttribute(RefreshUtil.ATTR_REFRESH_RECURSIVE, true);
+		wc.setAttribute(RefreshUtil.ATTR_REFRESH_TRACKED, true);
+		return wc;
+	}
+
+	private static void write(File file) throws IOException {
+		Files.write(file.toPath(), file.getName().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Tests that files created while tracking are refreshed and files changed
+	 * before are not.
+	 */
+	@Test
+	public void testChangedResourcesRefreshed() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		try {
+			IFolder folder = project.getFolder("out"); //$NON-NLS-1$
+			folder.create(true, true, null);
+			File directory = folder.getLocation().toFile();
+			File stale = new File(directory, "stale.txt"); //$NON-NLS-1$
+			write(stale);
+			assertTrue("Modification time not set", stale.setLastModified(System.currentTimeMillis() - 60000)); //$NON-NLS-1$
+
+			RefreshTracker tracker = RefreshTracker.start(newConfiguration(project));
+			assumeNotNull(tracker);
+			write(new File(directory, "new.txt")); //$NON-NLS-1$
+			File generated = new File(project.getLocation().toFile(), "gen"); //$NON-NLS-1$
+			assertTrue("Directory not created", generated.mkdir()); //$NON-NLS-1$
+			write(new File(generated, "a.txt")); //$NON-NLS-1$
+			tracker.refresh(null);
+
+			assertFalse("Whole scope refreshed", tracker.isOverflow()); //$NON-NLS-1$
+			assertTrue("Created file not refreshed", folder.getFile("new.txt").exists()); //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue("File in created directory not refreshed", project.getFile("gen/a.txt").exists()); //$NON-NLS-1$ //$NON-NLS-2$
+			assertFalse("Unchanged file refreshed", folder.getFile("stale.txt").exists()); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that files changed while the directories are still registered are
+	 * refreshed.
+	 */
+	@Test
+	public void testChangedDuringRegistration() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		try {
+			File root = project.getLocation().toFile();
+			for (int i = 0; i < 50; i++) {
+				File directory = new File(root, "dir" + i); //$NON-NLS-1$
+				assertTrue("Directory not created", directory.mkdir()); //$NON-NLS-1$
+				assertTrue("Modification time not set", directory.setLastModified(System.currentTimeMillis() - 60000)); //$NON-NLS-1$
+			}
+			assertTrue("Modification time not set", root.setLastModified(System.currentTimeMillis() - 60000)); //$NON-NLS-1$
+			project.refreshLocal(IResource.DEPTH_INFINITE, null);
+
+			RefreshTracker tracker = RefreshTracker.start(newConfiguration(project));
+			assumeNotNull(tracker);
+			// likely written before the directory is registered
+			write(new File(root, "dir49/late.txt")); //$NON-NLS-1$
+			tracker.refresh(null);
+
+			assertFalse("Whole scope refreshed", tracker.isOverflow()); //$NON-NLS-1$
+			assertTrue("Created file not refreshed", project.getFile("dir49/late.txt").exists()); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that the whole scope is refreshed when tracking is not requested.
+	 */
+	@Test
+	public void testNotTracked() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		try {
+			ILaunchConfigurationWorkingCopy wc = newConfiguration(project);
+			wc.setAttribute(RefreshUtil.ATTR_REFRESH_TRACKED, false);
+			assertNull("Changes tracked", RefreshTracker.start(wc)); //$NON-NLS-1$
+		} finally {
+			project.delete(true, true, null);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.debug.internal.core.groups.observer.StreamLineMatcher;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests the {@link StreamLineMatcher} used to wait for the output of launch
+ * group members.
+ */
+public class StreamLineMatcherTests extends AbstractDebugTest {
+
+	private static StreamLineMatcher matcher(String regexp) {
+		return new StreamLineMatcher(Pattern.compile(regexp));
+	}
+
+	@Test
+	public void testMatchSplitAcrossChunks() {
+		StreamLineMatcher matcher = matcher("Server started"); //$NON-NLS-1$
+		assertNull(matcher.append("starting\nServer sta")); //$NON-NLS-1$
+		assertEquals("Server started on port 80", matcher.append("rted on port 80\nmore")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Server started on port 80", matcher.append("other output")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Server started on port 80", matcher.getMatch()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLineTerminators() {
+		StreamLineMatcher matcher = matcher("^b$"); //$NON-NLS-1$
+		assertNull(matcher.append("a\r")); //$NON-NLS-1$
+		// the line feed completes the terminator of the previous line
+		assertNull(matcher.append("\nab\r\n")); //$NON-NLS-1$
+		assertEquals("b", matcher.append("b\r")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		matcher = matcher("^$"); //$NON-NLS-1$
+		assertNull(matcher.append("a\r\n")); //$NON-NLS-1$
+		assertEquals("", matcher.append("\n")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testUnterminatedLine() {
+		StreamLineMatcher matcher = matcher("> $"); //$NON-NLS-1$
+		assertNull(matcher.append("Welcome\n")); //$NON-NLS-1$
+		assertEquals("> ", matcher.append("> ")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testLongLine() {
+		StreamLineMatcher matcher = matcher("ready"); //$NON-NLS-1$
+		StringBuilder line = new StringBuilder();
+		while (line.length() < StreamLineMatcher.MAX_LINE_LENGTH) {
+			line.append("0123456789"); //$NON-NLS-1$
+		}
+		// characters beyond the maximum line length are not matched
+		assertNull(matcher.append(line));
+		assertNull(matcher.append("ready")); //$NON-NLS-1$
+		assertEquals("ready", matcher.append("\nready\n")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of string substitution.
+ */
+public class StringSubstitutionPerformanceTests extends AbstractDebugTest {
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Substitutes an expression referencing value and dynamic variables many
+	 * times, measuring the substitutions.
+	 */
+	private void measureSubstitutions(boolean cacheScope) throws Exception {
+		IStringVariableManager manager = VariablesPlugin.getDefault().getStringVariableManager();
+		IValueVariable variable = manager.newValueVariable("substitution_performance", null); //$NON-NLS-1$
+		variable.setValue("${workspace_loc}/${system_property:java.version}"); //$NON-NLS-1$
+		manager.addVariables(new IValueVariable[] { variable });
+		String expression = "-Dhome=${env_var:HOME} -Dvalue=${substitution_performance} -Dlocation=${workspace_loc:/} -classpath ${substitution_performance}/bin"; //$NON-NLS-1$
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int run = 0; run < 10; run++) {
+				meter.start();
+				if (cacheScope) {
+					manager.beginCacheScope();
+				}
+				try {
+					for (int i = 0; i < 10000; i++) {
+						manager.performStringSubstitution(expression);
+					}
+				} finally {
+					if (cacheScope) {
+						manager.endCacheScope();
+					}
+				}
+				meter.stop();
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+			manager.removeVariables(new IValueVariable[] { variable });
+		}
+	}
+
+	/**
+	 * Measures substitutions resolving dynamic variables every time.
+	 */
+	@Test
+	public void testSubstitution() throws Exception {
+		measureSubstitutions(false);
+	}
+
+	/**
+	 * Measures substitutions within a cache scope, as done by launches.
+	 */
+	@Test
+	public void testSubstitutionInCacheScope() throws Exception {
+		measureSubstitutions(true);
+	}
+}
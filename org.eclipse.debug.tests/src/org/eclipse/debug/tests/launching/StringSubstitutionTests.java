@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests string substitution with compiled expressions and memoized values.
+ */
+public class StringSubstitutionTests extends AbstractDebugTest {
+
+	private static final String PROPERTY = "org.eclipse.debug.tests.substitution"; //$NON-NLS-1$
+
+	private IStringVariableManager fManager;
+	private IValueVariable fFirst;
+	private IValueVariable fSecond;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fManager = VariablesPlugin.getDefault().getStringVariableManager();
+		fFirst = fManager.newValueVariable("substitution_first", null); //$NON-NLS-1$
+		fFirst.setValue("one"); //$NON-NLS-1$
+		fSecond = fManager.newValueVariable("substitution_second", null); //$NON-NLS-1$
+		fSecond.setValue("first"); //$NON-NLS-1$
+		fManager.addVariables(new IValueVariable[] { fFirst, fSecond });
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fManager.removeVariables(new IValueVariable[] { fFirst, fSecond });
+		System.clearProperty(PROPERTY);
+		super.tearDown();
+	}
+
+	private String substitute(String expression) throws CoreException {
+		return fManager.performStringSubstitution(expression);
+	}
+
+	/**
+	 * Tests references as well as references nested in references.
+	 */
+	@Test
+	public void testNestedReferences() throws Exception {
+		assertEquals("a one b", substitute("a ${substitution_first} b")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("one", substitute("${substitution_${substitution_second}}")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("no references", substitute("no references")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that references without closing delimiter are kept as is.
+	 */
+	@Test
+	public void testUnterminatedReference() throws Exception {
+		assertEquals("a ${one", substitute("a ${${substitution_first}")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("${substitution_first", substitute("${substitution_first")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests undefined variables are reported or kept as is.
+	 */
+	@Test
+	public void testUndefinedVariable() throws Exception {
+		assertEquals("${substitution_undefined}", fManager.performStringSubstitution("${substitution_undefined}", false)); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			substitute("${substitution_undefined}"); //$NON-NLS-1$
+			fail("Undefined variable not reported"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests that cyclic references are reported.
+	 */
+	@Test
+	public void testCycle() throws Exception {
+		fFirst.setValue("${substitution_second}"); //$NON-NLS-1$
+		fSecond.setValue("${substitution_first}"); //$NON-NLS-1$
+		try {
+			substitute("${substitution_first}"); //$NON-NLS-1$
+			fail("Cycle not reported"); //$NON-NLS-1$
+		} catch (CoreException e) {
+			assertEquals(VariablesPlugin.REFERENCE_CYCLE_ERROR, e.getStatus().getCode());
+		}
+	}
+
+	/**
+	 * Tests that memoized values of value variables are forgotten when
+	 * variables change.
+	 */
+	@Test
+	public void testValueVariableChanged() throws Exception {
+		assertEquals("one", substitute("${substitution_first}")); //$NON-NLS-1$ //$NON-NLS-2$
+		fFirst.setValue("two"); //$NON-NLS-1$
+		assertEquals("two", substitute("${substitution_first}")); //$NON-NLS-1$ //$NON-NLS-2$
+		fManager.removeVariables(new IValueVariable[] { fFirst });
+		assertEquals("${substitution_first}", fManager.performStringSubstitution("${substitution_first}", false)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that values of cacheable dynamic variables are resolved once
+	 * within a cache scope.
+	 */
+	@Test
+	public void testCacheScope() throws Exception {
+		String expression = "${system_property:" + PROPERTY + "}"; //$NON-NLS-1$ //$NON-NLS-2$
+		System.setProperty(PROPERTY, "before"); //$NON-NLS-1$
+		fManager.beginCacheScope();
+		try {
+			assertEquals("before", substitute(expression)); //$NON-NLS-1$
+			System.setProperty(PROPERTY, "after"); //$NON-NLS-1$
+			assertEquals("Value not cached in scope", "before", substitute(expression)); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			fManager.endCacheScope();
+		}
+		assertEquals("Value cached after scope", "after", substitute(expression)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.launching;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.VariablesPlugin;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Resolves variables from many threads while variables are added, removed
+ * and changed.
+ */
+public class StringVariableManagerConcurrencyTests extends AbstractDebugTest {
+
+	private static final int READERS = 8;
+	private static final int CHANGES = 200;
+
+	private IStringVariableManager fManager;
+	private IValueVariable fStable;
+	private IValueVariable fChanging;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		fManager = VariablesPlugin.getDefault().getStringVariableManager();
+		fStable = fManager.newValueVariable("concurrency_stable", null); //$NON-NLS-1$
+		fStable.setValue("stable"); //$NON-NLS-1$
+		fChanging = fManager.newValueVariable("concurrency_changing", null); //$NON-NLS-1$
+		fChanging.setValue("even"); //$NON-NLS-1$
+		fManager.addVariables(new IValueVariable[] { fStable, fChanging });
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fManager.removeVariables(new IValueVariable[] { fStable, fChanging });
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that concurrent substitutions and lookups always see registered
+	 * variables with a valid value while other variables change.
+	 */
+	@Test
+	public void testConcurrentResolution() throws Exception {
+		String version = System.getProperty("java.version"); //$NON-NLS-1$
+		AtomicBoolean done = new AtomicBoolean();
+		CountDownLatch started = new CountDownLatch(READERS);
+		ExecutorService executor = Executors.newFixedThreadPool(READERS);
+		List<Future<Integer>> readers = new ArrayList<>();
+		try {
+			for (int i = 0; i < READERS; i++) {
+				readers.add(executor.submit(() -> {
+					started.countDown();
+					int resolutions = 0;
+					while (!done.get()) {
+						assertEquals("stable-" + version, fManager.performStringSubstitution("${concurrency_stable}-${system_property:java.version}")); //$NON-NLS-1$ //$NON-NLS-2$
+						String value = fManager.performStringSubstitution("${concurrency_changing}"); //$NON-NLS-1$
+						assertTrue("Unexpected value " + value, "even".equals(value) || "odd".equals(value)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						assertNotNull("Registered variable not found", fManager.getValueVariable("concurrency_stable")); //$NON-NLS-1$ //$NON-NLS-2$
+						assertNotNull("Dynamic variable not found", fManager.getDynamicVariable("env_var")); //$NON-NLS-1$ //$NON-NLS-2$
+						assertTrue("Variables missing", fManager.getVariables().length > 2); //$NON-NLS-1$
+						resolutions++;
+					}
+					return Integer.valueOf(resolutions);
+				}));
+			}
+			assertTrue("Readers not started", started.await(testTimeout, TimeUnit.MILLISECONDS)); //$NON-NLS-1$
+			for (int i = 0; i < CHANGES; i++) {
+				IValueVariable transientVariable = fManager.newValueVariable("concurrency_transient" + i, null); //$NON-NLS-1$
+				fManager.addVariables(new IValueVariable[] { transientVariable });
+				fChanging.setValue(i % 2 == 0 ? "odd" : "even"); //$NON-NLS-1$ //$NON-NLS-2$
+				fManager.removeVariables(new IValueVariable[] { transientVariable });
+			}
+			done.set(true);
+			for (Future<Integer> reader : readers) {
+				// rethrows assertion failures of the readers
+				assertTrue("No resolutions", reader.get(testTimeout, TimeUnit.MILLISECONDS).intValue() > 0); //$NON-NLS-1$
+			}
+		} finally {
+			done.set(true);
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.console.MockProcess;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the pool of archives opened for source lookup.
+ */
+@SuppressWarnings({ "restriction", "resource" })
+public class ArchivePoolTests extends AbstractDebugTest {
+
+	private static final String CONTENTS = "class A {}"; //$NON-NLS-1$
+
+	private final File[] fArchives = new File[3];
+	private IEclipsePreferences fPreferences;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		super.setUp();
+		SourceLookupUtils.closeArchives();
+		for (int i = 0; i < fArchives.length; i++) {
+			fArchives[i] = File.createTempFile("pool", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+			try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(fArchives[i]))) {
+				out.putNextEntry(new ZipEntry("A.java")); //$NON-NLS-1$
+				out.write(CONTENTS.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+		fPreferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		fPreferences.putInt(IInternalDebugCoreConstants.PREF_OPEN_ARCHIVES_LIMIT, 2);
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		fPreferences.remove(IInternalDebugCoreConstants.PREF_OPEN_ARCHIVES_LIMIT);
+		SourceLookupUtils.closeArchives();
+		for (File archive : fArchives) {
+			archive.delete();
+		}
+		super.tearDown();
+	}
+
+	private static String read(ZipEntryStorage storage) throws Exception {
+		try (InputStream in = storage.getContents()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static boolean isShared(ZipFile zip, File archive) {
+		try {
+			return SourceLookupUtils.getZipFile(archive.getPath()) == zip;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Tests that the least recently used archives which are not in use are
+	 * closed when too many archives are open.
+	 */
+	@Test
+	public void testIdleArchivesEvicted() throws IOException {
+		ZipFile first = SourceLookupUtils.acquireZipFile(fArchives[0].getPath());
+		assertSame("Archive not shared", first, SourceLookupUtils.acquireZipFile(fArchives[0].getPath())); //$NON-NLS-1$
+		SourceLookupUtils.releaseZipFile(first);
+		ZipFile second = SourceLookupUtils.acquireZipFile(fArchives[1].getPath());
+		SourceLookupUtils.releaseZipFile(second);
+		SourceLookupUtils.acquireZipFile(fArchives[2].getPath());
+		assertEquals("Archive in use closed", 2, SourceLookupUtils.getOpenArchiveCount()); //$NON-NLS-1$
+		assertEquals("Wrong number of archives in use", 2, SourceLookupUtils.getAcquiredArchiveCount()); //$NON-NLS-1$
+		assertNotSame("Idle archive not closed", second, SourceLookupUtils.getZipFile(fArchives[1].getPath())); //$NON-NLS-1$
+
+		SourceLookupUtils.releaseZipFile(first);
+		assertSame("Archive in use closed", first, SourceLookupUtils.getZipFile(fArchives[0].getPath())); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that an archive is not closed while the contents of its entries
+	 * are read, and that entries of a closed archive can still be read.
+	 */
+	@Test
+	public void testContentsOfClosedArchive() throws Exception {
+		ZipFile archive = SourceLookupUtils.getZipFile(fArchives[0].getPath());
+		ZipEntryStorage storage = new ZipEntryStorage(archive, archive.getEntry("A.java")); //$NON-NLS-1$
+		try (InputStream in = storage.getContents()) {
+			SourceLookupUtils.closeArchives();
+			assertEquals("Archive closed while read", CONTENTS, new String(in.readAllBytes(), StandardCharsets.UTF_8)); //$NON-NLS-1$
+		}
+		assertEquals("Archive still open", 0, SourceLookupUtils.getOpenArchiveCount()); //$NON-NLS-1$
+		assertEquals("Entry of closed archive not read", CONTENTS, read(storage)); //$NON-NLS-1$
+		assertEquals("Reopened archive still in use", 0, SourceLookupUtils.getAcquiredArchiveCount()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that an archive in use which was modified is no longer shared once
+	 * a launch terminates and closed when it is released.
+	 */
+	@Test
+	public void testModifiedArchiveInUse() throws Exception {
+		ZipFile stale = SourceLookupUtils.acquireZipFile(fArchives[0].getPath());
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(fArchives[0]))) {
+			out.putNextEntry(new ZipEntry("B.java")); //$NON-NLS-1$
+			out.write(CONTENTS.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+		assertTrue("Modification time not set", fArchives[0].setLastModified(fArchives[0].lastModified() - 10000)); //$NON-NLS-1$
+
+		ILaunchManager manager = DebugPlugin.getDefault().getLaunchManager();
+		Launch launch = new Launch(null, ILaunchManager.RUN_MODE, null);
+		manager.addLaunch(launch);
+		try {
+			DebugPlugin.newProcess(launch, new MockProcess(0), "process"); //$NON-NLS-1$
+			TestUtil.waitWhile(() -> !launch.isTerminated(), testTimeout);
+			assertTrue("Launch not terminated", launch.isTerminated()); //$NON-NLS-1$
+			// the launch listeners are notified once the launch terminated
+			TestUtil.waitWhile(() -> isShared(stale, fArchives[0]), testTimeout);
+		} finally {
+			manager.removeLaunch(launch);
+		}
+
+		ZipFile current = SourceLookupUtils.acquireZipFile(fArchives[0].getPath());
+		assertNotSame("Modified archive still shared", stale, current); //$NON-NLS-1$
+		assertNotNull("New entry not found", current.getEntry("B.java")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("Archive in use closed", 2, SourceLookupUtils.getOpenArchiveCount()); //$NON-NLS-1$
+		SourceLookupUtils.releaseZipFile(stale);
+		assertEquals("Released archive not closed", 1, SourceLookupUtils.getOpenArchiveCount()); //$NON-NLS-1$
+		SourceLookupUtils.releaseZipFile(current);
+	}
+}
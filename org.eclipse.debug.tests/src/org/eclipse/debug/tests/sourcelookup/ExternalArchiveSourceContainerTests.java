@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.debug.core.sourcelookup.containers.ExternalArchiveSourceContainer;
+import org.eclipse.debug.core.sourcelookup.containers.ZipEntryStorage;
+import org.eclipse.debug.internal.core.sourcelookup.ArchiveIndex;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupUtils;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests searching source in archives with
+ * {@link ExternalArchiveSourceContainer}.
+ */
+@SuppressWarnings("restriction")
+public class ExternalArchiveSourceContainerTests extends AbstractDebugTest {
+
+	private static final String[] ENTRIES = new String[] { "src/", "src/a/b/C.java", "src/a/b/D.java", "other/a/b/C.java", "C.java", "x/y/E.java", "x/y/z/F.java" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+
+	private static File createArchive() throws IOException {
+		File file = File.createTempFile("sources", ".zip"); //$NON-NLS-1$ //$NON-NLS-2$
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+			for (String entry : ENTRIES) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.closeEntry();
+			}
+		}
+		return file;
+	}
+
+	private static String find(ExternalArchiveSourceContainer container, String name) throws Exception {
+		Object[] elements = container.findSourceElements(name);
+		assertEquals("Wrong number of source elements for " + name, 1, elements.length); //$NON-NLS-1$
+		return ((ZipEntryStorage) elements[0]).getZipEntry().getName();
+	}
+
+	/**
+	 * Tests that qualified names are found relative to the root detected for
+	 * the first qualified name found.
+	 */
+	@Test
+	public void testDetectRoots() throws Exception {
+		File file = createArchive();
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(file.getPath(), true);
+		try {
+			assertEquals("Wrong entry", "src/a/b/C.java", find(container, "a/b/C.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Wrong entry", "src/a/b/D.java", find(container, "a\\b\\D.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Wrong entry", "x/y/E.java", find(container, "y/E.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Root nested in a detected root used", 0, container.findSourceElements("z/F.java").length); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Wrong entry", "C.java", find(container, "C.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} finally {
+			container.dispose();
+			SourceLookupUtils.closeArchives();
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that names are matched as suffixes of the entries when roots are
+	 * not detected.
+	 */
+	@Test
+	public void testSuffixMatch() throws Exception {
+		File file = createArchive();
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(file.getPath(), false);
+		try {
+			assertEquals("Wrong entry", "src/a/b/D.java", find(container, "D.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Wrong entry", "other/a/b/C.java", find(container, "other/a/b/C.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Wrong entry", "x/y/z/F.java", find(container, "z/F.java")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals("Partial file name matched", 0, container.findSourceElements("ava").length); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			container.dispose();
+			SourceLookupUtils.closeArchives();
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that the index of an archive opened before it was modified is not
+	 * used for the archive opened after.
+	 */
+	@Test
+	public void testIndexOfModifiedArchive() throws Exception {
+		File file = createArchive();
+		try (ZipFile stale = new ZipFile(file)) {
+			try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+				out.putNextEntry(new ZipEntry("src/a/b/G.java")); //$NON-NLS-1$
+				out.closeEntry();
+			}
+			ArchiveIndex staleIndex = ArchiveIndex.getIndex(file.getPath(), stale);
+			assertEquals("Wrong number of entries", ENTRIES.length, staleIndex.size()); //$NON-NLS-1$
+			try (ZipFile current = new ZipFile(file)) {
+				ArchiveIndex index = ArchiveIndex.getIndex(file.getPath(), current);
+				assertNotSame("Index of stale archive reused", staleIndex, index); //$NON-NLS-1$
+				assertEquals("Wrong entries", Collections.singletonList("src/a/b/G.java"), index.getEntriesEndingWith("G.java", true)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				assertSame("Index not shared", index, ArchiveIndex.getIndex(file.getPath(), current)); //$NON-NLS-1$
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Tests that concurrent lookups in the same archive find the right
+	 * entries.
+	 */
+	@Test
+	public void testConcurrentLookups() throws Exception {
+		File file = createArchive();
+		ExternalArchiveSourceContainer container = new ExternalArchiveSourceContainer(file.getPath(), true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String name = i % 2 == 0 ? "a/b/C.java" : "a/b/D.java"; //$NON-NLS-1$ //$NON-NLS-2$
+				results.add(executor.submit((Callable<String>) () -> find(container, name)));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals("Wrong entry", i % 2 == 0 ? "src/a/b/C.java" : "src/a/b/D.java", results.get(i).get()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		} finally {
+			executor.shutdownNow();
+			container.dispose();
+			SourceLookupUtils.closeArchives();
+			file.delete();
+		}
+	}
+}
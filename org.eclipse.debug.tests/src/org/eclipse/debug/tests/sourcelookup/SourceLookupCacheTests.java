@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.sourcelookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupDirector;
+import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceContainerType;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.containers.AbstractSourceContainer;
+import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.debug.tests.TestUtil;
+import org.eclipse.debug.tests.TestsPlugin;
+import org.junit.Test;
+
+/**
+ * Tests the cache of source elements shared by the stack frames of a source
+ * lookup director.
+ */
+@SuppressWarnings("restriction")
+public class SourceLookupCacheTests extends AbstractDebugTest {
+
+	/**
+	 * Element whose source name is given.
+	 */
+	private static class Frame {
+		final String sourceName;
+
+		Frame(String sourceName) {
+			this.sourceName = sourceName;
+		}
+	}
+
+	/**
+	 * Finds the files of a project, counting the searches per source name.
+	 */
+	private static class CountingContainer extends AbstractSourceContainer {
+
+		final IProject project;
+		final Map<String, AtomicInteger> searches = new ConcurrentHashMap<>();
+
+		CountingContainer(IProject project) {
+			this.project = project;
+		}
+
+		@Override
+		public Object[] findSourceElements(String name) throws CoreException {
+			searches.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+			IFile file = project.getFile(name);
+			return file.exists() ? new Object[] { file } : EMPTY;
+		}
+
+		int getSearches(String name) {
+			AtomicInteger count = searches.get(name);
+			return count != null ? count.get() : 0;
+		}
+
+		@Override
+		public String getName() {
+			return project.getName();
+		}
+
+		@Override
+		public ISourceContainerType getType() {
+			return null;
+		}
+	}
+
+	private static class TestDirector extends AbstractSourceLookupDirector {
+		final boolean cache;
+
+		TestDirector(boolean cache) {
+			this.cache = cache;
+		}
+
+		@Override
+		public void initializeParticipants() {
+			addParticipants(new ISourceLookupParticipant[] { new AbstractSourceLookupParticipant() {
+				@Override
+				public String getSourceName(Object object) throws CoreException {
+					return ((Frame) object).sourceName;
+				}
+
+				@Override
+				protected boolean isCacheSourceElements() {
+					return cache;
+				}
+			} });
+		}
+	}
+
+	private TestDirector createDirector(ISourceContainer container) {
+		return createDirector(container, true);
+	}
+
+	private TestDirector createDirector(ISourceContainer container, boolean cache) {
+		TestDirector director = new TestDirector(cache);
+		director.initializeParticipants();
+		director.setSourceContainers(new ISourceContainer[] { container });
+		return director;
+	}
+
+	/**
+	 * Tests that frames with the same source name share the source elements
+	 * found for the first one.
+	 */
+	@Test
+	public void testFramesShareSourceElements() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		TestDirector director = null;
+		try {
+			IFile file = project.getFile("Shared.txt"); //$NON-NLS-1$
+			file.create(new ByteArrayInputStream(new byte[0]), true, null);
+			CountingContainer container = new CountingContainer(project);
+			director = createDirector(container);
+			SourceLookupCache cache = SourceLookupCache.getDefault();
+			long hits = cache.getHitCount();
+			for (int i = 0; i < 10; i++) {
+				assertEquals("Wrong source element", file, director.getSourceElement(new Frame("Shared.txt"))); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			assertEquals("Source containers searched more than once", 1, container.getSearches("Shared.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Wrong number of cache hits", 9, cache.getHitCount() - hits); //$NON-NLS-1$
+
+			director.setSourceContainers(new ISourceContainer[] { container });
+			director.getSourceElement(new Frame("Shared.txt")); //$NON-NLS-1$
+			assertEquals("Source containers not searched after they changed", 2, container.getSearches("Shared.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (director != null) {
+				director.dispose();
+			}
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that adding a resource only removes the cached source elements of
+	 * source names with the same file name.
+	 */
+	@Test
+	public void testAddedResourceInvalidatesSameName() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		TestDirector director = null;
+		try {
+			project.getFile("Other.txt").create(new ByteArrayInputStream(new byte[0]), true, null); //$NON-NLS-1$
+			CountingContainer container = new CountingContainer(project);
+			director = createDirector(container);
+			assertNull("Source element found for missing file", director.getSourceElement(new Frame("Added.txt"))); //$NON-NLS-1$ //$NON-NLS-2$
+			assertNotNull("Source element not found", director.getSourceElement(new Frame("Other.txt"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+			IFile file = project.getFile("Added.txt"); //$NON-NLS-1$
+			file.create(new ByteArrayInputStream(new byte[0]), true, null);
+			TestDirector lookup = director;
+			boolean missing = TestUtil.waitWhile(() -> lookup.getSourceElement(new Frame("Added.txt")) == null, testTimeout); //$NON-NLS-1$
+			assertFalse("Added file not found", missing); //$NON-NLS-1$
+
+			director.getSourceElement(new Frame("Other.txt")); //$NON-NLS-1$
+			assertEquals("Unrelated source name searched again", 1, container.getSearches("Other.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (director != null) {
+				director.dispose();
+			}
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that the least recently used source names are evicted when the
+	 * cache exceeds its capacity.
+	 */
+	@Test
+	public void testCapacity() throws Exception {
+		IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(DebugPlugin.getUniqueIdentifier());
+		preferences.putInt(IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE, 2);
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		TestDirector director = null;
+		try {
+			for (String fileName : new String[] { "A.txt", "B.txt", "C.txt" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				project.getFile(fileName).create(new ByteArrayInputStream(new byte[0]), true, null);
+			}
+			CountingContainer container = new CountingContainer(project);
+			director = createDirector(container);
+			String[] names = new String[] { "A.txt", "B.txt", "C.txt", "A.txt", "C.txt" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			for (String sourceName : names) {
+				director.getSourceElement(new Frame(sourceName));
+			}
+			assertEquals("Evicted source name not searched again", 2, container.getSearches("A.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Recently used source name searched again", 1, container.getSearches("C.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			preferences.remove(IInternalDebugCoreConstants.PREF_SOURCE_LOOKUP_CACHE_SIZE);
+			if (director != null) {
+				director.dispose();
+			}
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that participants do not cache source elements unless they opt
+	 * in.
+	 */
+	@Test
+	public void testParticipantOptIn() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		TestDirector director = null;
+		try {
+			project.getFile("Shared.txt").create(new ByteArrayInputStream(new byte[0]), true, null); //$NON-NLS-1$
+			CountingContainer container = new CountingContainer(project);
+			director = createDirector(container, false);
+			director.getSourceElement(new Frame("Shared.txt")); //$NON-NLS-1$
+			director.getSourceElement(new Frame("Shared.txt")); //$NON-NLS-1$
+			assertEquals("Source elements cached without opt in", 2, container.getSearches("Shared.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (director != null) {
+				director.dispose();
+			}
+			project.delete(true, true, null);
+		}
+	}
+
+	/**
+	 * Tests that source names nothing was found for are searched again once
+	 * their short lifetime passed, since source containers outside of the
+	 * workspace do not report added files.
+	 */
+	@Test
+	public void testNegativeResultExpires() throws Exception {
+		IProject project = TestsPlugin.createProject(name.getMethodName());
+		TestDirector director = null;
+		try {
+			CountingContainer container = new CountingContainer(project);
+			director = createDirector(container);
+			long start = System.currentTimeMillis();
+			director.getSourceElement(new Frame("Missing.txt")); //$NON-NLS-1$
+			director.getSourceElement(new Frame("Missing.txt")); //$NON-NLS-1$
+			if (System.currentTimeMillis() - start < SourceLookupCache.NEGATIVE_LIFETIME) {
+				assertEquals("Missing source name not cached", 1, container.getSearches("Missing.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			Thread.sleep(SourceLookupCache.NEGATIVE_LIFETIME + 100);
+			int searches = container.getSearches("Missing.txt"); //$NON-NLS-1$
+			director.getSourceElement(new Frame("Missing.txt")); //$NON-NLS-1$
+			assertEquals("Missing source name not searched again", searches + 1, container.getSearches("Missing.txt")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (director != null) {
+				director.dispose();
+			}
+			project.delete(true, true, null);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingLine;
+import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingLineCache;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests the <code>long</code> address path of table renderings.
+ */
+public class LongAddressRenderingTests extends AbstractDebugTest {
+
+	@Test
+	public void testFormatHexAddress() {
+		char[] buffer = new char[RenderingsUtil.MAX_LONG_ADDRESS_LENGTH];
+		assertEquals("0000ABCD", RenderingsUtil.formatHexAddress(0xabcdL, 8, buffer)); //$NON-NLS-1$
+		assertEquals("00000000", RenderingsUtil.formatHexAddress(0, 8, buffer)); //$NON-NLS-1$
+		assertEquals("FFFFFFFFFFFFFFF0", RenderingsUtil.formatHexAddress(0xfffffffffffffff0L, 16, buffer)); //$NON-NLS-1$
+		// addresses longer than the address size are not truncated
+		assertEquals("123456789", RenderingsUtil.formatHexAddress(0x123456789L, 8, buffer)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFormatHex() {
+		byte[] bytes = new byte[] { 0, 0x7f, (byte) 0x80, (byte) 0xff };
+		char[] buffer = new char[10];
+		assertEquals(9, RenderingsUtil.formatHex(bytes, 0, 4, buffer, 1));
+		assertEquals("007F80FF", new String(buffer, 1, 8)); //$NON-NLS-1$
+
+		MemoryByte readable = new MemoryByte((byte) 0xa5, MemoryByte.READABLE);
+		assertEquals("A5A5", RenderingsUtil.formatHex(new MemoryByte[] { readable, readable })); //$NON-NLS-1$
+		assertNull(RenderingsUtil.formatHex(new MemoryByte[] { readable, new MemoryByte((byte) 0, (byte) 0) }));
+	}
+
+	@Test
+	public void testLongAddressRange() {
+		BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		assertTrue(RenderingsUtil.isLongAddressRange(BigInteger.ZERO, 1024));
+		assertTrue(RenderingsUtil.isLongAddressRange(max.subtract(BigInteger.TEN), 10));
+		assertFalse(RenderingsUtil.isLongAddressRange(max.subtract(BigInteger.TEN), 11));
+		assertFalse(RenderingsUtil.isLongAddressRange(max.add(BigInteger.ONE), 0));
+		assertEquals(max, RenderingsUtil.convertUnsignedLongToBigInteger(-1L));
+		assertEquals(BigInteger.TEN, RenderingsUtil.convertUnsignedLongToBigInteger(10L));
+	}
+
+	@Test
+	public void testLineCache() {
+		TableRenderingLineCache cache = new TableRenderingLineCache();
+		TableRenderingLine[] lines = new TableRenderingLine[1000];
+		for (int i = 0; i < lines.length; i++) {
+			long address = 0xffffffff00000000L + i * 16L;
+			lines[i] = new TableRenderingLine(address, Long.toHexString(address), new PackedMemoryBytes(16), i, "??"); //$NON-NLS-1$
+			cache.put(address, lines[i]);
+		}
+		assertEquals(lines.length, cache.size());
+		for (TableRenderingLine line : lines) {
+			assertSame(line, cache.get(line.getLongAddress()));
+		}
+		assertNull(cache.get(0xffffffff00000008L));
+
+		cache.put(lines[0].getLongAddress(), lines[1]);
+		assertEquals(lines.length, cache.size());
+		assertSame(lines[1], cache.get(lines[0].getLongAddress()));
+
+		int[] count = new int[1];
+		cache.forEach(line -> count[0]++);
+		assertEquals(lines.length, count[0]);
+
+		cache.clear();
+		assertTrue(cache.isEmpty());
+		assertNull(cache.get(lines[2].getLongAddress()));
+
+		try {
+			cache.put(lines[0].getLongAddress(), null);
+			fail("null line accepted"); //$NON-NLS-1$
+		} catch (AssertionFailedException e) {
+			// expected
+		}
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void testLineDeltasByLongAddress() {
+		PackedMemoryBytes oldBytes = new PackedMemoryBytes(4);
+		PackedMemoryBytes newBytes = new PackedMemoryBytes(4);
+		for (int i = 0; i < 4; i++) {
+			oldBytes.setFlags(i, MemoryByte.READABLE);
+			newBytes.setFlags(i, MemoryByte.READABLE);
+		}
+		newBytes.setValue(1, (byte) 0xab);
+		TableRenderingLine oldLine = new TableRenderingLine(0x1000L, "00001000", oldBytes, 0, "??"); //$NON-NLS-1$ //$NON-NLS-2$
+		TableRenderingLine newLine = new TableRenderingLine(0x1000L, "00001000", newBytes, 0, "??"); //$NON-NLS-1$ //$NON-NLS-2$
+		TableRenderingLine otherLine = new TableRenderingLine(0x1010L, "00001010", newBytes, 0, "??"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("00AB0000", newLine.getRawMemoryString()); //$NON-NLS-1$
+		assertTrue(newLine.isLineChanged(oldLine));
+		assertFalse(otherLine.isLineChanged(oldLine));
+
+		newLine.markDeltas(oldLine);
+		assertTrue(newLine.isRangeChange(1, 1));
+		assertFalse(newLine.isRangeChange(2, 3));
+	}
+}
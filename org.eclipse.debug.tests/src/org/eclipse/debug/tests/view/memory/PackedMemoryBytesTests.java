@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
+import org.eclipse.debug.internal.ui.views.memory.renderings.MemorySegment;
+import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingLine;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.junit.Test;
+
+/**
+ * Tests {@link PackedMemoryBytes} and the memory rendering elements using
+ * them.
+ */
+public class PackedMemoryBytesTests extends AbstractDebugTest {
+
+	private static final byte READ_WRITE = MemoryByte.READABLE | MemoryByte.WRITABLE;
+
+	private static PackedMemoryBytes createBytes(int length) {
+		PackedMemoryBytes bytes = new PackedMemoryBytes(length);
+		for (int i = 0; i < length; i++) {
+			bytes.setValue(i, (byte) i);
+			bytes.setFlags(i, READ_WRITE);
+		}
+		return bytes;
+	}
+
+	@Test
+	public void testConversion() {
+		MemoryByte[] memoryBytes = new MemoryByte[] {
+				new MemoryByte((byte) 1, READ_WRITE), new MemoryByte((byte) 2, MemoryByte.READABLE),
+				new MemoryByte((byte) 3, (byte) 0) };
+		PackedMemoryBytes packed = PackedMemoryBytes.fromMemoryBytes(memoryBytes);
+		assertEquals(3, packed.length());
+		assertEquals(2, packed.getValue(1));
+		assertTrue(packed.hasFlags(1, MemoryByte.READABLE));
+		assertFalse(packed.hasFlags(1, MemoryByte.WRITABLE));
+
+		MemoryByte[] converted = packed.toMemoryBytes(1, 2);
+		assertEquals(2, converted.length);
+		assertEquals(3, converted[1].getValue());
+		assertFalse(converted[1].isReadable());
+	}
+
+	@Test
+	public void testRangeSharesStorage() {
+		PackedMemoryBytes bytes = createBytes(16);
+		PackedMemoryBytes range = bytes.range(4, 8);
+		assertEquals(8, range.length());
+		assertEquals(4, range.getValue(0));
+		assertArrayEquals(new byte[] { 5, 6 }, range.getValues(1, 2));
+
+		range.setFlags(0, 8, MemoryByte.CHANGED, true);
+		assertTrue(bytes.hasFlags(4, MemoryByte.CHANGED));
+		assertTrue(bytes.hasFlags(11, MemoryByte.CHANGED));
+		assertFalse(bytes.hasFlags(3, MemoryByte.CHANGED));
+		assertFalse(bytes.hasFlags(12, MemoryByte.CHANGED));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRangeBounds() {
+		createBytes(16).range(4, 8).getValue(8);
+	}
+
+	@Test
+	public void testCopyAndConcat() {
+		PackedMemoryBytes bytes = createBytes(4);
+		PackedMemoryBytes copy = bytes.copyOf(6);
+		assertEquals(6, copy.length());
+		assertEquals(3, copy.getValue(3));
+		assertFalse(copy.hasFlags(4, MemoryByte.READABLE));
+		copy.setValue(0, (byte) 42);
+		assertEquals(0, bytes.getValue(0));
+
+		PackedMemoryBytes concat = PackedMemoryBytes.concat(bytes.range(2, 2), bytes);
+		assertArrayEquals(new byte[] { 2, 3, 0, 1, 2, 3 }, concat.getValues(0, 6));
+	}
+
+	@Test
+	public void testSegment() {
+		MemorySegment segment = new MemorySegment(BigInteger.TEN, createBytes(32).range(16, 16), 16);
+		assertEquals(16, segment.getNumBytes());
+		MemoryByte[] bytes = segment.getBytes(4, 4);
+		assertEquals(4, bytes.length);
+		assertEquals(20, bytes[0].getValue());
+		assertEquals(0, segment.getBytes(14, 4).length);
+	}
+
+	@Test
+	public void testLineDeltas() {
+		PackedMemoryBytes oldBytes = createBytes(8);
+		PackedMemoryBytes newBytes = createBytes(8);
+		newBytes.setValue(2, (byte) 99);
+		newBytes.setFlags(5, (byte) 0);
+
+		TableRenderingLine oldLine = new TableRenderingLine("0000", oldBytes, 0, "??"); //$NON-NLS-1$ //$NON-NLS-2$
+		TableRenderingLine newLine = new TableRenderingLine("0000", newBytes, 0, "??"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(newLine.isLineChanged(oldLine));
+		assertEquals("0001630304??0607", newLine.getRawMemoryString()); //$NON-NLS-1$
+
+		newLine.markDeltas(oldLine);
+		assertTrue(newLine.isRangeChange(2, 2));
+		assertTrue(newLine.isRangeChange(5, 5));
+		assertFalse(newLine.isRangeChange(0, 1));
+		assertFalse(newLine.isAvailable(4, 6));
+
+		newLine.unmarkDeltas();
+		assertFalse(newLine.isRangeChange(0, 7));
+	}
+}
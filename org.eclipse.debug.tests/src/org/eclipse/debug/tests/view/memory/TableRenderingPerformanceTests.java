@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.tests.view.memory;
+
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
+import org.eclipse.debug.internal.ui.views.memory.renderings.RenderingsUtil;
+import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingLine;
+import org.eclipse.debug.internal.ui.views.memory.renderings.TableRenderingLineCache;
+import org.eclipse.debug.tests.AbstractDebugTest;
+import org.eclipse.test.performance.Performance;
+import org.eclipse.test.performance.PerformanceMeter;
+import org.junit.Test;
+
+/**
+ * Measures rendering a fixed number of table rendering lines of a 64 bit
+ * target, so the inverse of the measured time is the number of lines
+ * rendered per second.
+ */
+public class TableRenderingPerformanceTests extends AbstractDebugTest {
+
+	private static final int LINES = 100000;
+	private static final int BYTES_PER_LINE = 16;
+
+	public String getDefaultScenarioId() {
+		return this.getClass().getName() + '#' + name.getMethodName() + "()"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates the lines of a screen the way the table rendering content
+	 * provider does, computing deltas against the previous lines and
+	 * formatting the raw memory of every line.
+	 */
+	@Test
+	public void testRenderHexLines() {
+		PackedMemoryBytes memory = new PackedMemoryBytes(LINES * BYTES_PER_LINE);
+		for (int i = 0; i < memory.length(); i++) {
+			memory.setValue(i, (byte) i);
+			memory.setFlags(i, MemoryByte.READABLE);
+		}
+		long start = 0x7fff00000000L;
+		char[] addressBuffer = new char[RenderingsUtil.MAX_LONG_ADDRESS_LENGTH];
+		TableRenderingLineCache previous = new TableRenderingLineCache();
+		Performance perf = Performance.getDefault();
+		PerformanceMeter meter = perf.createPerformanceMeter(getDefaultScenarioId());
+		try {
+			for (int run = 0; run < 10; run++) {
+				TableRenderingLineCache current = new TableRenderingLineCache();
+				meter.start();
+				long address = start;
+				for (int i = 0; i < LINES; i++) {
+					TableRenderingLine line = new TableRenderingLine(address, RenderingsUtil.formatHexAddress(address, 16, addressBuffer), memory.range(i * BYTES_PER_LINE, BYTES_PER_LINE), i, "??"); //$NON-NLS-1$
+					TableRenderingLine oldLine = previous.get(address);
+					if (oldLine != null) {
+						line.markDeltas(oldLine);
+					}
+					line.getRawMemoryString();
+					current.put(address, line);
+					address += BYTES_PER_LINE;
+				}
+				meter.stop();
+				previous = current;
+			}
+			meter.commit();
+			perf.assertPerformance(meter);
+		} finally {
+			meter.dispose();
+		}
+	}
+}
@@ -75,10 +75,9 @@ public class ReevaluateWatchExpressionAction implements IObjectActionDelegate {
 		for (Iterator<?> iter = getCurrentSelection().iterator(); iter.hasNext();) {
 			IWatchExpression expression= (IWatchExpression) iter.next();
 			expression.setExpressionContext(context);
-			if (!expression.isEnabled()) {
-				// Force a reevaluation
-				expression.evaluate();
-			}
+			// Force a reevaluation, also of enabled expressions whose result
+			// for the context is cached
+			expression.evaluate();
 		}
 	}
 
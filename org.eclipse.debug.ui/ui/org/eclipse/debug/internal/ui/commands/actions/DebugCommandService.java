@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.commands.IDebugCommandHandler;
 import org.eclipse.debug.core.commands.IDebugCommandRequest;
+import org.eclipse.debug.internal.core.commands.EnabledStateUpdater;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.ui.DebugUITools;
 import org.eclipse.debug.ui.contexts.DebugContextEvent;
@@ -159,10 +160,17 @@ public class DebugCommandService implements IDebugContextListener {
 		}
 		if (context instanceof IStructuredSelection && !context.isEmpty()) {
 			Object[] elements = ((IStructuredSelection)context).toArray();
+			EnabledStateUpdater updater = EnabledStateUpdater.getDefault();
+			long jobs = updater.getJobCount();
+			long hits = updater.getCacheHitCount();
 			for (Entry<Class<?>, List<IEnabledTarget>> entry : commands.entrySet()) {
 				List<IEnabledTarget> actions = entry.getValue();
 				updateCommand(entry.getKey(), elements, actions.toArray(new IEnabledTarget[actions.size()]));
 			}
+			if (DebugUIPlugin.DEBUG_COMMAND_SERVICE) {
+				DebugUIPlugin.trace("context change updated " + commands.size() + " command types with " //$NON-NLS-1$ //$NON-NLS-2$
+						+ (updater.getJobCount() - jobs) + " jobs and " + (updater.getCacheHitCount() - hits) + " cached states"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		} else {
 			for (List<IEnabledTarget> actionList : commands.values()) {
 				for (IEnabledTarget target : actionList) {
@@ -304,6 +312,9 @@ public class DebugCommandService implements IDebugContextListener {
 						DebugUIPlugin.trace("WOULD cancel " + job); //$NON-NLS-1$
 					}
 				}
+				// updates batched with those of other handler types are
+				// canceled individually
+				EnabledStateUpdater.getDefault().cancel(handlerType);
 				Job.getJobManager().cancel(handlerType);
 			}
 		}
@@ -18,7 +18,6 @@ package org.eclipse.debug.internal.ui.elements.adapters;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.DebugException;
@@ -26,6 +25,7 @@ import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.memory.provisional.AbstractAsyncTableRendering;
@@ -260,7 +260,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+		PackedMemoryBytes memoryBuffer = null;
 
 		long reqNumBytes = 0;
 		try {
@@ -272,7 +272,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				long reqNumberOfUnits = tableRendering.getAddressableUnitPerLine() * numberOfLines;
 
-				memoryBuffer = extMemoryBlock.getBytesFromAddress(startAddress, reqNumberOfUnits);
+				memoryBuffer = MemoryViewUtil.getPackedBytesFromAddress(extMemoryBlock, startAddress, reqNumberOfUnits);
 
 				if (memoryBuffer == null) {
 					DebugException e = new DebugException(DebugUIPlugin.newErrorStatus(DebugUIMessages.MemoryViewContentProvider_Unable_to_retrieve_content, null));
@@ -307,40 +307,9 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 				numberOfLines = reqNumBytes / tableRendering.getBytesPerLine();
 
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int) reqNumBytes];
-
-				// prefill buffer to ensure double-word alignment
-				for (int i = 0; i < prefillNumBytes; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
-
-				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; // counter for memoryBuffer
-				for (byte element : memory) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(element);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-
-				// append to buffer to fill up the entire line
-				for (int i = j; i < memoryBuffer.length; i++) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte) 0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// prefill buffer to ensure double-word alignment and append
+				// dummy bytes to fill up the entire line
+				memoryBuffer = MemoryViewUtil.packMemory(memory, prefillNumBytes, (int) reqNumBytes);
 			}
 		} catch (DebugException e) {
 			memoryBuffer = makeDummyContent(numberOfLines, tableRendering.getBytesPerLine());
@@ -356,21 +325,8 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 		}
 
 		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes) {
-			ArrayList<MemoryByte> newBuffer = new ArrayList<>();
-
-			Collections.addAll(newBuffer, memoryBuffer);
-
-			for (int i = memoryBuffer.length; i < reqNumBytes; i++) {
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-
+		if (memoryBuffer.length() < reqNumBytes) {
+			memoryBuffer = memoryBuffer.copyOf((int) reqNumBytes);
 		}
 
 		boolean manageDelta = true;
@@ -391,7 +347,7 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	}
 
-	private Object[] organizeLines(long numberOfLines, MemoryByte[] memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
+	private Object[] organizeLines(long numberOfLines, PackedMemoryBytes memoryBuffer, BigInteger address, boolean manageDelta, MemoryViewPresentationContext context) {
 		ArrayList<MemorySegment> lineCache = new ArrayList<>();
 		IMemoryRendering rendering = context.getRendering();
 		if (!(rendering instanceof AbstractAsyncTableRendering)) {
@@ -400,35 +356,20 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 		AbstractAsyncTableRendering tableRendering = (AbstractAsyncTableRendering) rendering;
 		int addressableUnit = tableRendering.getBytesPerLine() / tableRendering.getAddressableSize();
+		int bytesPerLine = tableRendering.getBytesPerLine();
+
+		// the segments are views of one copy of the memory, the memory block
+		// may still use the retrieved bytes
+		PackedMemoryBytes memory = memoryBuffer.copyOf((int) (numberOfLines * bytesPerLine));
+		if (manageDelta) {
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			memory.setFlags(0, memory.length(), (byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED), false);
+		}
 
 		for (int i = 0; i < numberOfLines; i++) {
-			int bytesPerLine = tableRendering.getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
-
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine; j < i * bytesPerLine + bytesPerLine; j++) {
-
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta) {
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
-
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
-
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
-
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] = newByteObj;
-				k++;
-			}
-
-			MemorySegment newLine = new MemorySegment(address, memory, addressableUnit);
+			MemorySegment newLine = new MemorySegment(address, memory.range(i * bytesPerLine, bytesPerLine), addressableUnit);
 			lineCache.add(newLine);
 			address = address.add(BigInteger.valueOf(addressableUnit));
 		}
@@ -437,24 +378,12 @@ public class MemoryBlockContentAdapter extends AsynchronousContentAdapter {
 
 	/**
 	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
+	 * @return dummy memory which is not readable
 	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines, int bytesPerLine) {
-		MemoryByte[] memoryBuffer;
+	private PackedMemoryBytes makeDummyContent(long numberOfLines, int bytesPerLine) {
 		// make up dummy memory, needed for recovery in case the debug adapter
 		// is capable of retrieving memory again
-
-		int numBytes = (int) (bytesPerLine * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
-
-		for (int i = 0; i < memoryBuffer.length; i++) {
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte) 0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
-		}
-		return memoryBuffer;
+		return new PackedMemoryBytes((int) (bytesPerLine * numberOfLines));
 	}
 
 	protected AbstractAsyncTableRendering getTableRendering(MemoryViewPresentationContext context) {
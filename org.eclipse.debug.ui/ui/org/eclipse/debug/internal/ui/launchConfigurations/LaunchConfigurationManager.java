@@ -767,21 +767,10 @@ public class LaunchConfigurationManager implements ILaunchListener, ISavePartici
 				//copy into collection for hashcode matching
 				HashSet<String> typeset = new HashSet<>(ctypes.length);
 				Collections.addAll(typeset, ctypes);
-				for (ILaunchConfiguration configuration : filterConfigs(getLaunchManager().getLaunchConfigurations())) {
+				// configurations mapped to the resource or its members, or without mapping
+				for (ILaunchConfiguration configuration : filterConfigs(getLaunchManager().getMappedLaunchConfigurations(resource, true))) {
 					if(typeset.contains(configuration.getType().getIdentifier()) && acceptConfiguration(configuration)) {
-						IResource[] resrcs = configuration.getMappedResources();
-						if (resrcs != null) {
-							for (IResource res : resrcs) {
-								if (resource.equals(res) || resource.getFullPath().isPrefixOf(res.getFullPath())) {
-									list.add(configuration);
-									break;
-								}
-							}
-						}
-						else {
-							//in the event the config has no mapping
-							list.add(configuration);
-						}
+						list.add(configuration);
 					}
 				}
 			}
@@ -36,6 +36,7 @@ import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.model.IThread;
 import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupDirector;
 import org.eclipse.debug.core.sourcelookup.ISourceLookupDirector;
+import org.eclipse.debug.internal.core.sourcelookup.SourceLookupCache;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.DelegatingModelPresentation;
 import org.eclipse.debug.internal.ui.IInternalDebugUIConstants;
@@ -333,6 +334,10 @@ public class SourceLookupFacility implements IPageListener, IPartListener2, IPro
 				Object sourceElement = null;
 				if (localLocator instanceof ISourceLookupDirector) {
 					ISourceLookupDirector director = (ISourceLookupDirector) localLocator;
+					if (force) {
+						// search the source containers again as well
+						SourceLookupCache.getDefault().invalidate(director);
+					}
 					sourceElement = director.getSourceElement(artifact);
 				} else {
 					if (artifact instanceof IStackFrame) {
@@ -15,6 +15,7 @@ package org.eclipse.debug.internal.ui.views.memory;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -22,11 +23,15 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.DebugException;
 import org.eclipse.debug.core.IMemoryBlockManager;
 import org.eclipse.debug.core.model.IDebugElement;
 import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
+import org.eclipse.debug.core.model.IMemoryBlockExtension2;
 import org.eclipse.debug.core.model.IMemoryBlockRetrieval;
+import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.viewers.ISelection;
@@ -168,6 +173,43 @@ public class MemoryViewUtil {
 		return integer.subtract(result[1]);
 	}
 
+	/**
+	 * Returns bytes from the given memory block without creating an object per
+	 * byte if the memory block supports {@link IMemoryBlockExtension2}.
+	 *
+	 * @param memoryBlock the memory block to retrieve bytes from
+	 * @param address address at which to begin retrieving bytes
+	 * @param units number of addressable units to retrieve
+	 * @return the retrieved bytes or <code>null</code> if the memory block
+	 *         returned none
+	 * @throws DebugException if the memory block fails to retrieve the bytes
+	 */
+	public static PackedMemoryBytes getPackedBytesFromAddress(IMemoryBlockExtension memoryBlock, BigInteger address, long units) throws DebugException {
+		if (memoryBlock instanceof IMemoryBlockExtension2) {
+			return ((IMemoryBlockExtension2) memoryBlock).getPackedBytesFromAddress(address, units);
+		}
+		MemoryByte[] bytes = memoryBlock.getBytesFromAddress(address, units);
+		return bytes == null ? null : PackedMemoryBytes.fromMemoryBytes(bytes);
+	}
+
+	/**
+	 * Packs the content of a memory block which does not support
+	 * {@link IMemoryBlockExtension}. The content is readable and writable with
+	 * unknown endianess, all other bytes are not readable.
+	 *
+	 * @param memory content of the memory block
+	 * @param prefill number of unreadable bytes before the content
+	 * @param length total number of bytes
+	 * @return the packed bytes
+	 */
+	public static PackedMemoryBytes packMemory(byte[] memory, int prefill, int length) {
+		byte[] values = new byte[length];
+		byte[] flags = new byte[length];
+		System.arraycopy(memory, 0, values, prefill, memory.length);
+		Arrays.fill(flags, prefill, prefill + memory.length, (byte) (MemoryByte.READABLE | MemoryByte.WRITABLE));
+		return new PackedMemoryBytes(values, flags);
+	}
+
 	public static void addHistory(String expression) {
 		if (!MEMORY_BLOCKS_HISTORY.contains(expression)) {
 			MEMORY_BLOCKS_HISTORY.add(0, expression);
@@ -46,6 +46,11 @@ public class HexIntegerRendering extends AbstractIntegerRendering {
 			data = swapped;
 		}
 
+		String hex = RenderingsUtil.formatHex(data);
+		if (hex != null) {
+			return hex;
+		}
+
 		for (MemoryByte memByte : data) {
 			if (memByte.isReadable()) {
 				strBuffer.append(new String(RenderingsUtil.convertByteToCharArray(memByte.getValue())));
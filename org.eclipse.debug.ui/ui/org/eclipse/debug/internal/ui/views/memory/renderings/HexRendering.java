@@ -34,6 +34,11 @@ public class HexRendering extends AbstractAsyncTableRendering {
 	@Override
 	public String getString(String dataType, BigInteger address,
 			MemoryByte[] data) {
+		String hex = RenderingsUtil.formatHex(data);
+		if (hex != null) {
+			return hex;
+		}
+
 		StringBuilder strBuffer = new StringBuilder();
 
 		String paddedStr = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
@@ -15,19 +15,24 @@
 package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
 
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 
 public class MemorySegment extends PlatformObject {
 
 	private BigInteger fAddress;
 	private BigInteger fEndAddress;
-	private MemoryByte[] fBytes;
+	private PackedMemoryBytes fBytes;
 	private int fNumAddressableUnits;
 
 	public MemorySegment(BigInteger address, MemoryByte[] bytes, int numAddressableUnits)
+	{
+		this(address, PackedMemoryBytes.fromMemoryBytes(bytes), numAddressableUnits);
+	}
+
+	public MemorySegment(BigInteger address, PackedMemoryBytes bytes, int numAddressableUnits)
 	{
 		fAddress = address;
 		fBytes = bytes;
@@ -38,10 +43,29 @@ public class MemorySegment extends PlatformObject {
 		return fAddress;
 	}
 
+	/**
+	 * @return new memory bytes with the content of this segment. Changes to
+	 *         the returned bytes are not reflected in this segment.
+	 * @see #getPackedBytes()
+	 */
 	public MemoryByte[] getBytes() {
+		return fBytes.toMemoryBytes();
+	}
+
+	/**
+	 * @return the content of this segment
+	 */
+	public PackedMemoryBytes getPackedBytes() {
 		return fBytes;
 	}
 
+	/**
+	 * @return number of bytes in this segment
+	 */
+	public int getNumBytes() {
+		return fBytes.length();
+	}
+
 	public int getNumAddressableUnits() {
 		return fNumAddressableUnits;
 	}
@@ -72,16 +96,10 @@ public class MemorySegment extends PlatformObject {
 		if (start < 0)
 			return new MemoryByte[0];
 
-		if (start + length > fBytes.length)
+		if (start + length > fBytes.length())
 			return new MemoryByte[0];
 
-		ArrayList<MemoryByte> ret = new ArrayList<>();
-
-		for (int i=start; i< start+length; i++)
-		{
-			ret.add(fBytes[i]);
-		}
-		return ret.toArray(new MemoryByte[ret.size()]);
+		return fBytes.toMemoryBytes(start, length);
 	}
 
 }
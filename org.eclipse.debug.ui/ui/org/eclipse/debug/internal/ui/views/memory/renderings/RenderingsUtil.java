@@ -15,6 +15,8 @@ package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
 
+import org.eclipse.debug.core.model.MemoryByte;
+
 
 /**
  * Util functions for data conversions
@@ -25,6 +27,14 @@ public class RenderingsUtil {
 	public static final int BIG_ENDIAN = 1;
 	public static final int ENDIANESS_UNKNOWN = 2;
 
+	/**
+	 * Maximum number of hex digits of an address that fits in a
+	 * <code>long</code>
+	 */
+	public static final int MAX_LONG_ADDRESS_LENGTH = 16;
+
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray(); //$NON-NLS-1$
+
 	/**
 	 * Pad byte array with zero's with the byte array's length
 	 * is shorter that what's expected the conversion functions.
@@ -517,6 +527,106 @@ public class RenderingsUtil {
 		return strBuffer.toString();
 	}
 
+	/**
+	 * Formats bytes as upper case hex digits, two per byte, into the given
+	 * buffer.
+	 *
+	 * @param array bytes to format
+	 * @param offset index of the first byte to format
+	 * @param length number of bytes to format
+	 * @param buffer buffer to format into, at least <code>2 * length</code>
+	 *            characters after <code>bufferOffset</code>
+	 * @param bufferOffset index in the buffer of the first digit
+	 * @return index in the buffer after the last digit
+	 */
+	static public int formatHex(byte[] array, int offset, int length, char[] buffer, int bufferOffset)
+	{
+		int pos = bufferOffset;
+		for (int i = offset; i < offset + length; i++)
+		{
+			buffer[pos++] = HEX_DIGITS[(array[i] >> 4) & 0xf];
+			buffer[pos++] = HEX_DIGITS[array[i] & 0xf];
+		}
+		return pos;
+	}
+
+	/**
+	 * Formats memory as upper case hex digits, two per byte, if all bytes
+	 * are readable.
+	 *
+	 * @param data memory to format
+	 * @return the formatted memory or <code>null</code> if a byte is not
+	 *         readable
+	 */
+	static public String formatHex(MemoryByte[] data)
+	{
+		char[] buffer = new char[data.length * 2];
+		int pos = 0;
+		for (MemoryByte memByte : data)
+		{
+			if (!memByte.isReadable())
+			{
+				return null;
+			}
+			byte value = memByte.getValue();
+			buffer[pos++] = HEX_DIGITS[(value >> 4) & 0xf];
+			buffer[pos++] = HEX_DIGITS[value & 0xf];
+		}
+		return new String(buffer);
+	}
+
+	/**
+	 * Formats an address as upper case hex digits padded with zeros, using
+	 * the given buffer.
+	 *
+	 * @param address address, unsigned
+	 * @param length number of digits, at most
+	 *            {@link #MAX_LONG_ADDRESS_LENGTH}
+	 * @param buffer buffer to format into, at least
+	 *            {@link #MAX_LONG_ADDRESS_LENGTH} characters
+	 * @return the formatted address
+	 */
+	static public String formatHexAddress(long address, int length, char[] buffer)
+	{
+		// the address needs more digits than the length
+		int digits = Math.max(length, (Long.SIZE - Long.numberOfLeadingZeros(address) + 3) / 4);
+		for (int i = digits - 1; i >= 0; i--)
+		{
+			buffer[i] = HEX_DIGITS[(int) (address & 0xf)];
+			address >>>= 4;
+		}
+		return new String(buffer, 0, digits);
+	}
+
+	/**
+	 * Returns whether the given address and the following units up to
+	 * <code>length</code> can be represented by an unsigned
+	 * <code>long</code>.
+	 *
+	 * @param address start address
+	 * @param length number of addressable units after the start address
+	 * @return whether the addresses fit in a <code>long</code>
+	 */
+	static public boolean isLongAddressRange(BigInteger address, long length)
+	{
+		return address.signum() >= 0 && address.add(BigInteger.valueOf(length)).bitLength() <= Long.SIZE;
+	}
+
+	/**
+	 * Convert an unsigned long to a big integer.
+	 * @param value
+	 * @return the value, unsigned
+	 */
+	static public BigInteger convertUnsignedLongToBigInteger(long value)
+	{
+		BigInteger result = BigInteger.valueOf(value);
+		if (value < 0)
+		{
+			result = result.add(BigInteger.ONE.shiftLeft(Long.SIZE));
+		}
+		return result;
+	}
+
 	static public char[] convertByteToCharArray(byte aByte)
 	{
 		char charArray[] = new char[2];
@@ -62,6 +62,13 @@ public class SignedIntegerRendering extends AbstractIntegerRendering {
 		}
 		default:
 		{
+			if (columnSize < 8 && byteArray.length == columnSize)
+			{
+				// fits in a long, extend the sign of the most significant byte
+				int shift = Long.SIZE - columnSize * 8;
+				result = (RenderingsUtil.convertByteArrayToLong(byteArray, endianess) << shift) >> shift;
+				break;
+			}
 			BigInteger bigRet = RenderingsUtil.convertByteArrayToSignedBigInt(byteArray, endianess, columnSize);
 			return bigRet.toString();
 		}
@@ -16,7 +16,6 @@ package org.eclipse.debug.internal.ui.views.memory.renderings;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Vector;
@@ -29,6 +28,7 @@ import org.eclipse.debug.core.model.IDebugTarget;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 import org.eclipse.debug.internal.ui.DebugUIMessages;
 import org.eclipse.debug.internal.ui.DebugUIPlugin;
 import org.eclipse.debug.internal.ui.IInternalDebugUIConstants;
@@ -56,9 +56,13 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 	// or change event from the the memory block.
 	protected Hashtable<String, TableRenderingLine> contentCache;
 
-	// cache in the form of MemoryByte
+	// Lines of the content cache whose addresses fit in a long, keyed by
+	// address. These lines are not in contentCache.
+	private TableRenderingLineCache fLineCache;
+
+	// cache in the form of packed memory bytes
 	// needed for reorganizing cache when the row size changes
-	private MemoryByte[] fContentCacheInBytes;
+	private PackedMemoryBytes fContentCacheInBytes;
 	private String fContentCacheStartAddress;
 
 	private BigInteger fBufferTopAddress;
@@ -76,6 +80,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 	{
 		lineCache = new Vector<>();
 		contentCache = new Hashtable<>();
+		fLineCache = new TableRenderingLineCache();
 		initializeDynamicLoad();
 
 		DebugPlugin.getDefault().addDebugEventListener(this);
@@ -334,7 +339,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 
 		IMemoryBlockExtension extMemoryBlock = null;
-		MemoryByte[] memoryBuffer = null;
+		PackedMemoryBytes memoryBuffer = null;
 
 		String paddedString = DebugUIPlugin.getDefault().getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
 
@@ -349,7 +354,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 
 				long reqNumberOfUnits = getTableRendering(fInput).getAddressableUnitPerLine() * numberOfLines;
 
-				memoryBuffer =	extMemoryBlock.getBytesFromAddress(startingAddress,	reqNumberOfUnits);
+				memoryBuffer = MemoryViewUtil.getPackedBytesFromAddress(extMemoryBlock, startingAddress, reqNumberOfUnits);
 
 				if(memoryBuffer == null)
 				{
@@ -389,42 +394,9 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 
 				numberOfLines = reqNumBytes / getTableRendering(fInput).getBytesPerLine();
 
-				// create memory byte for IMemoryBlock
-				memoryBuffer = new MemoryByte[(int)reqNumBytes];
-
-				// prefill buffer to ensure double-word alignment
-				for (int i=0; i<prefillNumBytes; i++)
-				{
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte)0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
-
-				// fill buffer with memory returned by debug adapter
-				int j = prefillNumBytes; 							// counter for memoryBuffer
-				for (byte element : memory) {
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue(element);
-					tmp.setReadable(true);
-					tmp.setWritable(true);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[j] = tmp;
-					j++;
-				}
-
-				// append to buffer to fill up the entire line
-				for (int i=j; i<memoryBuffer.length; i++)
-				{
-					MemoryByte tmp = new MemoryByte();
-					tmp.setValue((byte)0);
-					tmp.setWritable(false);
-					tmp.setReadable(false);
-					tmp.setEndianessKnown(false);
-					memoryBuffer[i] = tmp;
-				}
+				// prefill buffer to ensure double-word alignment and append
+				// dummy bytes to fill up the entire line
+				memoryBuffer = MemoryViewUtil.packMemory(memory, prefillNumBytes, (int) reqNumBytes);
 			}
 		}
 		catch (DebugException e)
@@ -444,23 +416,9 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 
 		// if debug adapter did not return enough memory, create dummy memory
-		if (memoryBuffer.length < reqNumBytes)
+		if (memoryBuffer.length() < reqNumBytes)
 		{
-			ArrayList<MemoryByte> newBuffer = new ArrayList<>();
-
-			Collections.addAll(newBuffer, memoryBuffer);
-
-			for (int i=memoryBuffer.length; i<reqNumBytes; i++)
-			{
-				MemoryByte mb = new MemoryByte();
-				mb.setReadable(false);
-				mb.setWritable(false);
-				mb.setEndianessKnown(false);
-				newBuffer.add(mb);
-			}
-
-			memoryBuffer = newBuffer.toArray(new MemoryByte[newBuffer.size()]);
-
+			memoryBuffer = memoryBuffer.copyOf((int) reqNumBytes);
 		}
 
 		// clear line cache
@@ -468,7 +426,6 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		{
 			lineCache.clear();
 		}
-		String address = startingAddress.toString(16);
 		// save address of the top of buffer
 		fBufferTopAddress = startingAddress;
 
@@ -483,69 +440,65 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 
 		// put memory information into MemoryViewLine
-		organizeLines(numberOfLines, updateDelta, addressLength, memoryBuffer, paddedString, address, manageDelta);
+		organizeLines(numberOfLines, updateDelta, addressLength, memoryBuffer, paddedString, startingAddress, manageDelta);
 
 		if (dbgEvt != null){
 			throw dbgEvt;
 		}
 	}
 
-	private void organizeLines(long numberOfLines, boolean updateDelta, int addressLength, MemoryByte[] memoryBuffer, String paddedString, String address, boolean manageDelta)
+	private void organizeLines(long numberOfLines, boolean updateDelta, int addressLength, PackedMemoryBytes memoryBuffer, String paddedString, BigInteger startAddress, boolean manageDelta)
 	{
+		int bytesPerLine = getTableRendering(fInput).getBytesPerLine();
+		int addressableUnit = bytesPerLine / getTableRendering(fInput).getAddressableSize();
+
+		// addresses that fit in a long are computed and formatted without
+		// creating big integers, and looked up in the content cache by value
+		boolean longAddresses = addressLength <= RenderingsUtil.MAX_LONG_ADDRESS_LENGTH && RenderingsUtil.isLongAddressRange(startAddress, numberOfLines * addressableUnit);
+		char[] addressBuffer = longAddresses ? new char[RenderingsUtil.MAX_LONG_ADDRESS_LENGTH] : null;
+		long longAddress = startAddress.longValue();
+		String address = longAddresses ? null : startAddress.toString(16);
+
+		// the lines are views of one copy of the memory, the memory block
+		// may still use the retrieved bytes
+		PackedMemoryBytes buffer = memoryBuffer.copyOf((int) (numberOfLines * bytesPerLine));
+		if (manageDelta)
+		{
+			// turn off both change and known bits to make sure that
+			// the change bits returned by debug adapters do not take
+			// any effect
+			buffer.setFlags(0, buffer.length(), (byte) (MemoryByte.HISTORY_KNOWN | MemoryByte.CHANGED), false);
+		}
+
 		for (int i = 0; i < numberOfLines; i++)
 		{   //chop the raw memory up
-			String tmpAddress = address.toUpperCase();
-			if (tmpAddress.length() < addressLength)
-			{
-				while  (tmpAddress.length() < addressLength)
-				{
-					tmpAddress = "0" + tmpAddress; //$NON-NLS-1$
-				}
-			}
-			int bytesPerLine = getTableRendering(fInput).getBytesPerLine();
-			MemoryByte[] memory = new MemoryByte[bytesPerLine];
+			PackedMemoryBytes memory = buffer.range(i * bytesPerLine, bytesPerLine);
 			boolean isMonitored = true;
 
-			// counter for memory, starts from 0 to number of bytes per line
-			int k = 0;
-			// j is the counter for memArray, memory returned by debug adapter
-			for (int j = i * bytesPerLine;
-				j < i * bytesPerLine + bytesPerLine;
-				j++)
+			if (!manageDelta)
 			{
-
-				byte changeFlag = memoryBuffer[j].getFlags();
-				if (manageDelta)
+				// If a byte is marked as unknown, the line is not monitored
+				for (int j = 0; j < bytesPerLine; j++)
 				{
-					// turn off both change and known bits to make sure that
-					// the change bits returned by debug adapters do not take
-					// any effect
-
-					changeFlag |= MemoryByte.HISTORY_KNOWN;
-					changeFlag ^= MemoryByte.HISTORY_KNOWN;
-
-					changeFlag |= MemoryByte.CHANGED;
-					changeFlag ^= MemoryByte.CHANGED;
-				}
-
-				MemoryByte newByteObj = new MemoryByte(memoryBuffer[j].getValue(), changeFlag);
-				memory[k] =  newByteObj;
-				k++;
-
-
-				if (!manageDelta)
-				{
-					// If the byte is marked as unknown, the line is not monitored
-					if (!memoryBuffer[j].isHistoryKnown())
+					if (!memory.hasFlags(j, MemoryByte.HISTORY_KNOWN))
 					{
 						isMonitored = false;
+						break;
 					}
 				}
 			}
 
-			TableRenderingLine newLine = new TableRenderingLine(tmpAddress, memory, lineCache.size(), paddedString);
+			TableRenderingLine newLine;
+			if (longAddresses)
+			{
+				newLine = new TableRenderingLine(longAddress, RenderingsUtil.formatHexAddress(longAddress, addressLength, addressBuffer), memory, lineCache.size(), paddedString);
+			}
+			else
+			{
+				newLine = new TableRenderingLine(padAddress(address, addressLength), memory, lineCache.size(), paddedString);
+			}
 
-			TableRenderingLine oldLine = contentCache.get(newLine.getAddress());
+			TableRenderingLine oldLine = getCachedLine(newLine);
 
 			if (manageDelta)
 			{
@@ -597,33 +550,80 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 
 
 			// increment row address
-			BigInteger bigInt = new BigInteger(address, 16);
-			fBufferEndAddress = bigInt;
-			int addressableUnit = getTableRendering(fInput).getBytesPerLine()/getTableRendering(fInput).getAddressableSize();
-			address = bigInt.add(BigInteger.valueOf(addressableUnit)).toString(16);
+			if (longAddresses)
+			{
+				longAddress += addressableUnit;
+			}
+			else
+			{
+				BigInteger bigInt = new BigInteger(address, 16);
+				fBufferEndAddress = bigInt;
+				address = bigInt.add(BigInteger.valueOf(addressableUnit)).toString(16);
+			}
+		}
+		if (longAddresses && numberOfLines > 0)
+		{
+			fBufferEndAddress = RenderingsUtil.convertUnsignedLongToBigInteger(longAddress - addressableUnit);
 		}
 	}
 
 	/**
-	 * @param numberOfLines
-	 * @return an array of dummy MemoryByte
+	 * @param address address in hex
+	 * @param addressLength number of digits to pad to
+	 * @return the address in upper case, padded with zeros
 	 */
-	private MemoryByte[] makeDummyContent(long numberOfLines) {
-		MemoryByte[] memoryBuffer;
-		// make up dummy memory, needed for recovery in case the debug adapter
-		// is capable of retrieving memory again
+	private static String padAddress(String address, int addressLength)
+	{
+		String tmpAddress = address.toUpperCase();
+		if (tmpAddress.length() < addressLength)
+		{
+			while  (tmpAddress.length() < addressLength)
+			{
+				tmpAddress = "0" + tmpAddress; //$NON-NLS-1$
+			}
+		}
+		return tmpAddress;
+	}
 
-		int numBytes = (int)(getTableRendering(fInput).getBytesPerLine() * numberOfLines);
-		memoryBuffer = new MemoryByte[numBytes];
+	/**
+	 * @param line line to look up
+	 * @return line of the content cache at the address of the given line, or
+	 *         <code>null</code> if none
+	 */
+	private TableRenderingLine getCachedLine(TableRenderingLine line)
+	{
+		if (line.hasLongAddress())
+		{
+			return fLineCache.get(line.getLongAddress());
+		}
+		return contentCache.get(line.getAddress());
+	}
 
-		for (int i=0; i<memoryBuffer.length; i++){
-			memoryBuffer[i] = new MemoryByte();
-			memoryBuffer[i].setValue((byte)0);
-			memoryBuffer[i].setWritable(false);
-			memoryBuffer[i].setReadable(false);
-			memoryBuffer[i].setEndianessKnown(false);
+	/**
+	 * Adds a line to the content cache.
+	 *
+	 * @param line line to add
+	 */
+	private void cacheLine(TableRenderingLine line)
+	{
+		if (line.hasLongAddress())
+		{
+			fLineCache.put(line.getLongAddress(), line);
+		}
+		else
+		{
+			contentCache.put(line.getAddress(), line);
 		}
-		return memoryBuffer;
+	}
+
+	/**
+	 * @param numberOfLines
+	 * @return dummy memory which is not readable
+	 */
+	private PackedMemoryBytes makeDummyContent(long numberOfLines) {
+		// make up dummy memory, needed for recovery in case the debug adapter
+		// is capable of retrieving memory again
+		return new PackedMemoryBytes((int) (getTableRendering(fInput).getBytesPerLine() * numberOfLines));
 	}
 
 	@Override
@@ -714,6 +714,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		{
 			contentCache.clear();
 		}
+		fLineCache.clear();
 
 		//do not handle event if the rendering is not visible
 		if (!getTableRendering(fInput).isVisible()) {
@@ -726,7 +727,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		if (!getTableRendering(fInput).isDisplayingError())
 		{
 			for (TableRenderingLine line : lines) {
-				contentCache.put(line.getAddress(), line);
+				cacheLine(line);
 				line.isMonitored = true;
 			}
 		}
@@ -802,6 +803,7 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 			TableRenderingLine line = enumeration.nextElement();
 			line.unmarkDeltas();
 		}
+		fLineCache.forEach(TableRenderingLine::unmarkDeltas);
 	}
 
 	/**
@@ -820,9 +822,16 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 				return true;
 			}
 
+			int addressableUnit = getTableRendering(fInput).getAddressableUnitPerLine();
+			if (first.hasLongAddress() && last.hasLongAddress() && address.signum() >= 0 && address.bitLength() <= Long.SIZE)
+			{
+				long value = address.longValue();
+				return Long.compareUnsigned(first.getLongAddress(), value) > 0
+						|| Long.compareUnsigned(last.getLongAddress() + addressableUnit - 1, value) < 0;
+			}
+
 			BigInteger startAddress = new BigInteger(first.getAddress(), 16);
 			BigInteger lastAddress = new BigInteger(last.getAddress(), 16);
-			int addressableUnit = getTableRendering(fInput).getAddressableUnitPerLine();
 			lastAddress = lastAddress.add(BigInteger.valueOf(addressableUnit)).subtract(BigInteger.valueOf(1));
 
 			if (startAddress.compareTo(address) <= 0 &&
@@ -837,9 +846,10 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 
 	public void clearContentCache()
 	{
-		fContentCacheInBytes = new MemoryByte[0];
+		fContentCacheInBytes = new PackedMemoryBytes(0);
 		fContentCacheStartAddress = null;
 		contentCache.clear();
+		fLineCache.clear();
 	}
 
 	/**
@@ -894,13 +904,12 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		if (objs.length > 0)
 		{
 			TableRenderingLine[] renderingLines = lines.toArray(new TableRenderingLine[lines.size()]);
-			MemoryByte[] buffer = convertLinesToBytes(renderingLines);
+			PackedMemoryBytes buffer = convertLinesToBytes(renderingLines);
 			BigInteger lineAddress = new BigInteger(renderingLines[0].getAddress(), 16);
-			int numberOfLines = buffer.length / numBytesPerLine;
+			int numberOfLines = buffer.length() / numBytesPerLine;
 			boolean updateDelta = false;
 			int addressLength = getAddressSize(lineAddress) * IInternalDebugUIConstants.CHAR_PER_BYTE;
-			MemoryByte[] memoryBuffer = buffer;
-			String address =renderingLines[0].getAddress();
+			PackedMemoryBytes memoryBuffer = buffer;
 			String paddedString = DebugUITools.getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
 
 			// set to false to preserve information delta information
@@ -915,47 +924,42 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 			}
 			lineCache.clear();
 
-			organizeLines(numberOfLines, updateDelta, addressLength, memoryBuffer, paddedString, address, manageDelta);
+			organizeLines(numberOfLines, updateDelta, addressLength, memoryBuffer, paddedString, lineAddress, manageDelta);
 		}
 	}
 
 	private void reorganizeContentCache(int bytesPerLine)
 	{
 		// if content cache is empty, do nothing
-		if (contentCache == null || contentCache.isEmpty()
-			|| fContentCacheInBytes.length == 0 || fContentCacheStartAddress == null) {
+		if (contentCache == null || (contentCache.isEmpty() && fLineCache.isEmpty())
+			|| fContentCacheInBytes.length() == 0 || fContentCacheStartAddress == null) {
 			return;
 		}
 
-		MemoryByte[] bytes = fContentCacheInBytes;
+		PackedMemoryBytes bytes = fContentCacheInBytes;
 		TableRenderingLine[] convertedLines = convertBytesToLines(bytes, bytesPerLine, new BigInteger(fContentCacheStartAddress, 16));
 
 		contentCache.clear();
+		fLineCache.clear();
 		for (TableRenderingLine convertedLine : convertedLines) {
-			contentCache.put(convertedLine.getAddress(), convertedLine);
+			cacheLine(convertedLine);
 		}
 	}
 
-	private MemoryByte[] convertLinesToBytes(TableRenderingLine[] lines)
+	private PackedMemoryBytes convertLinesToBytes(TableRenderingLine[] lines)
 	{
-		// convert the lines back to a buffer of MemoryByte
-		TableRenderingLine temp = lines[0];
-		int lineLength = temp.getLength();
-
-		MemoryByte[] buffer = new MemoryByte[lines.length * lineLength];
+		// convert the lines back to one buffer
+		PackedMemoryBytes[] parts = new PackedMemoryBytes[lines.length];
 		for (int i=0; i<lines.length; i++)
 		{
-			TableRenderingLine line = lines[i];
-			MemoryByte[] bytes = line.getBytes();
-			System.arraycopy(bytes, 0, buffer, i*lineLength, lineLength);
+			parts[i] = lines[i].getPackedBytes();
 		}
-		return buffer;
+		return PackedMemoryBytes.concat(parts);
 	}
 
-	private TableRenderingLine[] convertBytesToLines(MemoryByte[] bytes, int bytesPerLine, BigInteger startAddress)
+	private TableRenderingLine[] convertBytesToLines(PackedMemoryBytes bytes, int bytesPerLine, BigInteger startAddress)
 	{
-		int numOfLines = bytes.length / bytesPerLine;
-		String address = startAddress.toString(16);
+		int numOfLines = bytes.length() / bytesPerLine;
 		int addressLength;
 		try {
 			addressLength = getAddressSize(startAddress) * IInternalDebugUIConstants.CHAR_PER_BYTE;
@@ -965,30 +969,35 @@ public class TableRenderingContentProvider extends BasicDebugViewContentProvider
 		}
 		ArrayList<TableRenderingLine> lines = new ArrayList<>();
 		String paddedString = DebugUITools.getPreferenceStore().getString(IDebugUIConstants.PREF_PADDED_STR);
+		int addressableUnit = getTableRendering(fInput).getBytesPerLine()/getTableRendering(fInput).getAddressableSize();
+		boolean longAddresses = addressLength <= RenderingsUtil.MAX_LONG_ADDRESS_LENGTH && RenderingsUtil.isLongAddressRange(startAddress, (long) numOfLines * addressableUnit);
+		char[] addressBuffer = longAddresses ? new char[RenderingsUtil.MAX_LONG_ADDRESS_LENGTH] : null;
+		long longAddress = startAddress.longValue();
+		String address = longAddresses ? null : startAddress.toString(16);
 
 		for (int i=0; i<numOfLines; i++)
 		{
-			MemoryByte[] temp = new MemoryByte[bytesPerLine];
-			System.arraycopy(bytes, i*bytesPerLine, temp, 0, bytesPerLine);
+			PackedMemoryBytes temp = bytes.range(i * bytesPerLine, bytesPerLine);
 
-			String tmpAddress = address.toUpperCase();
-			if (tmpAddress.length() < addressLength)
+			if (longAddresses)
 			{
-				while (tmpAddress.length() < addressLength)
-				{
-					tmpAddress = "0" + tmpAddress; //$NON-NLS-1$
-				}
+				lines.add(new TableRenderingLine(longAddress, RenderingsUtil.formatHexAddress(longAddress, addressLength, addressBuffer), temp, lines.size(), paddedString));
+				longAddress += addressableUnit;
+				continue;
 			}
 
-			TableRenderingLine newLine = new TableRenderingLine(tmpAddress, temp, lines.size(), paddedString);
+			TableRenderingLine newLine = new TableRenderingLine(padAddress(address, addressLength), temp, lines.size(), paddedString);
 			lines.add(newLine);
 
 			// increment row address
 			BigInteger bigInt = new BigInteger(address, 16);
 			fBufferEndAddress = bigInt;
-			int addressableUnit = getTableRendering(fInput).getBytesPerLine()/getTableRendering(fInput).getAddressableSize();
 			address = bigInt.add(BigInteger.valueOf(addressableUnit)).toString(16);
 		}
+		if (longAddresses && numOfLines > 0)
+		{
+			fBufferEndAddress = RenderingsUtil.convertUnsignedLongToBigInteger(longAddress - addressableUnit);
+		}
 
 		return lines.toArray(new TableRenderingLine[lines.size()]);
 	}
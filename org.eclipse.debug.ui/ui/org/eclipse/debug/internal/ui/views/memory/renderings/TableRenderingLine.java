@@ -13,10 +13,9 @@
  *******************************************************************************/
 package org.eclipse.debug.internal.ui.views.memory.renderings;
 
-import java.util.ArrayList;
-
 import org.eclipse.core.runtime.PlatformObject;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 
 /**
  * @since 3.0
@@ -24,8 +23,10 @@ import org.eclipse.debug.core.model.MemoryByte;
 
 public class TableRenderingLine extends PlatformObject {
 	private String fAddress;
+	private long fLongAddress;
+	private boolean fHasLongAddress;
 	private String fStrRep;
-	private MemoryByte[] fBytes;
+	private PackedMemoryBytes fBytes;
 	private byte[] fByteArray;
 	private int fTableIndex = -1;
 	private String fPaddedString;
@@ -37,21 +38,78 @@ public class TableRenderingLine extends PlatformObject {
 	private static final int numCharPerByteForHex = 2;
 
 	public TableRenderingLine(String address, MemoryByte[] bytes, int tableIndex, String paddedString) {
+		this(address, PackedMemoryBytes.fromMemoryBytes(bytes), tableIndex, paddedString);
+	}
+
+	public TableRenderingLine(String address, PackedMemoryBytes bytes, int tableIndex, String paddedString) {
 		fAddress = address;
 		fBytes = bytes;
 		fTableIndex = tableIndex;
 		fPaddedString = paddedString;
 	}
 
+	/**
+	 * Creates a line of a target whose addresses fit in a <code>long</code>.
+	 *
+	 * @param address address of the line, unsigned
+	 * @param addressString address of the line formatted for display
+	 * @param bytes content of the line
+	 * @param tableIndex index of the line in the table
+	 * @param paddedString string displayed for unavailable bytes
+	 */
+	public TableRenderingLine(long address, String addressString, PackedMemoryBytes bytes, int tableIndex, String paddedString) {
+		this(addressString, bytes, tableIndex, paddedString);
+		fLongAddress = address;
+		fHasLongAddress = true;
+	}
+
 	public String getAddress() {
 		return fAddress;
 	}
 
 	public void setAddress(String address) {
 		fAddress = address;
+		fHasLongAddress = false;
+	}
+
+	/**
+	 * @return whether the address of this line is available as
+	 *         <code>long</code>
+	 * @see #getLongAddress()
+	 */
+	public boolean hasLongAddress() {
+		return fHasLongAddress;
 	}
 
+	/**
+	 * @return the address of this line as unsigned <code>long</code>, only
+	 *         valid if {@link #hasLongAddress()}
+	 */
+	public long getLongAddress() {
+		return fLongAddress;
+	}
+
+	private boolean isSameAddress(TableRenderingLine other) {
+		if (fHasLongAddress && other.fHasLongAddress) {
+			return fLongAddress == other.fLongAddress;
+		}
+		return other.getAddress().equals(getAddress());
+	}
+
+	/**
+	 * @return new memory bytes with the content of this line. Changes to the
+	 *         returned bytes are not reflected in this line.
+	 * @see #getPackedBytes()
+	 */
 	public MemoryByte[] getBytes()
+	{
+		return fBytes.toMemoryBytes();
+	}
+
+	/**
+	 * @return the content of this line
+	 */
+	public PackedMemoryBytes getPackedBytes()
 	{
 		return fBytes;
 	}
@@ -62,8 +120,8 @@ public class TableRenderingLine extends PlatformObject {
 			return null;
 		}
 
-		if (offset < fBytes.length) {
-			return fBytes[offset];
+		if (offset < fBytes.length()) {
+			return new MemoryByte(fBytes.getValue(offset), fBytes.getFlags(offset));
 		}
 
 		return null;
@@ -71,31 +129,31 @@ public class TableRenderingLine extends PlatformObject {
 
 	public MemoryByte[] getBytes(int start, int end)
 	{
-		ArrayList<MemoryByte> ret = new ArrayList<>();
-
-		for (int i=start; i<end; i++)
-		{
-			ret.add(fBytes[i]);
-		}
-		return ret.toArray(new MemoryByte[ret.size()]);
+		return fBytes.toMemoryBytes(start, end - start);
 	}
 
 	public String getRawMemoryString()
 	{
 		if (fStrRep == null)
 		{
-			StringBuilder buffer = new StringBuilder();
-			fStrRep = RenderingsUtil.convertByteArrayToHexString(getByteArray());
-			fStrRep = fStrRep.toUpperCase();
+			byte[] byteArray = getByteArray();
+			char[] chars = new char[byteArray.length * TableRenderingLine.numCharPerByteForHex];
+			RenderingsUtil.formatHex(byteArray, 0, byteArray.length, chars, 0);
+			if (isAvailable(0, fBytes.length()))
+			{
+				fStrRep = new String(chars);
+				return fStrRep;
+			}
 
-			buffer = buffer.append(fStrRep);
+			StringBuilder buffer = new StringBuilder(chars.length);
+			buffer.append(chars);
 
 			// pad unavailable bytes with padded string from memory block
 			String paddedString = null;
 			int bufferCounter = 0;
-			for (MemoryByte mb : fBytes) {
+			for (int i = 0; i < fBytes.length(); i++) {
 				// if byte is invalid
-				if (!mb.isReadable()) {
+				if (!fBytes.hasFlags(i, MemoryByte.READABLE)) {
 					if (paddedString == null)
 					{
 						paddedString = fPaddedString;
@@ -124,7 +182,7 @@ public class TableRenderingLine extends PlatformObject {
 		boolean available = true;
 		for (int i=start; i<end; i++)
 		{
-			if (!fBytes[i].isReadable())
+			if (!fBytes.hasFlags(i, MemoryByte.READABLE))
 			{
 				available = false;
 				break;
@@ -138,11 +196,7 @@ public class TableRenderingLine extends PlatformObject {
 	{
 		if (fByteArray == null)
 		{
-			fByteArray = new byte[fBytes.length];
-			for (int i=0; i<fBytes.length; i++)
-			{
-				fByteArray[i] = fBytes[i].getValue();
-			}
+			fByteArray = fBytes.getValues(0, fBytes.length());
 		}
 
 		return fByteArray;
@@ -150,15 +204,7 @@ public class TableRenderingLine extends PlatformObject {
 
 	public byte[] getByteArray(int start, int end)
 	{
-		byte[] ret = new byte[end-start];
-		int j=0;
-
-		for (int i=start; i<end; i++)
-		{
-			ret[j] = fBytes[i].getValue();
-			j++;
-		}
-		return ret;
+		return fBytes.getValues(start, end - start);
 	}
 
 	public void markDeltas(TableRenderingLine oldData)
@@ -168,44 +214,39 @@ public class TableRenderingLine extends PlatformObject {
 		}
 
 		// if address is not the same, no need to compare
-		if (!oldData.getAddress().equals(this.getAddress())) {
+		if (!isSameAddress(oldData)) {
 			return;
 		}
 
 		// if the string representation is the same, no need to compare
 		if (oldData.getRawMemoryString().equals(getRawMemoryString()))
 		{
-			for (MemoryByte mb : fBytes) {
-				// set history as known if we have old data for this line
-				mb.setHistoryKnown(true);
-			}
+			// set history as known if we have old data for this line
+			fBytes.setFlags(0, fBytes.length(), MemoryByte.HISTORY_KNOWN, true);
 			return;
 		}
 
-		MemoryByte[] oldMemory = oldData.getBytes();
+		PackedMemoryBytes oldMemory = oldData.getPackedBytes();
 
-		if (oldMemory.length != fBytes.length) {
+		if (oldMemory.length() != fBytes.length()) {
 			return;
 		}
 
-		for (int i=0; i<fBytes.length; i++)
+		for (int i=0; i<fBytes.length(); i++)
 		{
 			// turn on known bit
-			fBytes[i].setHistoryKnown(true);
+			byte flags = (byte) (fBytes.getFlags(i) | MemoryByte.HISTORY_KNOWN);
+			boolean readable = fBytes.hasFlags(i, MemoryByte.READABLE);
 
-			if ((fBytes[i].getFlags() & MemoryByte.READABLE) != (oldMemory[i].getFlags() & MemoryByte.READABLE))
+			if (readable != oldMemory.hasFlags(i, MemoryByte.READABLE))
 			{
-				fBytes[i].setChanged(true);
-				continue;
+				flags |= MemoryByte.CHANGED;
 			}
-
-			if (fBytes[i].isReadable() && oldMemory[i].isReadable())
+			else if (readable && fBytes.getValue(i) != oldMemory.getValue(i))
 			{
-				if (fBytes[i].getValue() != oldMemory[i].getValue())
-				{
-					fBytes[i].setChanged(true);
-				}
+				flags |= MemoryByte.CHANGED;
 			}
+			fBytes.setFlags(i, flags);
 		}
 	}
 
@@ -216,20 +257,20 @@ public class TableRenderingLine extends PlatformObject {
 		}
 
 		// if address is not the same, do not copy
-		if (!oldData.getAddress().equals(this.getAddress())) {
+		if (!isSameAddress(oldData)) {
 			return;
 		}
 
 		// reuse delta information from old data
-		MemoryByte[] oldMemory = oldData.getBytes();
+		PackedMemoryBytes oldMemory = oldData.getPackedBytes();
 
-		if (oldMemory.length != fBytes.length) {
+		if (oldMemory.length() != fBytes.length()) {
 			return;
 		}
 
-		for (int i=0; i<fBytes.length; i++)
+		for (int i=0; i<fBytes.length(); i++)
 		{
-			fBytes[i].setFlags(oldMemory[i].getFlags());
+			fBytes.setFlags(i, oldMemory.getFlags(i));
 		}
 	}
 
@@ -240,7 +281,7 @@ public class TableRenderingLine extends PlatformObject {
 		}
 
 		// if address is not the same, no need to compare
-		if (!oldData.getAddress().equals(this.getAddress())) {
+		if (!isSameAddress(oldData)) {
 			return false;
 		}
 
@@ -264,10 +305,10 @@ public class TableRenderingLine extends PlatformObject {
 
 		for (int i=offset; i<=endOffset; i++)
 		{
-			if (!fBytes[i].isHistoryKnown()) {
+			if (!fBytes.hasFlags(i, MemoryByte.HISTORY_KNOWN)) {
 				allBytesKnown = false;
 			}
-			if (fBytes[i].isChanged()) {
+			if (fBytes.hasFlags(i, MemoryByte.CHANGED)) {
 				allBytesUnchanged = false;
 			}
 		}
@@ -280,12 +321,8 @@ public class TableRenderingLine extends PlatformObject {
 
 	public void unmarkDeltas()
 	{
-		for (MemoryByte mb : fBytes) {
-			// unset the change bit
-			if (mb.isChanged()) {
-				mb.setChanged(false);
-			}
-		}
+		// unset the change bit
+		fBytes.setFlags(0, fBytes.length(), MemoryByte.CHANGED, false);
 	}
 
 	@Override
@@ -308,8 +345,7 @@ public class TableRenderingLine extends PlatformObject {
 
 	public int getLength()
 	{
-		return fBytes.length;
+		return fBytes.length();
 	}
 
 }
-
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.debug.internal.ui.views.memory.renderings;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Table rendering lines keyed by their address as primitive
+ * <code>long</code>, for targets whose addresses fit in 64 bits. Keys are
+ * stored in an open addressing table so lookups neither box the address nor
+ * create strings.
+ */
+public class TableRenderingLineCache {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private long[] fKeys;
+	private TableRenderingLine[] fLines;
+	private int fSize;
+
+	public TableRenderingLineCache() {
+		fKeys = new long[INITIAL_CAPACITY];
+		fLines = new TableRenderingLine[INITIAL_CAPACITY];
+	}
+
+	private static int hash(long key) {
+		// lines are usually 16 or 32 units apart, mix the upper bits in
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private int indexOf(long key) {
+		int mask = fKeys.length - 1;
+		int index = hash(key) & mask;
+		while (fLines[index] != null && fKeys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	/**
+	 * @param address address of the line
+	 * @return the line at the address or <code>null</code> if none
+	 */
+	public TableRenderingLine get(long address) {
+		return fLines[indexOf(address)];
+	}
+
+	/**
+	 * Adds a line, replacing the line at the same address.
+	 *
+	 * @param address address of the line
+	 * @param line line to add, not <code>null</code> since empty slots are
+	 *            marked by <code>null</code>
+	 */
+	public void put(long address, TableRenderingLine line) {
+		Assert.isNotNull(line);
+		int index = indexOf(address);
+		if (fLines[index] == null) {
+			if ((fSize + 1) * 2 > fKeys.length) {
+				grow();
+				index = indexOf(address);
+			}
+			fKeys[index] = address;
+			fSize++;
+		}
+		fLines[index] = line;
+	}
+
+	private void grow() {
+		long[] keys = fKeys;
+		TableRenderingLine[] lines = fLines;
+		fKeys = new long[keys.length * 2];
+		fLines = new TableRenderingLine[lines.length * 2];
+		for (int i = 0; i < keys.length; i++) {
+			if (lines[i] != null) {
+				int index = indexOf(keys[i]);
+				fKeys[index] = keys[i];
+				fLines[index] = lines[i];
+			}
+		}
+	}
+
+	/**
+	 * Performs the given action for each line.
+	 *
+	 * @param action action to perform
+	 */
+	public void forEach(Consumer<TableRenderingLine> action) {
+		for (TableRenderingLine line : fLines) {
+			if (line != null) {
+				action.accept(line);
+			}
+		}
+	}
+
+	public int size() {
+		return fSize;
+	}
+
+	public boolean isEmpty() {
+		return fSize == 0;
+	}
+
+	public void clear() {
+		if (fSize > 0) {
+			Arrays.fill(fLines, null);
+			fSize = 0;
+		}
+	}
+}
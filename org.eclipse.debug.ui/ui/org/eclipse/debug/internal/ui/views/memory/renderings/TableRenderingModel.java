@@ -30,6 +30,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.model.IMemoryBlock;
 import org.eclipse.debug.core.model.IMemoryBlockExtension;
 import org.eclipse.debug.core.model.MemoryByte;
+import org.eclipse.debug.core.model.PackedMemoryBytes;
 import org.eclipse.debug.internal.ui.memory.provisional.AbstractAsyncTableRendering;
 import org.eclipse.debug.internal.ui.memory.provisional.MemoryViewPresentationContext;
 import org.eclipse.debug.internal.ui.viewers.AsynchronousTableViewer;
@@ -193,20 +194,18 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 
 				if (oldSegment != null) {
 					if (oldSegment.getNumAddressableUnits() == newSegment.getNumAddressableUnits()) {
-						MemoryByte[] newBytes = newSegment.getBytes();
-						MemoryByte[] oldBytes = oldSegment.getBytes();
+						PackedMemoryBytes newBytes = newSegment.getPackedBytes();
+						PackedMemoryBytes oldBytes = oldSegment.getPackedBytes();
 
-						for (int i = 0; i < newBytes.length; i++) {
-							newBytes[i].setHistoryKnown(true);
+						for (int i = 0; i < newBytes.length(); i++) {
+							byte flags = (byte) (newBytes.getFlags(i) | MemoryByte.HISTORY_KNOWN);
+							boolean newReadable = newBytes.hasFlags(i, MemoryByte.READABLE);
+							boolean oldReadable = oldBytes.hasFlags(i, MemoryByte.READABLE);
 
-							if (newBytes[i].isReadable() != oldBytes[i].isReadable()) {
-								newBytes[i].setChanged(true);
-								continue;
-							}
-
-							if (newBytes[i].isReadable() && oldBytes[i].isReadable() && (newBytes[i].getValue() != oldBytes[i].getValue())) {
-								newBytes[i].setChanged(true);
+							if (newReadable != oldReadable || newReadable && newBytes.getValue(i) != oldBytes.getValue(i)) {
+								flags |= MemoryByte.CHANGED;
 							}
+							newBytes.setFlags(i, flags);
 						}
 					}
 				}
@@ -257,7 +256,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
+		PackedMemoryBytes bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[0]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -294,7 +293,7 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 			}
 		}
 
-		MemoryByte[] bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
+		PackedMemoryBytes bytes = convertSegmentsToBytes(segments.toArray(new MemorySegment[segments.size()]));
 
 		int bytesPerLine = rendering.getBytesPerLine();
 		int numAddressableUnitPerLine = rendering.getAddressableUnitPerLine();
@@ -317,22 +316,20 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 		add(newSegments);
 	}
 
-	private MemoryByte[] convertSegmentsToBytes(MemorySegment[] segments) {
-		ArrayList<MemoryByte> toReturn = new ArrayList<>();
-		for (MemorySegment segment : segments) {
-			MemoryByte[] temp = segment.getBytes();
-			Collections.addAll(toReturn, temp);
+	private PackedMemoryBytes convertSegmentsToBytes(MemorySegment[] segments) {
+		PackedMemoryBytes[] parts = new PackedMemoryBytes[segments.length];
+		for (int i = 0; i < segments.length; i++) {
+			parts[i] = segments[i].getPackedBytes();
 		}
-		return toReturn.toArray(new MemoryByte[0]);
+		return PackedMemoryBytes.concat(parts);
 	}
 
-	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, MemoryByte[] bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
+	private MemorySegment[] convertMemoryBytesToSegments(BigInteger address, PackedMemoryBytes bytes, int bytesPerLine, int numAddressableUnitPerLine, int addressableSize, boolean alignAddress) {
 
 		Assert.isTrue(bytesPerLine > 0);
 		Assert.isTrue(numAddressableUnitPerLine > 0);
 
 		ArrayList<MemorySegment> segments = new ArrayList<>();
-		MemoryByte[] temp = bytes;
 
 		if (alignAddress) {
 			BigInteger alignedAddress = MemoryViewUtil.alignToBoundary(address, numAddressableUnitPerLine);
@@ -347,41 +344,21 @@ public class TableRenderingModel extends AbstractVirtualContentTableModel implem
 				if (tempAddress.compareTo(BigInteger.ZERO) >= 0) {
 					address = alignedAddress;
 					int numBytesNeeded = unitsToSetBack.intValue() * addressableSize;
-					temp = new MemoryByte[bytes.length + numBytesNeeded];
-
-					for (int i = 0; i < numBytesNeeded; i++) {
-						temp[i] = new MemoryByte();
-						temp[i].setReadable(false);
-						temp[i].setWritable(false);
-						temp[i].setEndianessKnown(false);
-					}
-
-					System.arraycopy(bytes, 0, temp, numBytesNeeded, bytes.length);
+					PackedMemoryBytes temp = new PackedMemoryBytes(bytes.length() + numBytesNeeded);
+					bytes.copyTo(0, temp, numBytesNeeded, bytes.length());
 					bytes = temp;
 				}
 			}
 		}
 
-		if (bytes.length % bytesPerLine != 0) {
-			int numBytesNeeded = bytesPerLine - (bytes.length % bytesPerLine);
-			temp = new MemoryByte[bytes.length + numBytesNeeded];
-			System.arraycopy(bytes, 0, temp, 0, bytes.length);
-
-			for (int i = bytes.length; i < temp.length; i++) {
-				temp[i] = new MemoryByte();
-				temp[i].setReadable(false);
-				temp[i].setWritable(false);
-				temp[i].setEndianessKnown(false);
-			}
-			bytes = temp;
+		if (bytes.length() % bytesPerLine != 0) {
+			int numBytesNeeded = bytesPerLine - (bytes.length() % bytesPerLine);
+			bytes = bytes.copyOf(bytes.length() + numBytesNeeded);
 		}
 
 		int idx = 0;
-		while (idx < bytes.length && (idx + bytesPerLine) <= bytes.length) {
-			MemoryByte[] newBytes = new MemoryByte[bytesPerLine];
-			System.arraycopy(bytes, idx, newBytes, 0, bytesPerLine);
-
-			MemorySegment segment = new MemorySegment(address, newBytes, numAddressableUnitPerLine);
+		while (idx < bytes.length() && (idx + bytesPerLine) <= bytes.length()) {
+			MemorySegment segment = new MemorySegment(address, bytes.range(idx, bytesPerLine), numAddressableUnitPerLine);
 			segments.add(segment);
 
 			address = address.add(BigInteger.valueOf(numAddressableUnitPerLine));
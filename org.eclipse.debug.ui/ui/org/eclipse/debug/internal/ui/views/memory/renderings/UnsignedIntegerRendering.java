@@ -49,8 +49,7 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 			result = RenderingsUtil.convertByteArrayToLong(byteArray, endianess);
 			break;
 		case 8:
-			BigInteger value = RenderingsUtil.convertByteArrayToUnsignedLong(byteArray, endianess);
-			return value.toString();
+			return Long.toUnsignedString(RenderingsUtil.convertByteArrayToLong(byteArray, endianess));
 		case 16:
 		{
 			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess);
@@ -58,6 +57,12 @@ public class UnsignedIntegerRendering extends AbstractIntegerRendering {
 		}
 		default:
 		{
+			if (columnSize < 8 && byteArray.length == columnSize)
+			{
+				// fits in a long, padded with zeros by the conversion
+				result = RenderingsUtil.convertByteArrayToLong(byteArray, endianess);
+				break;
+			}
 			BigInteger bigRet = RenderingsUtil.convertByteArrayToUnsignedBigInt(byteArray, endianess, columnSize);
 			return bigRet.toString();
 		}
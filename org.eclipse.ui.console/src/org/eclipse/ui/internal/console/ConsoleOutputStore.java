@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.console;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thread safe, append optimized store for console output.
+ * <p>
+ * Content is kept in fixed size chunks so appending never copies content
+ * which is already stored. For every appended range the source, usually the
+ * output stream, is remembered. Offsets are absolute, i.e. they count all
+ * characters ever appended and are not changed if the start of the content is
+ * discarded by {@link #trim(long)} or {@link #clear()}.
+ * </p>
+ * <p>
+ * All methods are synchronized on the store.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class ConsoleOutputStore {
+
+	/** Number of characters per chunk. */
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * A range of content appended from one source.
+	 */
+	public static final class Run {
+		private final Object source;
+		private final long offset;
+		private long length;
+
+		Run(Object source, long offset, long length) {
+			this.source = source;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * @return the source which appended the content of this run
+		 */
+		public Object getSource() {
+			return source;
+		}
+
+		/**
+		 * @return absolute offset of this run
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * @return length of this run
+		 */
+		public long getLength() {
+			return length;
+		}
+	}
+
+	/** The content chunks. The first chunk starts at {@link #chunkBase}. */
+	private final ArrayList<char[]> chunks = new ArrayList<>();
+	/** Absolute offset of the first character in the first chunk. */
+	private long chunkBase;
+	/** Absolute offset of the first retained character. */
+	private long start;
+	/** Absolute offset after the last appended character. */
+	private long end;
+	/** Runs of retained content ordered by offset. */
+	private final ArrayList<Run> runs = new ArrayList<>();
+	/** Index of the first retained run in {@link #runs}. */
+	private int firstRun;
+
+	/**
+	 * Appends text to the store.
+	 *
+	 * @param source the source of the text, e.g. the output stream
+	 * @param text   the text to append
+	 */
+	public synchronized void append(Object source, CharSequence text) {
+		int length = text.length();
+		if (length == 0) {
+			return;
+		}
+		Run last = runs.size() > firstRun ? runs.get(runs.size() - 1) : null;
+		if (last != null && last.source == source && last.offset + last.length == end) {
+			last.length += length;
+		} else {
+			runs.add(new Run(source, end, length));
+		}
+		int copied = 0;
+		while (copied < length) {
+			int chunkOffset = (int) ((end - chunkBase) % CHUNK_SIZE);
+			if (chunkOffset == 0 && end - chunkBase == (long) chunks.size() * CHUNK_SIZE) {
+				chunks.add(new char[CHUNK_SIZE]);
+			}
+			char[] chunk = chunks.get(chunks.size() - 1);
+			int count = Math.min(length - copied, CHUNK_SIZE - chunkOffset);
+			copy(text, copied, chunk, chunkOffset, count);
+			copied += count;
+			end += count;
+		}
+	}
+
+	private static void copy(CharSequence text, int offset, char[] chunk, int chunkOffset, int count) {
+		if (text instanceof String) {
+			((String) text).getChars(offset, offset + count, chunk, chunkOffset);
+		} else if (text instanceof StringBuilder) {
+			((StringBuilder) text).getChars(offset, offset + count, chunk, chunkOffset);
+		} else {
+			for (int i = 0; i < count; i++) {
+				chunk[chunkOffset + i] = text.charAt(offset + i);
+			}
+		}
+	}
+
+	/**
+	 * @return absolute offset of the first retained character
+	 */
+	public synchronized long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return absolute offset after the last appended character
+	 */
+	public synchronized long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return number of retained characters
+	 */
+	public synchronized long getLength() {
+		return end - start;
+	}
+
+	/**
+	 * Returns retained content.
+	 *
+	 * @param offset absolute offset of the first character to return
+	 * @param length number of characters to return
+	 * @return the requested content
+	 * @throws IndexOutOfBoundsException if the range is not retained
+	 */
+	public synchronized String get(long offset, int length) {
+		checkRange(offset, length);
+		StringBuilder sb = new StringBuilder(length);
+		getChars(offset, length, sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends retained content to the given builder.
+	 *
+	 * @param offset absolute offset of the first character to append
+	 * @param length number of characters to append
+	 * @param target the builder to append to
+	 * @throws IndexOutOfBoundsException if the range is not retained
+	 */
+	public synchronized void getChars(long offset, int length, StringBuilder target) {
+		checkRange(offset, length);
+		long pos = offset;
+		while (pos < offset + length) {
+			long relative = pos - chunkBase;
+			char[] chunk = chunks.get((int) (relative / CHUNK_SIZE));
+			int chunkOffset = (int) (relative % CHUNK_SIZE);
+			int count = (int) Math.min(offset + length - pos, CHUNK_SIZE - chunkOffset);
+			target.append(chunk, chunkOffset, count);
+			pos += count;
+		}
+	}
+
+	private void checkRange(long offset, long length) {
+		if (offset < start || length < 0 || offset + length > end) {
+			throw new IndexOutOfBoundsException("Range " + offset + '+' + length + " not in " + start + '-' + end); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * Returns the runs in the given range clipped to the range.
+	 *
+	 * @param offset absolute start offset of the range
+	 * @param length length of the range
+	 * @return the runs in the range ordered by offset
+	 * @throws IndexOutOfBoundsException if the range is not retained
+	 */
+	public synchronized List<Run> getRuns(long offset, long length) {
+		checkRange(offset, length);
+		List<Run> result = new ArrayList<>();
+		long rangeEnd = offset + length;
+		for (int i = findRun(offset); i < runs.size(); i++) {
+			Run run = runs.get(i);
+			if (run.offset >= rangeEnd) {
+				break;
+			}
+			long runStart = Math.max(run.offset, offset);
+			long runEnd = Math.min(run.offset + run.length, rangeEnd);
+			if (runEnd > runStart) {
+				result.add(new Run(run.source, runStart, runEnd - runStart));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return index of the retained run containing the offset
+	 */
+	private int findRun(long offset) {
+		int low = firstRun;
+		int high = runs.size() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (runs.get(mid).offset <= offset) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Discards all content before the given offset.
+	 *
+	 * @param offset absolute offset of the first character to retain
+	 */
+	public synchronized void trim(long offset) {
+		if (offset <= start) {
+			return;
+		}
+		start = Math.min(offset, end);
+		int discardChunks = (int) ((start - chunkBase) / CHUNK_SIZE);
+		if (discardChunks > 0) {
+			chunks.subList(0, discardChunks).clear();
+			chunkBase += (long) discardChunks * CHUNK_SIZE;
+		}
+		while (firstRun < runs.size() && runs.get(firstRun).offset + runs.get(firstRun).length <= start) {
+			firstRun++;
+		}
+		if (firstRun > 64 && firstRun > runs.size() / 2) {
+			runs.subList(0, firstRun).clear();
+			firstRun = 0;
+		}
+	}
+
+	/**
+	 * Discards all content.
+	 */
+	public synchronized void clear() {
+		chunks.clear();
+		runs.clear();
+		firstRun = 0;
+		start = end;
+		chunkBase = end;
+	}
+}
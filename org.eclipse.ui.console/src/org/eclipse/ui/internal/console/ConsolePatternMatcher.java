@@ -16,7 +16,6 @@ package org.eclipse.ui.internal.console;
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -27,7 +26,6 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
-import org.eclipse.ui.console.ConsolePlugin;
 import org.eclipse.ui.console.IPatternMatchListener;
 import org.eclipse.ui.console.PatternMatchEvent;
 import org.eclipse.ui.console.TextConsole;
@@ -36,6 +34,11 @@ public class ConsolePatternMatcher implements IDocumentListener {
 
 	private MatchJob fMatchJob;
 
+	/**
+	 * Searches all patterns in a single pass. Only used by the match job.
+	 */
+	private final MultiPatternMatcher fMatcher = new MultiPatternMatcher();
+
 	/**
 	 * Collection of compiled pattern match listeners
 	 */
@@ -62,101 +65,22 @@ public class ConsolePatternMatcher implements IDocumentListener {
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			IDocument doc = fConsole.getDocument();
-			String text = null;
-			int prevBaseOffset = -1;
 			if (doc != null && !monitor.isCanceled()) {
-				int endOfSearch = doc.getLength();
-				int indexOfLastChar = endOfSearch;
-				if (indexOfLastChar > 0) {
-					indexOfLastChar--;
+				CompiledPatternMatchListener[] patterns;
+				synchronized (fPatterns) {
+					patterns = fPatterns.toArray(new CompiledPatternMatchListener[fPatterns.size()]);
 				}
-				int lastLineToSearch = 0;
-				int offsetOfLastLineToSearch = 0;
 				try {
-					lastLineToSearch = doc.getLineOfOffset(indexOfLastChar);
-					offsetOfLastLineToSearch = doc.getLineOffset(lastLineToSearch);
+					fMatcher.match(doc, patterns, monitor, (entry, offset, length) -> {
+						IPatternMatchListener listener = ((CompiledPatternMatchListener) entry).listener;
+						// the matcher continues after reported matches, also
+						// if canceled
+						if (listener != null) {
+							listener.matchFound(new PatternMatchEvent(fConsole, offset, length));
+						}
+					});
 				} catch (BadLocationException e) {
 					// perhaps the buffer was re-set
-					return Status.OK_STATUS;
-				}
-				Object[] patterns = null;
-				synchronized (fPatterns) {
-					patterns = fPatterns.toArray();
-				}
-				for (Object pattern : patterns) {
-					if (monitor.isCanceled()) {
-						break;
-					}
-					CompiledPatternMatchListener notifier = (CompiledPatternMatchListener) pattern;
-					int baseOffset = notifier.end;
-					int lengthToSearch = endOfSearch - baseOffset;
-					if (lengthToSearch > 0) {
-						try {
-							if (prevBaseOffset != baseOffset) {
-								// reuse the text string if possible
-								text = doc.get(baseOffset, lengthToSearch);
-							}
-							if(text == null) {
-								continue;
-							}
-							Matcher reg = notifier.pattern.matcher(text);
-							Matcher quick = null;
-							if (notifier.qualifier != null) {
-								quick = notifier.qualifier.matcher(text);
-							}
-							int startOfNextSearch = 0;
-							int endOfLastMatch = -1;
-							int lineOfLastMatch = -1;
-							while ((startOfNextSearch < lengthToSearch) && !monitor.isCanceled()) {
-								if (quick != null) {
-									if (quick.find(startOfNextSearch)) {
-										// start searching on the beginning
-										// of the line where the potential
-										// match was found, or after the
-										// last match on the same line
-										int matchLine = doc.getLineOfOffset(baseOffset + quick.start());
-										if (lineOfLastMatch == matchLine) {
-											startOfNextSearch = endOfLastMatch;
-										} else {
-											startOfNextSearch = doc.getLineOffset(matchLine) - baseOffset;
-										}
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-								if (startOfNextSearch < 0) {
-									startOfNextSearch = 0;
-								}
-								if (startOfNextSearch < lengthToSearch) {
-									if (reg.find(startOfNextSearch)) {
-										endOfLastMatch = reg.end();
-										lineOfLastMatch = doc.getLineOfOffset(baseOffset + endOfLastMatch - 1);
-										int regStart = reg.start();
-										IPatternMatchListener listener = notifier.listener;
-										if (listener != null && !monitor.isCanceled()) {
-											listener.matchFound(new PatternMatchEvent(fConsole, baseOffset + regStart, endOfLastMatch - regStart));
-										}
-										startOfNextSearch = endOfLastMatch;
-									} else {
-										startOfNextSearch = lengthToSearch;
-									}
-								}
-							}
-							// update start of next search to the last line
-							// searched
-							// or the end of the last match if it was on the
-							// line that
-							// was last searched
-							if (lastLineToSearch == lineOfLastMatch) {
-								notifier.end = baseOffset + endOfLastMatch;
-							} else {
-								notifier.end = offsetOfLastLineToSearch;
-							}
-						} catch (BadLocationException e) {
-							ConsolePlugin.log(e);
-						}
-					}
-					prevBaseOffset = baseOffset;
 				}
 			}
 
@@ -179,25 +103,17 @@ public class ConsolePatternMatcher implements IDocumentListener {
 
 	}
 
-	private class CompiledPatternMatchListener {
-		Pattern pattern;
-
-		Pattern qualifier;
+	private static class CompiledPatternMatchListener extends MultiPatternMatcher.Entry {
 
 		IPatternMatchListener listener;
 
-		int end = 0;
-
 		CompiledPatternMatchListener(Pattern pattern, Pattern qualifier, IPatternMatchListener matchListener) {
-			this.pattern = pattern;
+			super(pattern, qualifier);
 			this.listener = matchListener;
-			this.qualifier = qualifier;
 		}
 
 		public void dispose() {
 			listener.disconnect();
-			pattern = null;
-			qualifier = null;
 			listener = null;
 		}
 	}
@@ -274,13 +190,13 @@ public class ConsolePatternMatcher implements IDocumentListener {
 				if (event.fDocument.getLength() == 0) {
 					// document has been cleared, reset match listeners
 					for (CompiledPatternMatchListener notifier : fPatterns) {
-						notifier.end = 0;
+						notifier.setEnd(0);
 					}
 				} else {
 					if (event.fOffset == 0) {
 						//document was trimmed
 						for (CompiledPatternMatchListener notifier : fPatterns) {
-							notifier.end = notifier.end > event.fLength ? notifier.end - event.fLength : 0;
+							notifier.setEnd(notifier.getEnd() > event.fLength ? notifier.getEnd() - event.fLength : 0);
 						}
 					}
 				}
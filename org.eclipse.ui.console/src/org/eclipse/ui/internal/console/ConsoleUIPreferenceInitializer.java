@@ -29,6 +29,7 @@ public class ConsoleUIPreferenceInitializer extends AbstractPreferenceInitialize
 		IPreferenceStore prefs = ConsolePlugin.getDefault().getPreferenceStore();
 		prefs.setDefault(IConsoleConstants.P_CONSOLE_AUTO_SCROLL_LOCK, true);
 		prefs.setDefault(IConsoleConstants.P_CONSOLE_WORD_WRAP, false);
+		prefs.setDefault(IInternalConsoleConstants.P_CONSOLE_DEFERRED_RENDERING, false);
 	}
 
 }
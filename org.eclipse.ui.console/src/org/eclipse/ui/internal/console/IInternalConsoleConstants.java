@@ -14,8 +14,19 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.console;
 
+import org.eclipse.ui.console.ConsolePlugin;
+
 public interface IInternalConsoleConstants {
 
+	/**
+	 * Preference whether new IO consoles queue their output in a compact store
+	 * and add it to the document in bounded steps.
+	 *
+	 * @see IOConsolePartitioner#setDeferredRendering(boolean)
+	 * @since 3.10
+	 */
+	String P_CONSOLE_DEFERRED_RENDERING = ConsolePlugin.getUniqueIdentifier() + ".P_CONSOLE_DEFERRED_RENDERING"; //$NON-NLS-1$
+
 	// tool images
 	String IMG_LCL_PIN = "IMG_LCL_PIN"; //$NON-NLS-1$
 	String IMG_LCL_LOCK = "IMG_LCL_LOCK"; //$NON-NLS-1$
@@ -105,6 +105,12 @@ public class IOConsolePartitioner
 	 */
 	private static final String CONTROL_CHARACTERS_WITH_CR_PATTERN_STR = "(?:\b+|\u0000+|\u000b+|\f+|\r+(?!\n))"; //$NON-NLS-1$
 
+	/**
+	 * Maximal number of characters added to document with deferred rendering
+	 * in one run of the {@link QueueProcessingJob}.
+	 */
+	private static final int MAX_MATERIALIZE_SIZE = 256 * 1024;
+
 	/** The connected {@link IDocument} this partitioner manages. */
 	private IDocument document;
 	/**
@@ -117,6 +123,17 @@ public class IOConsolePartitioner
 	private final ArrayList<PendingPartition> pendingPartitions = new ArrayList<>();
 	/** Total length of pending partitions content. */
 	private int pendingSize;
+	/**
+	 * Console output not yet added to the document if deferred rendering is
+	 * enabled, otherwise <code>null</code>. Output is added to the document in
+	 * bounded steps and discarded from this store once added.
+	 */
+	private volatile ConsoleOutputStore outputStore;
+	/**
+	 * Offset in {@link #outputStore} up to which output was added to the
+	 * document.
+	 */
+	private volatile long materializedOffset;
 	/** Job that appends pending partitions to the document. */
 	private final QueueProcessingJob queueJob = new QueueProcessingJob();
 	/** Job that trims console content if it exceeds {@link #highWaterMark}. */
@@ -186,6 +203,10 @@ public class IOConsolePartitioner
 		this.console = Objects.requireNonNull(console);
 		queueJob.setRule(console.getSchedulingRule());
 		trimJob.setRule(console.getSchedulingRule());
+		final ConsolePlugin plugin = ConsolePlugin.getDefault();
+		if (plugin != null && plugin.getPreferenceStore().getBoolean(IInternalConsoleConstants.P_CONSOLE_DEFERRED_RENDERING)) {
+			outputStore = new ConsoleOutputStore();
+		}
 	}
 
 	/**
@@ -217,6 +238,7 @@ public class IOConsolePartitioner
 		synchronized (pendingPartitions) {
 			pendingPartitions.clear();
 			pendingSize = 0;
+			clearOutputStore();
 			pendingPartitions.notifyAll();
 		}
 		synchronized (partitions) {
@@ -285,7 +307,7 @@ public class IOConsolePartitioner
 			// check if pending data is queued
 			final boolean morePending;
 			synchronized (pendingPartitions) {
-				morePending = !pendingPartitions.isEmpty();
+				morePending = !pendingPartitions.isEmpty() || hasUnmaterializedOutput();
 			}
 			if (morePending) {
 				queueJob.schedule();
@@ -445,6 +467,7 @@ public class IOConsolePartitioner
 		synchronized (pendingPartitions) {
 			pendingPartitions.clear();
 			pendingSize = 0;
+			clearOutputStore();
 		}
 		synchronized (partitions) {
 			if (document != null) {
@@ -693,22 +716,34 @@ public class IOConsolePartitioner
 			return;
 		}
 		synchronized (pendingPartitions) {
-			final PendingPartition lastPending = pendingPartitions.size() > 0
-					? pendingPartitions.get(pendingPartitions.size() - 1)
-					: null;
-			if (lastPending != null && lastPending.stream == stream) {
-				lastPending.append(s);
+			final ConsoleOutputStore store = outputStore;
+			final long pending;
+			if (store != null) {
+				store.append(stream, s);
+				if (highWaterMark > 0 && store.getLength() > highWaterMark) {
+					// output which would be trimmed from document right away is not added
+					store.trim(store.getEnd() - lowWaterMark);
+				}
+				pending = store.getLength();
 			} else {
-				pendingPartitions.add(new PendingPartition(stream, s));
+				final PendingPartition lastPending = pendingPartitions.size() > 0
+						? pendingPartitions.get(pendingPartitions.size() - 1)
+						: null;
+				if (lastPending != null && lastPending.stream == stream) {
+					lastPending.append(s);
+				} else {
+					pendingPartitions.add(new PendingPartition(stream, s));
+				}
+				pending = pendingSize;
 			}
 
-			if (pendingSize > 1000) {
+			if (pending > 1000) {
 				queueJob.schedule();
 			} else {
 				queueJob.schedule(50);
 			}
 
-			if (pendingSize > 160000) {
+			if (pending > 160000) {
 				if (Display.getCurrent() == null) {
 					try {
 						// Block thread to give UI time to process pending output.
@@ -730,14 +765,24 @@ public class IOConsolePartitioner
 	 * Holds data until updateJob can be run and the document can be updated.
 	 */
 	private class PendingPartition {
-		StringBuilder text = new StringBuilder(8192);
+		StringBuilder text;
 		IOConsoleOutputStream stream;
 
 		PendingPartition(IOConsoleOutputStream stream, String text) {
 			this.stream = stream;
+			this.text = new StringBuilder(8192);
 			append(text);
 		}
 
+		/**
+		 * Create partition for output taken from {@link #outputStore}. Does not
+		 * count to {@link #pendingSize}.
+		 */
+		PendingPartition(IOConsoleOutputStream stream, StringBuilder text) {
+			this.stream = stream;
+			this.text = text;
+		}
+
 		void append(String moreText) {
 			text.append(moreText);
 			pendingSize += moreText.length();
@@ -785,7 +830,7 @@ public class IOConsolePartitioner
 		@Override
 		public boolean shouldRun() {
 			synchronized (pendingPartitions) {
-				final boolean shouldRun = pendingPartitions.size() > 0;
+				final boolean shouldRun = pendingPartitions.size() > 0 || hasUnmaterializedOutput();
 				return shouldRun;
 			}
 		}
@@ -796,19 +841,38 @@ public class IOConsolePartitioner
 		 */
 		private void processPendingPartitions() {
 			final List<PendingPartition> pendingCopy;
-			final int size;
+			int size;
 			synchronized (pendingPartitions) {
 				pendingCopy = new ArrayList<>(pendingPartitions);
 				size = pendingSize;
 				pendingPartitions.clear();
 				pendingSize = 0;
 				pendingPartitions.notifyAll();
+				final ConsoleOutputStore store = outputStore;
+				if (store != null && document != null) {
+					final long from = Math.max(materializedOffset, store.getStart());
+					final long to = Math.min(store.getEnd(), from + MAX_MATERIALIZE_SIZE);
+					if (to > from) {
+						for (ConsoleOutputStore.Run run : store.getRuns(from, to - from)) {
+							final StringBuilder text = new StringBuilder((int) run.getLength());
+							store.getChars(run.getOffset(), (int) run.getLength(), text);
+							pendingCopy.add(new PendingPartition((IOConsoleOutputStream) run.getSource(), text));
+						}
+						size += (int) (to - from);
+					}
+					materializedOffset = to;
+					store.trim(to);
+				}
 			}
 			synchronized (partitions) {
 				if (document != null) {
 					applyStreamOutput(pendingCopy, size);
 				}
 			}
+			if (hasUnmaterializedOutput()) {
+				// remaining output is added in next run to keep UI responsive
+				schedule();
+			}
 			checkFinished();
 			checkBufferSize();
 		}
@@ -1246,6 +1310,89 @@ public class IOConsolePartitioner
 		}
 	}
 
+	/**
+	 * Check if deferred rendering is enabled. With deferred rendering console
+	 * output is queued in a compact {@link #getOutputStore() output store}
+	 * instead of pending partitions and added to the document in bounded steps
+	 * so the UI thread stays responsive. Writers are throttled like without
+	 * deferred rendering if the UI falls behind.
+	 * <p>
+	 * The document still receives all output and not only the part visible in
+	 * the viewers: scrollback, Find, Copy All, pattern matchers and hyperlinks
+	 * all work on the document, and none of them could see output which is
+	 * only kept outside of it.
+	 * </p>
+	 *
+	 * @return <code>true</code> if deferred rendering is enabled
+	 */
+	public boolean isDeferredRendering() {
+		return outputStore != null;
+	}
+
+	/**
+	 * Enable or disable deferred rendering.
+	 *
+	 * @param deferredRendering <code>true</code> to enable deferred rendering
+	 * @see #isDeferredRendering()
+	 */
+	public void setDeferredRendering(boolean deferredRendering) {
+		synchronized (pendingPartitions) {
+			final ConsoleOutputStore store = outputStore;
+			if (deferredRendering == (store != null)) {
+				return;
+			}
+			if (deferredRendering) {
+				outputStore = new ConsoleOutputStore();
+				materializedOffset = 0;
+			} else {
+				// output not yet added to document is queued like regular output
+				outputStore = null;
+				final long from = Math.max(materializedOffset, store.getStart());
+				final long end = store.getEnd();
+				if (end > from) {
+					for (ConsoleOutputStore.Run run : store.getRuns(from, end - from)) {
+						pendingPartitions.add(new PendingPartition((IOConsoleOutputStream) run.getSource(),
+								store.get(run.getOffset(), (int) run.getLength())));
+					}
+					queueJob.schedule();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the console output store if deferred rendering is enabled. It only
+	 * retains the output not yet added to the document.
+	 *
+	 * @return the output store or <code>null</code> if deferred rendering is
+	 *         disabled
+	 * @see #isDeferredRendering()
+	 */
+	public ConsoleOutputStore getOutputStore() {
+		return outputStore;
+	}
+
+	/**
+	 * @return <code>true</code> if deferred rendering is enabled and not all
+	 *         output was added to the document
+	 */
+	private boolean hasUnmaterializedOutput() {
+		final ConsoleOutputStore store = outputStore;
+		return store != null && store.getEnd() > materializedOffset;
+	}
+
+	/**
+	 * Discard all output of the {@link #outputStore} if any. Must be called
+	 * while holding the lock for {@link #pendingPartitions}.
+	 */
+	private void clearOutputStore() {
+		final ConsoleOutputStore store = outputStore;
+		if (store != null) {
+			store.clear();
+			materializedOffset = store.getEnd();
+		}
+	}
+
 	@Override
 	public boolean isReadOnly(int offset) {
 		final IOConsolePartition partition = getIOPartition(offset);
@@ -0,0 +1,625 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.console;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+
+/**
+ * Searches the patterns of several pattern match listeners in newly appended
+ * document content in a single pass.
+ * <p>
+ * The content not yet searched by any entry is fetched once and its line
+ * structure is computed once for all entries. Entries with a line qualifier
+ * are processed line by line: every line is first tested against the cheap
+ * qualifiers and the pattern of an entry is only applied starting at lines
+ * qualified for it. Entries without qualifier search the whole content.
+ * </p>
+ * <p>
+ * Most qualifiers contain a literal every qualified line must contain. These
+ * literals are searched for all entries at once with an Aho-Corasick automaton
+ * so the regular expression of a qualifier is only evaluated on lines
+ * containing its literal.
+ * </p>
+ * <p>
+ * Each entry remembers where its next search starts. A search stops at the
+ * start of the last line so the last (possibly incomplete) line is searched
+ * again once more content is appended.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @since 3.10
+ */
+public class MultiPatternMatcher {
+
+	/**
+	 * Receives the matches found by {@link MultiPatternMatcher#match}.
+	 */
+	public interface MatchCollector {
+
+		/**
+		 * Notification of a match.
+		 *
+		 * @param entry the entry whose pattern matched
+		 * @param offset document offset of the match
+		 * @param length length of the match
+		 */
+		void matchFound(Entry entry, int offset, int length);
+	}
+
+	/**
+	 * A pattern with optional line qualifier and its search state.
+	 */
+	public static class Entry {
+
+		private final Pattern fPattern;
+
+		private final Pattern fQualifier;
+
+		/**
+		 * Literal contained in every match of the qualifier or
+		 * <code>null</code>.
+		 */
+		private final String fQualifierLiteral;
+
+		/**
+		 * Document offset where the next search starts.
+		 */
+		private volatile int fEnd;
+
+		// state of the current search
+		private Matcher fMatcher;
+		private Matcher fQualifierMatcher;
+		/** offset of the text searched by fMatcher in the shared text */
+		private int fDelta;
+		/** start of the next search in the shared text */
+		private int fNext;
+		private int fEndOfLastMatch;
+		private int fLineOfLastMatch;
+		private boolean fActive;
+		private boolean fSearched;
+		/** whether the current line contains the qualifier literal */
+		private boolean fLiteralFound;
+
+		/**
+		 * Creates an entry.
+		 *
+		 * @param pattern the pattern to search
+		 * @param qualifier pattern identifying lines that may contain a match
+		 *            or <code>null</code>
+		 */
+		public Entry(Pattern pattern, Pattern qualifier) {
+			fPattern = pattern;
+			fQualifier = qualifier;
+			fQualifierLiteral = qualifier == null ? null : getRequiredLiteral(qualifier);
+		}
+
+		/**
+		 * @return the pattern to search
+		 */
+		public Pattern getPattern() {
+			return fPattern;
+		}
+
+		/**
+		 * @return the line qualifier or <code>null</code>
+		 */
+		public Pattern getQualifier() {
+			return fQualifier;
+		}
+
+		/**
+		 * @return document offset where the next search starts
+		 */
+		public int getEnd() {
+			return fEnd;
+		}
+
+		/**
+		 * @param end document offset where the next search starts
+		 */
+		public void setEnd(int end) {
+			fEnd = end;
+		}
+	}
+
+	/**
+	 * Start offsets of the lines of the last searched text. Reused between
+	 * searches.
+	 */
+	private int[] fLineStarts = new int[64];
+
+	private int fLineCount;
+
+	/**
+	 * Automaton for the qualifier literals of {@link #fIndexedEntries}.
+	 */
+	private LiteralAutomaton fAutomaton;
+
+	private Entry[] fIndexedEntries;
+
+	/**
+	 * Searches the document content after the end of every entry and
+	 * reports all matches to the collector. Matches of one entry are reported
+	 * in document order.
+	 *
+	 * @param document the document to search
+	 * @param entries the entries to search
+	 * @param monitor monitor checked for cancellation
+	 * @param collector receives the matches
+	 * @return <code>false</code> if the search was canceled. The end of the
+	 *         entries is then advanced to the lines searched completely and
+	 *         behind the matches already reported.
+	 * @throws BadLocationException if the document was changed concurrently
+	 */
+	public boolean match(IDocument document, Entry[] entries, IProgressMonitor monitor, MatchCollector collector) throws BadLocationException {
+		int length = document.getLength();
+		int base = length;
+		for (Entry entry : entries) {
+			base = Math.min(base, entry.fEnd);
+		}
+		if (base >= length) {
+			return true;
+		}
+		int offsetOfLastLine = document.getLineOffset(document.getLineOfOffset(length - 1));
+		String text = document.get(base, length - base);
+		computeLineStarts(text);
+		int lastLine = getLineOfOffset(text.length() - 1);
+
+		boolean qualified = false;
+		for (Entry entry : entries) {
+			int start = entry.fEnd - base;
+			entry.fActive = start < text.length();
+			entry.fSearched = entry.fActive;
+			if (!entry.fActive) {
+				continue;
+			}
+			// entries behind the shared start search their own text like
+			// before to keep anchors and look-behinds unchanged
+			CharSequence entryText = start == 0 ? text : text.substring(start);
+			entry.fMatcher = entry.fMatcher == null ? entry.fPattern.matcher(entryText) : entry.fMatcher.reset(entryText);
+			entry.fDelta = start;
+			entry.fNext = start;
+			entry.fEndOfLastMatch = -1;
+			entry.fLineOfLastMatch = -1;
+			entry.fLiteralFound = false;
+			if (entry.fQualifier != null) {
+				entry.fQualifierMatcher = entry.fQualifierMatcher == null ? entry.fQualifier.matcher(text) : entry.fQualifierMatcher.reset(text);
+				entry.fQualifierMatcher.useAnchoringBounds(false);
+				entry.fQualifierMatcher.useTransparentBounds(true);
+				qualified = true;
+			}
+		}
+
+		if (qualified) {
+			int line = matchQualified(text, base, entries, monitor, collector);
+			if (line < fLineCount) {
+				// entries without qualifier were not searched yet
+				for (Entry entry : entries) {
+					if (entry.fSearched && entry.fQualifier != null) {
+						setCanceledEnd(entry, base, fLineStarts[line]);
+					}
+				}
+				return false;
+			}
+		}
+		for (Entry entry : entries) {
+			if (entry.fActive && entry.fQualifier == null) {
+				while (entry.fActive) {
+					if (monitor.isCanceled()) {
+						for (Entry searched : entries) {
+							if (searched.fActive) {
+								setCanceledEnd(searched, base, fLineStarts[getLineOfOffset(Math.min(searched.fNext, text.length() - 1))]);
+							} else if (searched.fSearched) {
+								setEnd(searched, base, lastLine, offsetOfLastLine);
+							}
+						}
+						return false;
+					}
+					find(entry, entry.fNext, base, collector);
+				}
+			}
+		}
+
+		for (Entry entry : entries) {
+			if (entry.fSearched) {
+				setEnd(entry, base, lastLine, offsetOfLastLine);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the end of an entry which searched all of the text. The last line
+	 * is searched again since it may be incomplete.
+	 */
+	private static void setEnd(Entry entry, int base, int lastLine, int offsetOfLastLine) {
+		if (entry.fLineOfLastMatch == lastLine) {
+			entry.fEnd = base + entry.fEndOfLastMatch;
+		} else {
+			entry.fEnd = offsetOfLastLine;
+		}
+	}
+
+	/**
+	 * Sets the end of an entry whose search was canceled, so the next search
+	 * neither reports its matches again nor skips lines not searched
+	 * completely.
+	 *
+	 * @param processed offset in the shared text before which all lines were
+	 *            searched completely
+	 */
+	private static void setCanceledEnd(Entry entry, int base, int processed) {
+		int end = Math.max(entry.fDelta, processed);
+		if (entry.fEndOfLastMatch >= 0) {
+			end = Math.max(end, entry.fEndOfLastMatch);
+		}
+		entry.fEnd = base + end;
+	}
+
+	/**
+	 * Processes all entries with line qualifier line by line.
+	 *
+	 * @return the line at which the search was canceled, or the number of
+	 *         lines if all lines were processed
+	 */
+	private int matchQualified(String text, int base, Entry[] entries, IProgressMonitor monitor, MatchCollector collector) {
+		if (!Arrays.equals(entries, fIndexedEntries)) {
+			fAutomaton = new LiteralAutomaton(entries);
+			fIndexedEntries = entries.clone();
+		}
+		for (int line = 0; line < fLineCount; line++) {
+			if (monitor.isCanceled()) {
+				return line;
+			}
+			int lineStart = fLineStarts[line];
+			int lineEnd = line + 1 < fLineCount ? fLineStarts[line + 1] : text.length();
+			fAutomaton.scan(text, lineStart, lineEnd);
+			for (Entry entry : entries) {
+				if (entry.fQualifier == null) {
+					continue;
+				}
+				if (entry.fQualifierLiteral != null) {
+					if (!entry.fLiteralFound) {
+						continue;
+					}
+					entry.fLiteralFound = false;
+				}
+				while (entry.fActive && entry.fNext < lineEnd) {
+					Matcher quick = entry.fQualifierMatcher;
+					quick.region(Math.max(entry.fNext, lineStart), lineEnd);
+					if (!quick.find()) {
+						break;
+					}
+					// start searching at the beginning of the line where the
+					// potential match was found, or after the last match on
+					// the same line
+					int start = entry.fLineOfLastMatch == line ? entry.fEndOfLastMatch : lineStart;
+					find(entry, Math.max(start, entry.fDelta), base, collector);
+				}
+			}
+		}
+		for (Entry entry : entries) {
+			if (entry.fQualifier != null) {
+				entry.fActive = false;
+			}
+		}
+		return fLineCount;
+	}
+
+	/**
+	 * Searches the next match of the entry starting at the given offset in
+	 * the shared text and reports it. Deactivates the entry if there is no
+	 * further match.
+	 */
+	private void find(Entry entry, int start, int base, MatchCollector collector) {
+		Matcher matcher = entry.fMatcher;
+		if (!matcher.find(start - entry.fDelta)) {
+			entry.fActive = false;
+			return;
+		}
+		int matchStart = matcher.start() + entry.fDelta;
+		int matchEnd = matcher.end() + entry.fDelta;
+		entry.fEndOfLastMatch = matchEnd;
+		entry.fLineOfLastMatch = getLineOfOffset(Math.max(0, matchEnd - 1));
+		// never search the same position twice for empty matches
+		entry.fNext = matchEnd > matchStart ? matchEnd : matchEnd + 1;
+		if (entry.fNext > matcher.regionEnd() + entry.fDelta) {
+			entry.fActive = false;
+		}
+		collector.matchFound(entry, base + matchStart, matchEnd - matchStart);
+	}
+
+	/**
+	 * Computes the start offsets of all lines in the given text. Lines are
+	 * terminated by <code>\n</code>, <code>\r</code> or <code>\r\n</code>
+	 * like in a default document.
+	 */
+	private void computeLineStarts(String text) {
+		fLineCount = 0;
+		addLineStart(0);
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || (c == '\r' && (i + 1 == length || text.charAt(i + 1) != '\n'))) {
+				if (i + 1 < length) {
+					addLineStart(i + 1);
+				}
+			}
+		}
+	}
+
+	private void addLineStart(int offset) {
+		if (fLineCount == fLineStarts.length) {
+			fLineStarts = Arrays.copyOf(fLineStarts, fLineCount * 2);
+		}
+		fLineStarts[fLineCount++] = offset;
+	}
+
+	/**
+	 * @param offset offset in the last searched text
+	 * @return index of the line containing the offset
+	 */
+	private int getLineOfOffset(int offset) {
+		int index = Arrays.binarySearch(fLineStarts, 0, fLineCount, offset);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Returns the longest literal every match of the given pattern contains.
+	 * Only patterns without groups and alternatives are analyzed.
+	 *
+	 * @param pattern a compiled pattern
+	 * @return the literal or <code>null</code> if none was found
+	 */
+	static String getRequiredLiteral(Pattern pattern) {
+		String regex = pattern.pattern();
+		int flags = pattern.flags();
+		if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0) {
+			return null;
+		}
+		if ((flags & Pattern.LITERAL) != 0) {
+			return regex.isEmpty() || regex.indexOf('\n') >= 0 || regex.indexOf('\r') >= 0 ? null : regex;
+		}
+		String longest = null;
+		StringBuilder run = new StringBuilder();
+		int length = regex.length();
+		int i = 0;
+		while (i < length) {
+			char c = regex.charAt(i);
+			int literal = -1;
+			if (c == '\\') {
+				if (i + 1 >= length) {
+					return null;
+				}
+				char escaped = regex.charAt(i + 1);
+				if (Character.isLetterOrDigit(escaped)) {
+					// character class, boundary, back reference or quoting
+					if (escaped == 'Q' || Character.isDigit(escaped) || escaped == 'k') {
+						return null;
+					}
+					i += 2;
+					if (escaped == 'p' || escaped == 'P' || escaped == 'x' || escaped == 'u' || escaped == 'c' || escaped == 'N') {
+						// escapes with arguments are not analyzed
+						return null;
+					}
+				} else {
+					literal = escaped;
+					i += 2;
+				}
+			} else if (c == '(' || c == ')' || c == '|') {
+				return null;
+			} else if (c == '[') {
+				int end = skipCharacterClass(regex, i);
+				if (end < 0) {
+					return null;
+				}
+				i = end;
+			} else if (c == '.' || c == '^' || c == '$') {
+				i++;
+			} else if (c == '*' || c == '+' || c == '?' || c == '{') {
+				// dangling quantifier
+				return null;
+			} else {
+				literal = c;
+				i++;
+			}
+			// quantifier of the atom
+			boolean optional = false;
+			boolean repeated = false;
+			if (i < length) {
+				char q = regex.charAt(i);
+				if (q == '*' || q == '?') {
+					optional = true;
+					i++;
+				} else if (q == '+') {
+					repeated = true;
+					i++;
+				} else if (q == '{') {
+					int end = regex.indexOf('}', i);
+					if (end < 0) {
+						return null;
+					}
+					optional = i + 1 < end && regex.charAt(i + 1) == '0';
+					repeated = true;
+					i = end + 1;
+				}
+				if (i < length && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+					// reluctant or possessive quantifier
+					i++;
+				}
+			}
+			if (literal >= 0 && literal != '\n' && literal != '\r' && !optional) {
+				run.append((char) literal);
+			}
+			if (literal < 0 || optional || repeated || literal == '\n' || literal == '\r') {
+				longest = longer(longest, run);
+				run.setLength(0);
+			}
+		}
+		return longer(longest, run);
+	}
+
+	private static String longer(String longest, StringBuilder run) {
+		if (run.length() > 0 && (longest == null || run.length() > longest.length())) {
+			return run.toString();
+		}
+		return longest;
+	}
+
+	/**
+	 * @return index after the character class starting at the given index or
+	 *         <code>-1</code> if the class is not terminated or nested
+	 */
+	private static int skipCharacterClass(String regex, int start) {
+		int i = start + 1;
+		if (i < regex.length() && regex.charAt(i) == '^') {
+			i++;
+		}
+		if (i < regex.length() && regex.charAt(i) == ']') {
+			i++;
+		}
+		while (i < regex.length()) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i += 2;
+			} else if (c == '[') {
+				return -1;
+			} else if (c == ']') {
+				return i + 1;
+			} else {
+				i++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Aho-Corasick automaton finding the qualifier literals of all entries in
+	 * a single pass over a line.
+	 */
+	private static final class LiteralAutomaton {
+
+		/** ids of the characters used in literals, 0 for all other chars */
+		private final Map<Character, Integer> fCharIds = new HashMap<>();
+		private final int[] fAsciiIds = new int[128];
+		/** transitions indexed by state and character id */
+		private int[][] fTransitions;
+		/** entries whose literal ends in a state */
+		private Entry[][] fOutput;
+
+		LiteralAutomaton(Entry[] entries) {
+			List<Map<Integer, Integer>> trie = new ArrayList<>();
+			List<List<Entry>> output = new ArrayList<>();
+			trie.add(new HashMap<>());
+			output.add(new ArrayList<>());
+			for (Entry entry : entries) {
+				String literal = entry.fQualifierLiteral;
+				if (literal == null) {
+					continue;
+				}
+				int state = 0;
+				for (int i = 0; i < literal.length(); i++) {
+					int id = fCharIds.computeIfAbsent(Character.valueOf(literal.charAt(i)), c -> Integer.valueOf(fCharIds.size() + 1)).intValue();
+					Integer next = trie.get(state).get(Integer.valueOf(id));
+					if (next == null) {
+						next = Integer.valueOf(trie.size());
+						trie.get(state).put(Integer.valueOf(id), next);
+						trie.add(new HashMap<>());
+						output.add(new ArrayList<>());
+					}
+					state = next.intValue();
+				}
+				output.get(state).add(entry);
+			}
+			for (Map.Entry<Character, Integer> id : fCharIds.entrySet()) {
+				char c = id.getKey().charValue();
+				if (c < fAsciiIds.length) {
+					fAsciiIds[c] = id.getValue().intValue();
+				}
+			}
+
+			// breadth first construction of the complete transition table
+			int alphabet = fCharIds.size() + 1;
+			fTransitions = new int[trie.size()][alphabet];
+			int[] failure = new int[trie.size()];
+			ArrayDeque<Integer> queue = new ArrayDeque<>();
+			for (int id = 1; id < alphabet; id++) {
+				Integer next = trie.get(0).get(Integer.valueOf(id));
+				if (next != null) {
+					fTransitions[0][id] = next.intValue();
+					queue.add(next);
+				}
+			}
+			while (!queue.isEmpty()) {
+				int state = queue.poll().intValue();
+				output.get(state).addAll(output.get(failure[state]));
+				for (int id = 1; id < alphabet; id++) {
+					Integer next = trie.get(state).get(Integer.valueOf(id));
+					if (next != null) {
+						failure[next.intValue()] = fTransitions[failure[state]][id];
+						fTransitions[state][id] = next.intValue();
+						queue.add(next);
+					} else {
+						fTransitions[state][id] = fTransitions[failure[state]][id];
+					}
+				}
+			}
+			fOutput = new Entry[trie.size()][];
+			for (int state = 0; state < fOutput.length; state++) {
+				List<Entry> found = output.get(state);
+				if (!found.isEmpty()) {
+					fOutput[state] = found.toArray(new Entry[found.size()]);
+				}
+			}
+		}
+
+		/**
+		 * Marks all entries whose literal occurs in the given range.
+		 */
+		void scan(String text, int start, int end) {
+			int state = 0;
+			for (int i = start; i < end; i++) {
+				char c = text.charAt(i);
+				int id;
+				if (c < 128) {
+					id = fAsciiIds[c];
+				} else {
+					Integer value = fCharIds.get(Character.valueOf(c));
+					id = value == null ? 0 : value.intValue();
+				}
+				state = fTransitions[state][id];
+				Entry[] found = fOutput[state];
+				if (found != null) {
+					for (Entry entry : found) {
+						entry.fLiteralFound = true;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2021 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.externaltools.internal.variables;
+
+import java.io.File;
+
+import org.eclipse.core.externaltools.internal.IExternalToolConstants;
+import org.eclipse.core.externaltools.internal.model.ExternalToolBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.variables.IDynamicVariable;
+import org.eclipse.core.variables.IDynamicVariableResolver;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.externaltools.internal.model.ExternalToolsPlugin;
+
+/**
+ * Resolves the location of the manifest of the files changed since the last
+ * build, written by external tool builders configured with
+ * {@link IExternalToolConstants#ATTR_BUILD_MANIFEST}.
+ */
+public class BuildManifestResolver implements IDynamicVariableResolver {
+
+	@Override
+	public String resolveValue(IDynamicVariable variable, String argument) throws CoreException {
+		File manifest = ExternalToolBuilder.getBuildManifest();
+		if (manifest == null) {
+			throw new CoreException(new Status(IStatus.ERROR, ExternalToolsPlugin.PLUGIN_ID, IExternalToolConstants.ERR_INTERNAL_ERROR, NLS.bind(VariableMessages.BuildManifestResolver_0, "${" + variable.getName() + '}'), null)); //$NON-NLS-1$
+		}
+		return manifest.getAbsolutePath();
+	}
+}
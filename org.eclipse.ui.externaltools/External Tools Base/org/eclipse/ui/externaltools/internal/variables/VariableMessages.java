@@ -19,6 +19,7 @@ public class VariableMessages extends NLS {
 	private static final String BUNDLE_NAME = "org.eclipse.ui.externaltools.internal.variables.VariableMessages";//$NON-NLS-1$
 
 	public static String BuildProjectResolver_3;
+	public static String BuildManifestResolver_0;
 	public static String SystemPathResolver_0;
 
 	static {